@@ -0,0 +1,19 @@
+-- Schema created by DatabaseHelper.onCreate at database version 10, one statement per line
+CREATE TABLE hikes (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, location TEXT NOT NULL, date TEXT NOT NULL, date_epoch_day INTEGER NOT NULL DEFAULT 0, parking_available INTEGER NOT NULL DEFAULT 0, length REAL NOT NULL, difficulty INTEGER NOT NULL DEFAULT 0, description TEXT, weather_condition INTEGER NOT NULL DEFAULT 0, estimated_duration TEXT, created_at TEXT DEFAULT CURRENT_TIMESTAMP)
+CREATE TABLE observations (id INTEGER PRIMARY KEY AUTOINCREMENT, hike_id INTEGER NOT NULL, observation TEXT NOT NULL, time TEXT NOT NULL, comments TEXT, latitude REAL, longitude REAL, FOREIGN KEY(hike_id) REFERENCES hikes(id) ON DELETE CASCADE)
+CREATE TABLE track_chunks (id INTEGER PRIMARY KEY AUTOINCREMENT, hike_id INTEGER NOT NULL, point_count INTEGER NOT NULL, data BLOB NOT NULL, FOREIGN KEY(hike_id) REFERENCES hikes(id) ON DELETE CASCADE)
+CREATE TABLE hike_stats (hike_id INTEGER PRIMARY KEY, point_count INTEGER NOT NULL, distance REAL NOT NULL, ascent REAL NOT NULL, descent REAL NOT NULL, moving_time INTEGER NOT NULL, start_time INTEGER, end_time INTEGER, min_elevation REAL, max_elevation REAL, splits TEXT NOT NULL, profile TEXT NOT NULL, reference_elevation REAL, last_point BLOB, FOREIGN KEY(hike_id) REFERENCES hikes(id) ON DELETE CASCADE)
+CREATE INDEX IF NOT EXISTS idx_hikes_date_epoch_day ON hikes(date_epoch_day)
+CREATE INDEX IF NOT EXISTS idx_hikes_name ON hikes(name)
+CREATE INDEX IF NOT EXISTS idx_hikes_location ON hikes(location)
+CREATE INDEX IF NOT EXISTS idx_hikes_length ON hikes(length)
+CREATE INDEX IF NOT EXISTS idx_hikes_difficulty_date ON hikes(difficulty, date_epoch_day)
+CREATE INDEX IF NOT EXISTS idx_observations_hike_time ON observations(hike_id, time)
+CREATE INDEX IF NOT EXISTS idx_track_chunks_hike ON track_chunks(hike_id)
+CREATE VIRTUAL TABLE IF NOT EXISTS hikes_fts USING fts4(name, location, description, observation_text)
+CREATE TRIGGER IF NOT EXISTS trg_hikes_fts_insert AFTER INSERT ON hikes BEGIN INSERT INTO hikes_fts(docid, name, location, description, observation_text) VALUES (NEW.id, NEW.name, NEW.location, NEW.description, ''); END
+CREATE TRIGGER IF NOT EXISTS trg_hikes_fts_update AFTER UPDATE OF name, location, description ON hikes BEGIN UPDATE hikes_fts SET name = NEW.name, location = NEW.location, description = NEW.description WHERE docid = NEW.id; END
+CREATE TRIGGER IF NOT EXISTS trg_hikes_fts_delete AFTER DELETE ON hikes BEGIN DELETE FROM hikes_fts WHERE docid = OLD.id; END
+CREATE TRIGGER IF NOT EXISTS trg_observations_fts_insert AFTER INSERT ON observations BEGIN UPDATE hikes_fts SET observation_text = (SELECT IFNULL(group_concat(observation || ' ' || IFNULL(comments, ''), ' '), '') FROM observations WHERE hike_id = NEW.hike_id) WHERE docid = NEW.hike_id; END
+CREATE TRIGGER IF NOT EXISTS trg_observations_fts_update AFTER UPDATE ON observations BEGIN UPDATE hikes_fts SET observation_text = (SELECT IFNULL(group_concat(observation || ' ' || IFNULL(comments, ''), ' '), '') FROM observations WHERE hike_id = OLD.hike_id) WHERE docid = OLD.hike_id; UPDATE hikes_fts SET observation_text = (SELECT IFNULL(group_concat(observation || ' ' || IFNULL(comments, ''), ' '), '') FROM observations WHERE hike_id = NEW.hike_id) WHERE docid = NEW.hike_id; END
+CREATE TRIGGER IF NOT EXISTS trg_observations_fts_delete AFTER DELETE ON observations BEGIN UPDATE hikes_fts SET observation_text = (SELECT IFNULL(group_concat(observation || ' ' || IFNULL(comments, ''), ' '), '') FROM observations WHERE hike_id = OLD.hike_id) WHERE docid = OLD.hike_id; END
@@ -0,0 +1,3 @@
+-- Schema at database version 2: version 3 plus the since-removed photo_path column, one statement per line
+CREATE TABLE hikes (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, location TEXT NOT NULL, date TEXT NOT NULL, parking_available TEXT NOT NULL, length REAL NOT NULL, difficulty TEXT NOT NULL, description TEXT, weather_condition TEXT, estimated_duration TEXT, created_at TEXT DEFAULT CURRENT_TIMESTAMP, photo_path TEXT)
+CREATE TABLE observations (id INTEGER PRIMARY KEY AUTOINCREMENT, hike_id INTEGER NOT NULL, observation TEXT NOT NULL, time TEXT NOT NULL, comments TEXT, FOREIGN KEY(hike_id) REFERENCES hikes(id) ON DELETE CASCADE)
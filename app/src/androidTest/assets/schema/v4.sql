@@ -0,0 +1,8 @@
+-- Schema created by DatabaseHelper.onCreate at database version 4, one statement per line
+CREATE TABLE hikes (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, location TEXT NOT NULL, date TEXT NOT NULL, parking_available TEXT NOT NULL, length REAL NOT NULL, difficulty TEXT NOT NULL, description TEXT, weather_condition TEXT, estimated_duration TEXT, created_at TEXT DEFAULT CURRENT_TIMESTAMP)
+CREATE TABLE observations (id INTEGER PRIMARY KEY AUTOINCREMENT, hike_id INTEGER NOT NULL, observation TEXT NOT NULL, time TEXT NOT NULL, comments TEXT, FOREIGN KEY(hike_id) REFERENCES hikes(id) ON DELETE CASCADE)
+CREATE INDEX IF NOT EXISTS idx_hikes_date ON hikes(date)
+CREATE INDEX IF NOT EXISTS idx_hikes_name ON hikes(name)
+CREATE INDEX IF NOT EXISTS idx_hikes_location ON hikes(location)
+CREATE INDEX IF NOT EXISTS idx_hikes_length ON hikes(length)
+CREATE INDEX IF NOT EXISTS idx_observations_hike_time ON observations(hike_id, time)
@@ -0,0 +1,15 @@
+-- Schema created by DatabaseHelper.onCreate at database version 5, one statement per line
+CREATE TABLE hikes (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, location TEXT NOT NULL, date TEXT NOT NULL, parking_available TEXT NOT NULL, length REAL NOT NULL, difficulty TEXT NOT NULL, description TEXT, weather_condition TEXT, estimated_duration TEXT, created_at TEXT DEFAULT CURRENT_TIMESTAMP)
+CREATE TABLE observations (id INTEGER PRIMARY KEY AUTOINCREMENT, hike_id INTEGER NOT NULL, observation TEXT NOT NULL, time TEXT NOT NULL, comments TEXT, FOREIGN KEY(hike_id) REFERENCES hikes(id) ON DELETE CASCADE)
+CREATE INDEX IF NOT EXISTS idx_hikes_date ON hikes(date)
+CREATE INDEX IF NOT EXISTS idx_hikes_name ON hikes(name)
+CREATE INDEX IF NOT EXISTS idx_hikes_location ON hikes(location)
+CREATE INDEX IF NOT EXISTS idx_hikes_length ON hikes(length)
+CREATE INDEX IF NOT EXISTS idx_observations_hike_time ON observations(hike_id, time)
+CREATE VIRTUAL TABLE IF NOT EXISTS hikes_fts USING fts4(name, location, description, observation_text)
+CREATE TRIGGER IF NOT EXISTS trg_hikes_fts_insert AFTER INSERT ON hikes BEGIN INSERT INTO hikes_fts(docid, name, location, description, observation_text) VALUES (NEW.id, NEW.name, NEW.location, NEW.description, ''); END
+CREATE TRIGGER IF NOT EXISTS trg_hikes_fts_update AFTER UPDATE OF name, location, description ON hikes BEGIN UPDATE hikes_fts SET name = NEW.name, location = NEW.location, description = NEW.description WHERE docid = NEW.id; END
+CREATE TRIGGER IF NOT EXISTS trg_hikes_fts_delete AFTER DELETE ON hikes BEGIN DELETE FROM hikes_fts WHERE docid = OLD.id; END
+CREATE TRIGGER IF NOT EXISTS trg_observations_fts_insert AFTER INSERT ON observations BEGIN UPDATE hikes_fts SET observation_text = (SELECT IFNULL(group_concat(observation || ' ' || IFNULL(comments, ''), ' '), '') FROM observations WHERE hike_id = NEW.hike_id) WHERE docid = NEW.hike_id; END
+CREATE TRIGGER IF NOT EXISTS trg_observations_fts_update AFTER UPDATE ON observations BEGIN UPDATE hikes_fts SET observation_text = (SELECT IFNULL(group_concat(observation || ' ' || IFNULL(comments, ''), ' '), '') FROM observations WHERE hike_id = OLD.hike_id) WHERE docid = OLD.hike_id; UPDATE hikes_fts SET observation_text = (SELECT IFNULL(group_concat(observation || ' ' || IFNULL(comments, ''), ' '), '') FROM observations WHERE hike_id = NEW.hike_id) WHERE docid = NEW.hike_id; END
+CREATE TRIGGER IF NOT EXISTS trg_observations_fts_delete AFTER DELETE ON observations BEGIN UPDATE hikes_fts SET observation_text = (SELECT IFNULL(group_concat(observation || ' ' || IFNULL(comments, ''), ' '), '') FROM observations WHERE hike_id = OLD.hike_id) WHERE docid = OLD.hike_id; END
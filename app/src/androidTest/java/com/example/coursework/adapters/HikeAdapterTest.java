@@ -0,0 +1,131 @@
+package com.example.coursework.adapters;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursework.R;
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.HikeListItem;
+import com.example.coursework.models.HikeSummary;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Submits hike lists to a laid-out RecyclerView and counts the rows bound
+ * Resubmitting a list with one changed item must rebind only that row.
+ */
+@RunWith(AndroidJUnit4.class)
+public class HikeAdapterTest {
+
+    private static final int HIKES = 5;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 4000;
+
+    private Instrumentation instrumentation;
+    private RecyclerView recyclerView;
+    private CountingHikeAdapter adapter;
+
+    @Before
+    public void setUp() {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        Context context = new ContextThemeWrapper(instrumentation.getTargetContext(), R.style.Theme_Coursework);
+        instrumentation.runOnMainSync(() -> {
+            adapter = new CountingHikeAdapter(context);
+            recyclerView = new RecyclerView(context);
+            recyclerView.setLayoutManager(new LinearLayoutManager(context));
+            // Change animations bind a second holder; without them each change binds once
+            recyclerView.setItemAnimator(null);
+            recyclerView.setAdapter(adapter);
+        });
+    }
+
+    @Test
+    public void resubmitWithOneChangedItem_bindsOnlyThatRow() throws InterruptedException {
+        List<HikeListItem> first = new ArrayList<>();
+        for (int i = 0; i < HIKES; i++) {
+            first.add(item(i + 1, "Hike " + i));
+        }
+        submitAndLayout(first);
+        assertEquals(HIKES, adapter.bindCount);
+        assertEquals(HIKES, recyclerView.getChildCount());
+
+        List<HikeListItem> second = new ArrayList<>(first);
+        second.set(2, item(3, "Renamed hike"));
+        adapter.bindCount = 0;
+        submitAndLayout(second);
+
+        assertEquals(1, adapter.bindCount);
+        assertEquals(2, adapter.lastBoundPosition);
+    }
+
+    @Test
+    public void resubmitEqualItems_bindsNothing() throws InterruptedException {
+        List<HikeListItem> first = new ArrayList<>();
+        List<HikeListItem> copy = new ArrayList<>();
+        for (int i = 0; i < HIKES; i++) {
+            first.add(item(i + 1, "Hike " + i));
+            copy.add(item(i + 1, "Hike " + i));
+        }
+        submitAndLayout(first);
+        adapter.bindCount = 0;
+
+        submitAndLayout(copy);
+
+        assertEquals(0, adapter.bindCount);
+    }
+
+    /**
+     * Submit a list, wait for the background diff to be applied and lay the list out
+     */
+    private void submitAndLayout(List<HikeListItem> items) throws InterruptedException {
+        CountDownLatch committed = new CountDownLatch(1);
+        instrumentation.runOnMainSync(() -> adapter.submitList(items, committed::countDown));
+        assertTrue("List was not committed", committed.await(5, TimeUnit.SECONDS));
+        instrumentation.runOnMainSync(() -> {
+            recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            recyclerView.layout(0, 0, WIDTH, HEIGHT);
+        });
+    }
+
+    private static HikeListItem item(long id, String name) {
+        HikeSummary summary = new HikeSummary(id, name, "Llanberis", "2024-05-12", 19855, 14.5, Difficulty.HARD);
+        return new HikeListItem(summary, "12 May 2024", "14.5 km", "Hard", 0xFFD32F2F);
+    }
+
+    /**
+     * Counts onBindViewHolder calls
+     */
+    private static class CountingHikeAdapter extends HikeAdapter {
+        int bindCount;
+        int lastBoundPosition = -1;
+
+        CountingHikeAdapter(Context context) {
+            super(context, null);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull HikeViewHolder holder, int position) {
+            super.onBindViewHolder(holder, position);
+            bindCount++;
+            lastBoundPosition = position;
+        }
+    }
+}
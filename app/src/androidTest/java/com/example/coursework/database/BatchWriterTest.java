@@ -0,0 +1,208 @@
+package com.example.coursework.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.Observation;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.WeatherCondition;
+import com.example.coursework.utils.Constants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Writes 100k-row batches through the DAO batch methods
+ * A batch commits every row in one transaction, or, if any row fails, rolls back
+ * all of its rows and nothing else.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BatchWriterTest {
+
+    private static final String TAG = "BatchWriterTest";
+    private static final String DATABASE_NAME = "batch-writer-test.db";
+    private static final int ROWS = 100_000;
+    // Floors well under a mid-range device; each observation also rebuilds its hike's search text
+    private static final double MIN_HIKE_ROWS_PER_SECOND = 10_000;
+    private static final double MIN_OBSERVATION_ROWS_PER_SECOND = 2_000;
+
+    private Context context;
+    private DatabaseHelper previousHelper;
+    private DatabaseHelper helper;
+    private HikeDAO hikeDAO;
+    private ObservationDAO observationDAO;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        helper = new DatabaseHelper(context, DATABASE_NAME, StorageProfile.DEFAULT, null);
+        previousHelper = DatabaseProvider.getHelper(context);
+        DatabaseProvider.setHelper(helper);
+        hikeDAO = new HikeDAO(context);
+        observationDAO = new ObservationDAO(context);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseProvider.setHelper(previousHelper);
+        helper.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void insertHikes_commitsEveryRow() {
+        List<Hike> hikes = hikes(ROWS);
+        BatchResult result = hikeDAO.insertHikes(hikes);
+        Log.i(TAG, "insertHikes " + result);
+
+        assertTrue(result.isSuccessful());
+        assertEquals(ROWS, result.getRowsAffected());
+        assertTrue("insertHikes " + result, result.getRowsPerSecond() >= MIN_HIKE_ROWS_PER_SECOND);
+
+        Set<Long> ids = new HashSet<>();
+        for (Hike hike : hikes) {
+            assertTrue(hike.getId() > 0);
+            ids.add(hike.getId());
+        }
+        assertEquals(ROWS, ids.size());
+
+        assertEquals(ROWS, count("SELECT COUNT(*) FROM " + Constants.TABLE_HIKES));
+        assertEquals(ROWS, count("SELECT COUNT(*) FROM " + Constants.TABLE_HIKES_FTS));
+        assertEquals(ROWS, count("SELECT SUM(" + Constants.COLUMN_HIKE_COUNT + ") FROM "
+                + Constants.TABLE_MONTHLY_STATS));
+    }
+
+    @Test
+    public void insertHikes_failedRow_rollsBackOnlyThatBatch() {
+        List<Hike> committed = hikes(10);
+        assertTrue(hikeDAO.insertHikes(committed).isSuccessful());
+
+        // The name column is NOT NULL, so this row fails part way through the batch
+        List<Hike> hikes = hikes(ROWS);
+        hikes.get(ROWS * 3 / 5).setName(null);
+        BatchResult result = hikeDAO.insertHikes(hikes);
+
+        assertFalse(result.isSuccessful());
+        assertEquals(0, result.getRowsAffected());
+        assertEquals(0, result.getRowsPerSecond(), 0);
+        for (Hike hike : hikes) {
+            assertEquals(0, hike.getId());
+        }
+
+        // The earlier batch, its search rows and its summary are untouched
+        assertEquals(10, count("SELECT COUNT(*) FROM " + Constants.TABLE_HIKES));
+        assertEquals(10, count("SELECT COUNT(*) FROM " + Constants.TABLE_HIKES_FTS));
+        assertEquals(10, count("SELECT SUM(" + Constants.COLUMN_HIKE_COUNT + ") FROM "
+                + Constants.TABLE_MONTHLY_STATS));
+        assertEquals(committed.get(0).getName(), hikeDAO.getHikeById(committed.get(0).getId()).getName());
+    }
+
+    @Test
+    public void insertObservations_commitsEveryRow_andRollsBackOnFailure() {
+        List<Hike> hikes = hikes(100);
+        assertTrue(hikeDAO.insertHikes(hikes).isSuccessful());
+
+        List<Observation> observations = observations(hikes, ROWS);
+        BatchResult result = observationDAO.insertObservations(observations);
+        Log.i(TAG, "insertObservations " + result);
+        assertTrue(result.isSuccessful());
+        assertEquals(ROWS, result.getRowsAffected());
+        assertTrue("insertObservations " + result,
+                result.getRowsPerSecond() >= MIN_OBSERVATION_ROWS_PER_SECOND);
+        assertEquals(ROWS, count("SELECT COUNT(*) FROM " + Constants.TABLE_OBSERVATIONS));
+
+        // The last row references a hike that does not exist
+        List<Observation> failing = observations(hikes, ROWS);
+        failing.get(ROWS - 1).setHikeId(Long.MAX_VALUE);
+        result = observationDAO.insertObservations(failing);
+
+        assertFalse(result.isSuccessful());
+        assertEquals(0, result.getRowsAffected());
+        for (Observation observation : failing) {
+            assertEquals(0, observation.getId());
+        }
+        assertEquals(ROWS, count("SELECT COUNT(*) FROM " + Constants.TABLE_OBSERVATIONS));
+        assertEquals(ROWS, count("SELECT SUM(" + Constants.COLUMN_OBSERVATION_COUNT + ") FROM "
+                + Constants.TABLE_MONTHLY_STATS));
+    }
+
+    @Test
+    public void updateAndDeleteHikes_countOnlyExistingRows() {
+        List<Hike> hikes = hikes(ROWS);
+        assertTrue(hikeDAO.insertHikes(hikes).isSuccessful());
+
+        List<Hike> updates = new ArrayList<>(hikes);
+        for (Hike hike : updates) {
+            hike.setLength(hike.getLength() + 1);
+        }
+        Hike missing = hikes(1).get(0);
+        missing.setId(Long.MAX_VALUE);
+        updates.add(missing);
+
+        BatchResult result = hikeDAO.updateHikes(updates);
+        Log.i(TAG, "updateHikes " + result);
+        assertTrue(result.isSuccessful());
+        assertEquals(ROWS, result.getRowsAffected());
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ROWS; i += 2) {
+            ids.add(hikes.get(i).getId());
+        }
+        ids.add(Long.MAX_VALUE);
+
+        result = hikeDAO.deleteHikes(ids);
+        Log.i(TAG, "deleteHikes " + result);
+        assertTrue(result.isSuccessful());
+        assertEquals(ROWS / 2, result.getRowsAffected());
+        assertEquals(ROWS / 2, count("SELECT COUNT(*) FROM " + Constants.TABLE_HIKES));
+        assertEquals(ROWS / 2, count("SELECT SUM(" + Constants.COLUMN_HIKE_COUNT + ") FROM "
+                + Constants.TABLE_MONTHLY_STATS));
+    }
+
+    private static List<Hike> hikes(int count) {
+        List<Hike> hikes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hikes.add(new Hike(0, "Hike " + i, "Location " + (i % 500),
+                    String.format(Locale.US, "2024-%02d-%02d", i % 12 + 1, i % 28 + 1),
+                    Parking.YES, 5 + i % 20, Difficulty.values()[i % 4], "Description " + i,
+                    WeatherCondition.values()[i % 6], "3h", null));
+        }
+        return hikes;
+    }
+
+    private static List<Observation> observations(List<Hike> hikes, int count) {
+        List<Observation> observations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            observations.add(new Observation(0, hikes.get(i % hikes.size()).getId(), "Observation " + i,
+                    "2024-05-12 11:30:00", null));
+        }
+        return observations;
+    }
+
+    private long count(String sql) {
+        Cursor cursor = helper.getReadableDatabase().rawQuery(sql, null);
+        try {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getLong(0);
+        } finally {
+            cursor.close();
+        }
+    }
+}
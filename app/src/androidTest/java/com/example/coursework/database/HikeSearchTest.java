@@ -0,0 +1,111 @@
+package com.example.coursework.database;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.HikeSummary;
+import com.example.coursework.models.Observation;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.WeatherCondition;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Full-text search over hikes and their observations in a test database
+ */
+@RunWith(AndroidJUnit4.class)
+public class HikeSearchTest {
+
+    private static final String DATABASE_NAME = "hike-search-test.db";
+
+    private Context context;
+    private DatabaseHelper previousHelper;
+    private DatabaseHelper helper;
+    private HikeDAO hikeDAO;
+    private ObservationDAO observationDAO;
+    private long snowdonId;
+    private long tryfanId;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        helper = new DatabaseHelper(context, DATABASE_NAME, StorageProfile.DEFAULT, null);
+        previousHelper = DatabaseProvider.getHelper(context);
+        DatabaseProvider.setHelper(helper);
+        hikeDAO = new HikeDAO(context);
+        observationDAO = new ObservationDAO(context);
+
+        snowdonId = hikeDAO.insertHike(new Hike(0, "Snowdon", "Llanberis", "2024-05-12", Parking.YES, 14.5,
+                Difficulty.HARD, "Busy summit", WeatherCondition.SUNNY, "5h", null));
+        tryfanId = hikeDAO.insertHike(new Hike(0, "Tryfan", "Ogwen", "2024-06-02", Parking.YES, 5,
+                Difficulty.EXPERT, "Scramble", WeatherCondition.CLOUDY, "4h", null));
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseProvider.setHelper(previousHelper);
+        helper.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void observationComment_findsItsHike() {
+        observationDAO.insertObservation(new Observation(0, snowdonId, "Birds", "2024-05-12 11:30:00",
+                "Ptarmigan near the cairn"));
+        observationDAO.insertObservation(new Observation(0, tryfanId, "Goats", "2024-06-02 10:00:00", null));
+
+        assertIds(hikeDAO.fullTextSearch(null, null, "ptarmig", 10), snowdonId);
+        assertIds(hikeDAO.fullTextSearch(null, null, "goats", 10), tryfanId);
+        // Keywords combine with the scoped fields
+        assertIds(hikeDAO.fullTextSearch("snow", null, "cairn", 10), snowdonId);
+        assertIds(hikeDAO.fullTextSearch("tryfan", null, "cairn", 10));
+        // Name words only match names
+        assertIds(hikeDAO.fullTextSearch("ptarmigan", null, null, 10));
+    }
+
+    @Test
+    public void editedAndDeletedObservations_leaveTheIndex() {
+        long id = observationDAO.insertObservation(new Observation(0, snowdonId, "Birds", "2024-05-12 11:30:00",
+                "Ptarmigan"));
+        Observation observation = observationDAO.getObservationById(id);
+        observation.setComments("Ravens");
+        observationDAO.updateObservation(observation);
+
+        assertIds(hikeDAO.fullTextSearch(null, null, "ptarmigan", 10));
+        assertIds(hikeDAO.fullTextSearch(null, null, "ravens", 10), snowdonId);
+
+        observationDAO.deleteObservation(id);
+        assertIds(hikeDAO.fullTextSearch(null, null, "ravens", 10));
+    }
+
+    @Test
+    public void filteredSearch_matchesObservationKeywords() {
+        observationDAO.insertObservation(new Observation(0, snowdonId, "Birds", "2024-05-12 11:30:00", "Ptarmigan"));
+        observationDAO.insertObservation(new Observation(0, tryfanId, "Birds", "2024-06-02 10:00:00", "Ptarmigan"));
+
+        HikeQuery query = new HikeQuery();
+        query.setMatchQuery(FullTextSearch.buildMatchQuery(null, null, "ptarmigan"));
+        query.setMinLength(10.0);
+        List<HikeSummary> results = hikeDAO.queryHikeSummaries(query);
+        assertIds(results, snowdonId);
+    }
+
+    private static void assertIds(List<HikeSummary> results, long... expected) {
+        assertEquals(results.toString(), expected.length, results.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], results.get(i).getId());
+        }
+    }
+}
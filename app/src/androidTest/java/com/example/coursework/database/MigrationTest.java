@@ -0,0 +1,471 @@
+package com.example.coursework.database;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.utils.Constants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Upgrades databases created at every old schema version to the current one
+ * The schema of each version is an asset (schema/vN.sql) holding what onCreate ran at
+ * that version. Rows written at the old version must survive with their search index
+ * and monthly summary, and the triggers must keep both up to date afterwards.
+ *
+ * The oldest versions are also upgraded with 100k hikes and 100k observations, so the
+ * table rebuilds copy many batches and report progress along the way.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationTest {
+
+    private static final String TAG = "MigrationTest";
+    private static final String DATABASE_NAME = "migration-test.db";
+    private static final String FRESH_DATABASE_NAME = "migration-test-fresh.db";
+
+    // Seed hikes; epoch days are only stored from version 6
+    private static final String[] NAMES = {"Snowdon Horseshoe", "Helvellyn", "Kinder Scout"};
+    private static final String[] LOCATIONS = {"Pen-y-Pass", "Glenridding", "Edale"};
+    private static final String[] DATES = {"2024-05-12", "2024-05-20", "2023-11-03"};
+    private static final long[] EPOCH_DAYS = {19855, 19863, 19664};
+    private static final double[] LENGTHS = {12.5, 13.0, 14.2};
+    private static final Difficulty[] DIFFICULTIES = {Difficulty.HARD, Difficulty.MODERATE, Difficulty.EASY};
+    private static final String[] DIFFICULTY_LABELS = {"Hard", "Moderate", "Easy"};
+
+    // Large upgrades: one observation per hike, every tenth one mentioning a ptarmigan
+    private static final int LARGE_ROWS = 100_000;
+    private static final long LARGE_UPGRADE_BUDGET_MS = 120_000;
+
+    private Context context;
+    private DatabaseHelper helper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        context.deleteDatabase(FRESH_DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        if (helper != null) {
+            helper.close();
+        }
+        context.deleteDatabase(DATABASE_NAME);
+        context.deleteDatabase(FRESH_DATABASE_NAME);
+    }
+
+    @Test
+    public void upgradeFromVersion1() throws IOException {
+        assertUpgradeKeepsData(1);
+    }
+
+    @Test
+    public void upgradeFromVersion2() throws IOException {
+        assertUpgradeKeepsData(2);
+    }
+
+    @Test
+    public void upgradeFromVersion3() throws IOException {
+        assertUpgradeKeepsData(3);
+    }
+
+    @Test
+    public void upgradeFromVersion4() throws IOException {
+        assertUpgradeKeepsData(4);
+    }
+
+    @Test
+    public void upgradeFromVersion5() throws IOException {
+        assertUpgradeKeepsData(5);
+    }
+
+    @Test
+    public void upgradeFromVersion6() throws IOException {
+        assertUpgradeKeepsData(6);
+    }
+
+    @Test
+    public void upgradeFromVersion7() throws IOException {
+        assertUpgradeKeepsData(7);
+    }
+
+    @Test
+    public void upgradeFromVersion8() throws IOException {
+        assertUpgradeKeepsData(8);
+    }
+
+    @Test
+    public void upgradeFromVersion9() throws IOException {
+        assertUpgradeKeepsData(9);
+    }
+
+    @Test
+    public void upgradeFromVersion10() throws IOException {
+        assertUpgradeKeepsData(10);
+    }
+
+    @Test
+    public void upgradeFromVersion11() throws IOException {
+        assertUpgradeKeepsData(11);
+    }
+
+    @Test
+    public void upgradeLargeFromVersion1() throws IOException {
+        assertLargeUpgradeKeepsData(1);
+    }
+
+    @Test
+    public void upgradeLargeFromVersion2() throws IOException {
+        assertLargeUpgradeKeepsData(2);
+    }
+
+    @Test
+    public void upgradeLargeFromVersion3() throws IOException {
+        assertLargeUpgradeKeepsData(3);
+    }
+
+    /**
+     * Create a large database at a version, upgrade it and check counts, sample rows,
+     * progress reports and time taken
+     */
+    private void assertLargeUpgradeKeepsData(int version) throws IOException {
+        createLargeDatabase(version);
+
+        Map<String, Integer> reportsByTask = new HashMap<>();
+        Map<String, Integer> partialReportsByTask = new HashMap<>();
+        helper = new DatabaseHelper(context, DATABASE_NAME, StorageProfile.DEFAULT, null);
+        helper.setMigrationProgressListener((task, completed, total) -> {
+            reportsByTask.merge(task, 1, Integer::sum);
+            if (completed > 0 && completed < total) {
+                partialReportsByTask.merge(task, 1, Integer::sum);
+            }
+        });
+
+        long start = SystemClock.elapsedRealtime();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        long elapsed = SystemClock.elapsedRealtime() - start;
+        Log.i(TAG, "Upgraded " + LARGE_ROWS + " hikes from version " + version + " in " + elapsed
+                + " ms; progress " + reportsByTask);
+        assertEquals(Constants.DATABASE_VERSION, db.getVersion());
+        assertTrue("Upgrade took " + elapsed + " ms", elapsed < LARGE_UPGRADE_BUDGET_MS);
+
+        // The hikes rebuild copies many batches and reports after each
+        String rebuildHikes = "Rebuilding " + Constants.TABLE_HIKES;
+        assertTrue(reportsByTask.toString(), reportsByTask.getOrDefault(rebuildHikes, 0) > 2);
+        assertTrue(partialReportsByTask.toString(), partialReportsByTask.getOrDefault(rebuildHikes, 0) > 1);
+
+        // Row counts, search index and monthly summary
+        assertEquals(LARGE_ROWS, count(db, "SELECT COUNT(*) FROM " + Constants.TABLE_HIKES));
+        assertEquals(LARGE_ROWS, count(db, "SELECT COUNT(*) FROM " + Constants.TABLE_OBSERVATIONS));
+        assertEquals(LARGE_ROWS, count(db, "SELECT COUNT(*) FROM " + Constants.TABLE_HIKES_FTS));
+        assertEquals(LARGE_ROWS / 10, count(db, "SELECT COUNT(*) FROM " + Constants.TABLE_HIKES_FTS
+                + " WHERE " + Constants.TABLE_HIKES_FTS + " MATCH 'ptarmigan'"));
+        assertEquals(LARGE_ROWS, count(db, "SELECT SUM(" + Constants.COLUMN_HIKE_COUNT + ") FROM "
+                + Constants.TABLE_MONTHLY_STATS));
+        assertEquals(LARGE_ROWS, count(db, "SELECT SUM(" + Constants.COLUMN_OBSERVATION_COUNT + ") FROM "
+                + Constants.TABLE_MONTHLY_STATS));
+
+        // Sample rows from the first, middle and last batches keep their converted values
+        for (int i : new int[]{0, 1, 4_999, 5_000, 50_001, LARGE_ROWS - 1}) {
+            long id = i + 1;
+            String where = " FROM " + Constants.TABLE_HIKES + " WHERE " + Constants.COLUMN_ID + " = " + id;
+            assertEquals(EPOCH_DAYS[i % 3], count(db, "SELECT " + Constants.COLUMN_DATE_EPOCH_DAY + where));
+            assertEquals(DIFFICULTIES[i % 3].getCode(), count(db, "SELECT " + Constants.COLUMN_DIFFICULTY + where));
+            assertEquals(5 + i % 20, count(db, "SELECT CAST(" + Constants.COLUMN_LENGTH + " AS INTEGER)" + where));
+            assertEquals(1, count(db, "SELECT COUNT(*)" + where + " AND " + Constants.COLUMN_NAME
+                    + " = 'Hike " + i + "'"));
+            assertMatches(db, "sighting" + i, id);
+        }
+    }
+
+    /**
+     * Create a database at an old version holding LARGE_ROWS hikes with one observation each
+     */
+    private void createLargeDatabase(int version) throws IOException {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(DATABASE_NAME), null);
+        try {
+            for (String sql : readSchema(version)) {
+                db.execSQL(sql);
+            }
+
+            db.beginTransaction();
+            SQLiteStatement hike = db.compileStatement("INSERT INTO " + Constants.TABLE_HIKES + " ("
+                    + Constants.COLUMN_NAME + ", " + Constants.COLUMN_LOCATION + ", " + Constants.COLUMN_DATE + ", "
+                    + Constants.COLUMN_PARKING_AVAILABLE + ", " + Constants.COLUMN_LENGTH + ", "
+                    + Constants.COLUMN_DIFFICULTY + ", " + Constants.COLUMN_DESCRIPTION + ", "
+                    + Constants.COLUMN_WEATHER_CONDITION + ", " + Constants.COLUMN_ESTIMATED_DURATION
+                    + ") VALUES (?, ?, ?, 'Yes', ?, ?, 'Walked in spring', 'Sunny', '5h')");
+            SQLiteStatement observation = db.compileStatement("INSERT INTO " + Constants.TABLE_OBSERVATIONS
+                    + " (" + Constants.COLUMN_HIKE_ID + ", " + Constants.COLUMN_OBSERVATION + ", "
+                    + Constants.COLUMN_TIME + ", " + Constants.COLUMN_COMMENTS
+                    + ") VALUES (?, ?, '2024-05-12 11:30:00', ?)");
+            try {
+                for (int i = 0; i < LARGE_ROWS; i++) {
+                    hike.bindString(1, "Hike " + i);
+                    hike.bindString(2, "Location " + i % 500);
+                    hike.bindString(3, DATES[i % 3]);
+                    hike.bindDouble(4, 5 + i % 20);
+                    hike.bindString(5, DIFFICULTY_LABELS[i % 3]);
+                    long hikeId = hike.executeInsert();
+
+                    observation.bindLong(1, hikeId);
+                    observation.bindString(2, "Sighting" + i);
+                    if (i % 10 == 0) {
+                        observation.bindString(3, "Ptarmigan");
+                    } else {
+                        observation.bindNull(3);
+                    }
+                    observation.executeInsert();
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                hike.close();
+                observation.close();
+                db.endTransaction();
+            }
+
+            db.setVersion(version);
+        } finally {
+            db.close();
+        }
+    }
+
+    /**
+     * Create a database at a version, upgrade it and check what survived
+     */
+    private void assertUpgradeKeepsData(int version) throws IOException {
+        createDatabase(version);
+
+        helper = new DatabaseHelper(context, DATABASE_NAME, StorageProfile.DEFAULT, null);
+        SQLiteDatabase db = helper.getWritableDatabase();
+        assertEquals(Constants.DATABASE_VERSION, db.getVersion());
+
+        // Row counts
+        assertEquals(3, count(db, "SELECT COUNT(*) FROM " + Constants.TABLE_HIKES));
+        assertEquals(4, count(db, "SELECT COUNT(*) FROM " + Constants.TABLE_OBSERVATIONS));
+        if (version == 8) {
+            assertEquals(3, count(db, "SELECT SUM(" + Constants.COLUMN_POINT_COUNT + ") FROM "
+                    + Constants.TABLE_TRACK_CHUNKS));
+        }
+
+        // Converted columns
+        for (int i = 0; i < NAMES.length; i++) {
+            assertEquals(EPOCH_DAYS[i], count(db, "SELECT " + Constants.COLUMN_DATE_EPOCH_DAY + " FROM "
+                    + Constants.TABLE_HIKES + " WHERE " + Constants.COLUMN_ID + " = " + (i + 1)));
+            assertEquals(DIFFICULTIES[i].getCode(), count(db, "SELECT " + Constants.COLUMN_DIFFICULTY + " FROM "
+                    + Constants.TABLE_HIKES + " WHERE " + Constants.COLUMN_ID + " = " + (i + 1)));
+        }
+
+        // Search index, including observation text
+        assertEquals(3, count(db, "SELECT COUNT(*) FROM " + Constants.TABLE_HIKES_FTS));
+        assertMatches(db, "horseshoe", 1);
+        assertMatches(db, "ravens", 1);
+        assertMatches(db, "kite", 2);
+        assertMatches(db, "edale", 3);
+
+        // Monthly summary
+        assertEquals("202311/1 1 14.2 1, 202405/2 1 13.0 1, 202405/3 1 12.5 2", monthlyStats(db));
+
+        // Triggers are in place and keep both up to date
+        assertEquals(freshTriggerNames(), triggerNames(db));
+
+        ContentValues observation = new ContentValues();
+        observation.put(Constants.COLUMN_HIKE_ID, 2);
+        observation.put(Constants.COLUMN_OBSERVATION, "Golden eagle");
+        observation.put(Constants.COLUMN_TIME, "2024-05-20 14:00:00");
+        db.insertOrThrow(Constants.TABLE_OBSERVATIONS, null, observation);
+        db.delete(Constants.TABLE_HIKES, Constants.COLUMN_ID + " = 1", null);
+
+        assertMatches(db, "eagle", 2);
+        assertMatches(db, "horseshoe");
+        assertEquals("202311/1 1 14.2 1, 202405/2 1 13.0 2", monthlyStats(db));
+    }
+
+    /**
+     * Create the database file with the schema and seed rows of a version
+     */
+    private void createDatabase(int version) throws IOException {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(DATABASE_NAME), null);
+        try {
+            for (String sql : readSchema(version)) {
+                db.execSQL(sql);
+            }
+
+            for (int i = 0; i < NAMES.length; i++) {
+                ContentValues values = new ContentValues();
+                values.put(Constants.COLUMN_NAME, NAMES[i]);
+                values.put(Constants.COLUMN_LOCATION, LOCATIONS[i]);
+                values.put(Constants.COLUMN_DATE, DATES[i]);
+                values.put(Constants.COLUMN_LENGTH, LENGTHS[i]);
+                values.put(Constants.COLUMN_DESCRIPTION, "Walked in spring");
+                values.put(Constants.COLUMN_ESTIMATED_DURATION, "5h");
+                if (version >= 6) {
+                    values.put(Constants.COLUMN_DATE_EPOCH_DAY, EPOCH_DAYS[i]);
+                }
+                if (version >= 7) {
+                    values.put(Constants.COLUMN_PARKING_AVAILABLE, 1);
+                    values.put(Constants.COLUMN_DIFFICULTY, DIFFICULTIES[i].getCode());
+                    values.put(Constants.COLUMN_WEATHER_CONDITION, 1);
+                } else {
+                    values.put(Constants.COLUMN_PARKING_AVAILABLE, "Yes");
+                    values.put(Constants.COLUMN_DIFFICULTY, DIFFICULTY_LABELS[i]);
+                    values.put(Constants.COLUMN_WEATHER_CONDITION, "Sunny");
+                }
+                if (version <= 2) {
+                    values.put("photo_path", "/sdcard/hike" + i + ".jpg");
+                }
+                db.insertOrThrow(Constants.TABLE_HIKES, null, values);
+            }
+
+            insertObservation(db, 1, "Ravens at the summit", "Pair circling");
+            insertObservation(db, 1, "Cloud inversion", null);
+            insertObservation(db, 2, "Red kite", null);
+            insertObservation(db, 3, "Mountain hare", "White coat");
+
+            if (version == 8) {
+                for (int i = 0; i < 3; i++) {
+                    ContentValues point = new ContentValues();
+                    point.put(Constants.COLUMN_HIKE_ID, 1);
+                    point.put(Constants.COLUMN_SEGMENT, 0);
+                    point.put(Constants.COLUMN_LATITUDE, 53.068 + i * 0.001);
+                    point.put(Constants.COLUMN_LONGITUDE, -4.076);
+                    point.put(Constants.COLUMN_ELEVATION, 359.0 + i * 10);
+                    point.put(Constants.COLUMN_RECORDED_AT, 1715500000000L + i * 60000L);
+                    db.insertOrThrow(Constants.TABLE_TRACK_POINTS, null, point);
+                }
+            }
+
+            db.setVersion(version);
+        } finally {
+            db.close();
+        }
+    }
+
+    private static void insertObservation(SQLiteDatabase db, long hikeId, String text, String comments) {
+        ContentValues values = new ContentValues();
+        values.put(Constants.COLUMN_HIKE_ID, hikeId);
+        values.put(Constants.COLUMN_OBSERVATION, text);
+        values.put(Constants.COLUMN_TIME, "2024-05-12 11:30:00");
+        values.put(Constants.COLUMN_COMMENTS, comments);
+        db.insertOrThrow(Constants.TABLE_OBSERVATIONS, null, values);
+    }
+
+    /**
+     * Statements of a version's schema asset, one per line
+     */
+    private static List<String> readSchema(int version) throws IOException {
+        Context testContext = InstrumentationRegistry.getInstrumentation().getContext();
+        List<String> statements = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                testContext.getAssets().open("schema/v" + version + ".sql"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty() && !line.startsWith("--")) {
+                    statements.add(line);
+                }
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * Triggers of a database created at the current version
+     */
+    private List<String> freshTriggerNames() {
+        DatabaseHelper fresh = new DatabaseHelper(context, FRESH_DATABASE_NAME, StorageProfile.DEFAULT, null);
+        try {
+            return triggerNames(fresh.getReadableDatabase());
+        } finally {
+            fresh.close();
+        }
+    }
+
+    private static List<String> triggerNames(SQLiteDatabase db) {
+        List<String> names = new ArrayList<>();
+        Cursor cursor = db.rawQuery("SELECT name FROM sqlite_master WHERE type = 'trigger' ORDER BY name", null);
+        try {
+            while (cursor.moveToNext()) {
+                names.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return names;
+    }
+
+    private static void assertMatches(SQLiteDatabase db, String term, long... hikeIds) {
+        List<Long> expected = new ArrayList<>();
+        for (long id : hikeIds) {
+            expected.add(id);
+        }
+        List<Long> actual = new ArrayList<>();
+        Cursor cursor = db.rawQuery("SELECT " + Constants.COLUMN_FTS_DOCID + " FROM " + Constants.TABLE_HIKES_FTS
+                + " WHERE " + Constants.TABLE_HIKES_FTS + " MATCH ? ORDER BY 1", new String[]{term});
+        try {
+            while (cursor.moveToNext()) {
+                actual.add(cursor.getLong(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        assertEquals(term, expected, actual);
+    }
+
+    /**
+     * Monthly summary rows as "month/difficulty hikes length observations", ordered by key
+     */
+    private static String monthlyStats(SQLiteDatabase db) {
+        StringBuilder rows = new StringBuilder();
+        Cursor cursor = db.rawQuery("SELECT " + Constants.COLUMN_MONTH + ", " + Constants.COLUMN_DIFFICULTY + ", "
+                + Constants.COLUMN_HIKE_COUNT + ", " + Constants.COLUMN_TOTAL_LENGTH + ", "
+                + Constants.COLUMN_OBSERVATION_COUNT + " FROM " + Constants.TABLE_MONTHLY_STATS
+                + " ORDER BY 1, 2", null);
+        try {
+            while (cursor.moveToNext()) {
+                if (rows.length() > 0) {
+                    rows.append(", ");
+                }
+                rows.append(cursor.getInt(0)).append('/').append(cursor.getInt(1)).append(' ')
+                        .append(cursor.getInt(2)).append(' ').append(cursor.getDouble(3)).append(' ')
+                        .append(cursor.getInt(4));
+            }
+        } finally {
+            cursor.close();
+        }
+        return rows.toString();
+    }
+
+    private static long count(SQLiteDatabase db, String sql) {
+        Cursor cursor = db.rawQuery(sql, null);
+        try {
+            assertTrue(sql, cursor.moveToFirst());
+            return cursor.getLong(0);
+        } finally {
+            cursor.close();
+        }
+    }
+}
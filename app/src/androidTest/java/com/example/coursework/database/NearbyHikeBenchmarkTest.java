@@ -0,0 +1,221 @@
+package com.example.coursework.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.NearbyHike;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.WeatherCondition;
+import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.GeoHash;
+import com.example.coursework.utils.GeoUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Finds hikes near a point among 1M located hikes
+ * getHikesNear must return exactly the hikes a brute-force distance check finds, including
+ * around the antimeridian and the poles. Away from the poles the geohash ranges must beat
+ * a full scan.
+ */
+@RunWith(AndroidJUnit4.class)
+public class NearbyHikeBenchmarkTest {
+
+    private static final String TAG = "NearbyHikeBenchmarkTest";
+    private static final String DATABASE_NAME = "nearby-hike-benchmark.db";
+    private static final int HIKES = 1_000_000;
+    private static final int BATCH = 50_000;
+
+    // {latitude, longitude} of the clusters most hikes are placed around
+    private static final double[][] CLUSTERS = {
+            {53.068, -4.076},   // Snowdonia
+            {46.0, 7.7},        // Alps
+            {-17.7, 179.9},     // Fiji, on the antimeridian
+            {78.2, 15.6},       // Svalbard
+            {89.95, 0.0},       // North Pole
+            {-89.95, 0.0}       // South Pole
+    };
+    private static final double[] RADII_METERS = {1_000, 10_000, 50_000};
+
+    private Context context;
+    private DatabaseHelper previousHelper;
+    private DatabaseHelper helper;
+    private HikeDAO hikeDAO;
+
+    // Stored coordinates by row, for the brute-force check
+    private long[] ids;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        helper = new DatabaseHelper(context, DATABASE_NAME, StorageProfile.DEFAULT, null);
+        previousHelper = DatabaseProvider.getHelper(context);
+        DatabaseProvider.setHelper(helper);
+        hikeDAO = new HikeDAO(context);
+
+        Random random = new Random(11);
+        long start = SystemClock.elapsedRealtime();
+        for (int first = 0; first < HIKES; first += BATCH) {
+            List<Hike> hikes = new ArrayList<>(BATCH);
+            for (int i = first; i < first + BATCH; i++) {
+                hikes.add(hike(i, random));
+            }
+            assertTrue(hikeDAO.insertHikes(hikes).isSuccessful());
+        }
+        Log.i(TAG, "Inserted " + HIKES + " hikes in " + (SystemClock.elapsedRealtime() - start) + " ms");
+
+        ids = new long[HIKES];
+        latitudes = new double[HIKES];
+        longitudes = new double[HIKES];
+        Cursor cursor = helper.getReadableDatabase().rawQuery("SELECT " + Constants.COLUMN_ID + ", "
+                + Constants.COLUMN_LATITUDE + ", " + Constants.COLUMN_LONGITUDE + " FROM "
+                + Constants.TABLE_HIKES, null);
+        try {
+            int row = 0;
+            while (cursor.moveToNext()) {
+                ids[row] = cursor.getLong(0);
+                latitudes[row] = cursor.getDouble(1);
+                longitudes[row] = cursor.getDouble(2);
+                row++;
+            }
+            assertEquals(HIKES, row);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseProvider.setHelper(previousHelper);
+        helper.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void getHikesNear_matchesBruteForceAndBeatsFullScan() {
+        long indexedNanos = 0;
+        long scanNanos = 0;
+        for (double[] centre : CLUSTERS) {
+            for (double radius : RADII_METERS) {
+                long start = SystemClock.elapsedRealtimeNanos();
+                List<NearbyHike> nearby = hikeDAO.getHikesNear(centre[0], centre[1], radius, 0);
+                long indexed = SystemClock.elapsedRealtimeNanos() - start;
+
+                double[] box = GeoUtils.boundingBox(centre[0], centre[1], radius);
+                start = SystemClock.elapsedRealtimeNanos();
+                int scanned = countByFullScan(box);
+                long scan = SystemClock.elapsedRealtimeNanos() - start;
+
+                Set<Long> expected = bruteForce(centre[0], centre[1], radius);
+                Set<Long> actual = new HashSet<>();
+                double previousDistance = 0;
+                for (NearbyHike hike : nearby) {
+                    actual.add(hike.getId());
+                    assertTrue(hike.getDistanceMeters() >= previousDistance);
+                    previousDistance = hike.getDistanceMeters();
+                }
+                String label = centre[0] + ", " + centre[1] + " within " + radius + " m";
+                assertEquals(label, expected, actual);
+                assertTrue(label, scanned >= expected.size());
+
+                Log.i(TAG, label + ": " + nearby.size() + " hikes in " + indexed / 1_000 + " us, "
+                        + GeoHash.coverRanges(box, Constants.GEOHASH_PRECISION, Constants.GEOHASH_MAX_CELLS).size()
+                        + " geohash ranges; full scan " + scan / 1_000 + " us");
+                // Polar boxes span every longitude and read a whole band of coarse cells
+                if (box[1] != -180 || box[3] != 180) {
+                    indexedNanos += indexed;
+                    scanNanos += scan;
+                }
+            }
+        }
+        Log.i(TAG, "Total away from the poles: geohash " + indexedNanos / 1_000_000 + " ms, full scan " + scanNanos / 1_000_000 + " ms");
+        assertTrue("Geohash lookup not faster than a full scan", indexedNanos < scanNanos);
+
+        // A limit keeps the nearest hikes, in the same order
+        double[] centre = CLUSTERS[0];
+        List<NearbyHike> all = hikeDAO.getHikesNear(centre[0], centre[1], 10_000, 0);
+        List<NearbyHike> nearest = hikeDAO.getHikesNear(centre[0], centre[1], 10_000, 20);
+        assertTrue(all.size() > 20);
+        assertEquals(20, nearest.size());
+        for (int i = 0; i < nearest.size(); i++) {
+            assertEquals(all.get(i).getId(), nearest.get(i).getId());
+        }
+    }
+
+    /**
+     * Hike placed near a cluster, or one in ten anywhere on the globe
+     */
+    private static Hike hike(int i, Random random) {
+        Hike hike = new Hike(0, "Hike " + i, "Location " + (i % 500), "2024-05-12", Parking.YES,
+                5 + i % 20, Difficulty.values()[i % 4], null, WeatherCondition.values()[i % 6], "3h", null);
+        double latitude;
+        double longitude;
+        if (i % 10 == 0) {
+            latitude = random.nextDouble() * 180 - 90;
+            longitude = random.nextDouble() * 360 - 180;
+        } else {
+            double[] cluster = CLUSTERS[i % CLUSTERS.length];
+            latitude = Math.max(-90, Math.min(90, cluster[0] + random.nextGaussian() * 0.3));
+            longitude = cluster[1] + random.nextGaussian() * 0.5;
+            if (longitude > 180) {
+                longitude -= 360;
+            } else if (longitude < -180) {
+                longitude += 360;
+            }
+        }
+        hike.setLatitude(latitude);
+        hike.setLongitude(longitude);
+        return hike;
+    }
+
+    private Set<Long> bruteForce(double latitude, double longitude, double radiusMeters) {
+        Set<Long> found = new HashSet<>();
+        for (int row = 0; row < HIKES; row++) {
+            if (GeoUtils.distanceMeters(latitude, longitude, latitudes[row], longitudes[row]) <= radiusMeters) {
+                found.add(ids[row]);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Count the hikes in a bounding box without the geohash index
+     */
+    private int countByFullScan(double[] box) {
+        String longitude = box[1] <= box[3]
+                ? Constants.COLUMN_LONGITUDE + " BETWEEN ? AND ?"
+                : "(" + Constants.COLUMN_LONGITUDE + " >= ? OR " + Constants.COLUMN_LONGITUDE + " <= ?)";
+        Cursor cursor = helper.getReadableDatabase().rawQuery("SELECT " + Constants.COLUMN_ID + ", "
+                        + Constants.COLUMN_LATITUDE + ", " + Constants.COLUMN_LONGITUDE + " FROM "
+                        + Constants.TABLE_HIKES + " NOT INDEXED WHERE " + Constants.COLUMN_LATITUDE
+                        + " BETWEEN ? AND ? AND " + longitude,
+                new String[]{String.valueOf(box[0]), String.valueOf(box[2]),
+                        String.valueOf(box[1]), String.valueOf(box[3])});
+        try {
+            return cursor.getCount();
+        } finally {
+            cursor.close();
+        }
+    }
+}
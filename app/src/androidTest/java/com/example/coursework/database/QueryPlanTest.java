@@ -0,0 +1,259 @@
+package com.example.coursework.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteCursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.HikeSummary;
+import com.example.coursework.models.Observation;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.models.WeatherCondition;
+import com.example.coursework.utils.GeoUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that every DAO read is answered from an index
+ * The SQL each DAO runs is captured through the cursor factory and explained with
+ * EXPLAIN QUERY PLAN on a test database.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+
+    private static final String DATABASE_NAME = "query-plan-test.db";
+    private static final String QUERY_PREFIX = "SQLiteQuery: ";
+
+    // A table read row by row rather than through an index or the rowid
+    private static final Pattern FULL_SCAN =
+            Pattern.compile("SCAN (TABLE )?(hikes|observations|track_chunks)( \\(|$)");
+
+    private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+
+    private Context context;
+    private DatabaseHelper previousHelper;
+    private DatabaseHelper helper;
+    private long hikeId;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+
+        SQLiteDatabase.CursorFactory factory = (db, driver, editTable, query) -> {
+            String sql = query.toString();
+            if (sql.startsWith(QUERY_PREFIX)) {
+                queries.add(sql.substring(QUERY_PREFIX.length()));
+            }
+            return new SQLiteCursor(driver, editTable, query);
+        };
+        helper = new DatabaseHelper(context, DATABASE_NAME, StorageProfile.DEFAULT, factory);
+        previousHelper = DatabaseProvider.getHelper(context);
+        DatabaseProvider.setHelper(helper);
+
+        Hike hike = new Hike(0, "Snowdon Horseshoe", "Pen-y-Pass", "2024-05-12", Parking.YES, 12.5,
+                Difficulty.HARD, "Ridge walk over Crib Goch", WeatherCondition.SUNNY, "6h", null);
+        hike.setLatitude(53.068);
+        hike.setLongitude(-4.076);
+        hikeId = new HikeDAO(context).insertHike(hike);
+
+        Observation observation = new Observation(0, hikeId, "Ravens at the summit", "2024-05-12 11:30:00", null);
+        new ObservationDAO(context).insertObservation(observation);
+
+        new TrackPointDAO(context).insertTrackPoints(hikeId, Arrays.asList(
+                new TrackPoint(0, 53.068, -4.076, 359.0, 1715500000000L),
+                new TrackPoint(0, 53.069, -4.074, 380.0, 1715500060000L)));
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseProvider.setHelper(previousHelper);
+        helper.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void getAllHikes_readsInDateIndexOrder() {
+        String plan = explain(() -> new HikeDAO(context).getAllHikes());
+        assertUsesIndex(plan, "idx_hikes_date_epoch_day");
+        assertNoSort(plan);
+    }
+
+    @Test
+    public void getHikeSummariesPage_searchesDateIndexRange() {
+        HikeSummary after = new HikeSummary(hikeId, "Snowdon Horseshoe", "Pen-y-Pass", "2024-05-12",
+                19855, 12.5, Difficulty.HARD);
+        String plan = explain(() -> new HikeDAO(context).getHikeSummariesPage(after, 50));
+        assertUsesIndex(plan, "idx_hikes_date_epoch_day");
+        assertTrue(plan, plan.contains("SEARCH"));
+        assertNoSort(plan);
+    }
+
+    @Test
+    public void getHikeById_usesPrimaryKey() {
+        String plan = explain(() -> new HikeDAO(context).getHikeById(hikeId));
+        assertTrue(plan, plan.contains("PRIMARY KEY"));
+        assertNoFullScan(plan);
+    }
+
+    @Test
+    public void queryHikeSummaries_dateRange_searchesDateIndex() {
+        HikeQuery query = new HikeQuery();
+        query.setStartEpochDay(19800L);
+        query.setEndEpochDay(19900L);
+        String plan = explain(() -> new HikeDAO(context).queryHikeSummaries(query));
+        assertUsesIndex(plan, "idx_hikes_date_epoch_day");
+        assertNoSort(plan);
+    }
+
+    @Test
+    public void queryHikeSummaries_lengthRange_searchesLengthIndex() {
+        HikeQuery query = new HikeQuery();
+        query.setMinLength(5.0);
+        query.setMaxLength(20.0);
+        query.setSortOrder(HikeQuery.SortOrder.LONGEST_FIRST);
+        String plan = explain(() -> new HikeDAO(context).queryHikeSummaries(query));
+        assertUsesIndex(plan, "idx_hikes_length");
+        assertNoSort(plan);
+    }
+
+    @Test
+    public void queryHikeSummaries_byName_readsNameIndexOrder() {
+        HikeQuery query = new HikeQuery();
+        query.setSortOrder(HikeQuery.SortOrder.NAME);
+        String plan = explain(() -> new HikeDAO(context).queryHikeSummaries(query));
+        assertUsesIndex(plan, "idx_hikes_name");
+        assertNoSort(plan);
+    }
+
+    @Test
+    public void queryHikeSummaries_difficulty_searchesDifficultyIndex() {
+        HikeQuery query = new HikeQuery();
+        query.addDifficulty(Difficulty.HARD);
+        String plan = explain(() -> new HikeDAO(context).queryHikeSummaries(query));
+        assertUsesIndex(plan, "idx_hikes_difficulty_date");
+        assertNoSort(plan);
+    }
+
+    @Test
+    public void queryHikeSummaries_withObservations_searchesObservationIndex() {
+        HikeQuery query = new HikeQuery();
+        query.setHasObservations(true);
+        String plan = explain(() -> new HikeDAO(context).queryHikeSummaries(query));
+        assertUsesIndex(plan, "idx_observations_hike_time");
+    }
+
+    @Test
+    public void fullTextSearch_usesFtsIndexAndPrimaryKey() {
+        String plan = explain(() -> new HikeDAO(context).fullTextSearch("snowdon", null, null, 10));
+        assertTrue(plan, plan.contains("VIRTUAL TABLE INDEX"));
+        // Index 0 is a full scan of the FTS table
+        assertFalse(plan, plan.contains("VIRTUAL TABLE INDEX 0:"));
+        assertTrue(plan, plan.contains("PRIMARY KEY"));
+        assertNoFullScan(plan);
+    }
+
+    @Test
+    public void queryHikeSummaries_withMatchQuery_searchesFtsIndex() {
+        HikeQuery query = new HikeQuery();
+        query.setMatchQuery(FullTextSearch.buildMatchQuery("snowdon", null, null));
+        query.setMinLength(5.0);
+        String plan = explain(() -> new HikeDAO(context).queryHikeSummaries(query));
+        assertTrue(plan, plan.contains("VIRTUAL TABLE INDEX"));
+        assertFalse(plan, plan.contains("VIRTUAL TABLE INDEX 0:"));
+    }
+
+    @Test
+    public void getHikesInBoundingBox_searchesGeohashIndex() {
+        double[] box = GeoUtils.boundingBox(53.068, -4.076, 5000);
+        String plan = explain(() -> new HikeDAO(context).getHikesInBoundingBox(box, 0));
+        assertUsesIndex(plan, "idx_hikes_geohash");
+    }
+
+    @Test
+    public void getObservationsForHike_searchesObservationIndex() {
+        String plan = explain(() -> new ObservationDAO(context).getObservationsForHike(hikeId));
+        assertUsesIndex(plan, "idx_observations_hike_time");
+    }
+
+    @Test
+    public void getObservationCount_searchesObservationIndex() {
+        String plan = explain(() -> new ObservationDAO(context).getObservationCount(hikeId));
+        assertUsesIndex(plan, "idx_observations_hike_time");
+    }
+
+    @Test
+    public void trackReads_searchTrackChunkIndex() {
+        TrackPointDAO trackPointDAO = new TrackPointDAO(context);
+        assertUsesIndex(explain(() -> trackPointDAO.getTrackPoints(hikeId)), "idx_track_chunks_hike");
+        assertUsesIndex(explain(() -> trackPointDAO.getLastTrackPoint(hikeId)), "idx_track_chunks_hike");
+        assertUsesIndex(explain(() -> trackPointDAO.getTrackPointCount(hikeId)), "idx_track_chunks_hike");
+    }
+
+    /**
+     * Run a DAO call and explain every query it made
+     *
+     * @return Plan details of all captured queries, one per line
+     */
+    private String explain(Runnable daoCall) {
+        queries.clear();
+        daoCall.run();
+
+        List<String> captured;
+        synchronized (queries) {
+            captured = new ArrayList<>(queries);
+        }
+        assertFalse("DAO call ran no query", captured.isEmpty());
+
+        StringBuilder plan = new StringBuilder();
+        SQLiteDatabase db = helper.getReadableDatabase();
+        for (String sql : captured) {
+            if (sql.startsWith("EXPLAIN")) {
+                continue;
+            }
+            // Unbound parameters are NULL, which does not change the chosen indexes
+            Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, null);
+            try {
+                int detail = cursor.getColumnIndexOrThrow("detail");
+                while (cursor.moveToNext()) {
+                    plan.append(cursor.getString(detail)).append('\n');
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+        return plan.toString();
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        assertTrue("Expected " + index + " in:\n" + plan, plan.contains(index));
+        assertNoFullScan(plan);
+    }
+
+    private static void assertNoFullScan(String plan) {
+        for (String line : plan.split("\n")) {
+            assertFalse("Full table scan in:\n" + plan, FULL_SCAN.matcher(line).find());
+        }
+    }
+
+    private static void assertNoSort(String plan) {
+        assertFalse("Sort in:\n" + plan, plan.contains("TEMP B-TREE"));
+    }
+}
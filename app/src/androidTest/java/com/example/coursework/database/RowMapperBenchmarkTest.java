@@ -0,0 +1,178 @@
+package com.example.coursework.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.CursorWrapper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursework.models.CodedOption;
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.WeatherCondition;
+import com.example.coursework.utils.Constants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Maps 100k hike rows with HikeRowMapper and with a name lookup per column per row,
+ * as the DAOs did before row mappers
+ * Both must produce the same hikes; the mapper must do a fixed number of lookups
+ * per cursor and must not be slower.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RowMapperBenchmarkTest {
+
+    private static final String TAG = "RowMapperBenchmarkTest";
+    private static final String DATABASE_NAME = "row-mapper-benchmark.db";
+    private static final int ROWS = 100_000;
+    private static final int RUNS = 5;
+
+    private Context context;
+    private DatabaseHelper previousHelper;
+    private DatabaseHelper helper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        helper = new DatabaseHelper(context, DATABASE_NAME, StorageProfile.DEFAULT, null);
+        previousHelper = DatabaseProvider.getHelper(context);
+        DatabaseProvider.setHelper(helper);
+
+        List<Hike> hikes = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Hike hike = new Hike(0, "Hike " + i, "Location " + (i % 500), "2024-05-12", Parking.YES,
+                    5 + i % 20, Difficulty.values()[i % 4], "Description " + i,
+                    WeatherCondition.values()[i % 6], "3h", null);
+            if (i % 2 == 0) {
+                hike.setLatitude(53.0 + i * 1e-5);
+                hike.setLongitude(-4.0);
+            }
+            hikes.add(hike);
+        }
+        assertTrue(new HikeDAO(context).insertHikes(hikes).isSuccessful());
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseProvider.setHelper(previousHelper);
+        helper.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void mapper_matchesPerRowLookups_withFewerLookupsAndNoSlowdown() {
+        LookupCountingCursor cursor = new LookupCountingCursor(helper.getReadableDatabase()
+                .rawQuery("SELECT * FROM " + Constants.TABLE_HIKES, null));
+        try {
+            // Same hikes either way
+            List<Hike> mapped = mapWithMapper(cursor);
+            List<Hike> looked = mapWithLookups(cursor);
+            assertEquals(ROWS, mapped.size());
+            for (int i = 0; i < ROWS; i++) {
+                assertEquals(looked.get(i).toString(), mapped.get(i).toString());
+            }
+
+            // Column names are resolved once per cursor instead of once per row
+            cursor.lookups = 0;
+            mapWithMapper(cursor);
+            long mapperLookups = cursor.lookups;
+            cursor.lookups = 0;
+            mapWithLookups(cursor);
+            long rowLookups = cursor.lookups;
+            assertEquals(13, mapperLookups);
+            assertEquals(13L * ROWS, rowLookups);
+
+            long mapperNanos = Long.MAX_VALUE;
+            long rowNanos = Long.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                long start = SystemClock.elapsedRealtimeNanos();
+                mapWithMapper(cursor);
+                mapperNanos = Math.min(mapperNanos, SystemClock.elapsedRealtimeNanos() - start);
+
+                start = SystemClock.elapsedRealtimeNanos();
+                mapWithLookups(cursor);
+                rowNanos = Math.min(rowNanos, SystemClock.elapsedRealtimeNanos() - start);
+            }
+            Log.i(TAG, ROWS + " rows: mapper " + mapperNanos / 1_000_000 + " ms, per-row lookups "
+                    + rowNanos / 1_000_000 + " ms");
+            assertTrue("Mapper slower than per-row lookups", mapperNanos <= rowNanos);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static List<Hike> mapWithMapper(Cursor cursor) {
+        List<Hike> hikes = new ArrayList<>(ROWS);
+        cursor.moveToPosition(-1);
+        HikeRowMapper mapper = new HikeRowMapper(cursor);
+        while (cursor.moveToNext()) {
+            hikes.add(mapper.mapRow(cursor));
+        }
+        return hikes;
+    }
+
+    /**
+     * Map every row looking each column up by name, as the DAOs did before row mappers
+     */
+    private static List<Hike> mapWithLookups(Cursor cursor) {
+        List<Hike> hikes = new ArrayList<>(ROWS);
+        cursor.moveToPosition(-1);
+        while (cursor.moveToNext()) {
+            Hike hike = new Hike();
+            hike.setId(cursor.getLong(cursor.getColumnIndexOrThrow(Constants.COLUMN_ID)));
+            hike.setName(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_NAME)));
+            hike.setLocation(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_LOCATION)));
+            hike.setDate(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_DATE)));
+            hike.setParkingAvailable(CodedOption.byCode(Parking.class,
+                    cursor.getInt(cursor.getColumnIndexOrThrow(Constants.COLUMN_PARKING_AVAILABLE))));
+            hike.setLength(cursor.getDouble(cursor.getColumnIndexOrThrow(Constants.COLUMN_LENGTH)));
+            hike.setDifficulty(CodedOption.byCode(Difficulty.class,
+                    cursor.getInt(cursor.getColumnIndexOrThrow(Constants.COLUMN_DIFFICULTY))));
+            hike.setDescription(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_DESCRIPTION)));
+            hike.setWeatherCondition(CodedOption.byCode(WeatherCondition.class,
+                    cursor.getInt(cursor.getColumnIndexOrThrow(Constants.COLUMN_WEATHER_CONDITION))));
+            hike.setEstimatedDuration(cursor.getString(
+                    cursor.getColumnIndexOrThrow(Constants.COLUMN_ESTIMATED_DURATION)));
+            hike.setCreatedAt(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_CREATED_AT)));
+            int latitude = cursor.getColumnIndexOrThrow(Constants.COLUMN_LATITUDE);
+            int longitude = cursor.getColumnIndexOrThrow(Constants.COLUMN_LONGITUDE);
+            if (!cursor.isNull(latitude) && !cursor.isNull(longitude)) {
+                hike.setLatitude(cursor.getDouble(latitude));
+                hike.setLongitude(cursor.getDouble(longitude));
+            }
+            hikes.add(hike);
+        }
+        return hikes;
+    }
+
+    /**
+     * Cursor counting column name lookups
+     */
+    private static class LookupCountingCursor extends CursorWrapper {
+        long lookups;
+
+        LookupCountingCursor(Cursor cursor) {
+            super(cursor);
+        }
+
+        @Override
+        public int getColumnIndexOrThrow(String columnName) {
+            lookups++;
+            return super.getColumnIndexOrThrow(columnName);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.coursework.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.WeatherCondition;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares StorageProfile.LEGACY with StorageProfile.DEFAULT
+ * Checks that each profile's settings reach the pooled connections, then saves hikes in
+ * many small transactions while another thread keeps reading the hike list, as the list
+ * screens do during an import.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StorageProfileBenchmarkTest {
+
+    private static final String TAG = "StorageProfileBenchmarkTest";
+    private static final String DATABASE_NAME = "storage-profile-benchmark.db";
+    private static final int SEED_HIKES = 5_000;
+    private static final int TRANSACTIONS = 200;
+    private static final int HIKES_PER_TRANSACTION = 20;
+    private static final int PAGE_SIZE = 50;
+
+    private Context context;
+    private DatabaseHelper previousHelper;
+    private DatabaseHelper helper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        previousHelper = DatabaseProvider.getHelper(context);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseProvider.setHelper(previousHelper);
+        closeHelper();
+    }
+
+    @Test
+    public void journalMode_matchesProfile() {
+        open(StorageProfile.DEFAULT);
+        assertEquals("wal", pragma(helper.getReadableDatabase(), "journal_mode").toLowerCase(Locale.ROOT));
+        closeHelper();
+
+        open(StorageProfile.LEGACY);
+        assertNotEquals("wal", pragma(helper.getReadableDatabase(), "journal_mode").toLowerCase(Locale.ROOT));
+    }
+
+    @Test
+    public void synchronous_matchesProfileOnWriteConnection() {
+        Assume.assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.R);
+        for (StorageProfile profile : new StorageProfile[]{StorageProfile.DEFAULT, StorageProfile.LEGACY}) {
+            open(profile);
+            SQLiteDatabase db = helper.getWritableDatabase();
+            // A transaction runs on the primary connection, the one that commits
+            db.beginTransaction();
+            try {
+                assertEquals(profile.toString(), String.valueOf(profile.getSynchronous().ordinal()),
+                        pragma(db, "synchronous"));
+            } finally {
+                db.endTransaction();
+            }
+            closeHelper();
+        }
+    }
+
+    @Test
+    public void benchmark_readsDuringSaves() throws InterruptedException {
+        Result legacy = run(StorageProfile.LEGACY);
+        Result wal = run(StorageProfile.DEFAULT);
+        Log.i(TAG, "LEGACY " + legacy);
+        Log.i(TAG, "DEFAULT " + wal);
+
+        assertTrue("Saves not faster than with the legacy profile", wal.writeNanos < legacy.writeNanos);
+        assertTrue("Reads during saves not faster than with the legacy profile",
+                wal.meanReadNanos() < legacy.meanReadNanos());
+    }
+
+    /**
+     * Save hikes in small transactions on this thread while a reader pages the hike list
+     */
+    private Result run(StorageProfile profile) throws InterruptedException {
+        open(profile);
+        HikeDAO hikeDAO = new HikeDAO(context);
+        assertTrue(hikeDAO.insertHikes(hikes(SEED_HIKES)).isSuccessful());
+
+        Result result = new Result();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                long start = SystemClock.elapsedRealtimeNanos();
+                hikeDAO.getHikeSummariesPage(null, PAGE_SIZE);
+                long elapsed = SystemClock.elapsedRealtimeNanos() - start;
+                result.reads++;
+                result.totalReadNanos += elapsed;
+                result.maxReadNanos = Math.max(result.maxReadNanos, elapsed);
+            }
+        });
+        reader.start();
+
+        try {
+            long start = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < TRANSACTIONS; i++) {
+                assertTrue(hikeDAO.insertHikes(hikes(HIKES_PER_TRANSACTION)).isSuccessful());
+            }
+            result.writeNanos = SystemClock.elapsedRealtimeNanos() - start;
+        } finally {
+            writing.set(false);
+            reader.join();
+        }
+
+        closeHelper();
+        return result;
+    }
+
+    private void open(StorageProfile profile) {
+        context.deleteDatabase(DATABASE_NAME);
+        helper = new DatabaseHelper(context, DATABASE_NAME, profile, null);
+        DatabaseProvider.setHelper(helper);
+    }
+
+    private void closeHelper() {
+        if (helper != null) {
+            helper.close();
+            helper = null;
+        }
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    private static String pragma(SQLiteDatabase db, String name) {
+        Cursor cursor = db.rawQuery("PRAGMA " + name, null);
+        try {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getString(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static List<Hike> hikes(int count) {
+        List<Hike> hikes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hikes.add(new Hike(0, "Hike " + i, "Location " + (i % 500), "2024-05-12", Parking.YES,
+                    5 + i % 20, Difficulty.values()[i % 4], "Description " + i,
+                    WeatherCondition.values()[i % 6], "3h", null));
+        }
+        return hikes;
+    }
+
+    /**
+     * Timings of one profile; the read fields are written by the reader thread only
+     * and read after it has been joined
+     */
+    private static class Result {
+        long writeNanos;
+        long reads;
+        long totalReadNanos;
+        long maxReadNanos;
+
+        /**
+         * Mean list read time; a reader that never finished a read waited throughout
+         */
+        long meanReadNanos() {
+            return reads > 0 ? totalReadNanos / reads : Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            return TRANSACTIONS + " transactions of " + HIKES_PER_TRANSACTION + " hikes in "
+                    + writeNanos / 1_000_000 + " ms; " + reads + " list reads meanwhile, mean "
+                    + meanReadNanos() / 1_000 + " us, max " + maxReadNanos / 1_000 + " us";
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.coursework.repository;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursework.database.DatabaseHelper;
+import com.example.coursework.database.DatabaseProvider;
+import com.example.coursework.database.HikeDAO;
+import com.example.coursework.database.StorageProfile;
+import com.example.coursework.database.TrackPointDAO;
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.models.WeatherCondition;
+import com.example.coursework.utils.Constants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Builds and reads the simplified levels of a 100k-point track
+ * The first lookup decodes and simplifies the stored track; later lookups of the same
+ * revision must come from memory, and appending points must rebuild the levels.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SimplifiedTrackCacheBenchmarkTest {
+
+    private static final String TAG = "SimplifiedTrackCacheBenchmarkTest";
+    private static final String DATABASE_NAME = "simplified-track-cache-benchmark.db";
+    private static final int POINTS = 100_000;
+    private static final int SEGMENTS = 10;
+    private static final int RUNS = 5;
+
+    private Context context;
+    private DatabaseHelper previousHelper;
+    private DatabaseHelper helper;
+    private TrackPointDAO trackPointDAO;
+    private SimplifiedTrackCache cache;
+    private long hikeId;
+    private List<TrackPoint> track;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        helper = new DatabaseHelper(context, DATABASE_NAME, StorageProfile.DEFAULT, null);
+        previousHelper = DatabaseProvider.getHelper(context);
+        DatabaseProvider.setHelper(helper);
+
+        hikeId = new HikeDAO(context).insertHike(new Hike(0, "Snowdon", "Llanberis", "2024-05-12",
+                Parking.YES, 14.5, Difficulty.HARD, "Summit", WeatherCondition.SUNNY, "6h", null));
+        assertTrue(hikeId > 0);
+        trackPointDAO = new TrackPointDAO(context);
+        track = track(POINTS, SEGMENTS, 7);
+        assertTrue(trackPointDAO.insertTrackPoints(hikeId, track).isSuccessful());
+        cache = new SimplifiedTrackCache(context);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseProvider.setHelper(previousHelper);
+        helper.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void levels_buildOnceAndServeFromMemory() {
+        double[] tolerances = Constants.TRACK_LEVEL_TOLERANCES_METERS;
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        List<TrackPoint> finest = cache.getLevel(hikeId, 0);
+        long coldNanos = SystemClock.elapsedRealtimeNanos() - start;
+
+        long warmNanos = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            start = SystemClock.elapsedRealtimeNanos();
+            for (int level = 0; level < tolerances.length; level++) {
+                cache.getLevel(hikeId, level);
+            }
+            warmNanos = Math.min(warmNanos, SystemClock.elapsedRealtimeNanos() - start);
+        }
+
+        int previousSize = POINTS + 1;
+        StringBuilder sizes = new StringBuilder();
+        for (int level = 0; level < tolerances.length; level++) {
+            List<TrackPoint> simplified = cache.getLevel(hikeId, level);
+            assertTrue(simplified.size() < previousSize);
+            assertEndpointsKept(simplified);
+            previousSize = simplified.size();
+            sizes.append(' ').append(tolerances[level]).append(" m: ").append(simplified.size());
+        }
+        Log.i(TAG, POINTS + " points, levels" + sizes + "; build " + coldNanos / 1_000_000
+                + " ms, cached lookup of every level " + warmNanos / 1_000 + " us");
+
+        // Same revision: the cached list itself, and far cheaper than building it
+        assertSame(finest, cache.getLevel(hikeId, 0));
+        assertTrue("Cached lookup not faster than building", warmNanos < coldNanos);
+    }
+
+    @Test
+    public void appendedPoints_rebuildLevels() {
+        List<TrackPoint> before = cache.getLevel(hikeId, 0);
+
+        TrackPoint last = track.get(track.size() - 1);
+        List<TrackPoint> appended = new ArrayList<>();
+        appended.add(new TrackPoint(SEGMENTS, last.getLatitude() + 0.01, last.getLongitude(), null, null));
+        assertTrue(trackPointDAO.insertTrackPoints(hikeId, appended).isSuccessful());
+
+        // A one-point segment is its own endpoint, so every level now ends with it
+        List<TrackPoint> after = cache.getLevel(hikeId, 0);
+        assertNotSame(before, after);
+        TrackPoint end = after.get(after.size() - 1);
+        assertEquals(SEGMENTS, end.getSegment());
+        assertEquals(appended.get(0).getLatitude(), end.getLatitude(), 1e-7);
+    }
+
+    @Test
+    public void getSimplified_picksCoarsestAccurateLevel() {
+        double[] tolerances = Constants.TRACK_LEVEL_TOLERANCES_METERS;
+        assertSame(cache.getLevel(hikeId, 0), cache.getSimplified(hikeId, tolerances[0]));
+        assertSame(cache.getLevel(hikeId, 1), cache.getSimplified(hikeId, tolerances[2] - 1));
+        assertSame(cache.getLevel(hikeId, 2), cache.getSimplified(hikeId, tolerances[2] * 10));
+
+        List<TrackPoint> finer = cache.getSimplified(hikeId, tolerances[0] / 2);
+        assertTrue(finer.size() > cache.getLevel(hikeId, 0).size());
+        assertEndpointsKept(finer);
+    }
+
+    /**
+     * Noisy walk of about 3 m per point split into equal segments
+     */
+    private static List<TrackPoint> track(int count, int segments, long seed) {
+        Random random = new Random(seed);
+        List<TrackPoint> points = new ArrayList<>(count);
+        double latitude = 53.068;
+        double longitude = -4.076;
+        double heading = 0;
+        long time = 1_715_500_000_000L;
+        for (int i = 0; i < count; i++) {
+            heading += (random.nextDouble() - 0.5) * 0.6;
+            latitude += Math.cos(heading) * 2.7e-5 + random.nextGaussian() * 5e-6;
+            longitude += Math.sin(heading) * 4.5e-5 + random.nextGaussian() * 8e-6;
+            time += 1000;
+            points.add(new TrackPoint(i * segments / count, latitude, longitude, 300.0, time));
+        }
+        return points;
+    }
+
+    /**
+     * Every segment of the stored track starts and ends at the same points after simplification
+     */
+    private void assertEndpointsKept(List<TrackPoint> simplified) {
+        List<TrackPoint> expected = new ArrayList<>();
+        for (int i = 0; i < track.size(); i++) {
+            boolean first = i == 0 || track.get(i - 1).getSegment() != track.get(i).getSegment();
+            boolean last = i == track.size() - 1 || track.get(i + 1).getSegment() != track.get(i).getSegment();
+            if (first || last) {
+                expected.add(track.get(i));
+            }
+        }
+
+        List<TrackPoint> actual = new ArrayList<>();
+        for (int i = 0; i < simplified.size(); i++) {
+            boolean first = i == 0 || simplified.get(i - 1).getSegment() != simplified.get(i).getSegment();
+            boolean last = i == simplified.size() - 1
+                    || simplified.get(i + 1).getSegment() != simplified.get(i).getSegment();
+            if (first || last) {
+                actual.add(simplified.get(i));
+            }
+        }
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getSegment(), actual.get(i).getSegment());
+            assertEquals(expected.get(i).getLatitude(), actual.get(i).getLatitude(), 1e-7);
+            assertEquals(expected.get(i).getLongitude(), actual.get(i).getLongitude(), 1e-7);
+        }
+    }
+}
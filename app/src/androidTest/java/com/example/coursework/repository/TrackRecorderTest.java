@@ -0,0 +1,176 @@
+package com.example.coursework.repository;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursework.database.DatabaseHelper;
+import com.example.coursework.database.DatabaseProvider;
+import com.example.coursework.database.HikeDAO;
+import com.example.coursework.database.HikeStatsDAO;
+import com.example.coursework.database.StorageProfile;
+import com.example.coursework.database.TrackPointDAO;
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.HikeStats;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.models.WeatherCondition;
+import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.GeoUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Records tracks into a test database
+ * Every written batch must leave the stored statistics in step with the stored track,
+ * and finishing must set the hike's length from them.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TrackRecorderTest {
+
+    private static final String DATABASE_NAME = "track-recorder-test.db";
+    private static final long START_TIME = 1_715_500_000_000L;
+
+    private Context context;
+    private DatabaseHelper previousHelper;
+    private DatabaseHelper helper;
+    private HikeDAO hikeDAO;
+    private TrackPointDAO trackPointDAO;
+    private long hikeId;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        helper = new DatabaseHelper(context, DATABASE_NAME, StorageProfile.DEFAULT, null);
+        previousHelper = DatabaseProvider.getHelper(context);
+        DatabaseProvider.setHelper(helper);
+
+        hikeDAO = new HikeDAO(context);
+        trackPointDAO = new TrackPointDAO(context);
+        hikeId = hikeDAO.insertHike(new Hike(0, "Snowdon", "Llanberis", "2024-05-12", Parking.YES, 0,
+                Difficulty.HARD, null, WeatherCondition.SUNNY, "6h", null));
+        assertTrue(hikeId > 0);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseProvider.setHelper(previousHelper);
+        helper.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void fullBuffers_areFlushedAndFinishSetsTheLength() throws InterruptedException {
+        int points = Constants.TRACK_RECORDER_FLUSH_SIZE * 3 + 7;
+        TrackRecorder recorder = new TrackRecorder(context, hikeId);
+        addPoints(recorder, 0, points);
+        assertEquals(points, recorder.getPointCount());
+
+        double length = finish(recorder);
+
+        assertTrue(recorder.isFinished());
+        assertEquals(points, trackPointDAO.getTrackPointCount(hikeId));
+        assertStoredStatsMatchTrack(points);
+        HikeStats stats = new HikeStatsDAO(context).getHikeStats(hikeId);
+        assertEquals(Math.round(stats.getDistanceMeters()) / 1000.0, length, 1e-9);
+        assertEquals(length, hikeDAO.getHikeById(hikeId).getLength(), 1e-9);
+        assertTrue(length > 1);
+    }
+
+    @Test
+    public void explicitFlush_writesAPartialBuffer() throws InterruptedException {
+        TrackRecorder recorder = new TrackRecorder(context, hikeId);
+        addPoints(recorder, 0, 5);
+        recorder.flush();
+        // A second flush with nothing buffered writes nothing
+        recorder.flush();
+
+        finish(recorder);
+
+        assertEquals(5, trackPointDAO.getTrackPointCount(hikeId));
+        assertStoredStatsMatchTrack(5);
+    }
+
+    @Test
+    public void newSegmentsAndLaterRecordings_continueTheTrack() throws InterruptedException {
+        TrackRecorder first = new TrackRecorder(context, hikeId);
+        addPoints(first, 0, 10);
+        first.startNewSegment();
+        // An empty segment is not started twice
+        first.startNewSegment();
+        addPoints(first, 10, 10);
+        finish(first);
+
+        TrackRecorder second = new TrackRecorder(context, hikeId);
+        addPoints(second, 20, Constants.TRACK_RECORDER_FLUSH_SIZE + 3);
+        double length = finish(second);
+
+        List<TrackPoint> track = trackPointDAO.getTrackPoints(hikeId);
+        int total = 20 + Constants.TRACK_RECORDER_FLUSH_SIZE + 3;
+        assertEquals(total, track.size());
+        assertEquals(0, track.get(0).getSegment());
+        assertEquals(1, track.get(10).getSegment());
+        // The second recording starts after the last stored segment
+        assertEquals(2, track.get(20).getSegment());
+        assertEquals(2, track.get(total - 1).getSegment());
+        assertStoredStatsMatchTrack(total);
+
+        // Gaps between segments are not counted
+        double meters = 0;
+        for (int i = 1; i < track.size(); i++) {
+            TrackPoint from = track.get(i - 1);
+            TrackPoint to = track.get(i);
+            if (from.getSegment() == to.getSegment()) {
+                meters += GeoUtils.distanceMeters(from.getLatitude(), from.getLongitude(),
+                        to.getLatitude(), to.getLongitude());
+            }
+        }
+        assertEquals(Math.round(meters) / 1000.0, length, 0.001);
+        assertEquals(length, hikeDAO.getHikeById(hikeId).getLength(), 1e-9);
+    }
+
+    /**
+     * Add points heading north about 11 m apart, one every 5 seconds
+     */
+    private static void addPoints(TrackRecorder recorder, int first, int count) {
+        for (int i = first; i < first + count; i++) {
+            recorder.addPoint(53.0 + i * 0.0001, -4.1, 300.0 + i, START_TIME + i * 5_000L);
+        }
+    }
+
+    /**
+     * Finish a recording and wait for the new length
+     */
+    private static double finish(TrackRecorder recorder) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        double[] length = new double[1];
+        recorder.finish(result -> {
+            length[0] = result;
+            done.countDown();
+        });
+        assertTrue("Recording did not finish", done.await(10, TimeUnit.SECONDS));
+        return length[0];
+    }
+
+    /**
+     * Check the stored statistics row directly, without the rebuild getHikeStats would do
+     */
+    private void assertStoredStatsMatchTrack(int points) {
+        assertEquals(points, DatabaseUtils.longForQuery(helper.getReadableDatabase(),
+                "SELECT " + Constants.COLUMN_POINT_COUNT + " FROM " + Constants.TABLE_HIKE_STATS
+                        + " WHERE " + Constants.COLUMN_HIKE_ID + " = ?", new String[]{String.valueOf(hikeId)}));
+    }
+}
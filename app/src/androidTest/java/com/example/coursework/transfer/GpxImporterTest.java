@@ -0,0 +1,239 @@
+package com.example.coursework.transfer;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursework.database.DatabaseHelper;
+import com.example.coursework.database.DatabaseProvider;
+import com.example.coursework.database.HikeDAO;
+import com.example.coursework.database.ObservationDAO;
+import com.example.coursework.database.StorageProfile;
+import com.example.coursework.database.TrackPointDAO;
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.Observation;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.models.WeatherCondition;
+import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.GeoUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Exports hikes to GPX and imports GPX 1.0 and 1.1 files into a test database
+ */
+@RunWith(AndroidJUnit4.class)
+public class GpxImporterTest {
+
+    private static final String DATABASE_NAME = "gpx-importer-test.db";
+    // More than one chunk, so the import writes points before the file has been read
+    private static final int TRACK_POINTS = Constants.TRACK_CHUNK_SIZE * 2 + 100;
+    private static final long START_TIME = 1_715_500_000_000L;
+
+    private Context context;
+    private DatabaseHelper previousHelper;
+    private DatabaseHelper helper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        helper = new DatabaseHelper(context, DATABASE_NAME, StorageProfile.DEFAULT, null);
+        previousHelper = DatabaseProvider.getHelper(context);
+        DatabaseProvider.setHelper(helper);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseProvider.setHelper(previousHelper);
+        helper.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void exportThenImport_keepsTrackSegmentsAndWaypoints() throws IOException {
+        Hike hike = new Hike(0, "Snowdon Horseshoe", "Pen-y-Pass", "2024-05-12", Parking.YES, 12.5,
+                Difficulty.HARD, "Clockwise", WeatherCondition.SUNNY, "6h", null);
+        long hikeId = new HikeDAO(context).insertHike(hike);
+        List<TrackPoint> track = track(TRACK_POINTS);
+        TrackPointDAO trackPointDAO = new TrackPointDAO(context);
+        assertTrue(trackPointDAO.insertTrackPoints(hikeId, track).isSuccessful());
+        ObservationDAO observationDAO = new ObservationDAO(context);
+        Observation located = new Observation(0, hikeId, "Ravens", "2024-05-12 11:30:00", "Over Crib Goch");
+        located.setLatitude(53.0685);
+        located.setLongitude(-4.0763);
+        observationDAO.insertObservation(located);
+        observationDAO.insertObservation(new Observation(0, hikeId, "Mist", "2024-05-12 12:00:00", null));
+
+        StringWriter file = new StringWriter();
+        ExportReport exported = new GpxExporter(context).export(hikeId, file);
+        assertEquals(1, exported.getHikeCount());
+        // Only the located observation becomes a waypoint
+        assertEquals(1, exported.getObservationCount());
+
+        Hike imported = importGpx(file.toString());
+
+        assertNotEquals(hikeId, imported.getId());
+        assertEquals("Snowdon Horseshoe", imported.getName());
+        assertEquals("Clockwise", imported.getDescription());
+        assertEquals(track.get(0).getLatitude(), imported.getLatitude(), 1e-6);
+        assertEquals(Math.round(trackLengthMeters(track)) / 1000.0, imported.getLength(), 0.001);
+
+        List<TrackPoint> points = trackPointDAO.getTrackPoints(imported.getId());
+        assertEquals(track.size(), points.size());
+        for (int i = 0; i < track.size(); i++) {
+            TrackPoint expected = track.get(i);
+            TrackPoint actual = points.get(i);
+            assertEquals(expected.getSegment(), actual.getSegment());
+            assertEquals(expected.getLatitude(), actual.getLatitude(), 1e-6);
+            assertEquals(expected.getLongitude(), actual.getLongitude(), 1e-6);
+            assertEquals(expected.getElevation(), actual.getElevation(), 0.01);
+            assertEquals(expected.getTime(), actual.getTime());
+        }
+
+        List<Observation> waypoints = observationDAO.getObservationsForHike(imported.getId());
+        assertEquals(1, waypoints.size());
+        assertEquals("Ravens", waypoints.get(0).getObservation());
+        assertEquals("Over Crib Goch", waypoints.get(0).getComments());
+        assertEquals("2024-05-12 11:30:00", waypoints.get(0).getTime());
+        assertEquals(53.0685, waypoints.get(0).getLatitude(), 1e-6);
+    }
+
+    @Test
+    public void gpx10_readsMetadataFromTheRoot() throws IOException {
+        String gpx = "<?xml version=\"1.0\"?>\n"
+                + "<gpx version=\"1.0\" creator=\"test\" xmlns=\"http://www.topografix.com/GPX/1/0\">\n"
+                + "<name>Tryfan</name><desc>North ridge</desc><time>2024-05-01T09:30:00Z</time>\n"
+                + "<wpt lat=\"53.1150\" lon=\"-3.9980\"><name>Adam and Eve</name></wpt>\n"
+                + "<trk><trkseg>\n"
+                + "<trkpt lat=\"53.1240\" lon=\"-3.9970\"><ele>310</ele><time>2024-05-01T09:30:00Z</time></trkpt>\n"
+                + "<trkpt lat=\"53.1150\" lon=\"-3.9980\"><ele>917</ele><time>2024-05-01T11:45:00Z</time></trkpt>\n"
+                + "</trkseg></trk></gpx>";
+
+        Hike hike = importGpx(gpx);
+
+        assertEquals("Tryfan", hike.getName());
+        assertEquals("North ridge", hike.getDescription());
+        assertEquals("2h 15m", hike.getEstimatedDuration());
+        assertEquals(2, new TrackPointDAO(context).getTrackPointCount(hike.getId()));
+        assertEquals("Adam and Eve",
+                new ObservationDAO(context).getObservationsForHike(hike.getId()).get(0).getObservation());
+    }
+
+    @Test
+    public void gpx11_readsMetadataElementAndRoutes() throws IOException {
+        String gpx = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<gpx version=\"1.1\" creator=\"test\" xmlns=\"http://www.topografix.com/GPX/1/1\">\n"
+                + "<metadata><name>Glyders</name><desc>Via Bristly Ridge</desc></metadata>\n"
+                + "<rte><name>Route</name>\n"
+                + "<rtept lat=\"53.1240\" lon=\"-3.9970\"/>\n"
+                + "<rtept lat=\"53.1030\" lon=\"-3.9920\"/>\n"
+                + "<rtept lat=\"53.1010\" lon=\"-4.0290\"/>\n"
+                + "</rte></gpx>";
+
+        Hike hike = importGpx(gpx);
+
+        assertEquals("Glyders", hike.getName());
+        assertEquals("Via Bristly Ridge", hike.getDescription());
+        List<TrackPoint> points = new TrackPointDAO(context).getTrackPoints(hike.getId());
+        assertEquals(3, points.size());
+        assertEquals(points.get(0).getSegment(), points.get(2).getSegment());
+        assertEquals(Math.round(trackLengthMeters(points)) / 1000.0, hike.getLength(), 0.001);
+    }
+
+    @Test
+    public void invalidPoints_areSkipped() throws IOException {
+        String gpx = "<gpx version=\"1.1\" xmlns=\"http://www.topografix.com/GPX/1/1\">\n"
+                + "<wpt lat=\"91\" lon=\"0\"><name>Off the globe</name></wpt>\n"
+                + "<wpt lat=\"53.0685\" lon=\"-4.0763\"><name>Summit</name></wpt>\n"
+                + "<trk><trkseg>\n"
+                + "<trkpt lat=\"53.0680\" lon=\"-4.0760\"/>\n"
+                + "<trkpt lon=\"-4.0770\"/>\n"
+                + "<trkpt lat=\"north\" lon=\"-4.0770\"/>\n"
+                + "<trkpt lat=\"53.0700\" lon=\"-181\"/>\n"
+                + "<trkpt lat=\"NaN\" lon=\"-4.0770\"/>\n"
+                + "<trkpt lat=\"53.0690\" lon=\"-4.0780\"/>\n"
+                + "</trkseg></trk></gpx>";
+
+        Hike hike = importGpx(gpx);
+
+        assertEquals(2, new TrackPointDAO(context).getTrackPointCount(hike.getId()));
+        List<Observation> waypoints = new ObservationDAO(context).getObservationsForHike(hike.getId());
+        assertEquals(1, waypoints.size());
+        assertEquals("Summit", waypoints.get(0).getObservation());
+    }
+
+    @Test
+    public void truncatedFile_rollsBackEverything() throws IOException {
+        StringBuilder gpx = new StringBuilder("<gpx version=\"1.1\" xmlns=\"http://www.topografix.com/GPX/1/1\">"
+                + "<wpt lat=\"53.0685\" lon=\"-4.0763\"><name>Summit</name></wpt><trk><trkseg>\n");
+        for (TrackPoint point : track(TRACK_POINTS)) {
+            gpx.append(String.format(Locale.ROOT, "<trkpt lat=\"%.7f\" lon=\"%.7f\"/>\n",
+                    point.getLatitude(), point.getLongitude()));
+        }
+        // Cut off part way through a point, after full chunks have been written
+        gpx.append("<trkpt lat=\"53.07\"");
+
+        try {
+            importGpx(gpx.toString());
+            fail("Truncated file was imported");
+        } catch (IOException expected) {
+            // Expected
+        }
+
+        SQLiteDatabase db = helper.getReadableDatabase();
+        assertEquals(0, DatabaseUtils.queryNumEntries(db, Constants.TABLE_HIKES));
+        assertEquals(0, DatabaseUtils.queryNumEntries(db, Constants.TABLE_TRACK_POINTS));
+        assertEquals(0, DatabaseUtils.queryNumEntries(db, Constants.TABLE_HIKE_STATS));
+        assertEquals(0, DatabaseUtils.queryNumEntries(db, Constants.TABLE_OBSERVATIONS));
+    }
+
+    private Hike importGpx(String gpx) throws IOException {
+        InputStream input = new ByteArrayInputStream(gpx.getBytes(StandardCharsets.UTF_8));
+        return new GpxImporter(context).importFrom(input);
+    }
+
+    /**
+     * A track climbing north in two segments, one point every 10 seconds
+     */
+    private static List<TrackPoint> track(int count) {
+        List<TrackPoint> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new TrackPoint(i < count / 2 ? 0 : 1, 53.0 + i * 0.0001, -4.1 + (i % 7) * 0.00005,
+                    300.0 + i * 0.5, START_TIME + i * 10_000L));
+        }
+        return points;
+    }
+
+    private static double trackLengthMeters(List<TrackPoint> points) {
+        double meters = 0;
+        for (int i = 1; i < points.size(); i++) {
+            TrackPoint previous = points.get(i - 1);
+            TrackPoint point = points.get(i);
+            if (previous.getSegment() == point.getSegment()) {
+                meters += GeoUtils.distanceMeters(previous.getLatitude(), previous.getLongitude(),
+                        point.getLatitude(), point.getLongitude());
+            }
+        }
+        return meters;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.coursework.transfer;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursework.database.DatabaseHelper;
+import com.example.coursework.database.DatabaseProvider;
+import com.example.coursework.database.HikeDAO;
+import com.example.coursework.database.ObservationDAO;
+import com.example.coursework.database.StorageProfile;
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.Observation;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.WeatherCondition;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Exports 1M observations to CSV
+ * One hike has far more observations than an export page reads at once, with many equal
+ * times, so its observations span several chunks. Every observation must be written once,
+ * in time order within its hike, at a minimum throughput.
+ */
+@RunWith(AndroidJUnit4.class)
+public class HikeExportBenchmarkTest {
+
+    private static final String TAG = "HikeExportBenchmarkTest";
+    private static final String DATABASE_NAME = "hike-export-benchmark.db";
+    private static final int OBSERVATIONS = 1_000_000;
+    private static final int LARGE_HIKE_OBSERVATIONS = 5_000;
+    private static final int OBSERVATIONS_PER_HIKE = 10;
+    private static final int HIKES = 1 + (OBSERVATIONS - LARGE_HIKE_OBSERVATIONS) / OBSERVATIONS_PER_HIKE;
+    private static final int BATCH = 50_000;
+    private static final double MIN_OBSERVATIONS_PER_SECOND = 20_000;
+
+    private Context context;
+    private DatabaseHelper previousHelper;
+    private DatabaseHelper helper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        helper = new DatabaseHelper(context, DATABASE_NAME, StorageProfile.DEFAULT, null);
+        previousHelper = DatabaseProvider.getHelper(context);
+        DatabaseProvider.setHelper(helper);
+
+        long start = SystemClock.elapsedRealtime();
+        HikeDAO hikeDAO = new HikeDAO(context);
+        List<Hike> hikes = new ArrayList<>(HIKES);
+        for (int i = 0; i < HIKES; i++) {
+            hikes.add(new Hike(0, "Hike " + i, "Llanberis", "2024-05-12", Parking.YES, 14.5,
+                    Difficulty.HARD, null, WeatherCondition.SUNNY, "5h", null));
+        }
+        assertTrue(hikeDAO.insertHikes(hikes).isSuccessful());
+
+        // The first hike gets the large share, with only seven distinct times
+        ObservationDAO observationDAO = new ObservationDAO(context);
+        List<Observation> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < OBSERVATIONS; i++) {
+            long hikeId;
+            String time;
+            if (i < LARGE_HIKE_OBSERVATIONS) {
+                hikeId = hikes.get(0).getId();
+                time = "2024-05-12 11:0" + (6 - i % 7) + ":00";
+            } else {
+                hikeId = hikes.get(1 + (i - LARGE_HIKE_OBSERVATIONS) / OBSERVATIONS_PER_HIKE).getId();
+                time = "2024-05-12 12:0" + (i % OBSERVATIONS_PER_HIKE) + ":00";
+            }
+            batch.add(new Observation(0, hikeId, "Sighting " + i, time, null));
+            if (batch.size() == BATCH || i == OBSERVATIONS - 1) {
+                assertTrue(observationDAO.insertObservations(batch).isSuccessful());
+                batch.clear();
+            }
+        }
+        Log.i(TAG, "Inserted " + HIKES + " hikes and " + OBSERVATIONS + " observations in "
+                + (SystemClock.elapsedRealtime() - start) + " ms");
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseProvider.setHelper(previousHelper);
+        helper.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void csvExport_writesEveryObservationOnceInOrder() throws IOException {
+        ObservationRowChecker checker = new ObservationRowChecker();
+
+        ExportReport report = new HikeExporter(context).export(checker, TransferFormat.CSV);
+
+        double perSecond = report.getObservationCount() * 1000.0 / Math.max(1, report.getElapsedMillis());
+        Log.i(TAG, "Exported " + report + ", " + Math.round(perSecond) + " observations/s");
+        assertEquals(HIKES, report.getHikeCount());
+        assertEquals(OBSERVATIONS, report.getObservationCount());
+        assertEquals(OBSERVATIONS, checker.observationRows);
+        assertEquals(OBSERVATIONS, checker.seenIds.cardinality());
+        assertTrue("Exported " + Math.round(perSecond) + " observations/s",
+                perSecond >= MIN_OBSERVATIONS_PER_SECOND);
+    }
+
+    /**
+     * Checks observation rows as they are written instead of keeping the file
+     * Fails on a repeated ID or on rows of one hike out of (time, id) order.
+     */
+    private static class ObservationRowChecker extends Writer {
+        private final StringBuilder line = new StringBuilder();
+        private final BitSet seenIds = new BitSet(OBSERVATIONS + 1);
+        private int observationRows;
+        private String previousHikeId = "";
+        private String previousTime = "";
+        private long previousId;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                char c = buffer[i];
+                if (c == '\n') {
+                    checkLine(line.toString());
+                    line.setLength(0);
+                } else if (c != '\r') {
+                    line.append(c);
+                }
+            }
+        }
+
+        private void checkLine(String row) {
+            if (!row.startsWith(TransferFields.RECORD_OBSERVATION + ",")) {
+                return;
+            }
+            // Test data has no quoted fields, so a plain split finds the columns
+            String[] fields = row.split(",", -1);
+            long id = Long.parseLong(fields[1]);
+            String hikeId = fields[12];
+            String time = fields[14];
+            assertFalse("Observation " + id + " written twice", seenIds.get((int) id));
+            seenIds.set((int) id);
+            observationRows++;
+
+            if (hikeId.equals(previousHikeId)) {
+                int order = time.compareTo(previousTime);
+                assertTrue("Observation " + id + " out of order", order > 0 || order == 0 && id > previousId);
+            }
+            previousHikeId = hikeId;
+            previousTime = time;
+            previousId = id;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.coursework.transfer;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.coursework.database.DatabaseHelper;
+import com.example.coursework.database.DatabaseProvider;
+import com.example.coursework.database.HikeDAO;
+import com.example.coursework.database.StorageProfile;
+import com.example.coursework.database.ObservationDAO;
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.Observation;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.WeatherCondition;
+import com.example.coursework.utils.Constants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Imports CSV and JSON Lines files into a test database
+ * Includes a generated file too large to hold in memory, streamed in small batches.
+ */
+@RunWith(AndroidJUnit4.class)
+public class HikeImporterTest {
+
+    private static final String DATABASE_NAME = "hike-importer-test.db";
+    private static final String CSV_HEADER = "record_type,id,name,location,date,parking_available,length,"
+            + "difficulty,description,hike_id,observation,time\r\n";
+    private static final int LARGE_FILE_HIKES = 250_000;
+
+    private Context context;
+    private DatabaseHelper previousHelper;
+    private DatabaseHelper helper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        previousHelper = DatabaseProvider.getHelper(context);
+        openEmptyDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseProvider.setHelper(previousHelper);
+        helper.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void jsonLines_rejectedHike_isReportedOnceWithItsObservations() throws IOException {
+        String jsonl = "{\"name\":\"Snowdon\",\"location\":\"Llanberis\",\"date\":\"2024-05-12\","
+                + "\"parking_available\":\"Yes\",\"length\":\"14.5\",\"difficulty\":\"Hard\","
+                + "\"observations\":[{\"observation\":\"Ravens\",\"time\":\"2024-05-12 11:30:00\"}]}\n"
+                + "{\"location\":\"Pen-y-Pass\",\"date\":\"2024-05-13\",\"parking_available\":\"Yes\","
+                + "\"length\":\"12\",\"difficulty\":\"Hard\",\"observations\":["
+                + "{\"observation\":\"Mist\",\"time\":\"2024-05-13 09:00:00\"},"
+                + "{\"observation\":\"Goats\",\"time\":\"2024-05-13 10:00:00\"}]}\n";
+
+        ImportReport report = new HikeImporter(context)
+                .importFrom(new StringReader(jsonl), TransferFormat.JSON_LINES);
+
+        assertEquals(1, report.getImportedHikes());
+        assertEquals(1, report.getImportedObservations());
+        assertEquals(1, report.getRejectedRecords());
+        assertEquals(1, report.getErrors().size());
+        ImportReport.ImportError error = report.getErrors().get(0);
+        assertEquals(2, error.getLineNumber());
+        assertEquals("Name is required; 2 observation(s) skipped with it", error.getMessage());
+    }
+
+    @Test
+    public void csv_quotedFieldsAndRejectedHikeObservations() throws IOException {
+        String csv = "record_type,id,name,location,date,parking_available,length,difficulty,description,"
+                + "hike_id,observation,time\r\n"
+                + "hike,1,\"Snowdon, \"\"Yr Wyddfa\"\"\",Llanberis,2024-05-12,Yes,14.5,Hard,\"Line one\nLine two\",,,\r\n"
+                + "observation,,,,,,,,,1,Ravens,2024-05-12 11:30:00\r\n"
+                + "hike,2,,Pen-y-Pass,2024-05-13,Yes,12,Hard,,,,\r\n"
+                + "observation,,,,,,,,,2,Mist,2024-05-13 09:00:00\r\n";
+
+        ImportReport report = new HikeImporter(context).importFrom(new StringReader(csv), TransferFormat.CSV);
+
+        assertEquals(1, report.getImportedHikes());
+        assertEquals(1, report.getImportedObservations());
+        // The rejected hike and the observation row that followed it are separate records
+        assertEquals(2, report.getRejectedRecords());
+        assertEquals(5, report.getErrors().get(0).getLineNumber());
+        assertEquals("Name is required", report.getErrors().get(0).getMessage());
+        assertEquals(6, report.getErrors().get(1).getLineNumber());
+
+        List<Hike> hikes = new HikeDAO(context).getAllHikes();
+        assertEquals(1, hikes.size());
+        assertEquals("Snowdon, \"Yr Wyddfa\"", hikes.get(0).getName());
+        assertEquals("Line one\nLine two", hikes.get(0).getDescription());
+    }
+
+    @Test
+    public void csv_roundTripsPositions() throws IOException {
+        assertPositionsRoundTrip(TransferFormat.CSV);
+    }
+
+    @Test
+    public void jsonLines_roundTripsPositions() throws IOException {
+        assertPositionsRoundTrip(TransferFormat.JSON_LINES);
+    }
+
+    @Test
+    public void hikeWithInvalidPosition_isRejected() throws IOException {
+        String csv = "name,location,date,parking_available,length,difficulty,latitude,longitude\n"
+                + "Snowdon,Llanberis,2024-05-12,Yes,14.5,Hard,53.07,\n"
+                + "Tryfan,Ogwen,2024-05-13,Yes,5,Hard,53.11,-200\n"
+                + "Glyder Fach,Ogwen,2024-05-14,Yes,6,Hard,,\n";
+
+        ImportReport report = new HikeImporter(context).importFrom(new StringReader(csv), TransferFormat.CSV);
+
+        assertEquals(1, report.getImportedHikes());
+        assertEquals(2, report.getRejectedRecords());
+        assertEquals("Latitude and longitude must both be valid coordinates",
+                report.getErrors().get(0).getMessage());
+        assertFalse(new HikeDAO(context).getAllHikes().get(0).hasLocation());
+    }
+
+    @Test
+    public void observationWithHalfAPosition_isRejected() throws IOException {
+        String jsonl = "{\"name\":\"Snowdon\",\"location\":\"Llanberis\",\"date\":\"2024-05-12\","
+                + "\"parking_available\":\"Yes\",\"length\":\"14.5\",\"difficulty\":\"Hard\","
+                + "\"observations\":[{\"observation\":\"Ravens\",\"time\":\"2024-05-12 11:30:00\","
+                + "\"latitude\":53.07},{\"observation\":\"Mist\",\"time\":\"2024-05-12 12:00:00\","
+                + "\"latitude\":\"91\",\"longitude\":\"-4.08\"}]}\n";
+
+        ImportReport report = new HikeImporter(context)
+                .importFrom(new StringReader(jsonl), TransferFormat.JSON_LINES);
+
+        assertEquals(1, report.getImportedHikes());
+        assertEquals(0, report.getImportedObservations());
+        assertEquals(2, report.getRejectedRecords());
+        assertEquals("Observation 1: Latitude and longitude must both be valid coordinates",
+                report.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    public void csv_largeStreamedFile_importsEveryRow() throws IOException {
+        // 500k data rows: each hike followed by one observation row
+        Reader file = new GeneratedCsvReader(LARGE_FILE_HIKES, 1);
+
+        ImportReport report = new HikeImporter(context, 500).importFrom(file, TransferFormat.CSV);
+
+        assertEquals(report.getErrors().toString(), 0, report.getRejectedRecords());
+        assertEquals(LARGE_FILE_HIKES, report.getImportedHikes());
+        assertEquals(LARGE_FILE_HIKES, report.getImportedObservations());
+        SQLiteDatabase db = helper.getReadableDatabase();
+        assertEquals(LARGE_FILE_HIKES, DatabaseUtils.queryNumEntries(db, Constants.TABLE_HIKES));
+        assertEquals(LARGE_FILE_HIKES, DatabaseUtils.queryNumEntries(db, Constants.TABLE_OBSERVATIONS));
+        assertEquals(1, DatabaseUtils.queryNumEntries(db, Constants.TABLE_HIKES,
+                Constants.COLUMN_NAME + " = ?", new String[]{"Hike " + (LARGE_FILE_HIKES - 1)}));
+    }
+
+    @Test
+    public void csv_observationsAcrossBatchBoundaries_stayWithTheirHike() throws IOException {
+        // Hike i has i observations; a batch of two is committed when the third hike starts
+        ImportReport report = new HikeImporter(context, 2)
+                .importFrom(new GeneratedCsvReader(5, -1), TransferFormat.CSV);
+
+        assertEquals(report.getErrors().toString(), 0, report.getRejectedRecords());
+        assertEquals(5, report.getImportedHikes());
+        assertEquals(10, report.getImportedObservations());
+        ObservationDAO observationDAO = new ObservationDAO(context);
+        for (Hike hike : new HikeDAO(context).getAllHikes()) {
+            int source = Integer.parseInt(hike.getName().substring("Hike ".length()));
+            List<Observation> observations = observationDAO.getObservationsForHike(hike.getId());
+            assertEquals(hike.getName(), source, observations.size());
+            for (Observation observation : observations) {
+                assertTrue(observation.getObservation(),
+                        observation.getObservation().startsWith("Sighting " + source + "."));
+            }
+        }
+    }
+
+    /**
+     * Export a located hike with a located and an unlocated observation, import them into
+     * an empty database and compare
+     */
+    private void assertPositionsRoundTrip(TransferFormat format) throws IOException {
+        Hike hike = new Hike(0, "Snowdon", "Llanberis", "2024-05-12", Parking.YES, 14.5,
+                Difficulty.HARD, null, WeatherCondition.SUNNY, "5h", null);
+        hike.setLatitude(53.1175);
+        hike.setLongitude(-4.1275);
+        long hikeId = new HikeDAO(context).insertHike(hike);
+        ObservationDAO observationDAO = new ObservationDAO(context);
+        Observation located = new Observation(0, hikeId, "Ravens", "2024-05-12 11:30:00", null);
+        located.setLatitude(53.0685);
+        located.setLongitude(-4.0763);
+        observationDAO.insertObservation(located);
+        observationDAO.insertObservation(new Observation(0, hikeId, "Mist", "2024-05-12 12:00:00", "Thick"));
+
+        StringWriter file = new StringWriter();
+        new HikeExporter(context).export(file, format);
+        openEmptyDatabase();
+        ImportReport report = new HikeImporter(context).importFrom(new StringReader(file.toString()), format);
+
+        assertEquals(report.getErrors().toString(), 0, report.getRejectedRecords());
+        HikeDAO hikeDAO = new HikeDAO(context);
+        List<Hike> hikes = hikeDAO.getAllHikes();
+        assertEquals(1, hikes.size());
+        assertEquals(Double.valueOf(53.1175), hikes.get(0).getLatitude());
+        assertEquals(Double.valueOf(-4.1275), hikes.get(0).getLongitude());
+        // Found through the geohash computed on import
+        assertEquals(1, hikeDAO.getHikesNear(53.12, -4.13, 1_000, 0).size());
+
+        List<Observation> observations = observationDAO.getObservationsForHike(hikes.get(0).getId());
+        // Newest first
+        assertEquals(2, observations.size());
+        assertEquals("Mist", observations.get(0).getObservation());
+        assertFalse(observations.get(0).hasLocation());
+        assertEquals(Double.valueOf(53.0685), observations.get(1).getLatitude());
+        assertEquals(Double.valueOf(-4.0763), observations.get(1).getLongitude());
+    }
+
+    private void openEmptyDatabase() {
+        if (helper != null) {
+            helper.close();
+        }
+        context.deleteDatabase(DATABASE_NAME);
+        helper = new DatabaseHelper(context, DATABASE_NAME, StorageProfile.DEFAULT, null);
+        DatabaseProvider.setHelper(helper);
+    }
+
+    /**
+     * Writes a CSV export of numbered hikes on demand, so a large file never exists in memory
+     */
+    private static class GeneratedCsvReader extends Reader {
+        private final int hikes;
+        private final int observationsPerHike;
+        private final StringBuilder pending = new StringBuilder(CSV_HEADER);
+        private int pendingOffset;
+        private int nextHike;
+
+        /**
+         * @param observationsPerHike Observations after each hike, or -1 for as many as the
+         *                            hike's number
+         */
+        GeneratedCsvReader(int hikes, int observationsPerHike) {
+            this.hikes = hikes;
+            this.observationsPerHike = observationsPerHike;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (pendingOffset == pending.length()) {
+                if (nextHike == hikes) {
+                    return -1;
+                }
+                pending.setLength(0);
+                pendingOffset = 0;
+                appendHike(nextHike++);
+            }
+            int count = Math.min(length, pending.length() - pendingOffset);
+            pending.getChars(pendingOffset, pendingOffset + count, buffer, offset);
+            pendingOffset += count;
+            return count;
+        }
+
+        private void appendHike(int i) {
+            pending.append("hike,").append(i).append(",Hike ").append(i)
+                    .append(",Llanberis,2024-05-12,Yes,14.5,Hard,,,,\r\n");
+            int observations = observationsPerHike < 0 ? i : observationsPerHike;
+            for (int j = 0; j < observations; j++) {
+                pending.append("observation,,,,,,,,,").append(i).append(",Sighting ").append(i).append('.')
+                        .append(j).append(",2024-05-12 11:").append(10 + j).append(":00\r\n");
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.coursework;
+
+import android.app.Application;
+
+import com.example.coursework.database.DatabaseProvider;
+
+/**
+ * Application class that owns process-wide resources
+ */
+public class HikeApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        // Open the shared database early and keep it open for the process lifetime
+        DatabaseProvider.warmUp(this);
+    }
+}
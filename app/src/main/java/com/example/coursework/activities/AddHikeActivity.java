@@ -11,9 +11,13 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.coursework.R;
+import com.example.coursework.models.Difficulty;
 import com.example.coursework.models.Hike;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.WeatherCondition;
 import com.example.coursework.utils.Constants;
 import com.example.coursework.utils.DateUtils;
+import com.example.coursework.utils.OptionLabels;
 import com.example.coursework.utils.ValidationUtils;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
@@ -141,9 +145,12 @@ public class AddHikeActivity extends AppCompatActivity {
         etDescription.setText(currentHike.getDescription());
         etDuration.setText(currentHike.getEstimatedDuration());
 
-        spinnerParking.setText(currentHike.getParkingAvailable(), false);
-        spinnerDifficulty.setText(currentHike.getDifficulty(), false);
-        spinnerWeather.setText(currentHike.getWeatherCondition(), false);
+        spinnerParking.setText(OptionLabels.getLabel(getResources(), R.array.parking_options,
+                currentHike.getParkingAvailable()), false);
+        spinnerDifficulty.setText(OptionLabels.getLabel(getResources(), R.array.difficulty_levels,
+                currentHike.getDifficulty()), false);
+        spinnerWeather.setText(OptionLabels.getLabel(getResources(), R.array.weather_conditions,
+                currentHike.getWeatherCondition()), false);
     }
 
     /**
@@ -216,9 +223,9 @@ public class AddHikeActivity extends AppCompatActivity {
         String date = etDate.getText().toString().trim();
         String lengthStr = etLength.getText().toString().trim();
         String description = etDescription.getText().toString().trim();
-        String parking = spinnerParking.getText().toString().trim();
-        String difficulty = spinnerDifficulty.getText().toString().trim();
-        String weather = spinnerWeather.getText().toString().trim();
+        Parking parking = Parking.fromLabel(getResources(), spinnerParking.getText().toString());
+        Difficulty difficulty = Difficulty.fromLabel(getResources(), spinnerDifficulty.getText().toString());
+        WeatherCondition weather = WeatherCondition.fromLabel(getResources(), spinnerWeather.getText().toString());
         String duration = etDuration.getText().toString().trim();
 
         boolean isValid = true;
@@ -242,7 +249,7 @@ public class AddHikeActivity extends AppCompatActivity {
         }
 
         // Validate parking
-        if (parking.isEmpty()) {
+        if (parking == null) {
             tilParking.setError(getString(R.string.error_parking_required));
             isValid = false;
         }
@@ -266,7 +273,7 @@ public class AddHikeActivity extends AppCompatActivity {
         }
 
         // Validate difficulty
-        if (difficulty.isEmpty()) {
+        if (difficulty == null) {
             tilDifficulty.setError(getString(R.string.error_difficulty_required));
             isValid = false;
         }
@@ -12,10 +12,8 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.coursework.R;
-import com.example.coursework.database.HikeDAO;
-import com.example.coursework.database.ObservationDAO;
-import com.example.coursework.models.Hike;
 import com.example.coursework.models.Observation;
+import com.example.coursework.repository.HikeRepository;
 import com.example.coursework.utils.Constants;
 import com.example.coursework.utils.DateUtils;
 import com.example.coursework.utils.ValidationUtils;
@@ -35,8 +33,7 @@ public class AddObservationActivity extends AppCompatActivity {
     private TextInputEditText etObservation, etTime, etComments;
     private MaterialButton btnSave, btnCancel;
 
-    private ObservationDAO observationDAO;
-    private HikeDAO hikeDAO;
+    private HikeRepository repository;
     private Observation currentObservation;
     private long hikeId;
     private boolean isEditMode = false;
@@ -51,9 +48,12 @@ public class AddObservationActivity extends AppCompatActivity {
             getSupportActionBar().setDisplayHomeAsUpEnabled(true);
         }
 
-        // Initialize DAOs
-        observationDAO = new ObservationDAO(this);
-        hikeDAO = new HikeDAO(this);
+        // Initialize repository
+        repository = new HikeRepository(this);
+        repository.setOnErrorListener(e -> {
+            btnSave.setEnabled(true);
+            Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show();
+        });
 
         // Initialize views
         initializeViews();
@@ -116,8 +116,8 @@ public class AddObservationActivity extends AppCompatActivity {
      * Loads observation data for editing
      */
     private void loadObservation(long observationId) {
-        try {
-            currentObservation = observationDAO.getObservationById(observationId);
+        repository.getObservationById(observationId, observation -> {
+            currentObservation = observation;
             if (currentObservation != null) {
                 hikeId = currentObservation.getHikeId();
                 loadHikeName(hikeId);
@@ -126,24 +126,18 @@ public class AddObservationActivity extends AppCompatActivity {
                 Toast.makeText(this, R.string.error_loading, Toast.LENGTH_SHORT).show();
                 finish();
             }
-        } catch (Exception e) {
-            Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show();
-            finish();
-        }
+        });
     }
 
     /**
      * Loads and displays the hike name
      */
     private void loadHikeName(long hikeId) {
-        try {
-            Hike hike = hikeDAO.getHikeById(hikeId);
+        repository.getHikeById(hikeId, hike -> {
             if (hike != null) {
                 tvHikeName.setText(hike.getName());
             }
-        } catch (Exception e) {
-            tvHikeName.setText("");
-        }
+        });
     }
 
     /**
@@ -246,7 +240,8 @@ public class AddObservationActivity extends AppCompatActivity {
             isValid = false;
         }
 
-        if (!isValid) {
+        // Observation is still loading in edit mode
+        if (!isValid || currentObservation == null) {
             return;
         }
 
@@ -263,33 +258,46 @@ public class AddObservationActivity extends AppCompatActivity {
      * Saves the observation to database
      */
     private void saveObservation() {
-        try {
-            long result;
-            if (isEditMode) {
-                result = observationDAO.updateObservation(currentObservation);
-                if (result > 0) {
+        // Prevent duplicate saves while the write is in flight
+        btnSave.setEnabled(false);
+
+        if (isEditMode) {
+            repository.updateObservation(currentObservation, rowsAffected -> {
+                if (rowsAffected > 0) {
                     Toast.makeText(this, R.string.success_observation_updated, Toast.LENGTH_SHORT).show();
+                    finishWithSuccess();
                 } else {
-                    Toast.makeText(this, R.string.error_saving, Toast.LENGTH_SHORT).show();
-                    return;
+                    onSaveFailed();
                 }
-            } else {
-                result = observationDAO.insertObservation(currentObservation);
-                if (result > 0) {
+            });
+        } else {
+            repository.insertObservation(currentObservation, id -> {
+                if (id > 0) {
                     Toast.makeText(this, R.string.success_observation_added, Toast.LENGTH_SHORT).show();
+                    finishWithSuccess();
                 } else {
-                    Toast.makeText(this, R.string.error_saving, Toast.LENGTH_SHORT).show();
-                    return;
+                    onSaveFailed();
                 }
-            }
-
-            setResult(RESULT_OK);
-            finish();
-        } catch (Exception e) {
-            Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show();
+            });
         }
     }
 
+    /**
+     * Returns success to the caller and closes the screen
+     */
+    private void finishWithSuccess() {
+        setResult(RESULT_OK);
+        finish();
+    }
+
+    /**
+     * Re-enables saving after a failed write
+     */
+    private void onSaveFailed() {
+        btnSave.setEnabled(true);
+        Toast.makeText(this, R.string.error_saving, Toast.LENGTH_SHORT).show();
+    }
+
     /**
      * Clears all error messages
      */
@@ -309,6 +317,7 @@ public class AddObservationActivity extends AppCompatActivity {
 
     @Override
     protected void onDestroy() {
+        repository.cancelAll();
         super.onDestroy();
     }
 }
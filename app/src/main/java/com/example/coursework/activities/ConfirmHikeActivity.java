@@ -10,10 +10,12 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.coursework.R;
-import com.example.coursework.database.HikeDAO;
+import com.example.coursework.models.Difficulty;
 import com.example.coursework.models.Hike;
+import com.example.coursework.repository.HikeRepository;
 import com.example.coursework.utils.Constants;
 import com.example.coursework.utils.DateUtils;
+import com.example.coursework.utils.OptionLabels;
 import com.google.android.material.button.MaterialButton;
 
 /**
@@ -26,7 +28,7 @@ public class ConfirmHikeActivity extends AppCompatActivity {
     private MaterialButton btnEdit, btnConfirm;
 
     private Hike hike;
-    private HikeDAO hikeDAO;
+    private HikeRepository repository;
     private boolean isEditMode = false;
 
     @Override
@@ -40,8 +42,12 @@ public class ConfirmHikeActivity extends AppCompatActivity {
             getSupportActionBar().setTitle(R.string.confirm_title);
         }
 
-        // Initialize DAO
-        hikeDAO = new HikeDAO(this);
+        // Initialize repository
+        repository = new HikeRepository(this);
+        repository.setOnErrorListener(e -> {
+            btnConfirm.setEnabled(true);
+            Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show();
+        });
 
         // Initialize views
         initializeViews();
@@ -106,9 +112,11 @@ public class ConfirmHikeActivity extends AppCompatActivity {
             tvDate.setText(hike.getDate());
         }
 
-        tvParking.setText(hike.getParkingAvailable());
+        tvParking.setText(OptionLabels.getLabel(getResources(), R.array.parking_options,
+                hike.getParkingAvailable()));
         tvLength.setText(String.format(getString(R.string.km_format), hike.getLength()));
-        tvDifficulty.setText(hike.getDifficulty());
+        tvDifficulty.setText(OptionLabels.getLabel(getResources(), R.array.difficulty_levels,
+                hike.getDifficulty()));
 
         // Set difficulty color
         setDifficultyColor(hike.getDifficulty());
@@ -120,8 +128,9 @@ public class ConfirmHikeActivity extends AppCompatActivity {
             tvDescription.setText("-");
         }
 
-        if (hike.getWeatherCondition() != null && !hike.getWeatherCondition().isEmpty()) {
-            tvWeather.setText(hike.getWeatherCondition());
+        if (hike.getWeatherCondition() != null) {
+            tvWeather.setText(OptionLabels.getLabel(getResources(), R.array.weather_conditions,
+                    hike.getWeatherCondition()));
         } else {
             tvWeather.setText("-");
         }
@@ -136,23 +145,23 @@ public class ConfirmHikeActivity extends AppCompatActivity {
     /**
      * Sets the difficulty badge color based on difficulty level
      */
-    private void setDifficultyColor(String difficulty) {
-        int colorResId;
-        switch (difficulty.toLowerCase()) {
-            case "easy":
-                colorResId = R.color.difficulty_easy;
-                break;
-            case "moderate":
-                colorResId = R.color.difficulty_moderate;
-                break;
-            case "hard":
-                colorResId = R.color.difficulty_hard;
-                break;
-            case "expert":
-                colorResId = R.color.difficulty_expert;
-                break;
-            default:
-                colorResId = R.color.text_secondary;
+    private void setDifficultyColor(Difficulty difficulty) {
+        int colorResId = R.color.text_secondary;
+        if (difficulty != null) {
+            switch (difficulty) {
+                case EASY:
+                    colorResId = R.color.difficulty_easy;
+                    break;
+                case MODERATE:
+                    colorResId = R.color.difficulty_moderate;
+                    break;
+                case HARD:
+                    colorResId = R.color.difficulty_hard;
+                    break;
+                case EXPERT:
+                    colorResId = R.color.difficulty_expert;
+                    break;
+            }
         }
         tvDifficulty.setTextColor(getResources().getColor(colorResId, getTheme()));
     }
@@ -177,37 +186,49 @@ public class ConfirmHikeActivity extends AppCompatActivity {
      * Saves the hike to the database
      */
     private void saveHike() {
-        try {
-            long result;
-            if (isEditMode) {
-                // Update existing hike
-                result = hikeDAO.updateHike(hike);
-                if (result > 0) {
+        // Prevent duplicate saves while the write is in flight
+        btnConfirm.setEnabled(false);
+
+        if (isEditMode) {
+            // Update existing hike
+            repository.updateHike(hike, rowsAffected -> {
+                if (rowsAffected > 0) {
                     Toast.makeText(this, R.string.success_hike_updated, Toast.LENGTH_SHORT).show();
+                    finishWithSuccess();
                 } else {
-                    Toast.makeText(this, R.string.error_saving, Toast.LENGTH_SHORT).show();
-                    return;
+                    onSaveFailed();
                 }
-            } else {
-                // Insert new hike
-                result = hikeDAO.insertHike(hike);
-                if (result > 0) {
-                    hike.setId(result);
+            });
+        } else {
+            // Insert new hike
+            repository.insertHike(hike, id -> {
+                if (id > 0) {
+                    hike.setId(id);
                     Toast.makeText(this, R.string.success_hike_added, Toast.LENGTH_SHORT).show();
+                    finishWithSuccess();
                 } else {
-                    Toast.makeText(this, R.string.error_saving, Toast.LENGTH_SHORT).show();
-                    return;
+                    onSaveFailed();
                 }
-            }
-
-            // Return success
-            setResult(RESULT_OK);
-            finish();
-        } catch (Exception e) {
-            Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show();
+            });
         }
     }
 
+    /**
+     * Returns success to the caller and closes the screen
+     */
+    private void finishWithSuccess() {
+        setResult(RESULT_OK);
+        finish();
+    }
+
+    /**
+     * Re-enables saving after a failed write
+     */
+    private void onSaveFailed() {
+        btnConfirm.setEnabled(true);
+        Toast.makeText(this, R.string.error_saving, Toast.LENGTH_SHORT).show();
+    }
+
     @Override
     public boolean onOptionsItemSelected(@NonNull MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
@@ -219,6 +240,7 @@ public class ConfirmHikeActivity extends AppCompatActivity {
 
     @Override
     protected void onDestroy() {
+        repository.cancelAll();
         super.onDestroy();
     }
 }
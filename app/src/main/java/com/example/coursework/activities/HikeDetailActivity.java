@@ -1,7 +1,9 @@
 package com.example.coursework.activities;
 
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
+import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.TextView;
@@ -12,13 +14,19 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.coursework.R;
-import com.example.coursework.database.HikeDAO;
-import com.example.coursework.database.ObservationDAO;
+import com.example.coursework.models.Difficulty;
 import com.example.coursework.models.Hike;
+import com.example.coursework.models.HikeStats;
+import com.example.coursework.repository.HikeRepository;
 import com.example.coursework.utils.Constants;
 import com.example.coursework.utils.DateUtils;
+import com.example.coursework.utils.OptionLabels;
+import com.example.coursework.views.ElevationProfileView;
 import com.google.android.material.button.MaterialButton;
 
+import java.io.IOException;
+import java.util.List;
+
 /**
  * Activity for viewing detailed information about a single hike
  */
@@ -27,9 +35,12 @@ public class HikeDetailActivity extends AppCompatActivity {
     private TextView tvName, tvLocation, tvDate, tvParking, tvLength;
     private TextView tvDifficulty, tvDescription, tvWeather, tvDuration, tvObservationCount;
     private MaterialButton btnEdit, btnDelete, btnAddObservation, btnViewObservations;
+    private View cardTrackStats;
+    private TextView tvStatsDistance, tvStatsClimb, tvStatsMovingTime, tvStatsElapsedTime;
+    private TextView tvStatsPace, tvStatsElevation, tvStatsSplits;
+    private ElevationProfileView viewElevationProfile;
 
-    private HikeDAO hikeDAO;
-    private ObservationDAO observationDAO;
+    private HikeRepository repository;
     private Hike currentHike;
     private long hikeId;
 
@@ -44,9 +55,11 @@ public class HikeDetailActivity extends AppCompatActivity {
             getSupportActionBar().setTitle(R.string.hike_detail_title);
         }
 
-        // Initialize DAOs
-        hikeDAO = new HikeDAO(this);
-        observationDAO = new ObservationDAO(this);
+        // Initialize repository
+        repository = new HikeRepository(this);
+        repository.setOnErrorListener(e -> Toast.makeText(this,
+                e instanceof IOException ? R.string.error_export : R.string.error_database,
+                Toast.LENGTH_SHORT).show());
 
         // Initialize views
         initializeViews();
@@ -73,6 +86,16 @@ public class HikeDetailActivity extends AppCompatActivity {
         tvDuration = findViewById(R.id.tv_detail_duration);
         tvObservationCount = findViewById(R.id.tv_observation_count);
 
+        cardTrackStats = findViewById(R.id.card_track_stats);
+        tvStatsDistance = findViewById(R.id.tv_stats_distance);
+        tvStatsClimb = findViewById(R.id.tv_stats_climb);
+        tvStatsMovingTime = findViewById(R.id.tv_stats_moving_time);
+        tvStatsElapsedTime = findViewById(R.id.tv_stats_elapsed_time);
+        tvStatsPace = findViewById(R.id.tv_stats_pace);
+        tvStatsElevation = findViewById(R.id.tv_stats_elevation);
+        tvStatsSplits = findViewById(R.id.tv_stats_splits);
+        viewElevationProfile = findViewById(R.id.view_elevation_profile);
+
         btnEdit = findViewById(R.id.btn_edit_hike);
         btnDelete = findViewById(R.id.btn_delete_hike);
         btnAddObservation = findViewById(R.id.btn_add_observation);
@@ -87,19 +110,17 @@ public class HikeDetailActivity extends AppCompatActivity {
         if (intent.hasExtra(Constants.EXTRA_HIKE_ID)) {
             hikeId = intent.getLongExtra(Constants.EXTRA_HIKE_ID, -1);
             if (hikeId != -1) {
-                try {
-                    currentHike = hikeDAO.getHikeById(hikeId);
+                repository.getHikeById(hikeId, hike -> {
+                    currentHike = hike;
                     if (currentHike != null) {
                         displayHikeDetails();
                         updateObservationCount();
+                        loadTrackStats();
                     } else {
                         Toast.makeText(this, R.string.error_loading, Toast.LENGTH_SHORT).show();
                         finish();
                     }
-                } catch (Exception e) {
-                    Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show();
-                    finish();
-                }
+                });
             }
         } else {
             Toast.makeText(this, R.string.error_loading, Toast.LENGTH_SHORT).show();
@@ -125,9 +146,11 @@ public class HikeDetailActivity extends AppCompatActivity {
             tvDate.setText(currentHike.getDate());
         }
 
-        tvParking.setText(currentHike.getParkingAvailable());
+        tvParking.setText(OptionLabels.getLabel(getResources(), R.array.parking_options,
+                currentHike.getParkingAvailable()));
         tvLength.setText(String.format(getString(R.string.km_format), currentHike.getLength()));
-        tvDifficulty.setText(currentHike.getDifficulty());
+        tvDifficulty.setText(OptionLabels.getLabel(getResources(), R.array.difficulty_levels,
+                currentHike.getDifficulty()));
 
         // Set difficulty color
         setDifficultyColor(currentHike.getDifficulty());
@@ -139,8 +162,9 @@ public class HikeDetailActivity extends AppCompatActivity {
             tvDescription.setText("-");
         }
 
-        if (currentHike.getWeatherCondition() != null && !currentHike.getWeatherCondition().isEmpty()) {
-            tvWeather.setText(currentHike.getWeatherCondition());
+        if (currentHike.getWeatherCondition() != null) {
+            tvWeather.setText(OptionLabels.getLabel(getResources(), R.array.weather_conditions,
+                    currentHike.getWeatherCondition()));
         } else {
             tvWeather.setText("-");
         }
@@ -156,23 +180,23 @@ public class HikeDetailActivity extends AppCompatActivity {
     /**
      * Sets the difficulty badge color based on difficulty level
      */
-    private void setDifficultyColor(String difficulty) {
-        int colorResId;
-        switch (difficulty.toLowerCase()) {
-            case "easy":
-                colorResId = R.color.difficulty_easy;
-                break;
-            case "moderate":
-                colorResId = R.color.difficulty_moderate;
-                break;
-            case "hard":
-                colorResId = R.color.difficulty_hard;
-                break;
-            case "expert":
-                colorResId = R.color.difficulty_expert;
-                break;
-            default:
-                colorResId = R.color.text_secondary;
+    private void setDifficultyColor(Difficulty difficulty) {
+        int colorResId = R.color.text_secondary;
+        if (difficulty != null) {
+            switch (difficulty) {
+                case EASY:
+                    colorResId = R.color.difficulty_easy;
+                    break;
+                case MODERATE:
+                    colorResId = R.color.difficulty_moderate;
+                    break;
+                case HARD:
+                    colorResId = R.color.difficulty_hard;
+                    break;
+                case EXPERT:
+                    colorResId = R.color.difficulty_expert;
+                    break;
+            }
         }
         tvDifficulty.setTextColor(getResources().getColor(colorResId, getTheme()));
     }
@@ -181,14 +205,69 @@ public class HikeDetailActivity extends AppCompatActivity {
      * Updates the observation count display
      */
     private void updateObservationCount() {
-        try {
-            int count = observationDAO.getObservationCountForHike(hikeId);
-            tvObservationCount.setText(String.format(getString(R.string.observations_count), count));
-        } catch (Exception e) {
-            tvObservationCount.setText(String.format(getString(R.string.observations_count), 0));
+        repository.getObservationCount(hikeId, count ->
+                tvObservationCount.setText(String.format(getString(R.string.observations_count), count)));
+    }
+
+    /**
+     * Loads the statistics of the hike's recorded track, if it has one
+     */
+    private void loadTrackStats() {
+        repository.getHikeStats(hikeId, stats -> {
+            if (stats != null && stats.getPointCount() > 1) {
+                displayTrackStats(stats);
+                cardTrackStats.setVisibility(View.VISIBLE);
+            } else {
+                cardTrackStats.setVisibility(View.GONE);
+            }
+        });
+    }
+
+    /**
+     * Displays track statistics in the UI
+     */
+    private void displayTrackStats(HikeStats stats) {
+        tvStatsDistance.setText(String.format(getString(R.string.km_format), stats.getDistanceMeters() / 1000));
+        tvStatsClimb.setText(getString(R.string.stats_climb_format,
+                Math.round(stats.getAscentMeters()), Math.round(stats.getDescentMeters())));
+        tvStatsMovingTime.setText(stats.getMovingTimeMillis() > 0
+                ? formatDuration(stats.getMovingTimeMillis()) : "-");
+        tvStatsElapsedTime.setText(stats.getElapsedTimeMillis() > 0
+                ? formatDuration(stats.getElapsedTimeMillis()) : "-");
+
+        long paceSeconds = Math.round(stats.getAveragePaceMillisPerKm() / 1000.0);
+        tvStatsPace.setText(paceSeconds > 0
+                ? getString(R.string.stats_pace_format, paceSeconds / 60, paceSeconds % 60) : "-");
+
+        if (stats.getMinElevation() != null) {
+            tvStatsElevation.setText(getString(R.string.stats_elevation_range_format,
+                    Math.round(stats.getMinElevation()), Math.round(stats.getMaxElevation())));
+        } else {
+            tvStatsElevation.setText("-");
+        }
+        viewElevationProfile.setProfile(stats.getElevationProfile());
+
+        List<Long> splits = stats.getSplitTimesMillis();
+        if (splits.isEmpty()) {
+            tvStatsSplits.setText("-");
+        } else {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < splits.size(); i++) {
+                if (i > 0) {
+                    text.append('\n');
+                }
+                long seconds = Math.round(splits.get(i) / 1000.0);
+                text.append(getString(R.string.stats_split_format, i + 1, seconds / 60, seconds % 60));
+            }
+            tvStatsSplits.setText(text);
         }
     }
 
+    private String formatDuration(long millis) {
+        long minutes = Math.round(millis / 60000.0);
+        return getString(R.string.stats_duration_format, minutes / 60, minutes % 60);
+    }
+
     /**
      * Sets up button click listeners
      */
@@ -224,17 +303,14 @@ public class HikeDetailActivity extends AppCompatActivity {
      * Deletes the current hike from database
      */
     private void deleteHike() {
-        try {
-            int deleted = hikeDAO.deleteHike(hikeId);
+        repository.deleteHike(hikeId, deleted -> {
             if (deleted > 0) {
                 Toast.makeText(this, R.string.success_hike_deleted, Toast.LENGTH_SHORT).show();
                 finish();
             } else {
                 Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show();
             }
-        } catch (Exception e) {
-            Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show();
-        }
+        });
     }
 
     /**
@@ -255,6 +331,44 @@ public class HikeDetailActivity extends AppCompatActivity {
         startActivity(intent);
     }
 
+    /**
+     * Asks the user where to save the hike as GPX
+     *
+     * @param requestCode REQUEST_EXPORT_GPX for the full track, REQUEST_EXPORT_GPX_SIMPLIFIED otherwise
+     */
+    private void chooseGpxFile(int requestCode) {
+        if (currentHike == null) {
+            return;
+        }
+
+        Intent intent = new Intent(Intent.ACTION_CREATE_DOCUMENT);
+        intent.addCategory(Intent.CATEGORY_OPENABLE);
+        intent.setType(Constants.GPX_MIME_TYPE);
+        intent.putExtra(Intent.EXTRA_TITLE, currentHike.getName() + "." + Constants.GPX_EXTENSION);
+        startActivityForResult(intent, requestCode);
+    }
+
+    /**
+     * Exports the hike to the chosen document in the background
+     */
+    private void exportGpx(Uri uri, double toleranceMeters) {
+        repository.exportGpx(hikeId, uri, toleranceMeters, report -> Toast.makeText(this,
+                getString(R.string.success_export_gpx, report.getObservationCount()),
+                Toast.LENGTH_LONG).show());
+    }
+
+    @Override
+    protected void onActivityResult(int requestCode, int resultCode, Intent data) {
+        super.onActivityResult(requestCode, resultCode, data);
+        if (resultCode == RESULT_OK && data != null && data.getData() != null) {
+            if (requestCode == Constants.REQUEST_EXPORT_GPX) {
+                exportGpx(data.getData(), 0);
+            } else if (requestCode == Constants.REQUEST_EXPORT_GPX_SIMPLIFIED) {
+                exportGpx(data.getData(), Constants.GPX_SIMPLIFIED_TOLERANCE_METERS);
+            }
+        }
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -264,17 +378,30 @@ public class HikeDetailActivity extends AppCompatActivity {
         }
     }
 
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_hike_detail, menu);
+        return true;
+    }
+
     @Override
     public boolean onOptionsItemSelected(@NonNull MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
             finish();
             return true;
+        } else if (item.getItemId() == R.id.action_export_gpx) {
+            chooseGpxFile(Constants.REQUEST_EXPORT_GPX);
+            return true;
+        } else if (item.getItemId() == R.id.action_export_gpx_simplified) {
+            chooseGpxFile(Constants.REQUEST_EXPORT_GPX_SIMPLIFIED);
+            return true;
         }
         return super.onOptionsItemSelected(item);
     }
 
     @Override
     protected void onDestroy() {
+        repository.cancelAll();
         super.onDestroy();
     }
 }
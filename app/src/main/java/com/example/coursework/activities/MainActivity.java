@@ -2,12 +2,10 @@ package com.example.coursework.activities;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.coursework.R;
-import com.example.coursework.database.DatabaseHelper;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
 
@@ -16,20 +14,11 @@ import com.google.android.material.card.MaterialCardView;
  */
 public class MainActivity extends AppCompatActivity {
 
-    private DatabaseHelper databaseHelper;
-
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        // Initialize database
-        try {
-            databaseHelper = new DatabaseHelper(this);
-        } catch (Exception e) {
-            Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show();
-        }
-
         // Initialize buttons
         initializeButtons();
     }
@@ -41,6 +30,7 @@ public class MainActivity extends AppCompatActivity {
         MaterialButton btnAddHike = findViewById(R.id.btn_add_hike);
         MaterialButton btnViewHikes = findViewById(R.id.btn_view_hikes);
         MaterialButton btnSearchHikes = findViewById(R.id.btn_search_hikes);
+        MaterialButton btnStatistics = findViewById(R.id.btn_statistics);
 
         btnAddHike.setOnClickListener(v -> {
             Intent intent = new Intent(MainActivity.this, AddHikeActivity.class);
@@ -56,13 +46,10 @@ public class MainActivity extends AppCompatActivity {
             Intent intent = new Intent(MainActivity.this, SearchActivity.class);
             startActivity(intent);
         });
-    }
 
-    @Override
-    protected void onDestroy() {
-        if (databaseHelper != null) {
-            databaseHelper.close();
-        }
-        super.onDestroy();
+        btnStatistics.setOnClickListener(v -> {
+            Intent intent = new Intent(MainActivity.this, StatisticsActivity.class);
+            startActivity(intent);
+        });
     }
 }
@@ -3,6 +3,12 @@ package com.example.coursework.activities;
 import android.app.DatePickerDialog;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.util.Log;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.ArrayAdapter;
@@ -18,8 +24,12 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.coursework.R;
 import com.example.coursework.adapters.HikeAdapter;
-import com.example.coursework.database.HikeDAO;
-import com.example.coursework.models.Hike;
+import com.example.coursework.database.FullTextSearch;
+import com.example.coursework.database.HikeQuery;
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.HikeListItem;
+import com.example.coursework.models.HikeSummary;
+import com.example.coursework.repository.HikeRepository;
 import com.example.coursework.utils.Constants;
 import com.example.coursework.utils.DateUtils;
 import com.google.android.material.button.MaterialButton;
@@ -27,6 +37,7 @@ import com.google.android.material.textfield.TextInputEditText;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -34,7 +45,9 @@ import java.util.List;
  */
 public class SearchActivity extends AppCompatActivity implements HikeAdapter.OnHikeClickListener {
 
-    private TextInputEditText etSearchName, etSearchLocation, etMinLength, etMaxLength, etStartDate, etEndDate;
+    private static final String TAG = "SearchActivity";
+
+    private TextInputEditText etSearchName, etSearchLocation, etSearchKeywords, etMinLength, etMaxLength, etStartDate, etEndDate;
     private AutoCompleteTextView spinnerDifficulty;
     private MaterialButton btnSearch, btnClear, btnAdvancedSearch;
     private CardView advancedSearchCard;
@@ -42,10 +55,15 @@ public class SearchActivity extends AppCompatActivity implements HikeAdapter.OnH
     private TextView tvEmpty, tvResultsCount;
 
     private HikeAdapter adapter;
-    private HikeDAO hikeDAO;
-    private List<Hike> searchResults;
+    private HikeRepository repository;
+    private HikeRepository.Request searchRequest;
+    private List<HikeListItem> searchResults;
     private boolean advancedSearchVisible = false;
 
+    // Debounces search-as-you-type so a query only runs once typing pauses
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable pendingSearch = this::performSearch;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -57,8 +75,10 @@ public class SearchActivity extends AppCompatActivity implements HikeAdapter.OnH
             getSupportActionBar().setTitle(R.string.search_title);
         }
 
-        // Initialize DAO
-        hikeDAO = new HikeDAO(this);
+        // Initialize repository
+        repository = new HikeRepository(this);
+        repository.setOnErrorListener(e ->
+                Toast.makeText(this, R.string.error_loading, Toast.LENGTH_SHORT).show());
 
         // Initialize views
         initializeViews();
@@ -79,6 +99,7 @@ public class SearchActivity extends AppCompatActivity implements HikeAdapter.OnH
     private void initializeViews() {
         etSearchName = findViewById(R.id.et_search_name);
         etSearchLocation = findViewById(R.id.et_search_location);
+        etSearchKeywords = findViewById(R.id.et_search_keywords);
         etMinLength = findViewById(R.id.et_min_length);
         etMaxLength = findViewById(R.id.et_max_length);
         etStartDate = findViewById(R.id.et_start_date);
@@ -114,7 +135,7 @@ public class SearchActivity extends AppCompatActivity implements HikeAdapter.OnH
      */
     private void setupRecyclerView() {
         searchResults = new ArrayList<>();
-        adapter = new HikeAdapter(this, searchResults, this);
+        adapter = new HikeAdapter(this, this);
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
         recyclerView.setAdapter(adapter);
     }
@@ -135,6 +156,42 @@ public class SearchActivity extends AppCompatActivity implements HikeAdapter.OnH
         etEndDate.setOnClickListener(v -> showDatePicker(etEndDate));
         etEndDate.setFocusable(false);
         etEndDate.setClickable(true);
+
+        // Search as the user types
+        TextWatcher searchWatcher = new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                scheduleSearch();
+            }
+        };
+        etSearchName.addTextChangedListener(searchWatcher);
+        etSearchLocation.addTextChangedListener(searchWatcher);
+        etSearchKeywords.addTextChangedListener(searchWatcher);
+    }
+
+    /**
+     * Restarts the debounce timer after a keystroke
+     * Clearing every text field clears the results instead of listing every hike.
+     */
+    private void scheduleSearch() {
+        searchHandler.removeCallbacks(pendingSearch);
+
+        if (etSearchName.getText().toString().trim().isEmpty()
+                && etSearchLocation.getText().toString().trim().isEmpty()
+                && etSearchKeywords.getText().toString().trim().isEmpty()) {
+            clearResults();
+            return;
+        }
+
+        searchHandler.postDelayed(pendingSearch, Constants.SEARCH_DEBOUNCE_MS);
     }
 
     /**
@@ -183,10 +240,13 @@ public class SearchActivity extends AppCompatActivity implements HikeAdapter.OnH
      * Performs search based on entered criteria
      */
     private void performSearch() {
+        searchHandler.removeCallbacks(pendingSearch);
+
         try {
             String name = etSearchName.getText().toString().trim();
             String location = etSearchLocation.getText().toString().trim();
-            String difficulty = spinnerDifficulty.getText().toString().trim();
+            String keywords = etSearchKeywords.getText().toString().trim();
+            Difficulty difficulty = Difficulty.fromLabel(getResources(), spinnerDifficulty.getText().toString());
             String minLengthStr = etMinLength.getText().toString().trim();
             String maxLengthStr = etMaxLength.getText().toString().trim();
             String startDate = etStartDate.getText().toString().trim();
@@ -214,19 +274,60 @@ public class SearchActivity extends AppCompatActivity implements HikeAdapter.OnH
                 }
             }
 
-            // Perform search
-            searchResults = hikeDAO.advancedSearch(name, location, minLength, maxLength,
-                    startDate, endDate);
+            // Only the latest search may deliver results
+            if (searchRequest != null) {
+                searchRequest.cancel();
+            }
+
+            // Perform search in the background
+            long startTime = SystemClock.elapsedRealtime();
+            boolean hasFilters = minLength != null || maxLength != null
+                    || !startDate.isEmpty() || !endDate.isEmpty() || difficulty != null;
+            boolean hasText = !name.isEmpty() || !location.isEmpty() || !keywords.isEmpty();
+            String matchQuery = FullTextSearch.buildMatchQuery(name, location, keywords);
+
+            if (hasText && matchQuery == null) {
+                // Text without any searchable words matches nothing, with or without filters
+                showResults(Collections.emptyList(), startTime);
+            } else if (!hasFilters && hasText) {
+                // Text-only search uses the ranked full-text index
+                searchRequest = repository.fullTextSearch(name, location, keywords,
+                        Constants.SEARCH_RESULT_LIMIT, results -> showResults(results, startTime));
+            } else {
+                // Filters apply on top of the full-text matches
+                HikeQuery query = new HikeQuery();
+                query.setMatchQuery(matchQuery);
+                query.setMinLength(minLength);
+                query.setMaxLength(maxLength);
+                query.setStartEpochDay(DateUtils.toEpochDay(startDate));
+                query.setEndEpochDay(DateUtils.toEpochDay(endDate));
+                if (difficulty != null) {
+                    query.addDifficulty(difficulty);
+                }
+                query.setLimit(Constants.SEARCH_RESULT_LIMIT);
 
-            // Update UI
-            adapter.updateList(searchResults);
-            updateResultsDisplay();
+                searchRequest = repository.queryHikeItems(query, results -> showResults(results, startTime));
+            }
 
         } catch (Exception e) {
             Toast.makeText(this, R.string.error_loading, Toast.LENGTH_SHORT).show();
         }
     }
 
+    /**
+     * Shows the results of a finished search and logs its latency
+     */
+    private void showResults(List<HikeListItem> results, long startTime) {
+        searchRequest = null;
+        Log.d(TAG, "Search returned " + results.size() + " hike(s) in "
+                + (SystemClock.elapsedRealtime() - startTime) + " ms");
+        searchResults = results;
+
+        // Update UI
+        adapter.updateList(searchResults);
+        updateResultsDisplay();
+    }
+
     /**
      * Updates the results display
      */
@@ -250,13 +351,27 @@ public class SearchActivity extends AppCompatActivity implements HikeAdapter.OnH
     private void clearSearch() {
         etSearchName.setText("");
         etSearchLocation.setText("");
+        etSearchKeywords.setText("");
         etMinLength.setText("");
         etMaxLength.setText("");
         etStartDate.setText("");
         etEndDate.setText("");
         spinnerDifficulty.setText("", false);
 
-        searchResults.clear();
+        clearResults();
+    }
+
+    /**
+     * Cancels any pending or running search and clears the results
+     */
+    private void clearResults() {
+        searchHandler.removeCallbacks(pendingSearch);
+        if (searchRequest != null) {
+            searchRequest.cancel();
+            searchRequest = null;
+        }
+
+        searchResults = new ArrayList<>();
         adapter.updateList(searchResults);
         recyclerView.setVisibility(View.GONE);
         tvEmpty.setVisibility(View.VISIBLE);
@@ -264,7 +379,7 @@ public class SearchActivity extends AppCompatActivity implements HikeAdapter.OnH
     }
 
     @Override
-    public void onHikeClick(Hike hike) {
+    public void onHikeClick(HikeSummary hike) {
         Intent intent = new Intent(this, HikeDetailActivity.class);
         intent.putExtra(Constants.EXTRA_HIKE_ID, hike.getId());
         startActivity(intent);
@@ -281,6 +396,8 @@ public class SearchActivity extends AppCompatActivity implements HikeAdapter.OnH
 
     @Override
     protected void onDestroy() {
+        searchHandler.removeCallbacks(pendingSearch);
+        repository.cancelAll();
         super.onDestroy();
     }
 }
@@ -0,0 +1,105 @@
+package com.example.coursework.activities;
+
+import android.os.Bundle;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.coursework.R;
+import com.example.coursework.adapters.PeriodStatsAdapter;
+import com.example.coursework.models.PeriodStats;
+import com.example.coursework.repository.HikeRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Activity showing hike totals for all time, each year and each month
+ * Totals are read from the maintained monthly summary, not computed from every hike.
+ */
+public class StatisticsActivity extends AppCompatActivity {
+
+    private RecyclerView recyclerView;
+    private PeriodStatsAdapter adapter;
+    private TextView tvEmpty;
+
+    private HikeRepository repository;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_statistics);
+
+        // Setup toolbar
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+            getSupportActionBar().setTitle(R.string.statistics_title);
+        }
+
+        // Initialize repository
+        repository = new HikeRepository(this);
+        repository.setOnErrorListener(e ->
+                Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show());
+
+        // Initialize views
+        recyclerView = findViewById(R.id.recycler_view_statistics);
+        tvEmpty = findViewById(R.id.tv_empty_statistics);
+
+        // Setup RecyclerView
+        adapter = new PeriodStatsAdapter(this);
+        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        recyclerView.setAdapter(adapter);
+    }
+
+    /**
+     * Loads the all-time totals followed by the yearly and monthly totals in the background
+     */
+    private void loadStatistics() {
+        repository.getTotalStats(total -> repository.getPeriodStats(periods -> {
+            List<PeriodStats> items = new ArrayList<>();
+            if (!periods.isEmpty()) {
+                items.add(total);
+                items.addAll(periods);
+            }
+            adapter.updateList(items);
+            updateEmptyState(items.isEmpty());
+        }));
+    }
+
+    /**
+     * Updates the empty state view visibility
+     */
+    private void updateEmptyState(boolean empty) {
+        recyclerView.setVisibility(empty ? View.GONE : View.VISIBLE);
+        tvEmpty.setVisibility(empty ? View.VISIBLE : View.GONE);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        loadStatistics();
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(@NonNull MenuItem item) {
+        if (item.getItemId() == android.R.id.home) {
+            finish();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    @Override
+    protected void onDestroy() {
+        if (repository != null) {
+            repository.cancelAll();
+        }
+        super.onDestroy();
+    }
+}
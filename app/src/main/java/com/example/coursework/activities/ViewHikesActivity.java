@@ -2,6 +2,7 @@ package com.example.coursework.activities;
 
 import android.content.DialogInterface;
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -17,11 +18,15 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.coursework.R;
 import com.example.coursework.adapters.HikeAdapter;
-import com.example.coursework.database.HikeDAO;
-import com.example.coursework.models.Hike;
+import com.example.coursework.models.HikeListItem;
+import com.example.coursework.models.HikeSummary;
+import com.example.coursework.repository.HikeRepository;
+import com.example.coursework.transfer.ImportReport;
+import com.example.coursework.transfer.TransferFormat;
 import com.example.coursework.utils.Constants;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -35,8 +40,11 @@ public class ViewHikesActivity extends AppCompatActivity implements HikeAdapter.
     private TextView tvEmpty;
     private FloatingActionButton fab;
 
-    private HikeDAO hikeDAO;
-    private List<Hike> hikeList;
+    private HikeRepository repository;
+    private HikeRepository.Request pageRequest;
+    private List<HikeListItem> hikeList;
+    private boolean endReached = false;
+    private int transferErrorMessage = R.string.error_export;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -49,18 +57,18 @@ public class ViewHikesActivity extends AppCompatActivity implements HikeAdapter.
             getSupportActionBar().setTitle(R.string.view_hikes_title);
         }
 
-        // Initialize DAO
-        hikeDAO = new HikeDAO(this);
+        // Initialize repository
+        repository = new HikeRepository(this);
+        repository.setOnErrorListener(e -> Toast.makeText(this,
+                e instanceof IOException ? transferErrorMessage : R.string.error_database,
+                Toast.LENGTH_SHORT).show());
 
         // Initialize views
         initializeViews();
 
-        // Setup RecyclerView
+        // Setup RecyclerView (hikes are loaded in onResume)
         setupRecyclerView();
 
-        // Load hikes
-        loadHikes();
-
         // Setup FAB
         setupFab();
     }
@@ -79,9 +87,21 @@ public class ViewHikesActivity extends AppCompatActivity implements HikeAdapter.
      */
     private void setupRecyclerView() {
         hikeList = new ArrayList<>();
-        adapter = new HikeAdapter(this, hikeList, this);
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        adapter = new HikeAdapter(this, this);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
         recyclerView.setAdapter(adapter);
+
+        // Load the next page when the user scrolls close to the end of the list
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition()
+                        >= adapter.getItemCount() - Constants.HIKES_PREFETCH_DISTANCE) {
+                    loadNextPage();
+                }
+            }
+        });
     }
 
     /**
@@ -95,16 +115,44 @@ public class ViewHikesActivity extends AppCompatActivity implements HikeAdapter.
     }
 
     /**
-     * Loads all hikes from database
+     * Reloads hikes from the top of the list in the background
+     * Reloads at least as many hikes as are already shown so the scroll position is kept.
      */
     private void loadHikes() {
-        try {
-            hikeList = hikeDAO.getAllHikes();
+        if (pageRequest != null) {
+            pageRequest.cancel();
+        }
+
+        int limit = Math.max(Constants.HIKES_PAGE_SIZE, hikeList.size());
+        pageRequest = repository.getHikeItemsPage(null, limit, hikes -> {
+            pageRequest = null;
+            hikeList = hikes;
+            endReached = hikes.size() < limit;
             adapter.updateList(hikeList);
             updateEmptyState();
-        } catch (Exception e) {
-            Toast.makeText(this, R.string.error_loading, Toast.LENGTH_SHORT).show();
+        });
+    }
+
+    /**
+     * Loads the page of hikes following the last one shown
+     */
+    private void loadNextPage() {
+        if (pageRequest != null || endReached || hikeList.isEmpty()) {
+            return;
         }
+
+        HikeSummary last = hikeList.get(hikeList.size() - 1).getSummary();
+        pageRequest = repository.getHikeItemsPage(last, Constants.HIKES_PAGE_SIZE, page -> {
+            pageRequest = null;
+            endReached = page.size() < Constants.HIKES_PAGE_SIZE;
+
+            // Submitted lists are never modified, so append into a copy
+            List<HikeListItem> combined = new ArrayList<>(hikeList.size() + page.size());
+            combined.addAll(hikeList);
+            combined.addAll(page);
+            hikeList = combined;
+            adapter.updateList(hikeList);
+        });
     }
 
     /**
@@ -121,7 +169,7 @@ public class ViewHikesActivity extends AppCompatActivity implements HikeAdapter.
     }
 
     @Override
-    public void onHikeClick(Hike hike) {
+    public void onHikeClick(HikeSummary hike) {
         Intent intent = new Intent(this, HikeDetailActivity.class);
         intent.putExtra(Constants.EXTRA_HIKE_ID, hike.getId());
         startActivity(intent);
@@ -141,6 +189,21 @@ public class ViewHikesActivity extends AppCompatActivity implements HikeAdapter.
         } else if (item.getItemId() == R.id.action_delete_all) {
             showDeleteAllConfirmation();
             return true;
+        } else if (item.getItemId() == R.id.action_export_csv) {
+            chooseExportFile(TransferFormat.CSV, Constants.REQUEST_EXPORT_CSV);
+            return true;
+        } else if (item.getItemId() == R.id.action_export_jsonl) {
+            chooseExportFile(TransferFormat.JSON_LINES, Constants.REQUEST_EXPORT_JSONL);
+            return true;
+        } else if (item.getItemId() == R.id.action_import_csv) {
+            chooseImportFile(Constants.REQUEST_IMPORT_CSV);
+            return true;
+        } else if (item.getItemId() == R.id.action_import_jsonl) {
+            chooseImportFile(Constants.REQUEST_IMPORT_JSONL);
+            return true;
+        } else if (item.getItemId() == R.id.action_import_gpx) {
+            chooseImportFile(Constants.REQUEST_IMPORT_GPX);
+            return true;
         }
         return super.onOptionsItemSelected(item);
     }
@@ -166,15 +229,93 @@ public class ViewHikesActivity extends AppCompatActivity implements HikeAdapter.
      * Deletes all hikes from database
      */
     private void deleteAllHikes() {
-        try {
-            int deleted = hikeDAO.deleteAllHikes();
+        repository.deleteAllHikes(deleted -> {
             if (deleted > 0) {
                 Toast.makeText(this, R.string.success_all_deleted, Toast.LENGTH_SHORT).show();
                 loadHikes();
             }
-        } catch (Exception e) {
-            Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show();
+        });
+    }
+
+    /**
+     * Asks the user where to save an export
+     */
+    private void chooseExportFile(TransferFormat format, int requestCode) {
+        Intent intent = new Intent(Intent.ACTION_CREATE_DOCUMENT);
+        intent.addCategory(Intent.CATEGORY_OPENABLE);
+        intent.setType(format.getMimeType());
+        intent.putExtra(Intent.EXTRA_TITLE, getString(R.string.export_file_name) + "." + format.getExtension());
+        startActivityForResult(intent, requestCode);
+    }
+
+    /**
+     * Exports all hikes to the chosen document in the background
+     */
+    private void exportHikes(Uri uri, TransferFormat format) {
+        transferErrorMessage = R.string.error_export;
+        repository.exportHikes(uri, format, report -> Toast.makeText(this,
+                getString(R.string.success_export, report.getHikeCount(), report.getObservationCount()),
+                Toast.LENGTH_LONG).show());
+    }
+
+    /**
+     * Asks the user for a file to import
+     * Any MIME type is accepted since providers label CSV and JSON Lines files inconsistently.
+     */
+    private void chooseImportFile(int requestCode) {
+        Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+        intent.addCategory(Intent.CATEGORY_OPENABLE);
+        intent.setType("*/*");
+        startActivityForResult(intent, requestCode);
+    }
+
+    /**
+     * Imports hikes from the chosen document in the background
+     */
+    private void importHikes(Uri uri, TransferFormat format) {
+        transferErrorMessage = R.string.error_import;
+        repository.importHikes(uri, format, report -> {
+            if (report.getRejectedRecords() > 0) {
+                showImportErrors(report);
+            } else {
+                Toast.makeText(this, getString(R.string.success_import,
+                        report.getImportedHikes(), report.getImportedObservations()),
+                        Toast.LENGTH_LONG).show();
+            }
+            loadHikes();
+        });
+    }
+
+    /**
+     * Imports a GPX file as a new hike in the background
+     */
+    private void importGpx(Uri uri) {
+        transferErrorMessage = R.string.error_import;
+        repository.importGpx(uri, hike -> {
+            Toast.makeText(this, getString(R.string.success_import_gpx, hike.getName()),
+                    Toast.LENGTH_LONG).show();
+            loadHikes();
+        });
+    }
+
+    /**
+     * Shows the records rejected by an import with their line numbers
+     */
+    private void showImportErrors(ImportReport report) {
+        StringBuilder message = new StringBuilder(getString(R.string.dialog_import_message,
+                report.getImportedHikes(), report.getImportedObservations(), report.getRejectedRecords()));
+        for (ImportReport.ImportError error : report.getErrors()) {
+            message.append('\n').append(error);
         }
+        if (report.getErrors().size() < report.getRejectedRecords()) {
+            message.append("\n...");
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.dialog_import_title)
+                .setMessage(message)
+                .setPositiveButton(R.string.btn_ok, null)
+                .show();
     }
 
     @Override
@@ -188,11 +329,24 @@ public class ViewHikesActivity extends AppCompatActivity implements HikeAdapter.
         super.onActivityResult(requestCode, resultCode, data);
         if (requestCode == Constants.REQUEST_ADD_HIKE && resultCode == RESULT_OK) {
             loadHikes();
+        } else if (resultCode == RESULT_OK && data != null && data.getData() != null) {
+            if (requestCode == Constants.REQUEST_EXPORT_CSV) {
+                exportHikes(data.getData(), TransferFormat.CSV);
+            } else if (requestCode == Constants.REQUEST_EXPORT_JSONL) {
+                exportHikes(data.getData(), TransferFormat.JSON_LINES);
+            } else if (requestCode == Constants.REQUEST_IMPORT_CSV) {
+                importHikes(data.getData(), TransferFormat.CSV);
+            } else if (requestCode == Constants.REQUEST_IMPORT_JSONL) {
+                importHikes(data.getData(), TransferFormat.JSON_LINES);
+            } else if (requestCode == Constants.REQUEST_IMPORT_GPX) {
+                importGpx(data.getData());
+            }
         }
     }
 
     @Override
     protected void onDestroy() {
+        repository.cancelAll();
         super.onDestroy();
     }
 }
@@ -15,8 +15,8 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.coursework.R;
 import com.example.coursework.adapters.ObservationAdapter;
-import com.example.coursework.database.ObservationDAO;
 import com.example.coursework.models.Observation;
+import com.example.coursework.repository.HikeRepository;
 import com.example.coursework.utils.Constants;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
@@ -34,7 +34,7 @@ public class ViewObservationsActivity extends AppCompatActivity
     private TextView tvEmpty;
     private FloatingActionButton fab;
 
-    private ObservationDAO observationDAO;
+    private HikeRepository repository;
     private List<Observation> observationList;
     private long hikeId;
 
@@ -59,8 +59,10 @@ public class ViewObservationsActivity extends AppCompatActivity
             return;
         }
 
-        // Initialize DAO
-        observationDAO = new ObservationDAO(this);
+        // Initialize repository
+        repository = new HikeRepository(this);
+        repository.setOnErrorListener(e ->
+                Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show());
 
         // Initialize views
         initializeViews();
@@ -89,7 +91,7 @@ public class ViewObservationsActivity extends AppCompatActivity
      */
     private void setupRecyclerView() {
         observationList = new ArrayList<>();
-        adapter = new ObservationAdapter(this, observationList, this);
+        adapter = new ObservationAdapter(this, this);
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
         recyclerView.setAdapter(adapter);
     }
@@ -106,16 +108,14 @@ public class ViewObservationsActivity extends AppCompatActivity
     }
 
     /**
-     * Loads all observations for the hike from database
+     * Loads all observations for the hike from database in the background
      */
     private void loadObservations() {
-        try {
-            observationList = observationDAO.getObservationsForHike(hikeId);
+        repository.getObservationsForHike(hikeId, observations -> {
+            observationList = observations;
             adapter.updateList(observationList);
             updateEmptyState();
-        } catch (Exception e) {
-            Toast.makeText(this, R.string.error_loading, Toast.LENGTH_SHORT).show();
-        }
+        });
     }
 
     /**
@@ -160,17 +160,14 @@ public class ViewObservationsActivity extends AppCompatActivity
      * Deletes an observation from database
      */
     private void deleteObservation(Observation observation) {
-        try {
-            int deleted = observationDAO.deleteObservation(observation.getId());
+        repository.deleteObservation(observation.getId(), deleted -> {
             if (deleted > 0) {
                 Toast.makeText(this, R.string.success_observation_deleted, Toast.LENGTH_SHORT).show();
                 loadObservations();
             } else {
                 Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show();
             }
-        } catch (Exception e) {
-            Toast.makeText(this, R.string.error_database, Toast.LENGTH_SHORT).show();
-        }
+        });
     }
 
     @Override
@@ -190,6 +187,9 @@ public class ViewObservationsActivity extends AppCompatActivity
 
     @Override
     protected void onDestroy() {
+        if (repository != null) {
+            repository.cancelAll();
+        }
         super.onDestroy();
     }
 }
@@ -8,38 +8,53 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.coursework.R;
-import com.example.coursework.models.Hike;
-import com.example.coursework.utils.Constants;
-import com.example.coursework.utils.DateUtils;
+import com.example.coursework.models.HikeListItem;
+import com.example.coursework.models.HikeSummary;
 
 import java.util.List;
 
 /**
  * RecyclerView adapter for displaying hikes in a list
+ * Lists are diffed on a background thread, so a reload only rebinds rows that changed.
  */
-public class HikeAdapter extends RecyclerView.Adapter<HikeAdapter.HikeViewHolder> {
+public class HikeAdapter extends ListAdapter<HikeListItem, HikeAdapter.HikeViewHolder> {
+
+    private static final DiffUtil.ItemCallback<HikeListItem> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<HikeListItem>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull HikeListItem oldItem, @NonNull HikeListItem newItem) {
+                    return oldItem.getId() == newItem.getId();
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull HikeListItem oldItem, @NonNull HikeListItem newItem) {
+                    return oldItem.equals(newItem);
+                }
+            };
 
     private Context context;
-    private List<Hike> hikeList;
     private OnHikeClickListener listener;
 
     /**
      * Interface for handling hike item clicks
      */
     public interface OnHikeClickListener {
-        void onHikeClick(Hike hike);
+        void onHikeClick(HikeSummary hike);
     }
 
     /**
      * Constructor
      */
-    public HikeAdapter(Context context, List<Hike> hikeList, OnHikeClickListener listener) {
+    public HikeAdapter(Context context, OnHikeClickListener listener) {
+        super(DIFF_CALLBACK);
         this.context = context;
-        this.hikeList = hikeList;
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -51,21 +66,21 @@ public class HikeAdapter extends RecyclerView.Adapter<HikeAdapter.HikeViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull HikeViewHolder holder, int position) {
-        Hike hike = hikeList.get(position);
-        holder.bind(hike);
+        HikeListItem item = getItem(position);
+        holder.bind(item);
     }
 
     @Override
-    public int getItemCount() {
-        return hikeList != null ? hikeList.size() : 0;
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     /**
-     * Updates the hike list and refreshes the view
+     * Updates the hike list; only changed rows are rebound
+     * The list must not be modified after it is passed in.
      */
-    public void updateList(List<Hike> newList) {
-        this.hikeList = newList;
-        notifyDataSetChanged();
+    public void updateList(List<HikeListItem> newList) {
+        submitList(newList);
     }
 
     /**
@@ -89,28 +104,19 @@ public class HikeAdapter extends RecyclerView.Adapter<HikeAdapter.HikeViewHolder
 
         /**
          * Binds hike data to view components
+         * Everything shown is pre-formatted, so binding only sets text and colors.
          */
-        public void bind(Hike hike) {
+        public void bind(HikeListItem item) {
+            HikeSummary hike = item.getSummary();
             tvName.setText(hike.getName());
             tvLocation.setText(hike.getLocation());
-            tvLength.setText(String.format(context.getString(R.string.km_format), hike.getLength()));
-            tvDifficulty.setText(hike.getDifficulty());
-
-            // Format date for display
-            try {
-                String formattedDate = DateUtils.formatDate(
-                        DateUtils.parseDate(hike.getDate(), Constants.DATE_FORMAT_DATABASE),
-                        Constants.DATE_FORMAT_DISPLAY
-                );
-                tvDate.setText(formattedDate);
-            } catch (Exception e) {
-                tvDate.setText(hike.getDate());
-            }
+            tvDate.setText(item.getDisplayDate());
+            tvLength.setText(item.getLengthLabel());
+            tvDifficulty.setText(item.getDifficultyLabel());
 
             // Set difficulty color
-            int colorResId = getDifficultyColor(hike.getDifficulty());
-            difficultyIndicator.setBackgroundColor(context.getResources().getColor(colorResId, context.getTheme()));
-            tvDifficulty.setTextColor(context.getResources().getColor(colorResId, context.getTheme()));
+            difficultyIndicator.setBackgroundColor(item.getDifficultyColor());
+            tvDifficulty.setTextColor(item.getDifficultyColor());
 
             // Set click listener
             cardView.setOnClickListener(v -> {
@@ -119,23 +125,5 @@ public class HikeAdapter extends RecyclerView.Adapter<HikeAdapter.HikeViewHolder
                 }
             });
         }
-
-        /**
-         * Returns the color resource for a given difficulty level
-         */
-        private int getDifficultyColor(String difficulty) {
-            switch (difficulty.toLowerCase()) {
-                case "easy":
-                    return R.color.difficulty_easy;
-                case "moderate":
-                    return R.color.difficulty_moderate;
-                case "hard":
-                    return R.color.difficulty_hard;
-                case "expert":
-                    return R.color.difficulty_expert;
-                default:
-                    return R.color.text_secondary;
-            }
-        }
     }
 }
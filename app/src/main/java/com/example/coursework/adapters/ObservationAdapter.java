@@ -9,6 +9,8 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.coursework.R;
@@ -20,11 +22,24 @@ import java.util.List;
 
 /**
  * RecyclerView adapter for displaying observations in a list
+ * Lists are diffed on a background thread, so a reload only rebinds rows that changed.
  */
-public class ObservationAdapter extends RecyclerView.Adapter<ObservationAdapter.ObservationViewHolder> {
+public class ObservationAdapter extends ListAdapter<Observation, ObservationAdapter.ObservationViewHolder> {
+
+    private static final DiffUtil.ItemCallback<Observation> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<Observation>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull Observation oldItem, @NonNull Observation newItem) {
+                    return oldItem.getId() == newItem.getId();
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull Observation oldItem, @NonNull Observation newItem) {
+                    return oldItem.equals(newItem);
+                }
+            };
 
     private Context context;
-    private List<Observation> observationList;
     private OnObservationActionListener listener;
 
     /**
@@ -38,11 +53,11 @@ public class ObservationAdapter extends RecyclerView.Adapter<ObservationAdapter.
     /**
      * Constructor
      */
-    public ObservationAdapter(Context context, List<Observation> observationList,
-                             OnObservationActionListener listener) {
+    public ObservationAdapter(Context context, OnObservationActionListener listener) {
+        super(DIFF_CALLBACK);
         this.context = context;
-        this.observationList = observationList;
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -54,21 +69,21 @@ public class ObservationAdapter extends RecyclerView.Adapter<ObservationAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull ObservationViewHolder holder, int position) {
-        Observation observation = observationList.get(position);
+        Observation observation = getItem(position);
         holder.bind(observation);
     }
 
     @Override
-    public int getItemCount() {
-        return observationList != null ? observationList.size() : 0;
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     /**
-     * Updates the observation list and refreshes the view
+     * Updates the observation list; only changed rows are rebound
+     * The list must not be modified after it is passed in.
      */
     public void updateList(List<Observation> newList) {
-        this.observationList = newList;
-        notifyDataSetChanged();
+        submitList(newList);
     }
 
     /**
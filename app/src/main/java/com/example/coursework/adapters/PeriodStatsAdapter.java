@@ -0,0 +1,133 @@
+package com.example.coursework.adapters;
+
+import android.content.Context;
+import android.graphics.Typeface;
+import android.text.TextUtils;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.coursework.R;
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.PeriodStats;
+import com.example.coursework.utils.OptionLabels;
+
+import java.text.DateFormatSymbols;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RecyclerView adapter for displaying hike totals per period
+ * All-time and yearly totals are shown as headings above the months they cover.
+ */
+public class PeriodStatsAdapter extends ListAdapter<PeriodStats, PeriodStatsAdapter.PeriodStatsViewHolder> {
+
+    private static final DiffUtil.ItemCallback<PeriodStats> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<PeriodStats>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull PeriodStats oldItem, @NonNull PeriodStats newItem) {
+                    return oldItem.getYear() == newItem.getYear() && oldItem.getMonth() == newItem.getMonth();
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull PeriodStats oldItem, @NonNull PeriodStats newItem) {
+                    return oldItem.equals(newItem);
+                }
+            };
+
+    private Context context;
+    private final String[] monthNames;
+    private final String[] difficultyLabels;
+
+    /**
+     * Constructor
+     */
+    public PeriodStatsAdapter(Context context) {
+        super(DIFF_CALLBACK);
+        this.context = context;
+        monthNames = new DateFormatSymbols().getMonths();
+        difficultyLabels = context.getResources().getStringArray(R.array.difficulty_levels);
+    }
+
+    @NonNull
+    @Override
+    public PeriodStatsViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(context).inflate(R.layout.item_period_stats, parent, false);
+        return new PeriodStatsViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull PeriodStatsViewHolder holder, int position) {
+        PeriodStats stats = getItem(position);
+        holder.bind(stats);
+    }
+
+    /**
+     * Updates the list of periods; only changed rows are rebound
+     * The list must not be modified after it is passed in.
+     */
+    public void updateList(List<PeriodStats> newList) {
+        submitList(newList);
+    }
+
+    /**
+     * ViewHolder class for period items
+     */
+    class PeriodStatsViewHolder extends RecyclerView.ViewHolder {
+        private TextView tvName, tvHikes, tvObservations, tvDifficulty;
+
+        public PeriodStatsViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvName = itemView.findViewById(R.id.tv_period_name);
+            tvHikes = itemView.findViewById(R.id.tv_period_hikes);
+            tvObservations = itemView.findViewById(R.id.tv_period_observations);
+            tvDifficulty = itemView.findViewById(R.id.tv_period_difficulty);
+        }
+
+        /**
+         * Binds period totals to view components
+         */
+        public void bind(PeriodStats stats) {
+            if (stats.isAllTime()) {
+                tvName.setText(R.string.stats_all_time);
+            } else if (stats.isYear()) {
+                tvName.setText(String.valueOf(stats.getYear()));
+            } else {
+                tvName.setText(context.getString(R.string.stats_month_format,
+                        monthNames[stats.getMonth() - 1], stats.getYear()));
+            }
+            // Headings for all-time and yearly totals
+            tvName.setTypeface(null, stats.getMonth() == 0 ? Typeface.BOLD : Typeface.NORMAL);
+
+            tvHikes.setText(context.getString(R.string.stats_hikes_length_format,
+                    stats.getHikeCount(), stats.getTotalLength()));
+            tvObservations.setText(context.getString(R.string.stats_observations_format,
+                    stats.getObservationCount(), stats.getObservationsPerHike()));
+            tvDifficulty.setText(formatDifficulties(stats));
+        }
+
+        /**
+         * Hike count of each difficulty level that has hikes
+         */
+        private String formatDifficulties(PeriodStats stats) {
+            List<String> counts = new ArrayList<>();
+            for (Difficulty difficulty : Difficulty.values()) {
+                if (stats.getHikeCount(difficulty) > 0) {
+                    counts.add(context.getString(R.string.stats_difficulty_count_format,
+                            OptionLabels.getLabel(difficultyLabels, difficulty), stats.getHikeCount(difficulty)));
+                }
+            }
+            if (stats.getHikeCount(null) > 0) {
+                counts.add(context.getString(R.string.stats_difficulty_count_format,
+                        context.getString(R.string.stats_difficulty_not_set), stats.getHikeCount(null)));
+            }
+            return TextUtils.join(" · ", counts);
+        }
+    }
+}
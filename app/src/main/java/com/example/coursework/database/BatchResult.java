@@ -0,0 +1,56 @@
+package com.example.coursework.database;
+
+/**
+ * Outcome of a batch write
+ */
+public class BatchResult {
+    private final int rowsAffected;
+    private final long elapsedMillis;
+    private final boolean successful;
+
+    public BatchResult(int rowsAffected, long elapsedMillis, boolean successful) {
+        this.rowsAffected = rowsAffected;
+        this.elapsedMillis = elapsedMillis;
+        this.successful = successful;
+    }
+
+    /**
+     * Rows inserted, updated or deleted; 0 if the batch was rolled back
+     */
+    public int getRowsAffected() {
+        return rowsAffected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Whether the batch was committed
+     */
+    public boolean isSuccessful() {
+        return successful;
+    }
+
+    /**
+     * Throughput of the batch
+     *
+     * @return Rows per second, or 0 if nothing was written
+     */
+    public double getRowsPerSecond() {
+        if (rowsAffected == 0) {
+            return 0;
+        }
+        return rowsAffected * 1000.0 / Math.max(1, elapsedMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "rowsAffected=" + rowsAffected +
+                ", elapsedMillis=" + elapsedMillis +
+                ", successful=" + successful +
+                ", rowsPerSecond=" + getRowsPerSecond() +
+                '}';
+    }
+}
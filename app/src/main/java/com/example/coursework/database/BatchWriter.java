@@ -0,0 +1,104 @@
+package com.example.coursework.database;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.List;
+
+/**
+ * Runs one compiled statement for every item of a batch inside a single transaction
+ * The statement is compiled once and rebound per row, and the whole batch costs one
+ * commit. If any row fails, the batch is rolled back.
+ */
+class BatchWriter {
+
+    private static final String TAG = "BatchWriter";
+
+    /**
+     * Binds one item to the statement and executes it
+     */
+    interface Step<T> {
+        /**
+         * @return Number of rows affected by this item
+         */
+        int execute(SQLiteStatement statement, T item);
+    }
+
+    private BatchWriter() {
+    }
+
+    /**
+     * Execute a statement for each item in one transaction
+     *
+     * @param db    Writable database
+     * @param task  Name of the batch, for logging
+     * @param sql   Statement to compile
+     * @param items Items to write
+     * @param step  Binds and executes one item
+     * @return Rows affected and timing
+     */
+    static <T> BatchResult run(SQLiteDatabase db, String task, String sql, List<T> items, Step<T> step) {
+        long start = SystemClock.elapsedRealtime();
+        int rowsAffected = 0;
+        boolean successful = false;
+
+        SQLiteStatement statement = null;
+        db.beginTransaction();
+        try {
+            statement = db.compileStatement(sql);
+            for (T item : items) {
+                statement.clearBindings();
+                rowsAffected += step.execute(statement, item);
+            }
+            db.setTransactionSuccessful();
+            successful = true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            rowsAffected = 0;
+        } finally {
+            db.endTransaction();
+            if (statement != null) {
+                statement.close();
+            }
+        }
+
+        BatchResult result = new BatchResult(rowsAffected, SystemClock.elapsedRealtime() - start, successful);
+        Log.d(TAG, task + ": " + result);
+        return result;
+    }
+
+    /**
+     * Bind a string that may be null
+     */
+    static void bindNullableString(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+
+    /**
+     * Bind a number that may be null
+     */
+    static void bindNullableDouble(SQLiteStatement statement, int index, Double value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindDouble(index, value);
+        }
+    }
+
+    /**
+     * Bind an integer that may be null
+     */
+    static void bindNullableLong(SQLiteStatement statement, int index, Long value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindLong(index, value);
+        }
+    }
+}
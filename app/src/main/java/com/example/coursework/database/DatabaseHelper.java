@@ -1,9 +1,12 @@
 package com.example.coursework.database;
 
 import android.content.Context;
+import android.os.Build;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
+import com.example.coursework.database.migration.MigrationProgressListener;
+import com.example.coursework.database.migration.MigrationRunner;
 import com.example.coursework.utils.Constants;
 
 /**
@@ -18,13 +21,17 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             + Constants.COLUMN_NAME + " TEXT NOT NULL, "
             + Constants.COLUMN_LOCATION + " TEXT NOT NULL, "
             + Constants.COLUMN_DATE + " TEXT NOT NULL, "
-            + Constants.COLUMN_PARKING_AVAILABLE + " TEXT NOT NULL, "
+            + Constants.COLUMN_DATE_EPOCH_DAY + " INTEGER NOT NULL DEFAULT 0, "
+            + Constants.COLUMN_PARKING_AVAILABLE + " INTEGER NOT NULL DEFAULT 0, "
             + Constants.COLUMN_LENGTH + " REAL NOT NULL, "
-            + Constants.COLUMN_DIFFICULTY + " TEXT NOT NULL, "
+            + Constants.COLUMN_DIFFICULTY + " INTEGER NOT NULL DEFAULT 0, "
             + Constants.COLUMN_DESCRIPTION + " TEXT, "
-            + Constants.COLUMN_WEATHER_CONDITION + " TEXT, "
+            + Constants.COLUMN_WEATHER_CONDITION + " INTEGER NOT NULL DEFAULT 0, "
             + Constants.COLUMN_ESTIMATED_DURATION + " TEXT, "
-            + Constants.COLUMN_CREATED_AT + " TEXT DEFAULT CURRENT_TIMESTAMP"
+            + Constants.COLUMN_CREATED_AT + " TEXT DEFAULT CURRENT_TIMESTAMP, "
+            + Constants.COLUMN_LATITUDE + " REAL, "
+            + Constants.COLUMN_LONGITUDE + " REAL, "
+            + Constants.COLUMN_GEOHASH + " TEXT"
             + ")";
 
     // Create observations table SQL
@@ -34,12 +41,137 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             + Constants.COLUMN_OBSERVATION + " TEXT NOT NULL, "
             + Constants.COLUMN_TIME + " TEXT NOT NULL, "
             + Constants.COLUMN_COMMENTS + " TEXT, "
+            + Constants.COLUMN_LATITUDE + " REAL, "
+            + Constants.COLUMN_LONGITUDE + " REAL, "
             + "FOREIGN KEY(" + Constants.COLUMN_HIKE_ID + ") REFERENCES "
             + Constants.TABLE_HIKES + "(" + Constants.COLUMN_ID + ") ON DELETE CASCADE"
             + ")";
 
+    // Create track chunks table SQL; a hike's track is stored as compressed chunks in ID order
+    private static final String CREATE_TABLE_TRACK_CHUNKS = "CREATE TABLE " + Constants.TABLE_TRACK_CHUNKS + " ("
+            + Constants.COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + Constants.COLUMN_HIKE_ID + " INTEGER NOT NULL, "
+            + Constants.COLUMN_POINT_COUNT + " INTEGER NOT NULL, "
+            + Constants.COLUMN_DATA + " BLOB NOT NULL, "
+            + "FOREIGN KEY(" + Constants.COLUMN_HIKE_ID + ") REFERENCES "
+            + Constants.TABLE_HIKES + "(" + Constants.COLUMN_ID + ") ON DELETE CASCADE"
+            + ")";
+
+    // Create hike statistics table SQL; one row per hike with a track, keyed by the hike
+    private static final String CREATE_TABLE_HIKE_STATS = "CREATE TABLE " + Constants.TABLE_HIKE_STATS + " ("
+            + Constants.COLUMN_HIKE_ID + " INTEGER PRIMARY KEY, "
+            + Constants.COLUMN_POINT_COUNT + " INTEGER NOT NULL, "
+            + Constants.COLUMN_DISTANCE + " REAL NOT NULL, "
+            + Constants.COLUMN_ASCENT + " REAL NOT NULL, "
+            + Constants.COLUMN_DESCENT + " REAL NOT NULL, "
+            + Constants.COLUMN_MOVING_TIME + " INTEGER NOT NULL, "
+            + Constants.COLUMN_START_TIME + " INTEGER, "
+            + Constants.COLUMN_END_TIME + " INTEGER, "
+            + Constants.COLUMN_MIN_ELEVATION + " REAL, "
+            + Constants.COLUMN_MAX_ELEVATION + " REAL, "
+            + Constants.COLUMN_SPLITS + " TEXT NOT NULL, "
+            + Constants.COLUMN_PROFILE + " TEXT NOT NULL, "
+            + Constants.COLUMN_REFERENCE_ELEVATION + " REAL, "
+            + Constants.COLUMN_LAST_POINT + " BLOB, "
+            + "FOREIGN KEY(" + Constants.COLUMN_HIKE_ID + ") REFERENCES "
+            + Constants.TABLE_HIKES + "(" + Constants.COLUMN_ID + ") ON DELETE CASCADE"
+            + ")";
+
+    // Create monthly statistics table SQL; one row per month (yyyymm) and difficulty code with hikes
+    private static final String CREATE_TABLE_MONTHLY_STATS = "CREATE TABLE " + Constants.TABLE_MONTHLY_STATS + " ("
+            + Constants.COLUMN_MONTH + " INTEGER NOT NULL, "
+            + Constants.COLUMN_DIFFICULTY + " INTEGER NOT NULL, "
+            + Constants.COLUMN_HIKE_COUNT + " INTEGER NOT NULL DEFAULT 0, "
+            + Constants.COLUMN_TOTAL_LENGTH + " REAL NOT NULL DEFAULT 0, "
+            + Constants.COLUMN_OBSERVATION_COUNT + " INTEGER NOT NULL DEFAULT 0, "
+            + "PRIMARY KEY(" + Constants.COLUMN_MONTH + ", " + Constants.COLUMN_DIFFICULTY + ")"
+            + ")";
+
+    // Secondary indexes for the DAO access paths
+    private static final String[] CREATE_INDEXES = {
+            // ORDER BY date, keyset paging and date range filters; the id tie-break comes from the rowid
+            "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_DATE_EPOCH_DAY + " ON "
+                    + Constants.TABLE_HIKES + "(" + Constants.COLUMN_DATE_EPOCH_DAY + ")",
+            // Name and location lookups and sorting
+            "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_NAME + " ON "
+                    + Constants.TABLE_HIKES + "(" + Constants.COLUMN_NAME + ")",
+            "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_LOCATION + " ON "
+                    + Constants.TABLE_HIKES + "(" + Constants.COLUMN_LOCATION + ")",
+            // Length range filters
+            "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_LENGTH + " ON "
+                    + Constants.TABLE_HIKES + "(" + Constants.COLUMN_LENGTH + ")",
+            // Difficulty filters, newest first within a level
+            "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_DIFFICULTY_DATE + " ON "
+                    + Constants.TABLE_HIKES + "(" + Constants.COLUMN_DIFFICULTY + ", "
+                    + Constants.COLUMN_DATE_EPOCH_DAY + ")",
+            // Location queries scan geohash prefix ranges
+            "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_GEOHASH + " ON "
+                    + Constants.TABLE_HIKES + "(" + Constants.COLUMN_GEOHASH + ")",
+            // Observations per hike ordered by time; also serves the ON DELETE CASCADE lookup
+            "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_OBSERVATIONS_HIKE_TIME + " ON "
+                    + Constants.TABLE_OBSERVATIONS + "(" + Constants.COLUMN_HIKE_ID + ", "
+                    + Constants.COLUMN_TIME + ")",
+            // Track chunks per hike in ID order; also serves the ON DELETE CASCADE lookup
+            "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_TRACK_CHUNKS_HIKE + " ON "
+                    + Constants.TABLE_TRACK_CHUNKS + "(" + Constants.COLUMN_HIKE_ID + ")"
+    };
+
+    // Full-text search index over hikes and their observations, kept in sync by triggers
+    private static final String CREATE_SEARCH_INDEX = "CREATE VIRTUAL TABLE IF NOT EXISTS "
+            + Constants.TABLE_HIKES_FTS + " USING fts4("
+            + Constants.COLUMN_NAME + ", "
+            + Constants.COLUMN_LOCATION + ", "
+            + Constants.COLUMN_DESCRIPTION + ", "
+            + Constants.COLUMN_OBSERVATION_TEXT + ")";
+
+    private final StorageProfile storageProfile;
+    private MigrationProgressListener migrationProgressListener;
+
     public DatabaseHelper(Context context) {
-        super(context, Constants.DATABASE_NAME, null, Constants.DATABASE_VERSION);
+        this(context, StorageProfile.DEFAULT);
+    }
+
+    public DatabaseHelper(Context context, StorageProfile storageProfile) {
+        this(context, Constants.DATABASE_NAME, storageProfile, null);
+    }
+
+    /**
+     * Constructor for a database file other than the app's, e.g. in instrumented tests
+     *
+     * @param name           Database file name
+     * @param storageProfile Storage settings
+     * @param factory        Cursor factory used for every query, or null for the default
+     */
+    public DatabaseHelper(Context context, String name, StorageProfile storageProfile,
+                          SQLiteDatabase.CursorFactory factory) {
+        super(context, name, factory, Constants.DATABASE_VERSION);
+        this.storageProfile = storageProfile;
+
+        // Open parameters apply to every connection the pool opens, unlike a PRAGMA run on
+        // one connection. They replace the helper's cursor factory and flags, so the factory
+        // is passed again and the journal mode is set afterwards.
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            setOpenParams(new SQLiteDatabase.OpenParams.Builder()
+                    .setCursorFactory(factory)
+                    .setSynchronousMode(storageProfile.getSynchronous().name())
+                    .build());
+        }
+        // Journal mode must be chosen before the database is opened
+        setWriteAheadLoggingEnabled(storageProfile.isWriteAheadLogging());
+    }
+
+    public StorageProfile getStorageProfile() {
+        return storageProfile;
+    }
+
+    /**
+     * Set the listener notified of progress while the schema is upgraded
+     * Must be set before the database is first opened.
+     *
+     * @param listener Progress listener, or null to log progress
+     */
+    public void setMigrationProgressListener(MigrationProgressListener listener) {
+        this.migrationProgressListener = listener;
     }
 
     @Override
@@ -47,22 +179,47 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         // Create tables
         db.execSQL(CREATE_TABLE_HIKES);
         db.execSQL(CREATE_TABLE_OBSERVATIONS);
+        db.execSQL(CREATE_TABLE_TRACK_CHUNKS);
+        db.execSQL(CREATE_TABLE_HIKE_STATS);
+        db.execSQL(CREATE_TABLE_MONTHLY_STATS);
+
+        // Create indexes
+        createIndexes(db);
+
+        // Create full-text search index
+        db.execSQL(CREATE_SEARCH_INDEX);
+        execAll(db, SchemaTriggers.HIKE_SEARCH_TRIGGERS);
+        execAll(db, SchemaTriggers.OBSERVATION_SEARCH_TRIGGERS);
+
+        // Create summary statistics triggers
+        execAll(db, SchemaTriggers.SUMMARY_TRIGGERS);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // Drop older tables if exist
-        db.execSQL("DROP TABLE IF EXISTS " + Constants.TABLE_OBSERVATIONS);
-        db.execSQL("DROP TABLE IF EXISTS " + Constants.TABLE_HIKES);
+        // Apply incremental migrations; existing hikes and observations are kept
+        new MigrationRunner(migrationProgressListener).migrate(db, oldVersion, newVersion);
+    }
+
+    /**
+     * Create all secondary indexes
+     */
+    private void createIndexes(SQLiteDatabase db) {
+        execAll(db, CREATE_INDEXES);
+    }
 
-        // Create tables again
-        onCreate(db);
+    private static void execAll(SQLiteDatabase db, String[] statements) {
+        for (String sql : statements) {
+            db.execSQL(sql);
+        }
     }
 
     @Override
-    public void onConfigure(SQLiteDatabase db) {
-        super.onConfigure(db);
-        // Enable foreign key constraints
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        // Enable foreign key constraints once any upgrade has finished.
+        // Migrations rebuild tables, and dropping hikes with constraints on would cascade
+        // into observations.
         db.setForeignKeyConstraintsEnabled(true);
     }
 }
@@ -0,0 +1,67 @@
+package com.example.coursework.database;
+
+import android.content.Context;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.example.coursework.utils.AppExecutors;
+
+/**
+ * Application-scoped owner of the single DatabaseHelper
+ * Every DAO shares the same helper, so the app holds one connection pool on mhike.db
+ * for its whole lifetime instead of opening and configuring one per DAO.
+ */
+public class DatabaseProvider {
+
+    private static volatile DatabaseHelper instance;
+
+    /**
+     * Get the shared DatabaseHelper, creating it on first use
+     *
+     * @param context Any context; only its application context is retained
+     * @return Process-wide DatabaseHelper
+     */
+    public static DatabaseHelper getHelper(Context context) {
+        DatabaseHelper helper = instance;
+        if (helper == null) {
+            synchronized (DatabaseProvider.class) {
+                helper = instance;
+                if (helper == null) {
+                    helper = new DatabaseHelper(context.getApplicationContext());
+                    instance = helper;
+                }
+            }
+        }
+        return helper;
+    }
+
+    /**
+     * Replace the shared DatabaseHelper, e.g. with one on a test database
+     * Only DAOs created afterwards use the new helper.
+     *
+     * @param helper Helper to share, or null to create the default one on next use
+     */
+    @VisibleForTesting
+    public static void setHelper(DatabaseHelper helper) {
+        synchronized (DatabaseProvider.class) {
+            instance = helper;
+        }
+    }
+
+    /**
+     * Open the database in the background so the first query does not pay for
+     * creation, upgrade and configuration. The connection is kept open afterwards.
+     *
+     * @param context Any context
+     */
+    public static void warmUp(Context context) {
+        DatabaseHelper helper = getHelper(context);
+        AppExecutors.database().execute(() -> {
+            try {
+                helper.getWritableDatabase();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.coursework.database;
+
+import com.example.coursework.utils.Constants;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Helpers for querying and ranking the hikes_fts full-text index
+ */
+public class FullTextSearch {
+
+    /**
+     * matchinfo() format requested by ranked queries: phrase count, column count, per-column hits
+     */
+    public static final String MATCHINFO_FORMAT = "pcx";
+
+    // Relative importance of each indexed column, in table column order:
+    // name, location, description, observation text
+    private static final double[] COLUMN_WEIGHTS = {4.0, 2.0, 1.0, 1.0};
+
+    /**
+     * Build an FTS MATCH expression from the fields typed by the user
+     * Name and location words become prefix terms scoped to their column, e.g.
+     * "name:snow* location:llan*"; keywords are unscoped, so they match any indexed column,
+     * observation text and comments included. All terms must match. FTS operators and
+     * punctuation are stripped, so user input can never produce an invalid query.
+     *
+     * @param name     Words to find in hike names, or null
+     * @param location Words to find in hike locations, or null
+     * @param keywords Words to find in any column, or null
+     * @return MATCH expression, or null if the input has no searchable words
+     */
+    public static String buildMatchQuery(String name, String location, String keywords) {
+        StringBuilder query = new StringBuilder();
+        appendTerms(query, Constants.COLUMN_NAME, name);
+        appendTerms(query, Constants.COLUMN_LOCATION, location);
+        appendTerms(query, null, keywords);
+        return query.length() > 0 ? query.toString() : null;
+    }
+
+    /**
+     * Append each word of the text as a prefix term on one column, or on every column if
+     * the column is null
+     */
+    private static void appendTerms(StringBuilder query, String column, String text) {
+        if (text == null) {
+            return;
+        }
+
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                term.append(Character.toLowerCase(c));
+            } else if (term.length() > 0) {
+                // Upper-case words such as OR, AND, NEAR are operators, so terms stay lower-case
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                if (column != null) {
+                    query.append(column).append(':');
+                }
+                query.append(term).append('*');
+                term.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * Score a row from its matchinfo('pcx') blob
+     * Each phrase hit in a column contributes the column weight, scaled down by how
+     * common the phrase is in that column across all rows.
+     *
+     * @param matchinfo Blob returned by matchinfo(hikes_fts, 'pcx')
+     * @return Relevance score, higher is better
+     */
+    public static double score(byte[] matchinfo) {
+        IntBuffer info = ByteBuffer.wrap(matchinfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        int phraseCount = info.get(0);
+        int columnCount = info.get(1);
+
+        double score = 0;
+        for (int phrase = 0; phrase < phraseCount; phrase++) {
+            for (int column = 0; column < columnCount; column++) {
+                int base = 2 + 3 * (phrase * columnCount + column);
+                int hitsInRow = info.get(base);
+                int hitsInAllRows = info.get(base + 1);
+                if (hitsInRow > 0) {
+                    double weight = column < COLUMN_WEIGHTS.length ? COLUMN_WEIGHTS[column] : 1.0;
+                    score += weight * hitsInRow / hitsInAllRows;
+                }
+            }
+        }
+        return score;
+    }
+}
@@ -4,22 +4,46 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 
+import com.example.coursework.models.CodedOption;
 import com.example.coursework.models.Hike;
+import com.example.coursework.models.HikeSummary;
+import com.example.coursework.models.NearbyHike;
 import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.DateUtils;
+import com.example.coursework.utils.GeoHash;
+import com.example.coursework.utils.GeoUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Hike operations
  * Handles all CRUD operations for hikes table
  */
 public class HikeDAO {
-    private DatabaseHelper dbHelper;
+
+    // Newest first; the ID tie-break keeps the order stable for keyset paging
+    private static final String ORDER_BY_DATE = Constants.COLUMN_DATE_EPOCH_DAY + " DESC, "
+            + Constants.COLUMN_ID + " DESC";
+
+    // Columns written by the batch statements, in bindHike order
+    private static final String HIKE_WRITE_COLUMNS = Constants.COLUMN_NAME + ", " + Constants.COLUMN_LOCATION + ", "
+            + Constants.COLUMN_DATE + ", " + Constants.COLUMN_DATE_EPOCH_DAY + ", "
+            + Constants.COLUMN_PARKING_AVAILABLE + ", " + Constants.COLUMN_LENGTH + ", "
+            + Constants.COLUMN_DIFFICULTY + ", " + Constants.COLUMN_DESCRIPTION + ", "
+            + Constants.COLUMN_WEATHER_CONDITION + ", " + Constants.COLUMN_ESTIMATED_DURATION + ", "
+            + Constants.COLUMN_LATITUDE + ", " + Constants.COLUMN_LONGITUDE + ", " + Constants.COLUMN_GEOHASH;
+
+    private final DatabaseHelper dbHelper;
 
     public HikeDAO(Context context) {
-        dbHelper = new DatabaseHelper(context);
+        dbHelper = DatabaseProvider.getHelper(context);
     }
 
     /**
@@ -37,12 +61,16 @@ public class HikeDAO {
             values.put(Constants.COLUMN_NAME, hike.getName());
             values.put(Constants.COLUMN_LOCATION, hike.getLocation());
             values.put(Constants.COLUMN_DATE, hike.getDate());
-            values.put(Constants.COLUMN_PARKING_AVAILABLE, hike.getParkingAvailable());
+            values.put(Constants.COLUMN_DATE_EPOCH_DAY, toEpochDay(hike.getDate()));
+            values.put(Constants.COLUMN_PARKING_AVAILABLE, CodedOption.codeOf(hike.getParkingAvailable()));
             values.put(Constants.COLUMN_LENGTH, hike.getLength());
-            values.put(Constants.COLUMN_DIFFICULTY, hike.getDifficulty());
+            values.put(Constants.COLUMN_DIFFICULTY, CodedOption.codeOf(hike.getDifficulty()));
             values.put(Constants.COLUMN_DESCRIPTION, hike.getDescription());
-            values.put(Constants.COLUMN_WEATHER_CONDITION, hike.getWeatherCondition());
+            values.put(Constants.COLUMN_WEATHER_CONDITION, CodedOption.codeOf(hike.getWeatherCondition()));
             values.put(Constants.COLUMN_ESTIMATED_DURATION, hike.getEstimatedDuration());
+            values.put(Constants.COLUMN_LATITUDE, hike.getLatitude());
+            values.put(Constants.COLUMN_LONGITUDE, hike.getLongitude());
+            values.put(Constants.COLUMN_GEOHASH, geohashOf(hike));
 
             id = db.insert(Constants.TABLE_HIKES, null, values);
         } catch (Exception e) {
@@ -52,6 +80,36 @@ public class HikeDAO {
         return id;
     }
 
+    /**
+     * Insert hikes in one transaction
+     * Each hike's ID is set to its new row ID; if the batch fails nothing is inserted
+     * and every ID is reset to 0.
+     *
+     * @param hikes Hikes to insert
+     * @return Rows inserted and throughput
+     */
+    public BatchResult insertHikes(List<Hike> hikes) {
+        String sql = "INSERT INTO " + Constants.TABLE_HIKES + " (" + HIKE_WRITE_COLUMNS
+                + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        BatchResult result = BatchWriter.run(dbHelper.getWritableDatabase(), "insertHikes", sql, hikes,
+                (statement, hike) -> {
+                    bindHike(statement, hike);
+                    long id = statement.executeInsert();
+                    if (id == -1) {
+                        return 0;
+                    }
+                    hike.setId(id);
+                    return 1;
+                });
+        if (!result.isSuccessful()) {
+            // Rows inserted before the failure were rolled back
+            for (Hike hike : hikes) {
+                hike.setId(0);
+            }
+        }
+        return result;
+    }
+
     /**
      * Get all hikes from the database
      *
@@ -63,12 +121,13 @@ public class HikeDAO {
         Cursor cursor = null;
 
         try {
-            String query = "SELECT * FROM " + Constants.TABLE_HIKES + " ORDER BY " + Constants.COLUMN_DATE + " DESC";
+            String query = "SELECT * FROM " + Constants.TABLE_HIKES + " ORDER BY " + ORDER_BY_DATE;
             cursor = db.rawQuery(query, null);
 
             if (cursor.moveToFirst()) {
+                HikeRowMapper mapper = new HikeRowMapper(cursor);
                 do {
-                    hikeList.add(cursorToHike(cursor));
+                    hikeList.add(mapper.mapRow(cursor));
                 } while (cursor.moveToNext());
             }
         } catch (Exception e) {
@@ -82,6 +141,57 @@ public class HikeDAO {
         return hikeList;
     }
 
+    /**
+     * Get one page of hike summaries ordered by date (newest first), then by ID
+     * Uses keyset pagination: the page starts right after the given hike, so the cost
+     * of a page does not grow with how far the list has been scrolled.
+     *
+     * @param after Last hike of the previous page, or null for the first page
+     * @param limit Maximum number of hikes to return
+     * @return List of hike summaries in the page
+     */
+    public List<HikeSummary> getHikeSummariesPage(HikeSummary after, int limit) {
+        List<HikeSummary> summaryList = new ArrayList<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Cursor cursor = null;
+
+        try {
+            String selection = null;
+            String[] selectionArgs = null;
+            if (after != null) {
+                // The leading <= bound lets SQLite search the date index as a range; the
+                // equivalent "day < ? OR (day = ? AND id < ?)" form scans the whole index
+                selection = Constants.COLUMN_DATE_EPOCH_DAY + " <= ? AND (" + Constants.COLUMN_DATE_EPOCH_DAY
+                        + " < ? OR " + Constants.COLUMN_ID + " < ?)";
+                String afterDay = String.valueOf(after.getDateEpochDay());
+                selectionArgs = new String[]{afterDay, afterDay, String.valueOf(after.getId())};
+            }
+
+            cursor = db.query(Constants.TABLE_HIKES,
+                    HikeSummaryRowMapper.COLUMNS,
+                    selection,
+                    selectionArgs,
+                    null, null,
+                    ORDER_BY_DATE,
+                    String.valueOf(limit));
+
+            if (cursor.moveToFirst()) {
+                HikeSummaryRowMapper mapper = new HikeSummaryRowMapper(cursor);
+                do {
+                    summaryList.add(mapper.mapRow(cursor));
+                } while (cursor.moveToNext());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+
+        return summaryList;
+    }
+
     /**
      * Get a hike by ID
      *
@@ -101,7 +211,7 @@ public class HikeDAO {
                     null, null, null);
 
             if (cursor != null && cursor.moveToFirst()) {
-                hike = cursorToHike(cursor);
+                hike = new HikeRowMapper(cursor).mapRow(cursor);
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -129,12 +239,16 @@ public class HikeDAO {
             values.put(Constants.COLUMN_NAME, hike.getName());
             values.put(Constants.COLUMN_LOCATION, hike.getLocation());
             values.put(Constants.COLUMN_DATE, hike.getDate());
-            values.put(Constants.COLUMN_PARKING_AVAILABLE, hike.getParkingAvailable());
+            values.put(Constants.COLUMN_DATE_EPOCH_DAY, toEpochDay(hike.getDate()));
+            values.put(Constants.COLUMN_PARKING_AVAILABLE, CodedOption.codeOf(hike.getParkingAvailable()));
             values.put(Constants.COLUMN_LENGTH, hike.getLength());
-            values.put(Constants.COLUMN_DIFFICULTY, hike.getDifficulty());
+            values.put(Constants.COLUMN_DIFFICULTY, CodedOption.codeOf(hike.getDifficulty()));
             values.put(Constants.COLUMN_DESCRIPTION, hike.getDescription());
-            values.put(Constants.COLUMN_WEATHER_CONDITION, hike.getWeatherCondition());
+            values.put(Constants.COLUMN_WEATHER_CONDITION, CodedOption.codeOf(hike.getWeatherCondition()));
             values.put(Constants.COLUMN_ESTIMATED_DURATION, hike.getEstimatedDuration());
+            values.put(Constants.COLUMN_LATITUDE, hike.getLatitude());
+            values.put(Constants.COLUMN_LONGITUDE, hike.getLongitude());
+            values.put(Constants.COLUMN_GEOHASH, geohashOf(hike));
 
             rowsAffected = db.update(Constants.TABLE_HIKES,
                     values,
@@ -147,6 +261,54 @@ public class HikeDAO {
         return rowsAffected;
     }
 
+    /**
+     * Update hikes in one transaction
+     *
+     * @param hikes Hikes with updated data
+     * @return Rows updated and throughput
+     */
+    public BatchResult updateHikes(List<Hike> hikes) {
+        String sql = "UPDATE " + Constants.TABLE_HIKES + " SET " + Constants.COLUMN_NAME + " = ?, "
+                + Constants.COLUMN_LOCATION + " = ?, " + Constants.COLUMN_DATE + " = ?, "
+                + Constants.COLUMN_DATE_EPOCH_DAY + " = ?, " + Constants.COLUMN_PARKING_AVAILABLE + " = ?, "
+                + Constants.COLUMN_LENGTH + " = ?, " + Constants.COLUMN_DIFFICULTY + " = ?, "
+                + Constants.COLUMN_DESCRIPTION + " = ?, " + Constants.COLUMN_WEATHER_CONDITION + " = ?, "
+                + Constants.COLUMN_ESTIMATED_DURATION + " = ?, " + Constants.COLUMN_LATITUDE + " = ?, "
+                + Constants.COLUMN_LONGITUDE + " = ?, " + Constants.COLUMN_GEOHASH + " = ? WHERE "
+                + Constants.COLUMN_ID + " = ?";
+        return BatchWriter.run(dbHelper.getWritableDatabase(), "updateHikes", sql, hikes, (statement, hike) -> {
+            bindHike(statement, hike);
+            statement.bindLong(14, hike.getId());
+            return statement.executeUpdateDelete();
+        });
+    }
+
+    /**
+     * Update only the length of a hike, e.g. after its track changed
+     *
+     * @param id     The hike ID
+     * @param length Length in kilometres
+     * @return Number of rows affected
+     */
+    public int updateHikeLength(long id, double length) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        int rowsAffected = 0;
+
+        try {
+            ContentValues values = new ContentValues();
+            values.put(Constants.COLUMN_LENGTH, length);
+
+            rowsAffected = db.update(Constants.TABLE_HIKES,
+                    values,
+                    Constants.COLUMN_ID + "=?",
+                    new String[]{String.valueOf(id)});
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return rowsAffected;
+    }
+
     /**
      * Delete a hike by ID
      * Also deletes all associated observations due to foreign key constraint
@@ -169,6 +331,21 @@ public class HikeDAO {
         return rowsAffected;
     }
 
+    /**
+     * Delete hikes by ID in one transaction
+     * Their observations are deleted too, due to the foreign key constraint.
+     *
+     * @param ids IDs of the hikes to delete
+     * @return Rows deleted and throughput
+     */
+    public BatchResult deleteHikes(List<Long> ids) {
+        String sql = "DELETE FROM " + Constants.TABLE_HIKES + " WHERE " + Constants.COLUMN_ID + " = ?";
+        return BatchWriter.run(dbHelper.getWritableDatabase(), "deleteHikes", sql, ids, (statement, id) -> {
+            statement.bindLong(1, id);
+            return statement.executeUpdateDelete();
+        });
+    }
+
     /**
      * Delete all hikes from the database
      *
@@ -201,14 +378,15 @@ public class HikeDAO {
         try {
             cursor = db.query(Constants.TABLE_HIKES,
                     null,
-                    Constants.COLUMN_NAME + " LIKE ?",
-                    new String[]{"%" + name + "%"},
+                    Constants.COLUMN_NAME + " LIKE ?" + HikeQueryCompiler.LIKE_ESCAPE,
+                    new String[]{HikeQueryCompiler.containsPattern(name)},
                     null, null,
-                    Constants.COLUMN_DATE + " DESC");
+                    ORDER_BY_DATE);
 
             if (cursor.moveToFirst()) {
+                HikeRowMapper mapper = new HikeRowMapper(cursor);
                 do {
-                    hikeList.add(cursorToHike(cursor));
+                    hikeList.add(mapper.mapRow(cursor));
                 } while (cursor.moveToNext());
             }
         } catch (Exception e) {
@@ -223,66 +401,171 @@ public class HikeDAO {
     }
 
     /**
-     * Advanced search with multiple criteria
+     * Ranked full-text search over hike name, location, description and observations
+     * Each word is matched as a prefix; name and location words only in their own column,
+     * keywords in any. Results are ordered by relevance, name matches first.
      *
-     * @param name      Name filter (partial match)
-     * @param location  Location filter (partial match)
-     * @param minLength Minimum length filter
-     * @param maxLength Maximum length filter
-     * @param startDate Start date filter
-     * @param endDate   End date filter
-     * @return List of matching hikes
+     * @param name     Words to find in hike names, or null
+     * @param location Words to find in hike locations, or null
+     * @param keywords Words to find anywhere, observation text and comments included, or null
+     * @param limit    Maximum number of hikes to return
+     * @return List of matching hike summaries, most relevant first
      */
-    public List<Hike> advancedSearch(String name, String location, Double minLength,
-                                     Double maxLength, String startDate, String endDate) {
-        List<Hike> hikeList = new ArrayList<>();
+    public List<HikeSummary> fullTextSearch(String name, String location, String keywords, int limit) {
+        List<HikeSummary> summaryList = new ArrayList<>();
+        String matchQuery = FullTextSearch.buildMatchQuery(name, location, keywords);
+        if (matchQuery == null) {
+            return summaryList;
+        }
+
         SQLiteDatabase db = dbHelper.getReadableDatabase();
         Cursor cursor = null;
 
         try {
-            StringBuilder selection = new StringBuilder("1=1");
-            List<String> selectionArgs = new ArrayList<>();
+            // Score every match from the index alone
+            List<ScoredId> matches = new ArrayList<>();
+            cursor = db.rawQuery("SELECT " + Constants.COLUMN_FTS_DOCID + ", matchinfo("
+                    + Constants.TABLE_HIKES_FTS + ", '" + FullTextSearch.MATCHINFO_FORMAT + "') FROM "
+                    + Constants.TABLE_HIKES_FTS + " WHERE " + Constants.TABLE_HIKES_FTS + " MATCH ?",
+                    new String[]{matchQuery});
+            while (cursor.moveToNext()) {
+                matches.add(new ScoredId(cursor.getLong(0), FullTextSearch.score(cursor.getBlob(1))));
+            }
+            cursor.close();
+            cursor = null;
 
-            if (name != null && !name.isEmpty()) {
-                selection.append(" AND ").append(Constants.COLUMN_NAME).append(" LIKE ?");
-                selectionArgs.add("%" + name + "%");
+            if (matches.isEmpty()) {
+                return summaryList;
             }
 
-            if (location != null && !location.isEmpty()) {
-                selection.append(" AND ").append(Constants.COLUMN_LOCATION).append(" LIKE ?");
-                selectionArgs.add("%" + location + "%");
+            Collections.sort(matches, (a, b) -> a.score != b.score
+                    ? Double.compare(b.score, a.score)
+                    : Long.compare(b.id, a.id));
+            List<ScoredId> top = matches.subList(0, Math.min(limit, matches.size()));
+
+            // Load the list columns of the best matches only
+            StringBuilder placeholders = new StringBuilder();
+            String[] ids = new String[top.size()];
+            for (int i = 0; i < top.size(); i++) {
+                placeholders.append(i == 0 ? "?" : ", ?");
+                ids[i] = String.valueOf(top.get(i).id);
             }
 
-            if (minLength != null) {
-                selection.append(" AND ").append(Constants.COLUMN_LENGTH).append(" >= ?");
-                selectionArgs.add(String.valueOf(minLength));
+            Map<Long, HikeSummary> byId = new HashMap<>();
+            cursor = db.query(Constants.TABLE_HIKES,
+                    HikeSummaryRowMapper.COLUMNS,
+                    Constants.COLUMN_ID + " IN (" + placeholders + ")",
+                    ids,
+                    null, null, null);
+            if (cursor.moveToFirst()) {
+                HikeSummaryRowMapper mapper = new HikeSummaryRowMapper(cursor);
+                do {
+                    HikeSummary summary = mapper.mapRow(cursor);
+                    byId.put(summary.getId(), summary);
+                } while (cursor.moveToNext());
             }
 
-            if (maxLength != null) {
-                selection.append(" AND ").append(Constants.COLUMN_LENGTH).append(" <= ?");
-                selectionArgs.add(String.valueOf(maxLength));
+            for (ScoredId match : top) {
+                HikeSummary summary = byId.get(match.id);
+                if (summary != null) {
+                    summaryList.add(summary);
+                }
             }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
 
-            if (startDate != null && !startDate.isEmpty()) {
-                selection.append(" AND ").append(Constants.COLUMN_DATE).append(" >= ?");
-                selectionArgs.add(startDate);
+        return summaryList;
+    }
+
+    /**
+     * Get the hikes matching a query
+     *
+     * @param query Search criteria, sort order and limit
+     * @return List of matching hikes
+     */
+    public List<Hike> queryHikes(HikeQuery query) {
+        List<Hike> hikeList = new ArrayList<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Cursor cursor = null;
+
+        try {
+            HikeQueryCompiler.CompiledQuery compiled = HikeQueryCompiler.compile(query, false);
+            cursor = db.rawQuery(compiled.sql, compiled.args);
+
+            if (cursor.moveToFirst()) {
+                HikeRowMapper mapper = new HikeRowMapper(cursor);
+                do {
+                    hikeList.add(mapper.mapRow(cursor));
+                } while (cursor.moveToNext());
             }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+
+        return hikeList;
+    }
+
+    /**
+     * Get the hikes matching a query, reading only the list columns
+     *
+     * @param query Search criteria, sort order and limit
+     * @return List of matching hike summaries
+     */
+    public List<HikeSummary> queryHikeSummaries(HikeQuery query) {
+        List<HikeSummary> summaryList = new ArrayList<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Cursor cursor = null;
 
-            if (endDate != null && !endDate.isEmpty()) {
-                selection.append(" AND ").append(Constants.COLUMN_DATE).append(" <= ?");
-                selectionArgs.add(endDate);
+        try {
+            HikeQueryCompiler.CompiledQuery compiled = HikeQueryCompiler.compile(query, true);
+            cursor = db.rawQuery(compiled.sql, compiled.args);
+
+            if (cursor.moveToFirst()) {
+                HikeSummaryRowMapper mapper = new HikeSummaryRowMapper(cursor);
+                do {
+                    summaryList.add(mapper.mapRow(cursor));
+                } while (cursor.moveToNext());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (cursor != null) {
+                cursor.close();
             }
+        }
 
-            cursor = db.query(Constants.TABLE_HIKES,
-                    null,
-                    selection.toString(),
-                    selectionArgs.toArray(new String[0]),
-                    null, null,
-                    Constants.COLUMN_DATE + " DESC");
+        return summaryList;
+    }
+
+    /**
+     * Get the hikes whose coordinates lie within a bounding box
+     *
+     * @param box   {minLatitude, minLongitude, maxLatitude, maxLongitude} in degrees; see
+     *              GeoUtils.boundingBox for boxes crossing the antimeridian
+     * @param limit Maximum number of hikes to return, or 0 for no limit
+     * @return List of hike summaries in the box, newest first
+     */
+    public List<HikeSummary> getHikesInBoundingBox(double[] box, int limit) {
+        List<HikeSummary> summaryList = new ArrayList<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Cursor cursor = null;
+
+        try {
+            cursor = queryBoundingBox(db, box, ORDER_BY_DATE, limit);
 
             if (cursor.moveToFirst()) {
+                HikeSummaryRowMapper mapper = new HikeSummaryRowMapper(cursor);
                 do {
-                    hikeList.add(cursorToHike(cursor));
+                    summaryList.add(mapper.mapRow(cursor));
                 } while (cursor.moveToNext());
             }
         } catch (Exception e) {
@@ -293,28 +576,141 @@ public class HikeDAO {
             }
         }
 
-        return hikeList;
+        return summaryList;
     }
 
     /**
-     * Convert cursor to Hike object
+     * Get the hikes within a distance of a point
+     * Candidates come from the bounding box of the circle and are then filtered by their
+     * great-circle distance.
      *
-     * @param cursor Database cursor
-     * @return Hike object
+     * @param latitude     Latitude of the centre in degrees
+     * @param longitude    Longitude of the centre in degrees
+     * @param radiusMeters Largest distance from the centre
+     * @param limit        Maximum number of hikes to return, or 0 for no limit
+     * @return List of nearby hikes, closest first
      */
-    private Hike cursorToHike(Cursor cursor) {
-        Hike hike = new Hike();
-        hike.setId(cursor.getLong(cursor.getColumnIndexOrThrow(Constants.COLUMN_ID)));
-        hike.setName(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_NAME)));
-        hike.setLocation(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_LOCATION)));
-        hike.setDate(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_DATE)));
-        hike.setParkingAvailable(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_PARKING_AVAILABLE)));
-        hike.setLength(cursor.getDouble(cursor.getColumnIndexOrThrow(Constants.COLUMN_LENGTH)));
-        hike.setDifficulty(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_DIFFICULTY)));
-        hike.setDescription(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_DESCRIPTION)));
-        hike.setWeatherCondition(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_WEATHER_CONDITION)));
-        hike.setEstimatedDuration(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_ESTIMATED_DURATION)));
-        hike.setCreatedAt(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_CREATED_AT)));
-        return hike;
+    public List<NearbyHike> getHikesNear(double latitude, double longitude, double radiusMeters, int limit) {
+        List<NearbyHike> nearbyList = new ArrayList<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Cursor cursor = null;
+
+        try {
+            cursor = queryBoundingBox(db, GeoUtils.boundingBox(latitude, longitude, radiusMeters), null, 0);
+
+            if (cursor.moveToFirst()) {
+                HikeSummaryRowMapper mapper = new HikeSummaryRowMapper(cursor);
+                int latitudeIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_LATITUDE);
+                int longitudeIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_LONGITUDE);
+                do {
+                    double distance = GeoUtils.distanceMeters(latitude, longitude,
+                            cursor.getDouble(latitudeIndex), cursor.getDouble(longitudeIndex));
+                    if (distance <= radiusMeters) {
+                        nearbyList.add(new NearbyHike(mapper.mapRow(cursor), distance));
+                    }
+                } while (cursor.moveToNext());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+
+        Collections.sort(nearbyList, (a, b) -> a.getDistanceMeters() != b.getDistanceMeters()
+                ? Double.compare(a.getDistanceMeters(), b.getDistanceMeters())
+                : Long.compare(a.getId(), b.getId()));
+        if (limit > 0 && nearbyList.size() > limit) {
+            nearbyList = new ArrayList<>(nearbyList.subList(0, limit));
+        }
+        return nearbyList;
+    }
+
+    /**
+     * Query the list columns and coordinates of the hikes in a bounding box
+     * The geohash index narrows the search to a few key ranges around the box, and the
+     * coordinates of those rows are then compared with the box itself.
+     */
+    private static Cursor queryBoundingBox(SQLiteDatabase db, double[] box, String orderBy, int limit) {
+        List<String> args = new ArrayList<>();
+        StringBuilder ranges = new StringBuilder();
+        for (String[] range : GeoHash.coverRanges(box, Constants.GEOHASH_PRECISION, Constants.GEOHASH_MAX_CELLS)) {
+            ranges.append(ranges.length() == 0 ? "(" : " OR (")
+                    .append(Constants.COLUMN_GEOHASH).append(" >= ? AND ")
+                    .append(Constants.COLUMN_GEOHASH).append(" < ?)");
+            args.add(range[0]);
+            args.add(range[1]);
+        }
+
+        String selection = "(" + ranges + ") AND " + Constants.COLUMN_LATITUDE + " BETWEEN ? AND ? AND "
+                + (box[1] <= box[3]
+                ? Constants.COLUMN_LONGITUDE + " BETWEEN ? AND ?"
+                : "(" + Constants.COLUMN_LONGITUDE + " >= ? OR " + Constants.COLUMN_LONGITUDE + " <= ?)");
+        args.add(String.valueOf(box[0]));
+        args.add(String.valueOf(box[2]));
+        args.add(String.valueOf(box[1]));
+        args.add(String.valueOf(box[3]));
+
+        String[] columns = Arrays.copyOf(HikeSummaryRowMapper.COLUMNS, HikeSummaryRowMapper.COLUMNS.length + 2);
+        columns[columns.length - 2] = Constants.COLUMN_LATITUDE;
+        columns[columns.length - 1] = Constants.COLUMN_LONGITUDE;
+
+        return db.query(Constants.TABLE_HIKES,
+                columns,
+                selection,
+                args.toArray(new String[0]),
+                null, null,
+                orderBy,
+                limit > 0 ? String.valueOf(limit) : null);
+    }
+
+    /**
+     * Bind the writable columns of a hike, in HIKE_WRITE_COLUMNS order, starting at index 1
+     */
+    private static void bindHike(SQLiteStatement statement, Hike hike) {
+        BatchWriter.bindNullableString(statement, 1, hike.getName());
+        BatchWriter.bindNullableString(statement, 2, hike.getLocation());
+        BatchWriter.bindNullableString(statement, 3, hike.getDate());
+        statement.bindLong(4, toEpochDay(hike.getDate()));
+        statement.bindLong(5, CodedOption.codeOf(hike.getParkingAvailable()));
+        statement.bindDouble(6, hike.getLength());
+        statement.bindLong(7, CodedOption.codeOf(hike.getDifficulty()));
+        BatchWriter.bindNullableString(statement, 8, hike.getDescription());
+        statement.bindLong(9, CodedOption.codeOf(hike.getWeatherCondition()));
+        BatchWriter.bindNullableString(statement, 10, hike.getEstimatedDuration());
+        BatchWriter.bindNullableDouble(statement, 11, hike.getLatitude());
+        BatchWriter.bindNullableDouble(statement, 12, hike.getLongitude());
+        BatchWriter.bindNullableString(statement, 13, geohashOf(hike));
+    }
+
+    /**
+     * Geohash stored for a hike's coordinates, or null if it has none
+     */
+    private static String geohashOf(Hike hike) {
+        return hike.hasLocation()
+                ? GeoHash.encode(hike.getLatitude(), hike.getLongitude(), Constants.GEOHASH_PRECISION) : null;
+    }
+
+    /**
+     * Convert a hike date to the stored epoch day
+     * Unparseable dates are stored as 0, the value the schema migration leaves them at.
+     */
+    private static long toEpochDay(String date) {
+        Long epochDay = DateUtils.toEpochDay(date);
+        return epochDay != null ? epochDay : 0;
+    }
+
+    /**
+     * Hike ID with its full-text relevance score
+     */
+    private static class ScoredId {
+        final long id;
+        final double score;
+
+        ScoredId(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
     }
 }
@@ -0,0 +1,189 @@
+package com.example.coursework.database;
+
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.WeatherCondition;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Criteria for listing hikes
+ * Every criterion is optional; unset criteria do not filter. HikeDAO compiles a query
+ * into one parameterised statement.
+ */
+public class HikeQuery {
+
+    /**
+     * Result order; each ends with the hike ID so equal keys keep a stable order
+     */
+    public enum SortOrder {
+        NEWEST_FIRST,
+        OLDEST_FIRST,
+        NAME,
+        LONGEST_FIRST,
+        SHORTEST_FIRST
+    }
+
+    private String name;
+    private String location;
+    private String matchQuery;
+    private Double minLength;
+    private Double maxLength;
+    private Long startEpochDay;
+    private Long endEpochDay;
+    private final Set<Difficulty> difficulties = EnumSet.noneOf(Difficulty.class);
+    private Parking parking;
+    private WeatherCondition weatherCondition;
+    private Boolean hasObservations;
+    private SortOrder sortOrder = SortOrder.NEWEST_FIRST;
+    private int limit;
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param name Partial name to match, or null for any
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * @param location Partial location to match, or null for any
+     */
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getMatchQuery() {
+        return matchQuery;
+    }
+
+    /**
+     * @param matchQuery Full-text expression from FullTextSearch.buildMatchQuery, or null for any
+     */
+    public void setMatchQuery(String matchQuery) {
+        this.matchQuery = matchQuery;
+    }
+
+    public Double getMinLength() {
+        return minLength;
+    }
+
+    public void setMinLength(Double minLength) {
+        this.minLength = minLength;
+    }
+
+    public Double getMaxLength() {
+        return maxLength;
+    }
+
+    public void setMaxLength(Double maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    public Long getStartEpochDay() {
+        return startEpochDay;
+    }
+
+    /**
+     * @param startEpochDay First day to include, in days since 1970-01-01, or null
+     */
+    public void setStartEpochDay(Long startEpochDay) {
+        this.startEpochDay = startEpochDay;
+    }
+
+    public Long getEndEpochDay() {
+        return endEpochDay;
+    }
+
+    /**
+     * @param endEpochDay Last day to include, in days since 1970-01-01, or null
+     */
+    public void setEndEpochDay(Long endEpochDay) {
+        this.endEpochDay = endEpochDay;
+    }
+
+    /**
+     * Difficulties to include; empty means any
+     */
+    public Set<Difficulty> getDifficulties() {
+        return difficulties;
+    }
+
+    public void addDifficulty(Difficulty difficulty) {
+        difficulties.add(difficulty);
+    }
+
+    public Parking getParking() {
+        return parking;
+    }
+
+    public void setParking(Parking parking) {
+        this.parking = parking;
+    }
+
+    public WeatherCondition getWeatherCondition() {
+        return weatherCondition;
+    }
+
+    public void setWeatherCondition(WeatherCondition weatherCondition) {
+        this.weatherCondition = weatherCondition;
+    }
+
+    public Boolean getHasObservations() {
+        return hasObservations;
+    }
+
+    /**
+     * @param hasObservations True for hikes with observations, false for hikes without, null for any
+     */
+    public void setHasObservations(Boolean hasObservations) {
+        this.hasObservations = hasObservations;
+    }
+
+    public SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    public void setSortOrder(SortOrder sortOrder) {
+        this.sortOrder = sortOrder;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param limit Maximum number of hikes to return, or 0 for no limit
+     */
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public String toString() {
+        return "HikeQuery{" +
+                "name='" + name + '\'' +
+                ", location='" + location + '\'' +
+                ", matchQuery='" + matchQuery + '\'' +
+                ", minLength=" + minLength +
+                ", maxLength=" + maxLength +
+                ", startEpochDay=" + startEpochDay +
+                ", endEpochDay=" + endEpochDay +
+                ", difficulties=" + difficulties +
+                ", parking=" + parking +
+                ", weatherCondition=" + weatherCondition +
+                ", hasObservations=" + hasObservations +
+                ", sortOrder=" + sortOrder +
+                ", limit=" + limit +
+                '}';
+    }
+}
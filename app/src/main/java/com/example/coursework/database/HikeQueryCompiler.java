@@ -0,0 +1,238 @@
+package com.example.coursework.database;
+
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles a HikeQuery into one parameterised SELECT over the hikes table
+ * Values are always bound as arguments, so the statement text depends only on which
+ * criteria are set. That text is built once per shape and cached. Plain Java, so it can
+ * be unit tested off the device.
+ */
+class HikeQueryCompiler {
+
+    /**
+     * Statement text with its arguments
+     */
+    static class CompiledQuery {
+        final String sql;
+        final String[] args;
+
+        CompiledQuery(String sql, String[] args) {
+            this.sql = sql;
+            this.args = args;
+        }
+    }
+
+    // Statement text by query shape; the number of shapes is small and fixed
+    private static final Map<Long, String> STATEMENTS = new ConcurrentHashMap<>();
+
+    private static final int SHAPE_SUMMARY = 1;
+    private static final int SHAPE_NAME = 1 << 1;
+    private static final int SHAPE_LOCATION = 1 << 2;
+    private static final int SHAPE_MIN_LENGTH = 1 << 3;
+    private static final int SHAPE_MAX_LENGTH = 1 << 4;
+    private static final int SHAPE_START_DATE = 1 << 5;
+    private static final int SHAPE_END_DATE = 1 << 6;
+    private static final int SHAPE_PARKING = 1 << 7;
+    private static final int SHAPE_WEATHER = 1 << 8;
+    private static final int SHAPE_WITH_OBSERVATIONS = 1 << 9;
+    private static final int SHAPE_WITHOUT_OBSERVATIONS = 1 << 10;
+    private static final int SHAPE_LIMIT = 1 << 11;
+    private static final int SHAPE_MATCH = 1 << 12;
+    private static final int SHAPE_DIFFICULTY_COUNT_SHIFT = 13;
+    private static final int SHAPE_SORT_SHIFT = 17;
+
+    // Backslash escapes the LIKE wildcards in bound patterns
+    static final String LIKE_ESCAPE = " ESCAPE '\\'";
+
+    private HikeQueryCompiler() {
+    }
+
+    /**
+     * Compile a query
+     *
+     * @param query       Criteria to compile
+     * @param summaryOnly True to select only the HikeSummaryRowMapper columns, false for all columns
+     * @return Statement text and arguments
+     */
+    static CompiledQuery compile(HikeQuery query, boolean summaryOnly) {
+        List<String> args = new ArrayList<>();
+        long shape = summaryOnly ? SHAPE_SUMMARY : 0;
+
+        if (query.getName() != null && !query.getName().isEmpty()) {
+            shape |= SHAPE_NAME;
+            args.add(containsPattern(query.getName()));
+        }
+        if (query.getLocation() != null && !query.getLocation().isEmpty()) {
+            shape |= SHAPE_LOCATION;
+            args.add(containsPattern(query.getLocation()));
+        }
+        if (query.getMatchQuery() != null) {
+            shape |= SHAPE_MATCH;
+            args.add(query.getMatchQuery());
+        }
+        if (query.getMinLength() != null) {
+            shape |= SHAPE_MIN_LENGTH;
+            args.add(String.valueOf(query.getMinLength()));
+        }
+        if (query.getMaxLength() != null) {
+            shape |= SHAPE_MAX_LENGTH;
+            args.add(String.valueOf(query.getMaxLength()));
+        }
+        if (query.getStartEpochDay() != null) {
+            shape |= SHAPE_START_DATE;
+            args.add(String.valueOf(query.getStartEpochDay()));
+        }
+        if (query.getEndEpochDay() != null) {
+            shape |= SHAPE_END_DATE;
+            args.add(String.valueOf(query.getEndEpochDay()));
+        }
+        for (Difficulty difficulty : query.getDifficulties()) {
+            args.add(String.valueOf(difficulty.getCode()));
+        }
+        shape |= (long) query.getDifficulties().size() << SHAPE_DIFFICULTY_COUNT_SHIFT;
+        if (query.getParking() != null) {
+            shape |= SHAPE_PARKING;
+            args.add(String.valueOf(query.getParking().getCode()));
+        }
+        if (query.getWeatherCondition() != null) {
+            shape |= SHAPE_WEATHER;
+            args.add(String.valueOf(query.getWeatherCondition().getCode()));
+        }
+        if (query.getHasObservations() != null) {
+            shape |= query.getHasObservations() ? SHAPE_WITH_OBSERVATIONS : SHAPE_WITHOUT_OBSERVATIONS;
+        }
+        if (query.getLimit() > 0) {
+            shape |= SHAPE_LIMIT;
+            args.add(String.valueOf(query.getLimit()));
+        }
+        HikeQuery.SortOrder sortOrder = query.getSortOrder() != null
+                ? query.getSortOrder() : HikeQuery.SortOrder.NEWEST_FIRST;
+        shape |= (long) sortOrder.ordinal() << SHAPE_SORT_SHIFT;
+
+        String sql = STATEMENTS.get(shape);
+        if (sql == null) {
+            sql = buildStatement(shape, query.getDifficulties().size(), sortOrder);
+            STATEMENTS.put(shape, sql);
+        }
+        return new CompiledQuery(sql, args.toArray(new String[0]));
+    }
+
+    /**
+     * LIKE pattern matching text anywhere in a value
+     * Wildcards typed by the user match only themselves; use with LIKE_ESCAPE.
+     *
+     * @param text Text to find
+     * @return Pattern to bind
+     */
+    static String containsPattern(String text) {
+        StringBuilder pattern = new StringBuilder(text.length() + 2).append('%');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    /**
+     * Build the statement text for a shape
+     * Placeholders must appear in the order compile() adds arguments.
+     */
+    private static String buildStatement(long shape, int difficultyCount, HikeQuery.SortOrder sortOrder) {
+        List<String> conditions = new ArrayList<>();
+        if ((shape & SHAPE_NAME) != 0) {
+            conditions.add(Constants.COLUMN_NAME + " LIKE ?" + LIKE_ESCAPE);
+        }
+        if ((shape & SHAPE_LOCATION) != 0) {
+            conditions.add(Constants.COLUMN_LOCATION + " LIKE ?" + LIKE_ESCAPE);
+        }
+        // The full-text index finds the candidates; the other conditions filter them
+        if ((shape & SHAPE_MATCH) != 0) {
+            conditions.add(Constants.COLUMN_ID + " IN (SELECT " + Constants.COLUMN_FTS_DOCID + " FROM "
+                    + Constants.TABLE_HIKES_FTS + " WHERE " + Constants.TABLE_HIKES_FTS + " MATCH ?)");
+        }
+        if ((shape & SHAPE_MIN_LENGTH) != 0) {
+            conditions.add(Constants.COLUMN_LENGTH + " >= ?");
+        }
+        if ((shape & SHAPE_MAX_LENGTH) != 0) {
+            conditions.add(Constants.COLUMN_LENGTH + " <= ?");
+        }
+        if ((shape & SHAPE_START_DATE) != 0) {
+            conditions.add(Constants.COLUMN_DATE_EPOCH_DAY + " >= ?");
+        }
+        if ((shape & SHAPE_END_DATE) != 0) {
+            conditions.add(Constants.COLUMN_DATE_EPOCH_DAY + " <= ?");
+        }
+        if (difficultyCount == 1) {
+            conditions.add(Constants.COLUMN_DIFFICULTY + " = ?");
+        } else if (difficultyCount > 1) {
+            StringBuilder in = new StringBuilder(Constants.COLUMN_DIFFICULTY).append(" IN (?");
+            for (int i = 1; i < difficultyCount; i++) {
+                in.append(", ?");
+            }
+            conditions.add(in.append(")").toString());
+        }
+        if ((shape & SHAPE_PARKING) != 0) {
+            conditions.add(Constants.COLUMN_PARKING_AVAILABLE + " = ?");
+        }
+        if ((shape & SHAPE_WEATHER) != 0) {
+            conditions.add(Constants.COLUMN_WEATHER_CONDITION + " = ?");
+        }
+        // Correlated lookups use the (hike_id, time) index on observations
+        String observationExists = "EXISTS (SELECT 1 FROM " + Constants.TABLE_OBSERVATIONS + " WHERE "
+                + Constants.TABLE_OBSERVATIONS + "." + Constants.COLUMN_HIKE_ID + " = "
+                + Constants.TABLE_HIKES + "." + Constants.COLUMN_ID + ")";
+        if ((shape & SHAPE_WITH_OBSERVATIONS) != 0) {
+            conditions.add(observationExists);
+        }
+        if ((shape & SHAPE_WITHOUT_OBSERVATIONS) != 0) {
+            conditions.add("NOT " + observationExists);
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        sql.append((shape & SHAPE_SUMMARY) != 0 ? join(", ", HikeSummaryRowMapper.COLUMNS) : "*");
+        sql.append(" FROM ").append(Constants.TABLE_HIKES);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(join(" AND ", conditions.toArray(new String[0])));
+        }
+        sql.append(" ORDER BY ").append(orderBy(sortOrder));
+        if ((shape & SHAPE_LIMIT) != 0) {
+            sql.append(" LIMIT ?");
+        }
+        return sql.toString();
+    }
+
+    private static String join(String delimiter, String[] parts) {
+        StringJoiner joiner = new StringJoiner(delimiter);
+        for (String part : parts) {
+            joiner.add(part);
+        }
+        return joiner.toString();
+    }
+
+    private static String orderBy(HikeQuery.SortOrder sortOrder) {
+        switch (sortOrder) {
+            case OLDEST_FIRST:
+                return Constants.COLUMN_DATE_EPOCH_DAY + " ASC, " + Constants.COLUMN_ID + " ASC";
+            case NAME:
+                return Constants.COLUMN_NAME + " ASC, " + Constants.COLUMN_ID + " ASC";
+            case LONGEST_FIRST:
+                return Constants.COLUMN_LENGTH + " DESC, " + Constants.COLUMN_ID + " DESC";
+            case SHORTEST_FIRST:
+                return Constants.COLUMN_LENGTH + " ASC, " + Constants.COLUMN_ID + " ASC";
+            case NEWEST_FIRST:
+            default:
+                return Constants.COLUMN_DATE_EPOCH_DAY + " DESC, " + Constants.COLUMN_ID + " DESC";
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.coursework.database;
+
+import android.database.Cursor;
+
+import com.example.coursework.models.CodedOption;
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.WeatherCondition;
+import com.example.coursework.utils.Constants;
+
+/**
+ * Maps full rows of the hikes table to Hike objects
+ */
+public class HikeRowMapper implements RowMapper<Hike> {
+    private final int idIndex;
+    private final int nameIndex;
+    private final int locationIndex;
+    private final int dateIndex;
+    private final int parkingIndex;
+    private final int lengthIndex;
+    private final int difficultyIndex;
+    private final int descriptionIndex;
+    private final int weatherIndex;
+    private final int durationIndex;
+    private final int createdAtIndex;
+    private final int latitudeIndex;
+    private final int longitudeIndex;
+
+    /**
+     * Resolve column indexes for the given cursor
+     *
+     * @param cursor Cursor over all columns of the hikes table
+     */
+    public HikeRowMapper(Cursor cursor) {
+        idIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_ID);
+        nameIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_NAME);
+        locationIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_LOCATION);
+        dateIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_DATE);
+        parkingIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_PARKING_AVAILABLE);
+        lengthIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_LENGTH);
+        difficultyIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_DIFFICULTY);
+        descriptionIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_DESCRIPTION);
+        weatherIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_WEATHER_CONDITION);
+        durationIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_ESTIMATED_DURATION);
+        createdAtIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_CREATED_AT);
+        latitudeIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_LATITUDE);
+        longitudeIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_LONGITUDE);
+    }
+
+    @Override
+    public Hike mapRow(Cursor cursor) {
+        Hike hike = new Hike();
+        hike.setId(cursor.getLong(idIndex));
+        hike.setName(cursor.getString(nameIndex));
+        hike.setLocation(cursor.getString(locationIndex));
+        hike.setDate(cursor.getString(dateIndex));
+        hike.setParkingAvailable(CodedOption.byCode(Parking.class, cursor.getInt(parkingIndex)));
+        hike.setLength(cursor.getDouble(lengthIndex));
+        hike.setDifficulty(CodedOption.byCode(Difficulty.class, cursor.getInt(difficultyIndex)));
+        hike.setDescription(cursor.getString(descriptionIndex));
+        hike.setWeatherCondition(CodedOption.byCode(WeatherCondition.class, cursor.getInt(weatherIndex)));
+        hike.setEstimatedDuration(cursor.getString(durationIndex));
+        hike.setCreatedAt(cursor.getString(createdAtIndex));
+        if (!cursor.isNull(latitudeIndex) && !cursor.isNull(longitudeIndex)) {
+            hike.setLatitude(cursor.getDouble(latitudeIndex));
+            hike.setLongitude(cursor.getDouble(longitudeIndex));
+        }
+        return hike;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.coursework.database;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.example.coursework.models.HikeStats;
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.TrackStatistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Data Access Object for the statistics of hike tracks
+ * Statistics are updated from each batch of appended points rather than recomputed,
+ * and recomputed in one streaming pass over the track only when they are missing or
+ * no longer match it.
+ */
+public class HikeStatsDAO {
+
+    private static final String TAG = "HikeStatsDAO";
+
+    private final DatabaseHelper dbHelper;
+    private final TrackPointDAO trackPointDAO;
+
+    public HikeStatsDAO(Context context) {
+        dbHelper = DatabaseProvider.getHelper(context);
+        trackPointDAO = new TrackPointDAO(context);
+    }
+
+    /**
+     * Get the statistics of a hike's track, bringing them up to date first
+     * Statistics that are missing or out of step with the track, e.g. for tracks stored
+     * before statistics were kept, are recomputed.
+     *
+     * @param hikeId The hike ID
+     * @return Statistics, with no points if the hike has no track; null if they could not be computed
+     */
+    public HikeStats getHikeStats(long hikeId) {
+        HikeStats stats = queryHikeStats(hikeId);
+        if (stats == null) {
+            stats = new HikeStats(hikeId);
+        }
+
+        if (stats.getPointCount() != trackPointDAO.getTrackPointCount(hikeId)
+                || !Objects.equals(stats.getLastPoint(), trackPointDAO.getLastTrackPoint(hikeId))) {
+            stats = rebuildHikeStats(hikeId);
+        }
+        return stats;
+    }
+
+    /**
+     * Update a hike's statistics with points just appended to its track
+     * Call after the points were inserted, in the same transaction where possible.
+     *
+     * @param hikeId The hike ID
+     * @param points The appended points in recording order
+     * @return Updated statistics, or null if they could not be saved
+     */
+    public HikeStats appendTrackPoints(long hikeId, List<TrackPoint> points) {
+        HikeStats stats = queryHikeStats(hikeId);
+        if (stats == null) {
+            stats = new HikeStats(hikeId);
+        }
+
+        int previousCount = trackPointDAO.getTrackPointCount(hikeId) - points.size();
+        if (stats.getPointCount() != previousCount || (previousCount > 0 && stats.getLastPoint() == null)) {
+            return rebuildHikeStats(hikeId);
+        }
+
+        new TrackStatistics(stats).addAll(points);
+        return saveHikeStats(stats) ? stats : null;
+    }
+
+    /**
+     * Recompute a hike's statistics from its whole track
+     *
+     * @param hikeId The hike ID
+     * @return New statistics, or null if the track could not be read
+     */
+    public HikeStats rebuildHikeStats(long hikeId) {
+        long start = SystemClock.elapsedRealtime();
+        TrackStatistics statistics = new TrackStatistics(hikeId);
+
+        try {
+            trackPointDAO.forEachTrackPoint(hikeId, statistics::add);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        HikeStats stats = statistics.getStats();
+        saveHikeStats(stats);
+        Log.d(TAG, "Rebuilt statistics of hike " + hikeId + " from " + stats.getPointCount() + " points in "
+                + (SystemClock.elapsedRealtime() - start) + " ms");
+        return stats;
+    }
+
+    /**
+     * Get the stored statistics row of a hike
+     */
+    private HikeStats queryHikeStats(long hikeId) {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Cursor cursor = null;
+        HikeStats stats = null;
+
+        try {
+            cursor = db.query(Constants.TABLE_HIKE_STATS,
+                    null,
+                    Constants.COLUMN_HIKE_ID + "=?",
+                    new String[]{String.valueOf(hikeId)},
+                    null, null, null);
+
+            if (cursor.moveToFirst()) {
+                stats = new HikeStatsRowMapper(cursor).mapRow(cursor);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+
+        return stats;
+    }
+
+    /**
+     * Store a hike's statistics, replacing any earlier row
+     * Hikes without a track have no row.
+     */
+    private boolean saveHikeStats(HikeStats stats) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        try {
+            if (stats.getPointCount() == 0) {
+                db.delete(Constants.TABLE_HIKE_STATS, Constants.COLUMN_HIKE_ID + "=?",
+                        new String[]{String.valueOf(stats.getHikeId())});
+                return true;
+            }
+
+            ContentValues values = new ContentValues();
+            values.put(Constants.COLUMN_HIKE_ID, stats.getHikeId());
+            values.put(Constants.COLUMN_POINT_COUNT, stats.getPointCount());
+            values.put(Constants.COLUMN_DISTANCE, stats.getDistanceMeters());
+            values.put(Constants.COLUMN_ASCENT, stats.getAscentMeters());
+            values.put(Constants.COLUMN_DESCENT, stats.getDescentMeters());
+            values.put(Constants.COLUMN_MOVING_TIME, stats.getMovingTimeMillis());
+            values.put(Constants.COLUMN_START_TIME, stats.getStartTime());
+            values.put(Constants.COLUMN_END_TIME, stats.getEndTime());
+            values.put(Constants.COLUMN_MIN_ELEVATION, stats.getMinElevation());
+            values.put(Constants.COLUMN_MAX_ELEVATION, stats.getMaxElevation());
+            values.put(Constants.COLUMN_SPLITS, TextUtils.join(",", stats.getSplitTimesMillis()));
+            values.put(Constants.COLUMN_PROFILE, formatProfile(stats.getElevationProfile()));
+            values.put(Constants.COLUMN_REFERENCE_ELEVATION, stats.getReferenceElevation());
+            values.put(Constants.COLUMN_LAST_POINT, stats.getLastPoint() != null
+                    ? TrackPointCodec.encode(Collections.singletonList(stats.getLastPoint())) : null);
+
+            return db.replace(Constants.TABLE_HIKE_STATS, null, values) != -1;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Elevations to the nearest decimetre, NaN where unknown
+     */
+    private static String formatProfile(List<Double> profile) {
+        List<String> samples = new ArrayList<>(profile.size());
+        for (Double elevation : profile) {
+            samples.add(elevation != null ? String.valueOf(Math.round(elevation * 10) / 10.0) : "NaN");
+        }
+        return TextUtils.join(",", samples);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.coursework.database;
+
+import android.database.Cursor;
+import android.text.TextUtils;
+
+import com.example.coursework.models.HikeStats;
+import com.example.coursework.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps full rows of the hike_stats table to HikeStats objects
+ * Splits and the elevation profile are stored as comma-separated numbers, with NaN
+ * for an unknown elevation.
+ */
+public class HikeStatsRowMapper implements RowMapper<HikeStats> {
+    private final int hikeIdIndex;
+    private final int pointCountIndex;
+    private final int distanceIndex;
+    private final int ascentIndex;
+    private final int descentIndex;
+    private final int movingTimeIndex;
+    private final int startTimeIndex;
+    private final int endTimeIndex;
+    private final int minElevationIndex;
+    private final int maxElevationIndex;
+    private final int splitsIndex;
+    private final int profileIndex;
+    private final int referenceElevationIndex;
+    private final int lastPointIndex;
+
+    /**
+     * Resolve column indexes for the given cursor
+     *
+     * @param cursor Cursor over all columns of the hike_stats table
+     */
+    public HikeStatsRowMapper(Cursor cursor) {
+        hikeIdIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_HIKE_ID);
+        pointCountIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_POINT_COUNT);
+        distanceIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_DISTANCE);
+        ascentIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_ASCENT);
+        descentIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_DESCENT);
+        movingTimeIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_MOVING_TIME);
+        startTimeIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_START_TIME);
+        endTimeIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_END_TIME);
+        minElevationIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_MIN_ELEVATION);
+        maxElevationIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_MAX_ELEVATION);
+        splitsIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_SPLITS);
+        profileIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_PROFILE);
+        referenceElevationIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_REFERENCE_ELEVATION);
+        lastPointIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_LAST_POINT);
+    }
+
+    @Override
+    public HikeStats mapRow(Cursor cursor) {
+        HikeStats stats = new HikeStats(cursor.getLong(hikeIdIndex));
+        stats.setPointCount(cursor.getInt(pointCountIndex));
+        stats.setDistanceMeters(cursor.getDouble(distanceIndex));
+        stats.setAscentMeters(cursor.getDouble(ascentIndex));
+        stats.setDescentMeters(cursor.getDouble(descentIndex));
+        stats.setMovingTimeMillis(cursor.getLong(movingTimeIndex));
+        stats.setStartTime(cursor.isNull(startTimeIndex) ? null : cursor.getLong(startTimeIndex));
+        stats.setEndTime(cursor.isNull(endTimeIndex) ? null : cursor.getLong(endTimeIndex));
+        stats.setMinElevation(getNullableDouble(cursor, minElevationIndex));
+        stats.setMaxElevation(getNullableDouble(cursor, maxElevationIndex));
+        stats.setReferenceElevation(getNullableDouble(cursor, referenceElevationIndex));
+
+        List<Long> splits = new ArrayList<>();
+        for (String split : splitList(cursor.getString(splitsIndex))) {
+            splits.add(Long.parseLong(split));
+        }
+        stats.setSplitTimesMillis(splits);
+
+        List<Double> profile = new ArrayList<>();
+        for (String sample : splitList(cursor.getString(profileIndex))) {
+            double elevation = Double.parseDouble(sample);
+            profile.add(Double.isNaN(elevation) ? null : elevation);
+        }
+        stats.setElevationProfile(profile);
+
+        if (!cursor.isNull(lastPointIndex)) {
+            try {
+                stats.setLastPoint(TrackPointCodec.decodeLast(cursor.getBlob(lastPointIndex)));
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        return stats;
+    }
+
+    private static Double getNullableDouble(Cursor cursor, int index) {
+        return cursor.isNull(index) ? null : cursor.getDouble(index);
+    }
+
+    private static String[] splitList(String value) {
+        return TextUtils.isEmpty(value) ? new String[0] : value.split(",");
+    }
+}
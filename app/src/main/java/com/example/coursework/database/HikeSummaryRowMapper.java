@@ -0,0 +1,63 @@
+package com.example.coursework.database;
+
+import android.database.Cursor;
+
+import com.example.coursework.models.CodedOption;
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.HikeSummary;
+import com.example.coursework.utils.Constants;
+
+/**
+ * Maps rows of the hike list projection to HikeSummary objects
+ */
+public class HikeSummaryRowMapper implements RowMapper<HikeSummary> {
+
+    /**
+     * Columns read by this mapper; use as the projection of list queries
+     */
+    public static final String[] COLUMNS = {
+            Constants.COLUMN_ID,
+            Constants.COLUMN_NAME,
+            Constants.COLUMN_LOCATION,
+            Constants.COLUMN_DATE,
+            Constants.COLUMN_DATE_EPOCH_DAY,
+            Constants.COLUMN_LENGTH,
+            Constants.COLUMN_DIFFICULTY
+    };
+
+    private final int idIndex;
+    private final int nameIndex;
+    private final int locationIndex;
+    private final int dateIndex;
+    private final int dateEpochDayIndex;
+    private final int lengthIndex;
+    private final int difficultyIndex;
+
+    /**
+     * Resolve column indexes for the given cursor
+     *
+     * @param cursor Cursor over at least the COLUMNS projection
+     */
+    public HikeSummaryRowMapper(Cursor cursor) {
+        idIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_ID);
+        nameIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_NAME);
+        locationIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_LOCATION);
+        dateIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_DATE);
+        dateEpochDayIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_DATE_EPOCH_DAY);
+        lengthIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_LENGTH);
+        difficultyIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_DIFFICULTY);
+    }
+
+    @Override
+    public HikeSummary mapRow(Cursor cursor) {
+        HikeSummary summary = new HikeSummary();
+        summary.setId(cursor.getLong(idIndex));
+        summary.setName(cursor.getString(nameIndex));
+        summary.setLocation(cursor.getString(locationIndex));
+        summary.setDate(cursor.getString(dateIndex));
+        summary.setDateEpochDay(cursor.getLong(dateEpochDayIndex));
+        summary.setLength(cursor.getDouble(lengthIndex));
+        summary.setDifficulty(CodedOption.byCode(Difficulty.class, cursor.getInt(difficultyIndex)));
+        return summary;
+    }
+}
@@ -4,6 +4,7 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 
 import com.example.coursework.models.Observation;
 import com.example.coursework.utils.Constants;
@@ -16,10 +17,10 @@ import java.util.List;
  * Handles all CRUD operations for observations table
  */
 public class ObservationDAO {
-    private DatabaseHelper dbHelper;
+    private final DatabaseHelper dbHelper;
 
     public ObservationDAO(Context context) {
-        dbHelper = new DatabaseHelper(context);
+        dbHelper = DatabaseProvider.getHelper(context);
     }
 
     /**
@@ -38,6 +39,8 @@ public class ObservationDAO {
             values.put(Constants.COLUMN_OBSERVATION, observation.getObservation());
             values.put(Constants.COLUMN_TIME, observation.getTime());
             values.put(Constants.COLUMN_COMMENTS, observation.getComments());
+            values.put(Constants.COLUMN_LATITUDE, observation.getLatitude());
+            values.put(Constants.COLUMN_LONGITUDE, observation.getLongitude());
 
             id = db.insert(Constants.TABLE_OBSERVATIONS, null, values);
         } catch (Exception e) {
@@ -47,6 +50,38 @@ public class ObservationDAO {
         return id;
     }
 
+    /**
+     * Insert observations in one transaction
+     * Each observation's ID is set to its new row ID; if the batch fails nothing is inserted
+     * and every ID is reset to 0.
+     *
+     * @param observations Observations to insert
+     * @return Rows inserted and throughput
+     */
+    public BatchResult insertObservations(List<Observation> observations) {
+        String sql = "INSERT INTO " + Constants.TABLE_OBSERVATIONS + " (" + Constants.COLUMN_HIKE_ID + ", "
+                + Constants.COLUMN_OBSERVATION + ", " + Constants.COLUMN_TIME + ", "
+                + Constants.COLUMN_COMMENTS + ", " + Constants.COLUMN_LATITUDE + ", "
+                + Constants.COLUMN_LONGITUDE + ") VALUES (?, ?, ?, ?, ?, ?)";
+        BatchResult result = BatchWriter.run(dbHelper.getWritableDatabase(), "insertObservations", sql,
+                observations, (statement, observation) -> {
+                    bindObservation(statement, observation);
+                    long id = statement.executeInsert();
+                    if (id == -1) {
+                        return 0;
+                    }
+                    observation.setId(id);
+                    return 1;
+                });
+        if (!result.isSuccessful()) {
+            // Rows inserted before the failure were rolled back
+            for (Observation observation : observations) {
+                observation.setId(0);
+            }
+        }
+        return result;
+    }
+
     /**
      * Get all observations for a specific hike
      *
@@ -67,8 +102,9 @@ public class ObservationDAO {
                     Constants.COLUMN_TIME + " DESC");
 
             if (cursor.moveToFirst()) {
+                ObservationRowMapper mapper = new ObservationRowMapper(cursor);
                 do {
-                    observationList.add(cursorToObservation(cursor));
+                    observationList.add(mapper.mapRow(cursor));
                 } while (cursor.moveToNext());
             }
         } catch (Exception e) {
@@ -101,7 +137,7 @@ public class ObservationDAO {
                     null, null, null);
 
             if (cursor != null && cursor.moveToFirst()) {
-                observation = cursorToObservation(cursor);
+                observation = new ObservationRowMapper(cursor).mapRow(cursor);
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -129,6 +165,8 @@ public class ObservationDAO {
             values.put(Constants.COLUMN_OBSERVATION, observation.getObservation());
             values.put(Constants.COLUMN_TIME, observation.getTime());
             values.put(Constants.COLUMN_COMMENTS, observation.getComments());
+            values.put(Constants.COLUMN_LATITUDE, observation.getLatitude());
+            values.put(Constants.COLUMN_LONGITUDE, observation.getLongitude());
 
             rowsAffected = db.update(Constants.TABLE_OBSERVATIONS,
                     values,
@@ -141,6 +179,40 @@ public class ObservationDAO {
         return rowsAffected;
     }
 
+    /**
+     * Update observations in one transaction
+     *
+     * @param observations Observations with updated data
+     * @return Rows updated and throughput
+     */
+    public BatchResult updateObservations(List<Observation> observations) {
+        String sql = "UPDATE " + Constants.TABLE_OBSERVATIONS + " SET " + Constants.COLUMN_HIKE_ID + " = ?, "
+                + Constants.COLUMN_OBSERVATION + " = ?, " + Constants.COLUMN_TIME + " = ?, "
+                + Constants.COLUMN_COMMENTS + " = ?, " + Constants.COLUMN_LATITUDE + " = ?, "
+                + Constants.COLUMN_LONGITUDE + " = ? WHERE " + Constants.COLUMN_ID + " = ?";
+        return BatchWriter.run(dbHelper.getWritableDatabase(), "updateObservations", sql, observations,
+                (statement, observation) -> {
+                    bindObservation(statement, observation);
+                    statement.bindLong(7, observation.getId());
+                    return statement.executeUpdateDelete();
+                });
+    }
+
+    /**
+     * Delete observations by ID in one transaction
+     *
+     * @param ids IDs of the observations to delete
+     * @return Rows deleted and throughput
+     */
+    public BatchResult deleteObservations(List<Long> ids) {
+        String sql = "DELETE FROM " + Constants.TABLE_OBSERVATIONS + " WHERE " + Constants.COLUMN_ID + " = ?";
+        return BatchWriter.run(dbHelper.getWritableDatabase(), "deleteObservations", sql, ids,
+                (statement, id) -> {
+                    statement.bindLong(1, id);
+                    return statement.executeUpdateDelete();
+                });
+    }
+
     /**
      * Delete an observation by ID
      *
@@ -198,18 +270,14 @@ public class ObservationDAO {
     }
 
     /**
-     * Convert cursor to Observation object
-     *
-     * @param cursor Database cursor
-     * @return Observation object
+     * Bind hike ID, observation, time, comments, latitude and longitude starting at index 1
      */
-    private Observation cursorToObservation(Cursor cursor) {
-        Observation observation = new Observation();
-        observation.setId(cursor.getLong(cursor.getColumnIndexOrThrow(Constants.COLUMN_ID)));
-        observation.setHikeId(cursor.getLong(cursor.getColumnIndexOrThrow(Constants.COLUMN_HIKE_ID)));
-        observation.setObservation(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_OBSERVATION)));
-        observation.setTime(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_TIME)));
-        observation.setComments(cursor.getString(cursor.getColumnIndexOrThrow(Constants.COLUMN_COMMENTS)));
-        return observation;
+    private static void bindObservation(SQLiteStatement statement, Observation observation) {
+        statement.bindLong(1, observation.getHikeId());
+        BatchWriter.bindNullableString(statement, 2, observation.getObservation());
+        BatchWriter.bindNullableString(statement, 3, observation.getTime());
+        BatchWriter.bindNullableString(statement, 4, observation.getComments());
+        BatchWriter.bindNullableDouble(statement, 5, observation.getLatitude());
+        BatchWriter.bindNullableDouble(statement, 6, observation.getLongitude());
     }
 }
@@ -0,0 +1,49 @@
+package com.example.coursework.database;
+
+import android.database.Cursor;
+
+import com.example.coursework.models.Observation;
+import com.example.coursework.utils.Constants;
+
+/**
+ * Maps full rows of the observations table to Observation objects
+ */
+public class ObservationRowMapper implements RowMapper<Observation> {
+    private final int idIndex;
+    private final int hikeIdIndex;
+    private final int observationIndex;
+    private final int timeIndex;
+    private final int commentsIndex;
+    private final int latitudeIndex;
+    private final int longitudeIndex;
+
+    /**
+     * Resolve column indexes for the given cursor
+     *
+     * @param cursor Cursor over all columns of the observations table
+     */
+    public ObservationRowMapper(Cursor cursor) {
+        idIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_ID);
+        hikeIdIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_HIKE_ID);
+        observationIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_OBSERVATION);
+        timeIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_TIME);
+        commentsIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_COMMENTS);
+        latitudeIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_LATITUDE);
+        longitudeIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_LONGITUDE);
+    }
+
+    @Override
+    public Observation mapRow(Cursor cursor) {
+        Observation observation = new Observation();
+        observation.setId(cursor.getLong(idIndex));
+        observation.setHikeId(cursor.getLong(hikeIdIndex));
+        observation.setObservation(cursor.getString(observationIndex));
+        observation.setTime(cursor.getString(timeIndex));
+        observation.setComments(cursor.getString(commentsIndex));
+        if (!cursor.isNull(latitudeIndex) && !cursor.isNull(longitudeIndex)) {
+            observation.setLatitude(cursor.getDouble(latitudeIndex));
+            observation.setLongitude(cursor.getDouble(longitudeIndex));
+        }
+        return observation;
+    }
+}
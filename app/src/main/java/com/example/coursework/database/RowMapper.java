@@ -0,0 +1,19 @@
+package com.example.coursework.database;
+
+import android.database.Cursor;
+
+/**
+ * Maps the current row of a cursor to a model object
+ * Implementations resolve column indexes once when created for a cursor and reuse
+ * them for every row, instead of looking each column up by name per row.
+ */
+public interface RowMapper<T> {
+
+    /**
+     * Map the row the cursor is positioned on
+     *
+     * @param cursor Cursor the mapper was created for
+     * @return Model object for the row
+     */
+    T mapRow(Cursor cursor);
+}
@@ -0,0 +1,149 @@
+package com.example.coursework.database;
+
+import com.example.coursework.utils.Constants;
+
+/**
+ * Trigger definitions shared by DatabaseHelper and the migrations that create them
+ * Every statement uses IF NOT EXISTS, so running it again is harmless. A trigger may only
+ * reference columns present at every schema version that creates it; changing one
+ * needs a new migration that drops and recreates it.
+ */
+public final class SchemaTriggers {
+
+    // Keep the full-text search index in step with hikes
+    public static final String[] HIKE_SEARCH_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS trg_hikes_fts_insert AFTER INSERT ON " + Constants.TABLE_HIKES
+                    + " BEGIN INSERT INTO " + Constants.TABLE_HIKES_FTS + "(" + Constants.COLUMN_FTS_DOCID + ", "
+                    + Constants.COLUMN_NAME + ", " + Constants.COLUMN_LOCATION + ", "
+                    + Constants.COLUMN_DESCRIPTION + ", " + Constants.COLUMN_OBSERVATION_TEXT + ")"
+                    + " VALUES (NEW." + Constants.COLUMN_ID + ", NEW." + Constants.COLUMN_NAME + ", NEW."
+                    + Constants.COLUMN_LOCATION + ", NEW." + Constants.COLUMN_DESCRIPTION + ", ''); END",
+            "CREATE TRIGGER IF NOT EXISTS trg_hikes_fts_update AFTER UPDATE OF "
+                    + Constants.COLUMN_NAME + ", " + Constants.COLUMN_LOCATION + ", " + Constants.COLUMN_DESCRIPTION
+                    + " ON " + Constants.TABLE_HIKES
+                    + " BEGIN UPDATE " + Constants.TABLE_HIKES_FTS + " SET "
+                    + Constants.COLUMN_NAME + " = NEW." + Constants.COLUMN_NAME + ", "
+                    + Constants.COLUMN_LOCATION + " = NEW." + Constants.COLUMN_LOCATION + ", "
+                    + Constants.COLUMN_DESCRIPTION + " = NEW." + Constants.COLUMN_DESCRIPTION
+                    + " WHERE " + Constants.COLUMN_FTS_DOCID + " = NEW." + Constants.COLUMN_ID + "; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_hikes_fts_delete AFTER DELETE ON " + Constants.TABLE_HIKES
+                    + " BEGIN DELETE FROM " + Constants.TABLE_HIKES_FTS
+                    + " WHERE " + Constants.COLUMN_FTS_DOCID + " = OLD." + Constants.COLUMN_ID + "; END"
+    };
+
+    // Keep the searchable observation text of each hike in step with its observations
+    public static final String[] OBSERVATION_SEARCH_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS trg_observations_fts_insert AFTER INSERT ON " + Constants.TABLE_OBSERVATIONS
+                    + " BEGIN " + refreshObservationText("NEW") + " END",
+            "CREATE TRIGGER IF NOT EXISTS trg_observations_fts_update AFTER UPDATE ON " + Constants.TABLE_OBSERVATIONS
+                    + " BEGIN " + refreshObservationText("OLD") + " " + refreshObservationText("NEW") + " END",
+            "CREATE TRIGGER IF NOT EXISTS trg_observations_fts_delete AFTER DELETE ON " + Constants.TABLE_OBSERVATIONS
+                    + " BEGIN " + refreshObservationText("OLD") + " END"
+    };
+
+    // Keep monthly_stats in step with every write to hikes and observations.
+    // Hikes are subtracted before they are deleted, while their observations still exist;
+    // the observations cascaded afterwards no longer find their hike and change nothing.
+    public static final String[] SUMMARY_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS trg_hikes_stats_insert AFTER INSERT ON " + Constants.TABLE_HIKES
+                    + " BEGIN " + addHikeToMonth("NEW") + " END",
+            "CREATE TRIGGER IF NOT EXISTS trg_hikes_stats_update AFTER UPDATE OF "
+                    + Constants.COLUMN_DATE_EPOCH_DAY + ", " + Constants.COLUMN_LENGTH + ", " + Constants.COLUMN_DIFFICULTY
+                    + " ON " + Constants.TABLE_HIKES
+                    + " BEGIN " + removeHikeFromMonth("OLD") + " " + addHikeToMonth("NEW") + " END",
+            "CREATE TRIGGER IF NOT EXISTS trg_hikes_stats_delete BEFORE DELETE ON " + Constants.TABLE_HIKES
+                    + " BEGIN " + removeHikeFromMonth("OLD") + " END",
+            "CREATE TRIGGER IF NOT EXISTS trg_observations_stats_insert AFTER INSERT ON " + Constants.TABLE_OBSERVATIONS
+                    + " BEGIN " + countObservation("NEW", 1) + " END",
+            "CREATE TRIGGER IF NOT EXISTS trg_observations_stats_update AFTER UPDATE OF " + Constants.COLUMN_HIKE_ID
+                    + " ON " + Constants.TABLE_OBSERVATIONS
+                    + " BEGIN " + countObservation("OLD", -1) + " " + countObservation("NEW", 1) + " END",
+            "CREATE TRIGGER IF NOT EXISTS trg_observations_stats_delete AFTER DELETE ON " + Constants.TABLE_OBSERVATIONS
+                    + " BEGIN " + countObservation("OLD", -1) + " END"
+    };
+
+    private SchemaTriggers() {
+    }
+
+    /**
+     * Expression for the month (yyyymm) of the hike in a row
+     *
+     * @param row NEW, OLD or a table alias
+     */
+    public static String monthOf(String row) {
+        return "CAST(strftime('%Y%m', " + row + "." + Constants.COLUMN_DATE_EPOCH_DAY
+                + " * 86400, 'unixepoch') AS INTEGER)";
+    }
+
+    /**
+     * Statement recomputing the searchable observation text of the hike referenced by a row
+     *
+     * @param row NEW or OLD
+     */
+    private static String refreshObservationText(String row) {
+        return "UPDATE " + Constants.TABLE_HIKES_FTS + " SET " + Constants.COLUMN_OBSERVATION_TEXT
+                + " = (SELECT IFNULL(group_concat(" + Constants.COLUMN_OBSERVATION + " || ' ' || IFNULL("
+                + Constants.COLUMN_COMMENTS + ", ''), ' '), '') FROM " + Constants.TABLE_OBSERVATIONS
+                + " WHERE " + Constants.COLUMN_HIKE_ID + " = " + row + "." + Constants.COLUMN_HIKE_ID + ")"
+                + " WHERE " + Constants.COLUMN_FTS_DOCID + " = " + row + "." + Constants.COLUMN_HIKE_ID + ";";
+    }
+
+    /**
+     * Condition selecting the monthly statistics row of the hike in a row
+     */
+    private static String monthRowOf(String row) {
+        return " WHERE " + Constants.COLUMN_MONTH + " = " + monthOf(row)
+                + " AND " + Constants.COLUMN_DIFFICULTY + " = " + row + "." + Constants.COLUMN_DIFFICULTY;
+    }
+
+    /**
+     * Statements counting a hike and its observations in its month
+     *
+     * @param row NEW or OLD
+     */
+    private static String addHikeToMonth(String row) {
+        return "INSERT OR IGNORE INTO " + Constants.TABLE_MONTHLY_STATS + "(" + Constants.COLUMN_MONTH + ", "
+                + Constants.COLUMN_DIFFICULTY + ") VALUES (" + monthOf(row) + ", "
+                + row + "." + Constants.COLUMN_DIFFICULTY + ");"
+                + " " + updateHikeInMonth(row, "+");
+    }
+
+    /**
+     * Statements removing a hike and its observations from its month
+     * Months left without hikes are dropped.
+     *
+     * @param row NEW or OLD
+     */
+    private static String removeHikeFromMonth(String row) {
+        return updateHikeInMonth(row, "-")
+                + " DELETE FROM " + Constants.TABLE_MONTHLY_STATS + monthRowOf(row)
+                + " AND " + Constants.COLUMN_HIKE_COUNT + " <= 0;";
+    }
+
+    private static String updateHikeInMonth(String row, String sign) {
+        return "UPDATE " + Constants.TABLE_MONTHLY_STATS + " SET "
+                + Constants.COLUMN_HIKE_COUNT + " = " + Constants.COLUMN_HIKE_COUNT + " " + sign + " 1, "
+                + Constants.COLUMN_TOTAL_LENGTH + " = " + Constants.COLUMN_TOTAL_LENGTH + " " + sign + " "
+                + row + "." + Constants.COLUMN_LENGTH + ", "
+                + Constants.COLUMN_OBSERVATION_COUNT + " = " + Constants.COLUMN_OBSERVATION_COUNT + " " + sign
+                + " (SELECT COUNT(*) FROM " + Constants.TABLE_OBSERVATIONS + " WHERE "
+                + Constants.COLUMN_HIKE_ID + " = " + row + "." + Constants.COLUMN_ID + ")"
+                + monthRowOf(row) + ";";
+    }
+
+    /**
+     * Statement adjusting the observation count of the month of the hike an observation row references
+     * Does nothing if the hike no longer exists.
+     *
+     * @param row   NEW or OLD
+     * @param delta 1 or -1
+     */
+    private static String countObservation(String row, int delta) {
+        String hike = " FROM " + Constants.TABLE_HIKES + " h WHERE h." + Constants.COLUMN_ID
+                + " = " + row + "." + Constants.COLUMN_HIKE_ID + ")";
+        return "UPDATE " + Constants.TABLE_MONTHLY_STATS + " SET " + Constants.COLUMN_OBSERVATION_COUNT
+                + " = " + Constants.COLUMN_OBSERVATION_COUNT + " + (" + delta + ")"
+                + " WHERE " + Constants.COLUMN_MONTH + " = (SELECT " + monthOf("h") + hike
+                + " AND " + Constants.COLUMN_DIFFICULTY + " = (SELECT h." + Constants.COLUMN_DIFFICULTY + hike + ";";
+    }
+}
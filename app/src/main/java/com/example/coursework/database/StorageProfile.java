@@ -0,0 +1,59 @@
+package com.example.coursework.database;
+
+/**
+ * SQLite storage settings applied by DatabaseHelper before the database is opened
+ * Both settings reach every pooled connection. PRAGMAs such as cache_size and mmap_size
+ * only affect the connection that runs them, and Android offers no hook to run them on
+ * each connection it opens, so they are left at the platform defaults.
+ */
+public class StorageProfile {
+
+    /**
+     * Values for PRAGMA synchronous
+     */
+    public enum Synchronous {
+        OFF, NORMAL, FULL
+    }
+
+    /**
+     * Write-ahead logging so list reads are not blocked by saves.
+     * NORMAL sync is durable across app crashes in WAL mode and skips the fsync per commit.
+     */
+    public static final StorageProfile DEFAULT = new StorageProfile(true, Synchronous.NORMAL);
+
+    /**
+     * SQLite defaults: rollback journal with a full sync on every commit
+     */
+    public static final StorageProfile LEGACY = new StorageProfile(false, Synchronous.FULL);
+
+    private final boolean writeAheadLogging;
+    private final Synchronous synchronous;
+
+    /**
+     * Constructor with all settings
+     *
+     * @param writeAheadLogging Use WAL journal mode instead of the rollback journal
+     * @param synchronous       Sync level for commits; applied on Android 11 and later, where
+     *                          earlier versions use the platform's sync level for the journal mode
+     */
+    public StorageProfile(boolean writeAheadLogging, Synchronous synchronous) {
+        this.writeAheadLogging = writeAheadLogging;
+        this.synchronous = synchronous;
+    }
+
+    public boolean isWriteAheadLogging() {
+        return writeAheadLogging;
+    }
+
+    public Synchronous getSynchronous() {
+        return synchronous;
+    }
+
+    @Override
+    public String toString() {
+        return "StorageProfile{" +
+                "writeAheadLogging=" + writeAheadLogging +
+                ", synchronous=" + synchronous +
+                '}';
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.coursework.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.coursework.models.PeriodStats;
+import com.example.coursework.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for hike totals per month and year
+ * Reads the monthly_stats table, which triggers keep in step with every write to hikes
+ * and observations, so the cost depends on the number of months with hikes rather
+ * than the number of hikes.
+ */
+public class SummaryStatsDAO {
+    private final DatabaseHelper dbHelper;
+
+    public SummaryStatsDAO(Context context) {
+        dbHelper = DatabaseProvider.getHelper(context);
+    }
+
+    /**
+     * Get hike totals per year and per month, newest first
+     * Each year's totals come before the totals of its months.
+     *
+     * @return Totals for every year and month with hikes
+     */
+    public List<PeriodStats> getPeriodStats() {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        List<PeriodStats> periods = new ArrayList<>();
+        Cursor cursor = null;
+
+        try {
+            cursor = db.query(Constants.TABLE_MONTHLY_STATS,
+                    new String[]{Constants.COLUMN_MONTH, Constants.COLUMN_DIFFICULTY, Constants.COLUMN_HIKE_COUNT,
+                            Constants.COLUMN_TOTAL_LENGTH, Constants.COLUMN_OBSERVATION_COUNT},
+                    null, null, null, null,
+                    Constants.COLUMN_MONTH + " DESC");
+
+            PeriodStats year = null;
+            PeriodStats month = null;
+            while (cursor.moveToNext()) {
+                int yearMonth = cursor.getInt(0);
+                int difficulty = cursor.getInt(1);
+                int hikeCount = cursor.getInt(2);
+                double totalLength = cursor.getDouble(3);
+                int observationCount = cursor.getInt(4);
+
+                if (year == null || year.getYear() != yearMonth / 100) {
+                    year = new PeriodStats(yearMonth / 100, 0);
+                    periods.add(year);
+                }
+                if (month == null || month.getYear() != yearMonth / 100 || month.getMonth() != yearMonth % 100) {
+                    month = new PeriodStats(yearMonth / 100, yearMonth % 100);
+                    periods.add(month);
+                }
+                year.add(difficulty, hikeCount, totalLength, observationCount);
+                month.add(difficulty, hikeCount, totalLength, observationCount);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+
+        return periods;
+    }
+
+    /**
+     * Get the totals over all hikes
+     *
+     * @return Totals, with no hikes if there are none
+     */
+    public PeriodStats getTotalStats() {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        PeriodStats total = new PeriodStats();
+        Cursor cursor = null;
+
+        try {
+            cursor = db.rawQuery("SELECT " + Constants.COLUMN_DIFFICULTY + ", SUM(" + Constants.COLUMN_HIKE_COUNT
+                    + "), SUM(" + Constants.COLUMN_TOTAL_LENGTH + "), SUM(" + Constants.COLUMN_OBSERVATION_COUNT
+                    + ") FROM " + Constants.TABLE_MONTHLY_STATS + " GROUP BY " + Constants.COLUMN_DIFFICULTY, null);
+
+            while (cursor.moveToNext()) {
+                total.add(cursor.getInt(0), cursor.getInt(1), cursor.getDouble(2), cursor.getInt(3));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.coursework.database;
+
+import com.example.coursework.models.TrackPoint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Compact binary encoding for a run of track points, stored as one chunk blob
+ * Coordinates are quantised to 1e-7 degrees (about 1 cm), elevation to 0.1 m and time to
+ * milliseconds, all well below GPS accuracy. Each point is written as zigzag varint deltas
+ * from the previous point; time uses the change in interval, so a steady 1 Hz recording
+ * costs one byte per point for time. A walking-pace point takes about 7 bytes.
+ *
+ * Layout: format version, point count, then per point a flags varint
+ * (bit 0 elevation present, bit 1 time present, remaining bits the zigzag segment delta)
+ * followed by the latitude and longitude deltas and, when present, the elevation and
+ * time deltas.
+ */
+public class TrackPointCodec {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final double COORDINATE_SCALE = 1e7;
+    private static final double ELEVATION_SCALE = 10;
+
+    private static final int FLAG_ELEVATION = 1;
+    private static final int FLAG_TIME = 2;
+    private static final int FLAG_BITS = 2;
+
+    /**
+     * Encode points as one chunk
+     *
+     * @param points Points in recording order
+     * @return Chunk blob
+     */
+    public static byte[] encode(List<TrackPoint> points) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(points.size() * 8 + 16);
+        writeVarint(out, FORMAT_VERSION);
+        writeVarint(out, points.size());
+
+        long lastLatitude = 0;
+        long lastLongitude = 0;
+        long lastElevation = 0;
+        long lastTime = 0;
+        long lastInterval = 0;
+        int lastSegment = 0;
+
+        for (TrackPoint point : points) {
+            long latitude = Math.round(point.getLatitude() * COORDINATE_SCALE);
+            long longitude = Math.round(point.getLongitude() * COORDINATE_SCALE);
+
+            long flags = zigzag(point.getSegment() - lastSegment) << FLAG_BITS;
+            if (point.getElevation() != null) {
+                flags |= FLAG_ELEVATION;
+            }
+            if (point.getTime() != null) {
+                flags |= FLAG_TIME;
+            }
+            writeVarint(out, flags);
+            writeVarint(out, zigzag(latitude - lastLatitude));
+            writeVarint(out, zigzag(longitude - lastLongitude));
+
+            if (point.getElevation() != null) {
+                long elevation = Math.round(point.getElevation() * ELEVATION_SCALE);
+                writeVarint(out, zigzag(elevation - lastElevation));
+                lastElevation = elevation;
+            }
+            if (point.getTime() != null) {
+                long interval = point.getTime() - lastTime;
+                writeVarint(out, zigzag(interval - lastInterval));
+                lastTime = point.getTime();
+                lastInterval = interval;
+            }
+
+            lastLatitude = latitude;
+            lastLongitude = longitude;
+            lastSegment = point.getSegment();
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode a chunk, handing each point to the visitor in recording order
+     *
+     * @param data    Chunk blob
+     * @param visitor Receives each point
+     * @throws IOException if the visitor fails or the blob is corrupt or truncated
+     */
+    public static void decode(byte[] data, TrackPointDAO.Visitor visitor) throws IOException {
+        Reader in = new Reader(data);
+        int version = (int) in.readVarint();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported track chunk format " + version);
+        }
+        long count = in.readVarint();
+
+        long latitude = 0;
+        long longitude = 0;
+        long elevation = 0;
+        long time = 0;
+        long interval = 0;
+        int segment = 0;
+
+        for (long i = 0; i < count; i++) {
+            long flags = in.readVarint();
+            segment += (int) unzigzag(flags >>> FLAG_BITS);
+            latitude += unzigzag(in.readVarint());
+            longitude += unzigzag(in.readVarint());
+
+            Double pointElevation = null;
+            if ((flags & FLAG_ELEVATION) != 0) {
+                elevation += unzigzag(in.readVarint());
+                pointElevation = elevation / ELEVATION_SCALE;
+            }
+            Long pointTime = null;
+            if ((flags & FLAG_TIME) != 0) {
+                interval += unzigzag(in.readVarint());
+                time += interval;
+                pointTime = time;
+            }
+
+            visitor.visit(new TrackPoint(segment, latitude / COORDINATE_SCALE, longitude / COORDINATE_SCALE,
+                    pointElevation, pointTime));
+        }
+
+        if (in.hasRemaining()) {
+            throw new IOException("Trailing bytes after " + count + " points in track chunk");
+        }
+    }
+
+    /**
+     * Read the last point of a chunk
+     *
+     * @return The last point, or null if the chunk is empty
+     */
+    public static TrackPoint decodeLast(byte[] data) throws IOException {
+        TrackPoint[] last = new TrackPoint[1];
+        decode(data, point -> last[0] = point);
+        return last[0];
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Write an unsigned LEB128 varint: 7 bits per byte, high bit set on all but the last
+     */
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Sequential varint reader over a chunk blob
+     */
+    private static class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        boolean hasRemaining() {
+            return position < data.length;
+        }
+
+        long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= data.length) {
+                    throw new IOException("Truncated track chunk");
+                }
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in track chunk");
+        }
+    }
+}
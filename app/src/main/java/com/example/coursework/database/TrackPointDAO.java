@@ -0,0 +1,324 @@
+package com.example.coursework.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.GeoUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for the GPS track points of hikes
+ * A track is stored as compressed chunks of up to TRACK_CHUNK_SIZE points (see
+ * TrackPointCodec), one row per chunk, in recording order by ID. Points are only
+ * ever appended; the whole track is read back by streaming the chunks in order.
+ */
+public class TrackPointDAO {
+
+    /**
+     * Receives a hike's track points one at a time, in recording order
+     */
+    public interface Visitor {
+        void visit(TrackPoint point) throws IOException;
+    }
+
+    private static final String INSERT_CHUNK = "INSERT INTO " + Constants.TABLE_TRACK_CHUNKS + " ("
+            + Constants.COLUMN_HIKE_ID + ", " + Constants.COLUMN_POINT_COUNT + ", "
+            + Constants.COLUMN_DATA + ") VALUES (?, ?, ?)";
+
+    private final DatabaseHelper dbHelper;
+
+    public TrackPointDAO(Context context) {
+        dbHelper = DatabaseProvider.getHelper(context);
+    }
+
+    /**
+     * Append track points to a hike in one transaction
+     *
+     * @param hikeId Hike the points belong to
+     * @param points Points in recording order
+     * @return Points inserted and throughput
+     */
+    public BatchResult insertTrackPoints(long hikeId, List<TrackPoint> points) {
+        return BatchWriter.run(dbHelper.getWritableDatabase(), "insertTrackPoints", INSERT_CHUNK,
+                split(points), (statement, chunk) -> {
+                    bindChunk(statement, hikeId, chunk);
+                    return statement.executeInsert() == -1 ? 0 : chunk.size();
+                });
+    }
+
+    /**
+     * Get the whole track of a hike
+     * Prefer forEachTrackPoint for long tracks.
+     *
+     * @param hikeId The hike ID
+     * @return Track points in recording order
+     */
+    public List<TrackPoint> getTrackPoints(long hikeId) {
+        List<TrackPoint> points = new ArrayList<>();
+        try {
+            forEachTrackPoint(hikeId, points::add);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return points;
+    }
+
+    /**
+     * Stream the track of a hike, decoding one chunk at a time
+     *
+     * @param hikeId  The hike ID
+     * @param visitor Receives each point in recording order
+     * @throws IOException if the visitor fails or a chunk is corrupt
+     */
+    public void forEachTrackPoint(long hikeId, Visitor visitor) throws IOException {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Cursor cursor = null;
+
+        try {
+            cursor = db.query(Constants.TABLE_TRACK_CHUNKS,
+                    new String[]{Constants.COLUMN_DATA},
+                    Constants.COLUMN_HIKE_ID + "=?",
+                    new String[]{String.valueOf(hikeId)},
+                    null, null,
+                    Constants.COLUMN_ID);
+
+            while (cursor.moveToNext()) {
+                TrackPointCodec.decode(cursor.getBlob(0), visitor);
+            }
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Get the last recorded point of a hike
+     *
+     * @param hikeId The hike ID
+     * @return The last point, or null if the hike has no track
+     */
+    public TrackPoint getLastTrackPoint(long hikeId) {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Cursor cursor = null;
+        TrackPoint point = null;
+
+        try {
+            cursor = db.query(Constants.TABLE_TRACK_CHUNKS,
+                    new String[]{Constants.COLUMN_DATA},
+                    Constants.COLUMN_HIKE_ID + "=?",
+                    new String[]{String.valueOf(hikeId)},
+                    null, null,
+                    Constants.COLUMN_ID + " DESC",
+                    "1");
+
+            if (cursor.moveToFirst()) {
+                point = TrackPointCodec.decodeLast(cursor.getBlob(0));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+
+        return point;
+    }
+
+    /**
+     * Get the length of a hike's track, not counting the gaps between segments
+     *
+     * @param hikeId The hike ID
+     * @return Length in metres, 0 if there is no track
+     */
+    public double getTrackLengthMeters(long hikeId) {
+        double[] meters = {0};
+        TrackPoint[] previous = {null};
+
+        try {
+            forEachTrackPoint(hikeId, point -> {
+                TrackPoint last = previous[0];
+                if (last != null && last.getSegment() == point.getSegment()) {
+                    meters[0] += GeoUtils.distanceMeters(last.getLatitude(), last.getLongitude(),
+                            point.getLatitude(), point.getLongitude());
+                }
+                previous[0] = point;
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return meters[0];
+    }
+
+    /**
+     * Get a value that changes whenever a hike's track changes
+     * Chunks are only appended or rewritten with new IDs, never updated in place, and
+     * AUTOINCREMENT never reuses an ID, so the highest chunk ID identifies the track's
+     * current contents.
+     *
+     * @param hikeId The hike ID
+     * @return Track revision, 0 if the hike has no track
+     */
+    public long getTrackRevision(long hikeId) {
+        return sumForHike("MAX(" + Constants.COLUMN_ID + ")", hikeId);
+    }
+
+    /**
+     * Get total count of track points for a hike
+     *
+     * @param hikeId The hike ID
+     * @return Count of track points
+     */
+    public int getTrackPointCount(long hikeId) {
+        return (int) sumForHike("SUM(" + Constants.COLUMN_POINT_COUNT + ")", hikeId);
+    }
+
+    /**
+     * Get the stored size of a hike's track
+     *
+     * @param hikeId The hike ID
+     * @return Total size of the chunk blobs in bytes
+     */
+    public long getTrackSizeBytes(long hikeId) {
+        return sumForHike("SUM(LENGTH(" + Constants.COLUMN_DATA + "))", hikeId);
+    }
+
+    /**
+     * Rewrite a hike's track as full chunks
+     * Each append stores at least one chunk, so a track recorded in many small flushes is
+     * merged here once recording ends. Only the compressed chunks are held in memory.
+     *
+     * @param hikeId The hike ID
+     * @return Number of chunks after compaction, or -1 if it failed
+     */
+    public int compactTrack(long hikeId) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        SQLiteStatement insert = null;
+        int chunkCount = -1;
+
+        db.beginTransaction();
+        try {
+            long storedChunks = sumForHike("COUNT(*)", hikeId);
+            long pointCount = getTrackPointCount(hikeId);
+            long fullChunks = (pointCount + Constants.TRACK_CHUNK_SIZE - 1) / Constants.TRACK_CHUNK_SIZE;
+            if (storedChunks <= fullChunks) {
+                db.setTransactionSuccessful();
+                return (int) storedChunks;
+            }
+
+            List<TrackPoint> buffer = new ArrayList<>(Constants.TRACK_CHUNK_SIZE);
+            List<byte[]> encoded = new ArrayList<>();
+            List<Integer> sizes = new ArrayList<>();
+            forEachTrackPoint(hikeId, point -> {
+                buffer.add(point);
+                if (buffer.size() == Constants.TRACK_CHUNK_SIZE) {
+                    encoded.add(TrackPointCodec.encode(buffer));
+                    sizes.add(buffer.size());
+                    buffer.clear();
+                }
+            });
+            if (!buffer.isEmpty()) {
+                encoded.add(TrackPointCodec.encode(buffer));
+                sizes.add(buffer.size());
+            }
+
+            db.delete(Constants.TABLE_TRACK_CHUNKS, Constants.COLUMN_HIKE_ID + "=?",
+                    new String[]{String.valueOf(hikeId)});
+            insert = db.compileStatement(INSERT_CHUNK);
+            for (int i = 0; i < encoded.size(); i++) {
+                insert.clearBindings();
+                insert.bindLong(1, hikeId);
+                insert.bindLong(2, sizes.get(i));
+                insert.bindBlob(3, encoded.get(i));
+                insert.executeInsert();
+            }
+
+            db.setTransactionSuccessful();
+            chunkCount = encoded.size();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            db.endTransaction();
+            if (insert != null) {
+                insert.close();
+            }
+        }
+
+        return chunkCount;
+    }
+
+    /**
+     * Delete the whole track of a hike
+     *
+     * @param hikeId The hike ID
+     * @return Number of chunks deleted
+     */
+    public int deleteTrackPoints(long hikeId) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        int rowsAffected = 0;
+
+        try {
+            rowsAffected = db.delete(Constants.TABLE_TRACK_CHUNKS,
+                    Constants.COLUMN_HIKE_ID + "=?",
+                    new String[]{String.valueOf(hikeId)});
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return rowsAffected;
+    }
+
+    /**
+     * Run an aggregate over a hike's chunks
+     */
+    private long sumForHike(String aggregate, long hikeId) {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Cursor cursor = null;
+        long sum = 0;
+
+        try {
+            cursor = db.rawQuery("SELECT IFNULL(" + aggregate + ", 0) FROM " + Constants.TABLE_TRACK_CHUNKS
+                    + " WHERE " + Constants.COLUMN_HIKE_ID + "=?", new String[]{String.valueOf(hikeId)});
+            if (cursor.moveToFirst()) {
+                sum = cursor.getLong(0);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+
+        return sum;
+    }
+
+    /**
+     * Split points into chunk-sized runs
+     */
+    private static List<List<TrackPoint>> split(List<TrackPoint> points) {
+        List<List<TrackPoint>> chunks = new ArrayList<>();
+        for (int start = 0; start < points.size(); start += Constants.TRACK_CHUNK_SIZE) {
+            chunks.add(points.subList(start, Math.min(points.size(), start + Constants.TRACK_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Bind hike ID, point count and encoded points starting at index 1
+     */
+    private static void bindChunk(SQLiteStatement statement, long hikeId, List<TrackPoint> chunk) {
+        statement.bindLong(1, hikeId);
+        statement.bindLong(2, chunk.size());
+        statement.bindBlob(3, TrackPointCodec.encode(chunk));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.coursework.database.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.coursework.utils.Constants;
+
+/**
+ * Versions 1 and 2 differ from version 3 only by the since-removed photo_path column.
+ * Both tables are rebuilt with the version 3 definition, keeping every column they share.
+ */
+public class LegacyMigrationTo3 extends Migration {
+
+    private static final String CREATE_HIKES_V3 = "CREATE TABLE %s ("
+            + Constants.COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + Constants.COLUMN_NAME + " TEXT NOT NULL, "
+            + Constants.COLUMN_LOCATION + " TEXT NOT NULL, "
+            + Constants.COLUMN_DATE + " TEXT NOT NULL, "
+            + Constants.COLUMN_PARKING_AVAILABLE + " TEXT NOT NULL, "
+            + Constants.COLUMN_LENGTH + " REAL NOT NULL, "
+            + Constants.COLUMN_DIFFICULTY + " TEXT NOT NULL, "
+            + Constants.COLUMN_DESCRIPTION + " TEXT, "
+            + Constants.COLUMN_WEATHER_CONDITION + " TEXT, "
+            + Constants.COLUMN_ESTIMATED_DURATION + " TEXT, "
+            + Constants.COLUMN_CREATED_AT + " TEXT DEFAULT CURRENT_TIMESTAMP"
+            + ")";
+
+    private static final String CREATE_OBSERVATIONS_V3 = "CREATE TABLE %s ("
+            + Constants.COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + Constants.COLUMN_HIKE_ID + " INTEGER NOT NULL, "
+            + Constants.COLUMN_OBSERVATION + " TEXT NOT NULL, "
+            + Constants.COLUMN_TIME + " TEXT NOT NULL, "
+            + Constants.COLUMN_COMMENTS + " TEXT, "
+            + "FOREIGN KEY(" + Constants.COLUMN_HIKE_ID + ") REFERENCES "
+            + Constants.TABLE_HIKES + "(" + Constants.COLUMN_ID + ") ON DELETE CASCADE"
+            + ")";
+
+    /**
+     * @param startVersion 1 or 2
+     */
+    public LegacyMigrationTo3(int startVersion) {
+        super(startVersion, 3);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db, MigrationProgressListener listener) {
+        TableRebuilder rebuilder = new TableRebuilder(db, listener);
+        rebuildOrCreate(db, rebuilder, Constants.TABLE_HIKES, CREATE_HIKES_V3);
+        rebuildOrCreate(db, rebuilder, Constants.TABLE_OBSERVATIONS, CREATE_OBSERVATIONS_V3);
+    }
+
+    private void rebuildOrCreate(SQLiteDatabase db, TableRebuilder rebuilder, String table, String createTemplate) {
+        if (rebuilder.getColumns(table).isEmpty()) {
+            db.execSQL(String.format(createTemplate, table));
+        } else {
+            rebuilder.rebuild(table, createTemplate);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.coursework.database.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * One schema upgrade step from startVersion to endVersion
+ * Steps keep their own copy of any table and index DDL they need, so later schema
+ * changes in DatabaseHelper never alter what an old step does. Triggers come from
+ * SchemaTriggers, shared with DatabaseHelper so the definitions cannot drift apart.
+ */
+public abstract class Migration {
+    private final int startVersion;
+    private final int endVersion;
+
+    protected Migration(int startVersion, int endVersion) {
+        this.startVersion = startVersion;
+        this.endVersion = endVersion;
+    }
+
+    public int getStartVersion() {
+        return startVersion;
+    }
+
+    public int getEndVersion() {
+        return endVersion;
+    }
+
+    /**
+     * Apply this step. Runs inside the upgrade transaction with foreign keys disabled.
+     *
+     * @param db       Database being upgraded
+     * @param listener Progress listener for long-running work
+     */
+    public abstract void migrate(SQLiteDatabase db, MigrationProgressListener listener);
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + startVersion + " -> " + endVersion + ")";
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.coursework.database.migration;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.example.coursework.database.TrackPointCodec;
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.GeoHash;
+import com.example.coursework.utils.GeoUtils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Adds coordinates and an indexed geohash to hikes
+ * Existing hikes get the start of their recorded track, or else a location written as
+ * "latitude, longitude" (as GPX imports store it). Other hikes keep NULL coordinates.
+ */
+public class Migration10To11 extends Migration {
+
+    private static final int GEOHASH_PRECISION = 9;
+
+    private static final Pattern COORDINATES = Pattern.compile(
+            "^\\s*(-?\\d{1,2}(?:\\.\\d+)?)\\s*,\\s*(-?\\d{1,3}(?:\\.\\d+)?)\\s*$");
+
+    private static final String CREATE_INDEX_HIKES_GEOHASH = "CREATE INDEX IF NOT EXISTS "
+            + Constants.INDEX_HIKES_GEOHASH + " ON "
+            + Constants.TABLE_HIKES + "(" + Constants.COLUMN_GEOHASH + ")";
+
+    public Migration10To11() {
+        super(10, 11);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db, MigrationProgressListener listener) {
+        db.execSQL("ALTER TABLE " + Constants.TABLE_HIKES + " ADD COLUMN " + Constants.COLUMN_LATITUDE + " REAL");
+        db.execSQL("ALTER TABLE " + Constants.TABLE_HIKES + " ADD COLUMN " + Constants.COLUMN_LONGITUDE + " REAL");
+        db.execSQL("ALTER TABLE " + Constants.TABLE_HIKES + " ADD COLUMN " + Constants.COLUMN_GEOHASH + " TEXT");
+
+        backfillCoordinates(db, listener);
+
+        db.execSQL(CREATE_INDEX_HIKES_GEOHASH);
+    }
+
+    /**
+     * Set coordinates from each hike's first track chunk or its location text
+     */
+    private void backfillCoordinates(SQLiteDatabase db, MigrationProgressListener listener) {
+        String task = "Locating hikes";
+        Cursor cursor = null;
+        SQLiteStatement update = db.compileStatement("UPDATE " + Constants.TABLE_HIKES + " SET "
+                + Constants.COLUMN_LATITUDE + " = ?, " + Constants.COLUMN_LONGITUDE + " = ?, "
+                + Constants.COLUMN_GEOHASH + " = ? WHERE " + Constants.COLUMN_ID + " = ?");
+
+        try {
+            cursor = db.rawQuery("SELECT h." + Constants.COLUMN_ID + ", h." + Constants.COLUMN_LOCATION
+                    + ", (SELECT c." + Constants.COLUMN_DATA + " FROM " + Constants.TABLE_TRACK_CHUNKS
+                    + " c WHERE c." + Constants.COLUMN_HIKE_ID + " = h." + Constants.COLUMN_ID
+                    + " ORDER BY c." + Constants.COLUMN_ID + " LIMIT 1) FROM " + Constants.TABLE_HIKES + " h", null);
+
+            long total = cursor.getCount();
+            long done = 0;
+            listener.onProgress(task, 0, total);
+            while (cursor.moveToNext()) {
+                double[] position = cursor.isNull(2) ? null : firstPoint(cursor.getBlob(2));
+                if (position == null) {
+                    position = parseCoordinates(cursor.getString(1));
+                }
+
+                if (position != null) {
+                    update.clearBindings();
+                    update.bindDouble(1, position[0]);
+                    update.bindDouble(2, position[1]);
+                    update.bindString(3, GeoHash.encode(position[0], position[1], GEOHASH_PRECISION));
+                    update.bindLong(4, cursor.getLong(0));
+                    update.executeUpdateDelete();
+                }
+
+                if (++done % 100 == 0) {
+                    listener.onProgress(task, done, total);
+                }
+            }
+            listener.onProgress(task, total, total);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+            update.close();
+        }
+    }
+
+    private static double[] firstPoint(byte[] chunk) {
+        TrackPoint[] first = {null};
+        try {
+            TrackPointCodec.decode(chunk, point -> {
+                if (first[0] == null) {
+                    first[0] = point;
+                }
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return first[0] != null ? new double[]{first[0].getLatitude(), first[0].getLongitude()} : null;
+    }
+
+    private static double[] parseCoordinates(String location) {
+        if (location == null) {
+            return null;
+        }
+        Matcher matcher = COORDINATES.matcher(location);
+        if (!matcher.matches()) {
+            return null;
+        }
+        double latitude = Double.parseDouble(matcher.group(1));
+        double longitude = Double.parseDouble(matcher.group(2));
+        return GeoUtils.isValidCoordinate(latitude, longitude) ? new double[]{latitude, longitude} : null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.coursework.database.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.coursework.database.SchemaTriggers;
+import com.example.coursework.utils.Constants;
+
+/**
+ * Adds the monthly_stats summary table and the triggers maintaining it
+ * Rows are filled from existing hikes and observations in one grouped query.
+ */
+public class Migration11To12 extends Migration {
+
+    private static final String CREATE_TABLE_MONTHLY_STATS = "CREATE TABLE IF NOT EXISTS "
+            + Constants.TABLE_MONTHLY_STATS + " ("
+            + Constants.COLUMN_MONTH + " INTEGER NOT NULL, "
+            + Constants.COLUMN_DIFFICULTY + " INTEGER NOT NULL, "
+            + Constants.COLUMN_HIKE_COUNT + " INTEGER NOT NULL DEFAULT 0, "
+            + Constants.COLUMN_TOTAL_LENGTH + " REAL NOT NULL DEFAULT 0, "
+            + Constants.COLUMN_OBSERVATION_COUNT + " INTEGER NOT NULL DEFAULT 0, "
+            + "PRIMARY KEY(" + Constants.COLUMN_MONTH + ", " + Constants.COLUMN_DIFFICULTY + ")"
+            + ")";
+
+    public Migration11To12() {
+        super(11, 12);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db, MigrationProgressListener listener) {
+        db.execSQL(CREATE_TABLE_MONTHLY_STATS);
+
+        // Summarise existing hikes before the triggers take over
+        listener.onProgress("Summarising hikes", 0, 1);
+        db.execSQL("INSERT INTO " + Constants.TABLE_MONTHLY_STATS + "(" + Constants.COLUMN_MONTH + ", "
+                + Constants.COLUMN_DIFFICULTY + ", " + Constants.COLUMN_HIKE_COUNT + ", "
+                + Constants.COLUMN_TOTAL_LENGTH + ", " + Constants.COLUMN_OBSERVATION_COUNT + ")"
+                + " SELECT " + SchemaTriggers.monthOf("h") + ", h." + Constants.COLUMN_DIFFICULTY
+                + ", COUNT(*), SUM(h." + Constants.COLUMN_LENGTH + "), SUM(IFNULL(o.observations, 0)) FROM " + Constants.TABLE_HIKES + " h"
+                + " LEFT JOIN (SELECT " + Constants.COLUMN_HIKE_ID + ", COUNT(*) AS observations FROM "
+                + Constants.TABLE_OBSERVATIONS + " GROUP BY " + Constants.COLUMN_HIKE_ID + ") o"
+                + " ON o." + Constants.COLUMN_HIKE_ID + " = h." + Constants.COLUMN_ID
+                + " GROUP BY 1, 2");
+        listener.onProgress("Summarising hikes", 1, 1);
+
+        for (String sql : SchemaTriggers.SUMMARY_TRIGGERS) {
+            db.execSQL(sql);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.coursework.database.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.coursework.utils.Constants;
+
+/**
+ * Adds secondary indexes for the date, name, location, length and hike_id access paths
+ */
+public class Migration3To4 extends Migration {
+
+    public Migration3To4() {
+        super(3, 4);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db, MigrationProgressListener listener) {
+        String[] statements = {
+                "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_DATE + " ON "
+                        + Constants.TABLE_HIKES + "(" + Constants.COLUMN_DATE + ")",
+                "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_NAME + " ON "
+                        + Constants.TABLE_HIKES + "(" + Constants.COLUMN_NAME + ")",
+                "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_LOCATION + " ON "
+                        + Constants.TABLE_HIKES + "(" + Constants.COLUMN_LOCATION + ")",
+                "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_LENGTH + " ON "
+                        + Constants.TABLE_HIKES + "(" + Constants.COLUMN_LENGTH + ")",
+                "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_OBSERVATIONS_HIKE_TIME + " ON "
+                        + Constants.TABLE_OBSERVATIONS + "(" + Constants.COLUMN_HIKE_ID + ", "
+                        + Constants.COLUMN_TIME + ")"
+        };
+
+        for (int i = 0; i < statements.length; i++) {
+            db.execSQL(statements[i]);
+            listener.onProgress("Creating indexes", i + 1, statements.length);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.coursework.database.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.coursework.database.SchemaTriggers;
+import com.example.coursework.utils.Constants;
+
+/**
+ * Adds the FTS4 full-text search index over hikes and observations
+ * FTS5 is not compiled into the platform SQLite on all supported API levels, so FTS4 is used.
+ */
+public class Migration4To5 extends Migration {
+
+    private static final String CREATE_SEARCH_INDEX = "CREATE VIRTUAL TABLE IF NOT EXISTS "
+            + Constants.TABLE_HIKES_FTS + " USING fts4("
+            + Constants.COLUMN_NAME + ", "
+            + Constants.COLUMN_LOCATION + ", "
+            + Constants.COLUMN_DESCRIPTION + ", "
+            + Constants.COLUMN_OBSERVATION_TEXT + ")";
+
+    public Migration4To5() {
+        super(4, 5);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db, MigrationProgressListener listener) {
+        db.execSQL(CREATE_SEARCH_INDEX);
+        for (String sql : SchemaTriggers.HIKE_SEARCH_TRIGGERS) {
+            db.execSQL(sql);
+        }
+        for (String sql : SchemaTriggers.OBSERVATION_SEARCH_TRIGGERS) {
+            db.execSQL(sql);
+        }
+
+        // Index existing hikes together with their observations
+        listener.onProgress("Building search index", 0, 1);
+        db.execSQL("INSERT INTO " + Constants.TABLE_HIKES_FTS + "(" + Constants.COLUMN_FTS_DOCID + ", "
+                + Constants.COLUMN_NAME + ", " + Constants.COLUMN_LOCATION + ", "
+                + Constants.COLUMN_DESCRIPTION + ", " + Constants.COLUMN_OBSERVATION_TEXT + ")"
+                + " SELECT h." + Constants.COLUMN_ID + ", h." + Constants.COLUMN_NAME + ", h."
+                + Constants.COLUMN_LOCATION + ", h." + Constants.COLUMN_DESCRIPTION
+                + ", (SELECT IFNULL(group_concat(o." + Constants.COLUMN_OBSERVATION + " || ' ' || IFNULL(o."
+                + Constants.COLUMN_COMMENTS + ", ''), ' '), '') FROM " + Constants.TABLE_OBSERVATIONS
+                + " o WHERE o." + Constants.COLUMN_HIKE_ID + " = h." + Constants.COLUMN_ID + ")"
+                + " FROM " + Constants.TABLE_HIKES + " h");
+        listener.onProgress("Building search index", 1, 1);
+    }
+}
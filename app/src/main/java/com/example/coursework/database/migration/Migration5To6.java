@@ -0,0 +1,71 @@
+package com.example.coursework.database.migration;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.DateUtils;
+
+/**
+ * Adds an integer epoch-day copy of each hike's date and moves the date index onto it
+ * Well-formed dates are converted in SQL; anything julianday() rejects, such as dates
+ * without zero padding, is parsed in Java. Dates that cannot be parsed stay at 0.
+ */
+public class Migration5To6 extends Migration {
+
+    // julianday() of 1970-01-01 00:00
+    private static final String UNIX_EPOCH_JULIAN_DAY = "2440587.5";
+
+    public Migration5To6() {
+        super(5, 6);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db, MigrationProgressListener listener) {
+        String task = "Converting hike dates";
+        listener.onProgress(task, 0, 2);
+
+        db.execSQL("ALTER TABLE " + Constants.TABLE_HIKES + " ADD COLUMN "
+                + Constants.COLUMN_DATE_EPOCH_DAY + " INTEGER NOT NULL DEFAULT 0");
+        db.execSQL("UPDATE " + Constants.TABLE_HIKES + " SET " + Constants.COLUMN_DATE_EPOCH_DAY
+                + " = CAST(julianday(" + Constants.COLUMN_DATE + ") - " + UNIX_EPOCH_JULIAN_DAY + " AS INTEGER)"
+                + " WHERE julianday(" + Constants.COLUMN_DATE + ") IS NOT NULL");
+        listener.onProgress(task, 1, 2);
+
+        convertRemainingDates(db);
+        listener.onProgress(task, 2, 2);
+
+        db.execSQL("DROP INDEX IF EXISTS " + Constants.INDEX_HIKES_DATE);
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_DATE_EPOCH_DAY + " ON "
+                + Constants.TABLE_HIKES + "(" + Constants.COLUMN_DATE_EPOCH_DAY + ")");
+    }
+
+    /**
+     * Parse the dates SQLite could not read
+     */
+    private void convertRemainingDates(SQLiteDatabase db) {
+        Cursor cursor = null;
+        SQLiteStatement update = db.compileStatement("UPDATE " + Constants.TABLE_HIKES + " SET "
+                + Constants.COLUMN_DATE_EPOCH_DAY + " = ? WHERE " + Constants.COLUMN_ID + " = ?");
+
+        try {
+            cursor = db.rawQuery("SELECT " + Constants.COLUMN_ID + ", " + Constants.COLUMN_DATE
+                    + " FROM " + Constants.TABLE_HIKES
+                    + " WHERE julianday(" + Constants.COLUMN_DATE + ") IS NULL", null);
+            while (cursor.moveToNext()) {
+                Long epochDay = DateUtils.toEpochDay(cursor.getString(1));
+                if (epochDay != null) {
+                    update.bindLong(1, epochDay);
+                    update.bindLong(2, cursor.getLong(0));
+                    update.executeUpdateDelete();
+                }
+            }
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+            update.close();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.coursework.database.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.coursework.database.SchemaTriggers;
+import com.example.coursework.utils.Constants;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Stores parking, difficulty and weather as integer option codes instead of their labels
+ * SQLite cannot change a column type in place, so hikes is rebuilt and its indexes and
+ * search triggers are recreated. Labels that match no option are stored as 0 (not set).
+ */
+public class Migration6To7 extends Migration {
+
+    private static final String CREATE_HIKES_V7 = "CREATE TABLE %s ("
+            + Constants.COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + Constants.COLUMN_NAME + " TEXT NOT NULL, "
+            + Constants.COLUMN_LOCATION + " TEXT NOT NULL, "
+            + Constants.COLUMN_DATE + " TEXT NOT NULL, "
+            + Constants.COLUMN_DATE_EPOCH_DAY + " INTEGER NOT NULL DEFAULT 0, "
+            + Constants.COLUMN_PARKING_AVAILABLE + " INTEGER NOT NULL DEFAULT 0, "
+            + Constants.COLUMN_LENGTH + " REAL NOT NULL, "
+            + Constants.COLUMN_DIFFICULTY + " INTEGER NOT NULL DEFAULT 0, "
+            + Constants.COLUMN_DESCRIPTION + " TEXT, "
+            + Constants.COLUMN_WEATHER_CONDITION + " INTEGER NOT NULL DEFAULT 0, "
+            + Constants.COLUMN_ESTIMATED_DURATION + " TEXT, "
+            + Constants.COLUMN_CREATED_AT + " TEXT DEFAULT CURRENT_TIMESTAMP"
+            + ")";
+
+    // Option labels as stored up to version 6, in code order starting at 1
+    private static final String[] PARKING_LABELS = {"yes", "no"};
+    private static final String[] DIFFICULTY_LABELS = {"easy", "moderate", "hard", "expert"};
+    private static final String[] WEATHER_LABELS = {"sunny", "cloudy", "rainy", "snowy", "windy", "foggy"};
+
+    private static final String[] CREATE_INDEXES = {
+            "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_DATE_EPOCH_DAY + " ON "
+                    + Constants.TABLE_HIKES + "(" + Constants.COLUMN_DATE_EPOCH_DAY + ")",
+            "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_NAME + " ON "
+                    + Constants.TABLE_HIKES + "(" + Constants.COLUMN_NAME + ")",
+            "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_LOCATION + " ON "
+                    + Constants.TABLE_HIKES + "(" + Constants.COLUMN_LOCATION + ")",
+            "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_LENGTH + " ON "
+                    + Constants.TABLE_HIKES + "(" + Constants.COLUMN_LENGTH + ")",
+            "CREATE INDEX IF NOT EXISTS " + Constants.INDEX_HIKES_DIFFICULTY_DATE + " ON "
+                    + Constants.TABLE_HIKES + "(" + Constants.COLUMN_DIFFICULTY + ", "
+                    + Constants.COLUMN_DATE_EPOCH_DAY + ")"
+    };
+
+    public Migration6To7() {
+        super(6, 7);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db, MigrationProgressListener listener) {
+        LinkedHashMap<String, String> columns = new LinkedHashMap<>();
+        columns.put(Constants.COLUMN_ID, Constants.COLUMN_ID);
+        columns.put(Constants.COLUMN_NAME, Constants.COLUMN_NAME);
+        columns.put(Constants.COLUMN_LOCATION, Constants.COLUMN_LOCATION);
+        columns.put(Constants.COLUMN_DATE, Constants.COLUMN_DATE);
+        columns.put(Constants.COLUMN_DATE_EPOCH_DAY, Constants.COLUMN_DATE_EPOCH_DAY);
+        columns.put(Constants.COLUMN_PARKING_AVAILABLE, toCode(Constants.COLUMN_PARKING_AVAILABLE, PARKING_LABELS));
+        columns.put(Constants.COLUMN_LENGTH, Constants.COLUMN_LENGTH);
+        columns.put(Constants.COLUMN_DIFFICULTY, toCode(Constants.COLUMN_DIFFICULTY, DIFFICULTY_LABELS));
+        columns.put(Constants.COLUMN_DESCRIPTION, Constants.COLUMN_DESCRIPTION);
+        columns.put(Constants.COLUMN_WEATHER_CONDITION, toCode(Constants.COLUMN_WEATHER_CONDITION, WEATHER_LABELS));
+        columns.put(Constants.COLUMN_ESTIMATED_DURATION, Constants.COLUMN_ESTIMATED_DURATION);
+        columns.put(Constants.COLUMN_CREATED_AT, Constants.COLUMN_CREATED_AT);
+
+        new TableRebuilder(db, listener).rebuild(Constants.TABLE_HIKES, CREATE_HIKES_V7, columns);
+
+        for (String sql : CREATE_INDEXES) {
+            db.execSQL(sql);
+        }
+        for (String sql : SchemaTriggers.HIKE_SEARCH_TRIGGERS) {
+            db.execSQL(sql);
+        }
+    }
+
+    /**
+     * SQL expression mapping a label column to its option code
+     *
+     * @param column Column holding the label
+     * @param labels Lower-case labels in code order, starting at code 1
+     */
+    private static String toCode(String column, String[] labels) {
+        StringBuilder expression = new StringBuilder("CASE lower(trim(").append(column).append("))");
+        for (int i = 0; i < labels.length; i++) {
+            expression.append(" WHEN '").append(labels[i]).append("' THEN ").append(i + 1);
+        }
+        return expression.append(" ELSE 0 END").toString();
+    }
+}
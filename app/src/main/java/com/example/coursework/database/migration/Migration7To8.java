@@ -0,0 +1,44 @@
+package com.example.coursework.database.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.coursework.utils.Constants;
+
+/**
+ * Adds the track_points table for GPS tracks and optional coordinates on observations
+ * Existing observations keep NULL coordinates.
+ */
+public class Migration7To8 extends Migration {
+
+    private static final String CREATE_TABLE_TRACK_POINTS = "CREATE TABLE IF NOT EXISTS "
+            + Constants.TABLE_TRACK_POINTS + " ("
+            + Constants.COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + Constants.COLUMN_HIKE_ID + " INTEGER NOT NULL, "
+            + Constants.COLUMN_SEGMENT + " INTEGER NOT NULL DEFAULT 0, "
+            + Constants.COLUMN_LATITUDE + " REAL NOT NULL, "
+            + Constants.COLUMN_LONGITUDE + " REAL NOT NULL, "
+            + Constants.COLUMN_ELEVATION + " REAL, "
+            + Constants.COLUMN_RECORDED_AT + " INTEGER, "
+            + "FOREIGN KEY(" + Constants.COLUMN_HIKE_ID + ") REFERENCES "
+            + Constants.TABLE_HIKES + "(" + Constants.COLUMN_ID + ") ON DELETE CASCADE"
+            + ")";
+
+    private static final String CREATE_INDEX_TRACK_POINTS_HIKE = "CREATE INDEX IF NOT EXISTS "
+            + Constants.INDEX_TRACK_POINTS_HIKE + " ON "
+            + Constants.TABLE_TRACK_POINTS + "(" + Constants.COLUMN_HIKE_ID + ")";
+
+    public Migration7To8() {
+        super(7, 8);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db, MigrationProgressListener listener) {
+        db.execSQL("ALTER TABLE " + Constants.TABLE_OBSERVATIONS + " ADD COLUMN "
+                + Constants.COLUMN_LATITUDE + " REAL");
+        db.execSQL("ALTER TABLE " + Constants.TABLE_OBSERVATIONS + " ADD COLUMN "
+                + Constants.COLUMN_LONGITUDE + " REAL");
+
+        db.execSQL(CREATE_TABLE_TRACK_POINTS);
+        db.execSQL(CREATE_INDEX_TRACK_POINTS_HIKE);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.coursework.database.migration;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.example.coursework.database.TrackPointCodec;
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the row-per-point track_points table with compressed track_chunks
+ * Each hike's points are re-encoded in recording order, CHUNK_SIZE points per chunk.
+ */
+public class Migration8To9 extends Migration {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private static final String CREATE_TABLE_TRACK_CHUNKS = "CREATE TABLE IF NOT EXISTS "
+            + Constants.TABLE_TRACK_CHUNKS + " ("
+            + Constants.COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + Constants.COLUMN_HIKE_ID + " INTEGER NOT NULL, "
+            + Constants.COLUMN_POINT_COUNT + " INTEGER NOT NULL, "
+            + Constants.COLUMN_DATA + " BLOB NOT NULL, "
+            + "FOREIGN KEY(" + Constants.COLUMN_HIKE_ID + ") REFERENCES "
+            + Constants.TABLE_HIKES + "(" + Constants.COLUMN_ID + ") ON DELETE CASCADE"
+            + ")";
+
+    private static final String CREATE_INDEX_TRACK_CHUNKS_HIKE = "CREATE INDEX IF NOT EXISTS "
+            + Constants.INDEX_TRACK_CHUNKS_HIKE + " ON "
+            + Constants.TABLE_TRACK_CHUNKS + "(" + Constants.COLUMN_HIKE_ID + ")";
+
+    public Migration8To9() {
+        super(8, 9);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db, MigrationProgressListener listener) {
+        db.execSQL(CREATE_TABLE_TRACK_CHUNKS);
+        db.execSQL(CREATE_INDEX_TRACK_CHUNKS_HIKE);
+
+        convertTrackPoints(db, listener);
+
+        db.execSQL("DROP TABLE IF EXISTS " + Constants.TABLE_TRACK_POINTS);
+    }
+
+    /**
+     * Encode every hike's points into chunks, reading the old table once in track order
+     */
+    private void convertTrackPoints(SQLiteDatabase db, MigrationProgressListener listener) {
+        String task = "Compressing tracks";
+        long total = 0;
+        Cursor cursor = null;
+        SQLiteStatement insert = db.compileStatement("INSERT INTO " + Constants.TABLE_TRACK_CHUNKS + " ("
+                + Constants.COLUMN_HIKE_ID + ", " + Constants.COLUMN_POINT_COUNT + ", "
+                + Constants.COLUMN_DATA + ") VALUES (?, ?, ?)");
+
+        try {
+            cursor = db.rawQuery("SELECT COUNT(*) FROM " + Constants.TABLE_TRACK_POINTS, null);
+            if (cursor.moveToFirst()) {
+                total = cursor.getLong(0);
+            }
+            cursor.close();
+            listener.onProgress(task, 0, total);
+
+            cursor = db.rawQuery("SELECT " + Constants.COLUMN_HIKE_ID + ", " + Constants.COLUMN_SEGMENT + ", "
+                    + Constants.COLUMN_LATITUDE + ", " + Constants.COLUMN_LONGITUDE + ", "
+                    + Constants.COLUMN_ELEVATION + ", " + Constants.COLUMN_RECORDED_AT
+                    + " FROM " + Constants.TABLE_TRACK_POINTS
+                    + " ORDER BY " + Constants.COLUMN_HIKE_ID + ", " + Constants.COLUMN_ID, null);
+
+            List<TrackPoint> chunk = new ArrayList<>(CHUNK_SIZE);
+            long chunkHikeId = -1;
+            long converted = 0;
+            while (cursor.moveToNext()) {
+                long hikeId = cursor.getLong(0);
+                if (hikeId != chunkHikeId || chunk.size() == CHUNK_SIZE) {
+                    insertChunk(insert, chunkHikeId, chunk);
+                    chunkHikeId = hikeId;
+                }
+
+                chunk.add(new TrackPoint(
+                        cursor.getInt(1),
+                        cursor.getDouble(2),
+                        cursor.getDouble(3),
+                        cursor.isNull(4) ? null : cursor.getDouble(4),
+                        cursor.isNull(5) ? null : cursor.getLong(5)));
+
+                if (++converted % CHUNK_SIZE == 0) {
+                    listener.onProgress(task, converted, total);
+                }
+            }
+            insertChunk(insert, chunkHikeId, chunk);
+            listener.onProgress(task, total, total);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+            insert.close();
+        }
+    }
+
+    private void insertChunk(SQLiteStatement insert, long hikeId, List<TrackPoint> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        insert.clearBindings();
+        insert.bindLong(1, hikeId);
+        insert.bindLong(2, chunk.size());
+        insert.bindBlob(3, TrackPointCodec.encode(chunk));
+        insert.executeInsert();
+        chunk.clear();
+    }
+}
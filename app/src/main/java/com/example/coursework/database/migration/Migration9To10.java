@@ -0,0 +1,41 @@
+package com.example.coursework.database.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.coursework.utils.Constants;
+
+/**
+ * Adds the hike_stats table
+ * Statistics of existing tracks are computed the first time they are read.
+ */
+public class Migration9To10 extends Migration {
+
+    private static final String CREATE_TABLE_HIKE_STATS = "CREATE TABLE IF NOT EXISTS "
+            + Constants.TABLE_HIKE_STATS + " ("
+            + Constants.COLUMN_HIKE_ID + " INTEGER PRIMARY KEY, "
+            + Constants.COLUMN_POINT_COUNT + " INTEGER NOT NULL, "
+            + Constants.COLUMN_DISTANCE + " REAL NOT NULL, "
+            + Constants.COLUMN_ASCENT + " REAL NOT NULL, "
+            + Constants.COLUMN_DESCENT + " REAL NOT NULL, "
+            + Constants.COLUMN_MOVING_TIME + " INTEGER NOT NULL, "
+            + Constants.COLUMN_START_TIME + " INTEGER, "
+            + Constants.COLUMN_END_TIME + " INTEGER, "
+            + Constants.COLUMN_MIN_ELEVATION + " REAL, "
+            + Constants.COLUMN_MAX_ELEVATION + " REAL, "
+            + Constants.COLUMN_SPLITS + " TEXT NOT NULL, "
+            + Constants.COLUMN_PROFILE + " TEXT NOT NULL, "
+            + Constants.COLUMN_REFERENCE_ELEVATION + " REAL, "
+            + Constants.COLUMN_LAST_POINT + " BLOB, "
+            + "FOREIGN KEY(" + Constants.COLUMN_HIKE_ID + ") REFERENCES "
+            + Constants.TABLE_HIKES + "(" + Constants.COLUMN_ID + ") ON DELETE CASCADE"
+            + ")";
+
+    public Migration9To10() {
+        super(9, 10);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db, MigrationProgressListener listener) {
+        db.execSQL(CREATE_TABLE_HIKE_STATS);
+    }
+}
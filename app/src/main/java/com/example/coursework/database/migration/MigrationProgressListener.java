@@ -0,0 +1,17 @@
+package com.example.coursework.database.migration;
+
+/**
+ * Receives progress updates while the database is being upgraded
+ * Called on the thread that opened the database.
+ */
+public interface MigrationProgressListener {
+
+    /**
+     * Report progress of a migration task
+     *
+     * @param task      Short description of the current task
+     * @param completed Units of work completed so far
+     * @param total     Total units of work, or -1 if unknown
+     */
+    void onProgress(String task, long completed, long total);
+}
@@ -0,0 +1,96 @@
+package com.example.coursework.database.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Applies the chain of migrations between two schema versions
+ * SQLiteOpenHelper runs onUpgrade inside one transaction, so either every step
+ * is applied or the database is left at its old version.
+ */
+public class MigrationRunner {
+
+    private static final String TAG = "MigrationRunner";
+
+    /**
+     * Every known upgrade step, in version order
+     */
+    public static List<Migration> allMigrations() {
+        return Arrays.asList(
+                new LegacyMigrationTo3(1),
+                new LegacyMigrationTo3(2),
+                new Migration3To4(),
+                new Migration4To5(),
+                new Migration5To6(),
+                new Migration6To7(),
+                new Migration7To8(),
+                new Migration8To9(),
+                new Migration9To10(),
+                new Migration10To11(),
+                new Migration11To12()
+        );
+    }
+
+    private final List<Migration> migrations;
+    private final MigrationProgressListener listener;
+
+    public MigrationRunner(MigrationProgressListener listener) {
+        this(allMigrations(), listener);
+    }
+
+    public MigrationRunner(List<Migration> migrations, MigrationProgressListener listener) {
+        this.migrations = migrations;
+        this.listener = listener != null ? listener : MigrationRunner::logProgress;
+    }
+
+    /**
+     * Upgrade the database from oldVersion to newVersion
+     *
+     * @throws IllegalStateException if no chain of migrations covers the range
+     */
+    public void migrate(SQLiteDatabase db, int oldVersion, int newVersion) {
+        List<Migration> path = findPath(oldVersion, newVersion);
+
+        for (Migration migration : path) {
+            long start = SystemClock.elapsedRealtime();
+            migration.migrate(db, listener);
+            Log.i(TAG, migration + " took " + (SystemClock.elapsedRealtime() - start) + " ms");
+        }
+    }
+
+    /**
+     * Find the steps leading from oldVersion to newVersion
+     */
+    private List<Migration> findPath(int oldVersion, int newVersion) {
+        List<Migration> path = new ArrayList<>();
+        int version = oldVersion;
+
+        while (version < newVersion) {
+            Migration next = null;
+            for (Migration migration : migrations) {
+                if (migration.getStartVersion() == version && migration.getEndVersion() <= newVersion
+                        && (next == null || migration.getEndVersion() > next.getEndVersion())) {
+                    next = migration;
+                }
+            }
+
+            if (next == null) {
+                throw new IllegalStateException("No migration from version " + version
+                        + " towards " + newVersion);
+            }
+            path.add(next);
+            version = next.getEndVersion();
+        }
+
+        return path;
+    }
+
+    private static void logProgress(String task, long completed, long total) {
+        Log.d(TAG, task + ": " + completed + "/" + total);
+    }
+}
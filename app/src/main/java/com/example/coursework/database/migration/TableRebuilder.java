@@ -0,0 +1,173 @@
+package com.example.coursework.database.migration;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteStatement;
+import android.text.TextUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rebuilds a table with a new definition, copying existing rows across in rowid batches
+ * Follows the SQLite create-copy-drop-rename procedure, so it must run with foreign keys
+ * disabled. Indexes and triggers on the old table are dropped with it and must be
+ * recreated by the calling migration.
+ */
+public class TableRebuilder {
+
+    public static final int DEFAULT_BATCH_SIZE = 5000;
+
+    private static final String REBUILD_SUFFIX = "_rebuild";
+
+    private final SQLiteDatabase db;
+    private final MigrationProgressListener listener;
+    private final int batchSize;
+
+    public TableRebuilder(SQLiteDatabase db, MigrationProgressListener listener) {
+        this(db, listener, DEFAULT_BATCH_SIZE);
+    }
+
+    public TableRebuilder(SQLiteDatabase db, MigrationProgressListener listener, int batchSize) {
+        this.db = db;
+        this.listener = listener;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Rebuild a table, copying every column the old and new definitions have in common
+     *
+     * @param table          Table to rebuild
+     * @param createTemplate CREATE TABLE statement with %s in place of the table name
+     * @return Number of rows copied
+     */
+    public long rebuild(String table, String createTemplate) {
+        String tempTable = table + REBUILD_SUFFIX;
+        db.execSQL("DROP TABLE IF EXISTS " + tempTable);
+        db.execSQL(String.format(createTemplate, tempTable));
+
+        List<String> newColumns = getColumns(tempTable);
+        List<String> oldColumns = getColumns(table);
+        Map<String, String> columnExpressions = new LinkedHashMap<>();
+        for (String column : newColumns) {
+            if (oldColumns.contains(column)) {
+                columnExpressions.put(column, column);
+            }
+        }
+
+        return copyAndSwap(table, tempTable, columnExpressions);
+    }
+
+    /**
+     * Rebuild a table, filling each new column from an SQL expression over the old row
+     *
+     * @param table             Table to rebuild
+     * @param createTemplate    CREATE TABLE statement with %s in place of the table name
+     * @param columnExpressions New column name to expression over the old table, in order
+     * @return Number of rows copied
+     */
+    public long rebuild(String table, String createTemplate, LinkedHashMap<String, String> columnExpressions) {
+        String tempTable = table + REBUILD_SUFFIX;
+        db.execSQL("DROP TABLE IF EXISTS " + tempTable);
+        db.execSQL(String.format(createTemplate, tempTable));
+        return copyAndSwap(table, tempTable, columnExpressions);
+    }
+
+    /**
+     * Copy rows in rowid order, one batch per statement, then replace the old table
+     */
+    private long copyAndSwap(String table, String tempTable, Map<String, String> columnExpressions) {
+        String task = "Rebuilding " + table;
+        long total = countRows(table);
+        long copied = 0;
+        report(task, 0, total);
+
+        String insertSql = "INSERT INTO " + tempTable + " (" + TextUtils.join(", ", columnExpressions.keySet())
+                + ") SELECT " + TextUtils.join(", ", columnExpressions.values())
+                + " FROM " + table + " WHERE rowid > ? AND rowid <= ? ORDER BY rowid";
+        SQLiteStatement insert = db.compileStatement(insertSql);
+        SQLiteStatement nextBoundary = db.compileStatement("SELECT rowid FROM " + table
+                + " WHERE rowid > ? ORDER BY rowid LIMIT 1 OFFSET " + (batchSize - 1));
+
+        try {
+            long lowerBound = Long.MIN_VALUE;
+            while (copied < total) {
+                long upperBound = findUpperBound(nextBoundary, lowerBound);
+
+                insert.bindLong(1, lowerBound);
+                insert.bindLong(2, upperBound);
+                insert.executeUpdateDelete();
+
+                copied = Math.min(total, copied + batchSize);
+                report(task, copied, total);
+                if (upperBound == Long.MAX_VALUE) {
+                    break;
+                }
+                lowerBound = upperBound;
+            }
+        } finally {
+            insert.close();
+            nextBoundary.close();
+        }
+
+        db.execSQL("DROP TABLE " + table);
+        db.execSQL("ALTER TABLE " + tempTable + " RENAME TO " + table);
+        report(task, total, total);
+        return total;
+    }
+
+    /**
+     * Find the rowid that ends the batch starting after lowerBound
+     *
+     * @return Last rowid of the batch, or Long.MAX_VALUE if fewer than a batch of rows remain
+     */
+    private long findUpperBound(SQLiteStatement nextBoundary, long lowerBound) {
+        nextBoundary.bindLong(1, lowerBound);
+        try {
+            return nextBoundary.simpleQueryForLong();
+        } catch (SQLiteDoneException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private long countRows(String table) {
+        SQLiteStatement count = db.compileStatement("SELECT COUNT(*) FROM " + table);
+        try {
+            return count.simpleQueryForLong();
+        } finally {
+            count.close();
+        }
+    }
+
+    /**
+     * Get the column names of a table
+     *
+     * @param table Table name
+     * @return Column names in definition order, empty if the table does not exist
+     */
+    public List<String> getColumns(String table) {
+        List<String> columns = new ArrayList<>();
+        Cursor cursor = null;
+        try {
+            cursor = db.rawQuery("PRAGMA table_info(" + table + ")", null);
+            int nameIndex = cursor.getColumnIndexOrThrow("name");
+            while (cursor.moveToNext()) {
+                columns.add(cursor.getString(nameIndex));
+            }
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+        return columns;
+    }
+
+    private void report(String task, long completed, long total) {
+        if (listener != null) {
+            listener.onProgress(task, completed, total);
+        }
+    }
+}
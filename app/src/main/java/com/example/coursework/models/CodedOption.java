@@ -0,0 +1,72 @@
+package com.example.coursework.models;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A fixed hike option stored as a compact integer code
+ * Codes match the option's position in its string-array resource, where position 0
+ * is the "Select ..." prompt; code 0 is stored when the option is not set.
+ */
+public interface CodedOption {
+
+    /**
+     * Code stored for an option that is not set
+     */
+    int NOT_SET = 0;
+
+    int getCode();
+
+    /**
+     * Get the option of a type with a given code
+     *
+     * @param type Option enum
+     * @param code Stored code
+     * @return Option, or null if the code is not set or unknown
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Enum<E> & CodedOption> E byCode(Class<E> type, int code) {
+        CodedOption[] options = Codes.forType(type);
+        return code >= 0 && code < options.length ? (E) options[code] : null;
+    }
+
+    /**
+     * Get the stored code of an option that may not be set
+     */
+    static int codeOf(CodedOption option) {
+        return option != null ? option.getCode() : NOT_SET;
+    }
+
+    /**
+     * Options of each type indexed by code
+     * values() copies the array on every call, and byCode runs once per mapped row, so
+     * each type is indexed once and shared.
+     */
+    final class Codes {
+        private static final Map<Class<?>, CodedOption[]> BY_TYPE = new ConcurrentHashMap<>();
+
+        private Codes() {
+        }
+
+        private static CodedOption[] forType(Class<? extends CodedOption> type) {
+            CodedOption[] options = BY_TYPE.get(type);
+            if (options == null) {
+                options = index(type.getEnumConstants());
+                BY_TYPE.put(type, options);
+            }
+            return options;
+        }
+
+        private static CodedOption[] index(CodedOption[] values) {
+            int maxCode = NOT_SET;
+            for (CodedOption value : values) {
+                maxCode = Math.max(maxCode, value.getCode());
+            }
+            CodedOption[] options = new CodedOption[maxCode + 1];
+            for (CodedOption value : values) {
+                options[value.getCode()] = value;
+            }
+            return options;
+        }
+    }
+}
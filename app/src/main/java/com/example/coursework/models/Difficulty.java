@@ -0,0 +1,40 @@
+package com.example.coursework.models;
+
+import android.content.res.Resources;
+
+import com.example.coursework.R;
+import com.example.coursework.utils.OptionLabels;
+
+/**
+ * Difficulty level of a hike
+ * Codes match the order of R.array.difficulty_levels.
+ */
+public enum Difficulty implements CodedOption {
+    EASY(1),
+    MODERATE(2),
+    HARD(3),
+    EXPERT(4);
+
+    private final int code;
+
+    Difficulty(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Get the option with a given label, ignoring case
+     *
+     * @param resources Resources holding the labels
+     * @param label     Label chosen by the user
+     * @return Option, or null if no option has the label
+     */
+    public static Difficulty fromLabel(Resources resources, String label) {
+        return CodedOption.byCode(Difficulty.class,
+                OptionLabels.findCode(resources, R.array.difficulty_levels, label));
+    }
+}
@@ -10,13 +10,15 @@ public class Hike implements Serializable {
     private String name;
     private String location;
     private String date;
-    private String parkingAvailable;
+    private Parking parkingAvailable;
     private double length;
-    private String difficulty;
+    private Difficulty difficulty;
     private String description;
-    private String weatherCondition;
+    private WeatherCondition weatherCondition;
     private String estimatedDuration;
     private String createdAt;
+    private Double latitude;
+    private Double longitude;
 
     /**
      * Constructor for creating a new hike
@@ -27,8 +29,8 @@ public class Hike implements Serializable {
     /**
      * Constructor with all fields
      */
-    public Hike(long id, String name, String location, String date, String parkingAvailable,
-                double length, String difficulty, String description, String weatherCondition,
+    public Hike(long id, String name, String location, String date, Parking parkingAvailable,
+                double length, Difficulty difficulty, String description, WeatherCondition weatherCondition,
                 String estimatedDuration, String createdAt) {
         this.id = id;
         this.name = name;
@@ -76,11 +78,11 @@ public class Hike implements Serializable {
         this.date = date;
     }
 
-    public String getParkingAvailable() {
+    public Parking getParkingAvailable() {
         return parkingAvailable;
     }
 
-    public void setParkingAvailable(String parkingAvailable) {
+    public void setParkingAvailable(Parking parkingAvailable) {
         this.parkingAvailable = parkingAvailable;
     }
 
@@ -92,11 +94,11 @@ public class Hike implements Serializable {
         this.length = length;
     }
 
-    public String getDifficulty() {
+    public Difficulty getDifficulty() {
         return difficulty;
     }
 
-    public void setDifficulty(String difficulty) {
+    public void setDifficulty(Difficulty difficulty) {
         this.difficulty = difficulty;
     }
 
@@ -108,11 +110,11 @@ public class Hike implements Serializable {
         this.description = description;
     }
 
-    public String getWeatherCondition() {
+    public WeatherCondition getWeatherCondition() {
         return weatherCondition;
     }
 
-    public void setWeatherCondition(String weatherCondition) {
+    public void setWeatherCondition(WeatherCondition weatherCondition) {
         this.weatherCondition = weatherCondition;
     }
 
@@ -132,6 +134,35 @@ public class Hike implements Serializable {
         this.createdAt = createdAt;
     }
 
+    /**
+     * Latitude of the trailhead in degrees, or null if unknown
+     */
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    /**
+     * Longitude of the trailhead in degrees, or null if unknown
+     */
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    /**
+     * Check if the hike has coordinates and can be found by location queries
+     */
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+
     @Override
     public String toString() {
         return "Hike{" +
@@ -139,13 +170,15 @@ public class Hike implements Serializable {
                 ", name='" + name + '\'' +
                 ", location='" + location + '\'' +
                 ", date='" + date + '\'' +
-                ", parkingAvailable='" + parkingAvailable + '\'' +
+                ", parkingAvailable=" + parkingAvailable +
                 ", length=" + length +
-                ", difficulty='" + difficulty + '\'' +
+                ", difficulty=" + difficulty +
                 ", description='" + description + '\'' +
-                ", weatherCondition='" + weatherCondition + '\'' +
+                ", weatherCondition=" + weatherCondition +
                 ", estimatedDuration='" + estimatedDuration + '\'' +
                 ", createdAt='" + createdAt + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
                 '}';
     }
 }
@@ -0,0 +1,85 @@
+package com.example.coursework.models;
+
+import java.util.Objects;
+
+/**
+ * A hike row ready for display: the summary plus its pre-formatted date, length label,
+ * difficulty label and resolved difficulty color
+ * Built off the UI thread so binding a row only sets text and colors.
+ */
+public class HikeListItem {
+    private final HikeSummary summary;
+    private final String displayDate;
+    private final String lengthLabel;
+    private final String difficultyLabel;
+    private final int difficultyColor;
+
+    /**
+     * Constructor with all fields
+     */
+    public HikeListItem(HikeSummary summary, String displayDate, String lengthLabel,
+                        String difficultyLabel, int difficultyColor) {
+        this.summary = summary;
+        this.displayDate = displayDate;
+        this.lengthLabel = lengthLabel;
+        this.difficultyLabel = difficultyLabel;
+        this.difficultyColor = difficultyColor;
+    }
+
+    // Getters
+    public HikeSummary getSummary() {
+        return summary;
+    }
+
+    public long getId() {
+        return summary.getId();
+    }
+
+    public String getDisplayDate() {
+        return displayDate;
+    }
+
+    public String getLengthLabel() {
+        return lengthLabel;
+    }
+
+    public String getDifficultyLabel() {
+        return difficultyLabel;
+    }
+
+    public int getDifficultyColor() {
+        return difficultyColor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HikeListItem that = (HikeListItem) o;
+        return difficultyColor == that.difficultyColor
+                && Objects.equals(summary, that.summary)
+                && Objects.equals(displayDate, that.displayDate)
+                && Objects.equals(lengthLabel, that.lengthLabel)
+                && Objects.equals(difficultyLabel, that.difficultyLabel);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(summary, displayDate, lengthLabel, difficultyLabel, difficultyColor);
+    }
+
+    @Override
+    public String toString() {
+        return "HikeListItem{" +
+                "summary=" + summary +
+                ", displayDate='" + displayDate + '\'' +
+                ", lengthLabel='" + lengthLabel + '\'' +
+                ", difficultyLabel='" + difficultyLabel + '\'' +
+                ", difficultyColor=" + difficultyColor +
+                '}';
+    }
+}
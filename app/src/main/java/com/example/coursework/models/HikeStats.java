@@ -0,0 +1,203 @@
+package com.example.coursework.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Model class for the statistics computed from a hike's recorded track
+ * Besides the summary it carries the state needed to continue the computation
+ * when more points are appended (see TrackStatistics).
+ */
+public class HikeStats {
+    private long hikeId;
+    private int pointCount;
+    private double distanceMeters;
+    private double ascentMeters;
+    private double descentMeters;
+    private long movingTimeMillis;
+    private Long startTime;
+    private Long endTime;
+    private Double minElevation;
+    private Double maxElevation;
+    private List<Long> splitTimesMillis = new ArrayList<>();
+    private List<Double> elevationProfile = new ArrayList<>();
+
+    // Resume state
+    private Double referenceElevation;
+    private TrackPoint lastPoint;
+
+    /**
+     * Default constructor
+     */
+    public HikeStats() {
+    }
+
+    /**
+     * Constructor for an empty track
+     *
+     * @param hikeId The hike ID
+     */
+    public HikeStats(long hikeId) {
+        this.hikeId = hikeId;
+    }
+
+    /**
+     * Time between the first and last timed fix
+     *
+     * @return Elapsed time in milliseconds, 0 if the track has no times
+     */
+    public long getElapsedTimeMillis() {
+        return startTime != null && endTime != null ? endTime - startTime : 0;
+    }
+
+    /**
+     * Average moving pace over the whole track
+     *
+     * @return Milliseconds per kilometre, 0 if there is no moving time
+     */
+    public long getAveragePaceMillisPerKm() {
+        return distanceMeters > 0 && movingTimeMillis > 0
+                ? Math.round(movingTimeMillis * 1000 / distanceMeters) : 0;
+    }
+
+    // Getters and Setters
+    public long getHikeId() {
+        return hikeId;
+    }
+
+    public void setHikeId(long hikeId) {
+        this.hikeId = hikeId;
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public void setPointCount(int pointCount) {
+        this.pointCount = pointCount;
+    }
+
+    public double getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    public void setDistanceMeters(double distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+
+    public double getAscentMeters() {
+        return ascentMeters;
+    }
+
+    public void setAscentMeters(double ascentMeters) {
+        this.ascentMeters = ascentMeters;
+    }
+
+    public double getDescentMeters() {
+        return descentMeters;
+    }
+
+    public void setDescentMeters(double descentMeters) {
+        this.descentMeters = descentMeters;
+    }
+
+    public long getMovingTimeMillis() {
+        return movingTimeMillis;
+    }
+
+    public void setMovingTimeMillis(long movingTimeMillis) {
+        this.movingTimeMillis = movingTimeMillis;
+    }
+
+    public Long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Long startTime) {
+        this.startTime = startTime;
+    }
+
+    public Long getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Long endTime) {
+        this.endTime = endTime;
+    }
+
+    public Double getMinElevation() {
+        return minElevation;
+    }
+
+    public void setMinElevation(Double minElevation) {
+        this.minElevation = minElevation;
+    }
+
+    public Double getMaxElevation() {
+        return maxElevation;
+    }
+
+    public void setMaxElevation(Double maxElevation) {
+        this.maxElevation = maxElevation;
+    }
+
+    /**
+     * Moving time of each completed split, in order
+     */
+    public List<Long> getSplitTimesMillis() {
+        return splitTimesMillis;
+    }
+
+    public void setSplitTimesMillis(List<Long> splitTimesMillis) {
+        this.splitTimesMillis = splitTimesMillis;
+    }
+
+    /**
+     * Elevation sampled every STATS_PROFILE_INTERVAL_METERS along the track;
+     * null where the elevation is unknown
+     */
+    public List<Double> getElevationProfile() {
+        return elevationProfile;
+    }
+
+    public void setElevationProfile(List<Double> elevationProfile) {
+        this.elevationProfile = elevationProfile;
+    }
+
+    /**
+     * Elevation the next climb or descent is measured from
+     */
+    public Double getReferenceElevation() {
+        return referenceElevation;
+    }
+
+    public void setReferenceElevation(Double referenceElevation) {
+        this.referenceElevation = referenceElevation;
+    }
+
+    /**
+     * Last point included in the statistics
+     */
+    public TrackPoint getLastPoint() {
+        return lastPoint;
+    }
+
+    public void setLastPoint(TrackPoint lastPoint) {
+        this.lastPoint = lastPoint;
+    }
+
+    @Override
+    public String toString() {
+        return "HikeStats{" +
+                "hikeId=" + hikeId +
+                ", pointCount=" + pointCount +
+                ", distanceMeters=" + distanceMeters +
+                ", ascentMeters=" + ascentMeters +
+                ", descentMeters=" + descentMeters +
+                ", movingTimeMillis=" + movingTimeMillis +
+                ", elapsedTimeMillis=" + getElapsedTimeMillis() +
+                ", splits=" + splitTimesMillis.size() +
+                ", profileSamples=" + elevationProfile.size() +
+                '}';
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.coursework.models;
+
+import java.util.Objects;
+
+/**
+ * Lightweight projection of a hike holding only the columns shown in hike lists
+ * The full Hike is loaded by ID when its detail screen is opened.
+ */
+public class HikeSummary {
+    private long id;
+    private String name;
+    private String location;
+    private String date;
+    private long dateEpochDay;
+    private double length;
+    private Difficulty difficulty;
+
+    /**
+     * Default constructor
+     */
+    public HikeSummary() {
+    }
+
+    /**
+     * Constructor with all fields
+     */
+    public HikeSummary(long id, String name, String location, String date, long dateEpochDay,
+                       double length, Difficulty difficulty) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.date = date;
+        this.dateEpochDay = dateEpochDay;
+        this.length = length;
+        this.difficulty = difficulty;
+    }
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public long getDateEpochDay() {
+        return dateEpochDay;
+    }
+
+    public void setDateEpochDay(long dateEpochDay) {
+        this.dateEpochDay = dateEpochDay;
+    }
+
+    public double getLength() {
+        return length;
+    }
+
+    public void setLength(double length) {
+        this.length = length;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HikeSummary that = (HikeSummary) o;
+        return id == that.id
+                && Objects.equals(name, that.name)
+                && Objects.equals(location, that.location)
+                && Objects.equals(date, that.date)
+                && dateEpochDay == that.dateEpochDay
+                && Double.compare(that.length, length) == 0
+                && Objects.equals(difficulty, that.difficulty);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, location, date, dateEpochDay, length, difficulty);
+    }
+
+    @Override
+    public String toString() {
+        return "HikeSummary{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", location='" + location + '\'' +
+                ", date='" + date + '\'' +
+                ", dateEpochDay=" + dateEpochDay +
+                ", length=" + length +
+                ", difficulty=" + difficulty +
+                '}';
+    }
+}
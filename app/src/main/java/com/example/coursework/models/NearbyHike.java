@@ -0,0 +1,38 @@
+package com.example.coursework.models;
+
+/**
+ * A hike found by a location query, with its distance from the point searched around
+ */
+public class NearbyHike {
+    private final HikeSummary summary;
+    private final double distanceMeters;
+
+    /**
+     * Constructor with all fields
+     */
+    public NearbyHike(HikeSummary summary, double distanceMeters) {
+        this.summary = summary;
+        this.distanceMeters = distanceMeters;
+    }
+
+    // Getters
+    public HikeSummary getSummary() {
+        return summary;
+    }
+
+    public long getId() {
+        return summary.getId();
+    }
+
+    public double getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    @Override
+    public String toString() {
+        return "NearbyHike{" +
+                "summary=" + summary +
+                ", distanceMeters=" + distanceMeters +
+                '}';
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.coursework.models;
 
+import java.util.Objects;
+
 /**
  * Model class representing an observation made during a hike
  */
@@ -9,6 +11,8 @@ public class Observation {
     private String observation;
     private String time;
     private String comments;
+    private Double latitude;
+    private Double longitude;
 
     /**
      * Default constructor
@@ -68,6 +72,52 @@ public class Observation {
         this.comments = comments;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    /**
+     * Check if the observation was made at a known position
+     */
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Observation that = (Observation) o;
+        return id == that.id
+                && hikeId == that.hikeId
+                && Objects.equals(observation, that.observation)
+                && Objects.equals(time, that.time)
+                && Objects.equals(comments, that.comments)
+                && Objects.equals(latitude, that.latitude)
+                && Objects.equals(longitude, that.longitude);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, hikeId, observation, time, comments, latitude, longitude);
+    }
+
     @Override
     public String toString() {
         return "Observation{" +
@@ -76,6 +126,8 @@ public class Observation {
                 ", observation='" + observation + '\'' +
                 ", time='" + time + '\'' +
                 ", comments='" + comments + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
                 '}';
     }
 }
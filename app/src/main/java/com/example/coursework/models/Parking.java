@@ -0,0 +1,38 @@
+package com.example.coursework.models;
+
+import android.content.res.Resources;
+
+import com.example.coursework.R;
+import com.example.coursework.utils.OptionLabels;
+
+/**
+ * Whether parking is available at a hike
+ * Codes match the order of R.array.parking_options.
+ */
+public enum Parking implements CodedOption {
+    YES(1),
+    NO(2);
+
+    private final int code;
+
+    Parking(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Get the option with a given label, ignoring case
+     *
+     * @param resources Resources holding the labels
+     * @param label     Label chosen by the user
+     * @return Option, or null if no option has the label
+     */
+    public static Parking fromLabel(Resources resources, String label) {
+        return CodedOption.byCode(Parking.class,
+                OptionLabels.findCode(resources, R.array.parking_options, label));
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.coursework.models;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Model class for the hike totals of one month, one year or all time
+ */
+public class PeriodStats {
+    // Difficulty codes run from 0 (not set) to the highest Difficulty code
+    private static final int DIFFICULTY_CODES = Difficulty.EXPERT.getCode() + 1;
+
+    private int year;
+    private int month;
+    private int hikeCount;
+    private double totalLength;
+    private int observationCount;
+    private int[] hikeCountByDifficulty = new int[DIFFICULTY_CODES];
+
+    /**
+     * Default constructor
+     */
+    public PeriodStats() {
+    }
+
+    /**
+     * Constructor for an empty period
+     *
+     * @param year  The year, or 0 for all time
+     * @param month The month from 1 to 12, or 0 for the whole year
+     */
+    public PeriodStats(int year, int month) {
+        this.year = year;
+        this.month = month;
+    }
+
+    /**
+     * Add the hikes of one difficulty level to the totals
+     *
+     * @param difficulty       Difficulty code, 0 if not set
+     * @param hikeCount        Number of hikes
+     * @param totalLength      Their total length in km
+     * @param observationCount Number of observations recorded on them
+     */
+    public void add(int difficulty, int hikeCount, double totalLength, int observationCount) {
+        this.hikeCount += hikeCount;
+        this.totalLength += totalLength;
+        this.observationCount += observationCount;
+        if (difficulty >= 0 && difficulty < DIFFICULTY_CODES) {
+            hikeCountByDifficulty[difficulty] += hikeCount;
+        }
+    }
+
+    /**
+     * Check if the totals cover all hikes
+     */
+    public boolean isAllTime() {
+        return year == 0;
+    }
+
+    /**
+     * Check if the totals cover a whole year rather than one month
+     */
+    public boolean isYear() {
+        return year != 0 && month == 0;
+    }
+
+    /**
+     * Average number of observations per hike
+     *
+     * @return Observations per hike, 0 if there are no hikes
+     */
+    public double getObservationsPerHike() {
+        return hikeCount > 0 ? (double) observationCount / hikeCount : 0;
+    }
+
+    /**
+     * Number of hikes with a difficulty level
+     *
+     * @param difficulty The level, or null for hikes without one
+     */
+    public int getHikeCount(Difficulty difficulty) {
+        return hikeCountByDifficulty[difficulty != null ? difficulty.getCode() : CodedOption.NOT_SET];
+    }
+
+    // Getters and Setters
+    /**
+     * The year, or 0 for all time
+     */
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    /**
+     * Month from 1 to 12, or 0 for a whole year
+     */
+    public int getMonth() {
+        return month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public int getHikeCount() {
+        return hikeCount;
+    }
+
+    public void setHikeCount(int hikeCount) {
+        this.hikeCount = hikeCount;
+    }
+
+    public double getTotalLength() {
+        return totalLength;
+    }
+
+    public void setTotalLength(double totalLength) {
+        this.totalLength = totalLength;
+    }
+
+    public int getObservationCount() {
+        return observationCount;
+    }
+
+    public void setObservationCount(int observationCount) {
+        this.observationCount = observationCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PeriodStats that = (PeriodStats) o;
+        return year == that.year
+                && month == that.month
+                && hikeCount == that.hikeCount
+                && Double.compare(totalLength, that.totalLength) == 0
+                && observationCount == that.observationCount
+                && Arrays.equals(hikeCountByDifficulty, that.hikeCountByDifficulty);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(year, month, hikeCount, totalLength, observationCount)
+                + 31 * Arrays.hashCode(hikeCountByDifficulty);
+    }
+
+    @Override
+    public String toString() {
+        return "PeriodStats{" +
+                "year=" + year +
+                ", month=" + month +
+                ", hikeCount=" + hikeCount +
+                ", totalLength=" + totalLength +
+                ", observationCount=" + observationCount +
+                '}';
+    }
+}
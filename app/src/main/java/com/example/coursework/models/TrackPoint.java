@@ -0,0 +1,110 @@
+package com.example.coursework.models;
+
+import java.util.Objects;
+
+/**
+ * Model class representing one GPS fix of a hike's recorded track
+ */
+public class TrackPoint {
+    private int segment;
+    private double latitude;
+    private double longitude;
+    private Double elevation;
+    private Long time;
+
+    /**
+     * Default constructor
+     */
+    public TrackPoint() {
+    }
+
+    /**
+     * Constructor with all fields
+     *
+     * @param segment   Track segment the point belongs to; a new segment starts after a gap
+     * @param latitude  Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @param elevation Elevation in metres, or null if unknown
+     * @param time      Time of the fix in milliseconds since the epoch, or null if unknown
+     */
+    public TrackPoint(int segment, double latitude, double longitude, Double elevation, Long time) {
+        this.segment = segment;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.elevation = elevation;
+        this.time = time;
+    }
+
+    // Getters and Setters
+    public int getSegment() {
+        return segment;
+    }
+
+    public void setSegment(int segment) {
+        this.segment = segment;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Double getElevation() {
+        return elevation;
+    }
+
+    public void setElevation(Double elevation) {
+        this.elevation = elevation;
+    }
+
+    public Long getTime() {
+        return time;
+    }
+
+    public void setTime(Long time) {
+        this.time = time;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        TrackPoint that = (TrackPoint) o;
+        return segment == that.segment
+                && Double.compare(latitude, that.latitude) == 0
+                && Double.compare(longitude, that.longitude) == 0
+                && Objects.equals(elevation, that.elevation)
+                && Objects.equals(time, that.time);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(segment, latitude, longitude, elevation, time);
+    }
+
+    @Override
+    public String toString() {
+        return "TrackPoint{" +
+                "segment=" + segment +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", elevation=" + elevation +
+                ", time=" + time +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.coursework.models;
+
+import android.content.res.Resources;
+
+import com.example.coursework.R;
+import com.example.coursework.utils.OptionLabels;
+
+/**
+ * Weather during a hike
+ * Codes match the order of R.array.weather_conditions.
+ */
+public enum WeatherCondition implements CodedOption {
+    SUNNY(1),
+    CLOUDY(2),
+    RAINY(3),
+    SNOWY(4),
+    WINDY(5),
+    FOGGY(6);
+
+    private final int code;
+
+    WeatherCondition(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Get the option with a given label, ignoring case
+     *
+     * @param resources Resources holding the labels
+     * @param label     Label chosen by the user
+     * @return Option, or null if no option has the label
+     */
+    public static WeatherCondition fromLabel(Resources resources, String label) {
+        return CodedOption.byCode(WeatherCondition.class,
+                OptionLabels.findCode(resources, R.array.weather_conditions, label));
+    }
+}
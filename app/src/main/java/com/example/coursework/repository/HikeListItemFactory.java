@@ -0,0 +1,100 @@
+package com.example.coursework.repository;
+
+import android.content.Context;
+import android.content.res.Resources;
+
+import com.example.coursework.R;
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.HikeListItem;
+import com.example.coursework.models.HikeSummary;
+import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.DateUtils;
+import com.example.coursework.utils.OptionLabels;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns hike summaries into display-ready list items
+ * Safe to call from any thread; labels and colors are resolved once when it is created.
+ */
+class HikeListItemFactory {
+
+    private final String lengthFormat;
+    private final String[] difficultyLabels;
+    private final int colorEasy;
+    private final int colorModerate;
+    private final int colorHard;
+    private final int colorExpert;
+    private final int colorDefault;
+
+    HikeListItemFactory(Context context) {
+        Resources resources = context.getResources();
+        Resources.Theme theme = context.getTheme();
+        lengthFormat = context.getString(R.string.km_format);
+        difficultyLabels = resources.getStringArray(R.array.difficulty_levels);
+        colorEasy = resources.getColor(R.color.difficulty_easy, theme);
+        colorModerate = resources.getColor(R.color.difficulty_moderate, theme);
+        colorHard = resources.getColor(R.color.difficulty_hard, theme);
+        colorExpert = resources.getColor(R.color.difficulty_expert, theme);
+        colorDefault = resources.getColor(R.color.text_secondary, theme);
+    }
+
+    /**
+     * Build list items for a page of summaries
+     *
+     * @param summaries Hike summaries in display order
+     * @return List items in the same order
+     */
+    List<HikeListItem> create(List<HikeSummary> summaries) {
+        List<HikeListItem> items = new ArrayList<>(summaries.size());
+        for (HikeSummary summary : summaries) {
+            items.add(create(summary));
+        }
+        return items;
+    }
+
+    /**
+     * Build the list item for one summary
+     */
+    HikeListItem create(HikeSummary summary) {
+        return new HikeListItem(summary,
+                formatDisplayDate(summary.getDate()),
+                String.format(Locale.getDefault(), lengthFormat, summary.getLength()),
+                OptionLabels.getLabel(difficultyLabels, summary.getDifficulty()),
+                getDifficultyColor(summary.getDifficulty()));
+    }
+
+    /**
+     * Format a database date for display, falling back to the stored text
+     */
+    private String formatDisplayDate(String date) {
+        String formatted = DateUtils.formatDate(
+                DateUtils.parseDate(date, Constants.DATE_FORMAT_DATABASE),
+                Constants.DATE_FORMAT_DISPLAY
+        );
+        return formatted.isEmpty() ? date : formatted;
+    }
+
+    /**
+     * Returns the color for a given difficulty level
+     */
+    private int getDifficultyColor(Difficulty difficulty) {
+        if (difficulty == null) {
+            return colorDefault;
+        }
+        switch (difficulty) {
+            case EASY:
+                return colorEasy;
+            case MODERATE:
+                return colorModerate;
+            case HARD:
+                return colorHard;
+            case EXPERT:
+                return colorExpert;
+            default:
+                return colorDefault;
+        }
+    }
+}
@@ -0,0 +1,460 @@
+package com.example.coursework.repository;
+
+import android.content.Context;
+import android.net.Uri;
+
+import com.example.coursework.database.BatchResult;
+import com.example.coursework.database.HikeDAO;
+import com.example.coursework.database.HikeStatsDAO;
+import com.example.coursework.database.HikeQuery;
+import com.example.coursework.database.ObservationDAO;
+import com.example.coursework.database.SummaryStatsDAO;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.HikeListItem;
+import com.example.coursework.models.HikeSummary;
+import com.example.coursework.models.HikeStats;
+import com.example.coursework.models.NearbyHike;
+import com.example.coursework.models.Observation;
+import com.example.coursework.models.PeriodStats;
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.transfer.ExportReport;
+import com.example.coursework.transfer.GpxExporter;
+import com.example.coursework.transfer.GpxImporter;
+import com.example.coursework.transfer.HikeExporter;
+import com.example.coursework.transfer.HikeImporter;
+import com.example.coursework.transfer.ImportReport;
+import com.example.coursework.transfer.TransferFormat;
+import com.example.coursework.utils.AppExecutors;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Repository over HikeDAO, ObservationDAO and HikeStatsDAO
+ * Runs every query on the database executor and delivers results on the main thread.
+ * Hike lists are returned as display-ready HikeListItems built on the same executor.
+ * Each activity owns one instance and calls cancelAll() when it is destroyed.
+ */
+public class HikeRepository {
+
+    /**
+     * Receives the result of a repository call on the main thread
+     */
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    /**
+     * Receives unexpected errors thrown by a repository call on the main thread
+     */
+    public interface OnErrorListener {
+        void onError(Exception e);
+    }
+
+    /**
+     * Handle for a pending repository call
+     */
+    public static class Request {
+        private final boolean skippable;
+        private volatile boolean cancelled;
+        private Future<?> future;
+
+        /**
+         * @param skippable True if a cancelled call need not run at all, as for reads
+         */
+        Request(boolean skippable) {
+            this.skippable = skippable;
+        }
+
+        /**
+         * Cancel the call; its callback will not be invoked
+         * A read that has not started is skipped. Writes and transfers still run, since the
+         * user expects them to happen after leaving or rotating the screen.
+         */
+        public void cancel() {
+            cancelled = true;
+            if (skippable && future != null) {
+                // Never interrupt a running call
+                future.cancel(false);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final Context appContext;
+    private final HikeDAO hikeDAO;
+    private final ObservationDAO observationDAO;
+    private final HikeStatsDAO hikeStatsDAO;
+    private final SummaryStatsDAO summaryStatsDAO;
+    private final HikeListItemFactory listItemFactory;
+
+    // Only touched from the main thread
+    private final Set<Request> pendingRequests = new HashSet<>();
+    private OnErrorListener errorListener;
+
+    public HikeRepository(Context context) {
+        appContext = context.getApplicationContext();
+        hikeDAO = new HikeDAO(context);
+        observationDAO = new ObservationDAO(context);
+        hikeStatsDAO = new HikeStatsDAO(context);
+        summaryStatsDAO = new SummaryStatsDAO(context);
+        listItemFactory = new HikeListItemFactory(appContext);
+    }
+
+    /**
+     * Set the listener notified when a call fails with an exception
+     *
+     * @param listener Error listener, or null to only log errors
+     */
+    public void setOnErrorListener(OnErrorListener listener) {
+        this.errorListener = listener;
+    }
+
+    // Hike operations
+
+    public Request getAllHikes(Callback<List<Hike>> callback) {
+        return execute(hikeDAO::getAllHikes, callback);
+    }
+
+    public Request getHikeItemsPage(HikeSummary after, int limit, Callback<List<HikeListItem>> callback) {
+        return execute(() -> listItemFactory.create(hikeDAO.getHikeSummariesPage(after, limit)), callback);
+    }
+
+    public Request getHikeById(long id, Callback<Hike> callback) {
+        return execute(() -> hikeDAO.getHikeById(id), callback);
+    }
+
+    public Request insertHike(Hike hike, Callback<Long> callback) {
+        return executeWrite(() -> hikeDAO.insertHike(hike), callback);
+    }
+
+    public Request updateHike(Hike hike, Callback<Integer> callback) {
+        return executeWrite(() -> hikeDAO.updateHike(hike), callback);
+    }
+
+    public Request deleteHike(long id, Callback<Integer> callback) {
+        return executeWrite(() -> hikeDAO.deleteHike(id), callback);
+    }
+
+    public Request insertHikes(List<Hike> hikes, Callback<BatchResult> callback) {
+        return executeWrite(() -> hikeDAO.insertHikes(hikes), callback);
+    }
+
+    public Request updateHikes(List<Hike> hikes, Callback<BatchResult> callback) {
+        return executeWrite(() -> hikeDAO.updateHikes(hikes), callback);
+    }
+
+    public Request deleteHikes(List<Long> ids, Callback<BatchResult> callback) {
+        return executeWrite(() -> hikeDAO.deleteHikes(ids), callback);
+    }
+
+    public Request deleteAllHikes(Callback<Integer> callback) {
+        return executeWrite(hikeDAO::deleteAllHikes, callback);
+    }
+
+    public Request searchHikes(String name, Callback<List<Hike>> callback) {
+        return execute(() -> hikeDAO.searchHikes(name), callback);
+    }
+
+    public Request fullTextSearch(String name, String location, String keywords, int limit,
+                                  Callback<List<HikeListItem>> callback) {
+        return execute(() -> listItemFactory.create(hikeDAO.fullTextSearch(name, location, keywords, limit)),
+                callback);
+    }
+
+    /**
+     * Get the hikes within a distance of a point, closest first
+     *
+     * @param latitude     Latitude of the centre in degrees
+     * @param longitude    Longitude of the centre in degrees
+     * @param radiusMeters Largest distance from the centre
+     * @param limit        Maximum number of hikes, or 0 for no limit
+     * @param callback     Receives the hikes with their distances
+     */
+    public Request getHikesNear(double latitude, double longitude, double radiusMeters, int limit,
+                                Callback<List<NearbyHike>> callback) {
+        return execute(() -> hikeDAO.getHikesNear(latitude, longitude, radiusMeters, limit), callback);
+    }
+
+    public Request queryHikes(HikeQuery query, Callback<List<Hike>> callback) {
+        return execute(() -> hikeDAO.queryHikes(query), callback);
+    }
+
+    public Request queryHikeItems(HikeQuery query, Callback<List<HikeListItem>> callback) {
+        return execute(() -> listItemFactory.create(hikeDAO.queryHikeSummaries(query)), callback);
+    }
+
+    // Observation operations
+
+    public Request getObservationsForHike(long hikeId, Callback<List<Observation>> callback) {
+        return execute(() -> observationDAO.getObservationsForHike(hikeId), callback);
+    }
+
+    public Request getObservationById(long id, Callback<Observation> callback) {
+        return execute(() -> observationDAO.getObservationById(id), callback);
+    }
+
+    public Request insertObservation(Observation observation, Callback<Long> callback) {
+        return executeWrite(() -> observationDAO.insertObservation(observation), callback);
+    }
+
+    public Request updateObservation(Observation observation, Callback<Integer> callback) {
+        return executeWrite(() -> observationDAO.updateObservation(observation), callback);
+    }
+
+    public Request deleteObservation(long id, Callback<Integer> callback) {
+        return executeWrite(() -> observationDAO.deleteObservation(id), callback);
+    }
+
+    public Request insertObservations(List<Observation> observations, Callback<BatchResult> callback) {
+        return executeWrite(() -> observationDAO.insertObservations(observations), callback);
+    }
+
+    public Request updateObservations(List<Observation> observations, Callback<BatchResult> callback) {
+        return executeWrite(() -> observationDAO.updateObservations(observations), callback);
+    }
+
+    public Request deleteObservations(List<Long> ids, Callback<BatchResult> callback) {
+        return executeWrite(() -> observationDAO.deleteObservations(ids), callback);
+    }
+
+    public Request getObservationCount(long hikeId, Callback<Integer> callback) {
+        return execute(() -> observationDAO.getObservationCount(hikeId), callback);
+    }
+
+    // Statistics
+
+    /**
+     * Get hike totals per year and month, newest first, each year before its months
+     *
+     * @param callback Receives the totals of every year and month with hikes
+     */
+    public Request getPeriodStats(Callback<List<PeriodStats>> callback) {
+        return execute(summaryStatsDAO::getPeriodStats, callback);
+    }
+
+    /**
+     * Get the totals over all hikes
+     *
+     * @param callback Receives the totals
+     */
+    public Request getTotalStats(Callback<PeriodStats> callback) {
+        return execute(summaryStatsDAO::getTotalStats, callback);
+    }
+
+    // Tracks
+
+    /**
+     * Get the statistics of a hike's track
+     *
+     * @param hikeId   The hike ID
+     * @param callback Receives the statistics, with no points if the hike has no track
+     */
+    public Request getHikeStats(long hikeId, Callback<HikeStats> callback) {
+        return execute(() -> hikeStatsDAO.getHikeStats(hikeId), callback);
+    }
+
+    /**
+     * Get a hike's track simplified for drawing
+     *
+     * @param hikeId          The hike ID
+     * @param toleranceMeters Ground distance of one pixel at the current zoom
+     * @param callback        Receives the simplified track
+     */
+    public Request getSimplifiedTrack(long hikeId, double toleranceMeters, Callback<List<TrackPoint>> callback) {
+        return execute(() -> SimplifiedTrackCache.getInstance(appContext).getSimplified(hikeId, toleranceMeters),
+                callback);
+    }
+
+    // Import and export, queued on the transfer executor
+
+    /**
+     * Export every hike and observation to a document
+     *
+     * @param uri      Document to write, e.g. from ACTION_CREATE_DOCUMENT
+     * @param format   File format
+     * @param callback Receives the number of hikes and observations written
+     */
+    public Request exportHikes(Uri uri, TransferFormat format, Callback<ExportReport> callback) {
+        return executeTransfer(() -> {
+            OutputStream out = appContext.getContentResolver().openOutputStream(uri);
+            if (out == null) {
+                throw new IOException("Cannot open " + uri);
+            }
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+                return new HikeExporter(appContext).export(writer, format);
+            }
+        }, callback);
+    }
+
+    /**
+     * Import hikes and observations from a document
+     * Valid records are committed in batches; invalid ones are skipped and listed in the report.
+     *
+     * @param uri      Document to read, e.g. from ACTION_OPEN_DOCUMENT
+     * @param format   File format
+     * @param callback Receives the imported counts and rejected records
+     */
+    public Request importHikes(Uri uri, TransferFormat format, Callback<ImportReport> callback) {
+        return executeTransfer(() -> {
+            InputStream in = appContext.getContentResolver().openInputStream(uri);
+            if (in == null) {
+                throw new IOException("Cannot open " + uri);
+            }
+            try (Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                return new HikeImporter(appContext).importFrom(reader, format);
+            }
+        }, callback);
+    }
+
+    /**
+     * Import a GPX file as a new hike with its track and waypoints
+     *
+     * @param uri      Document to read, e.g. from ACTION_OPEN_DOCUMENT
+     * @param callback Receives the new hike
+     */
+    public Request importGpx(Uri uri, Callback<Hike> callback) {
+        return executeTransfer(() -> {
+            InputStream in = appContext.getContentResolver().openInputStream(uri);
+            if (in == null) {
+                throw new IOException("Cannot open " + uri);
+            }
+            // Raw bytes, so the parser can honour the encoding declared in the file
+            try (InputStream input = new BufferedInputStream(in)) {
+                return new GpxImporter(appContext).importFrom(input);
+            }
+        }, callback);
+    }
+
+    /**
+     * Export one hike with its track and located observations as GPX
+     *
+     * @param hikeId          The hike ID
+     * @param uri             Document to write, e.g. from ACTION_CREATE_DOCUMENT
+     * @param toleranceMeters Simplify the track to this accuracy, or 0 for the full track
+     * @param callback        Receives the number of waypoints written
+     */
+    public Request exportGpx(long hikeId, Uri uri, double toleranceMeters, Callback<ExportReport> callback) {
+        return executeTransfer(() -> {
+            OutputStream out = appContext.getContentResolver().openOutputStream(uri);
+            if (out == null) {
+                throw new IOException("Cannot open " + uri);
+            }
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+                return new GpxExporter(appContext).export(hikeId, writer, toleranceMeters);
+            }
+        }, callback);
+    }
+
+    /**
+     * Cancel every pending call so no callback reaches a destroyed activity
+     * Pending reads are skipped; writes and transfers still run to completion.
+     * Must be called from the main thread.
+     */
+    public void cancelAll() {
+        for (Request request : pendingRequests) {
+            request.cancel();
+        }
+        pendingRequests.clear();
+    }
+
+    /**
+     * Run a read on the database executor and post the result back to the main thread
+     * Skipped if cancelled before it starts. Must be called from the main thread.
+     */
+    private <T> Request execute(Callable<T> work, Callback<T> callback) {
+        return submit(AppExecutors.database(), true, work, callback);
+    }
+
+    /**
+     * Run a write on the database executor and post the result back to the main thread
+     * Always runs; cancelling only drops the callback. Must be called from the main thread.
+     */
+    private <T> Request executeWrite(Callable<T> work, Callback<T> callback) {
+        return submit(AppExecutors.database(), false, work, callback);
+    }
+
+    /**
+     * Run a file import or export on the transfer executor and post the result back to
+     * the main thread
+     * Always runs; cancelling only drops the callback. Must be called from the main thread.
+     */
+    private <T> Request executeTransfer(Callable<T> work, Callback<T> callback) {
+        return submit(AppExecutors.transfer(), false, work, callback);
+    }
+
+    /**
+     * Queue work on an executor and deliver its result on the main thread
+     *
+     * @param skippable True to skip the work if the call is cancelled before it starts
+     */
+    private <T> Request submit(ExecutorService executor, boolean skippable, Callable<T> work,
+                               Callback<T> callback) {
+        Request request = new Request(skippable);
+        pendingRequests.add(request);
+
+        request.future = executor.submit(() -> {
+            if (skippable && request.isCancelled()) {
+                AppExecutors.runOnMain(() -> pendingRequests.remove(request));
+                return;
+            }
+
+            T result = null;
+            Exception error = null;
+            try {
+                result = work.call();
+            } catch (Exception e) {
+                error = e;
+            }
+
+            T finalResult = result;
+            Exception finalError = error;
+            AppExecutors.runOnMain(() -> deliver(request, callback, finalResult, finalError));
+        });
+
+        return request;
+    }
+
+    /**
+     * Deliver a finished call on the main thread unless it was cancelled
+     */
+    private <T> void deliver(Request request, Callback<T> callback, T result, Exception error) {
+        pendingRequests.remove(request);
+        if (error != null) {
+            // Logged even when cancelled, since a write may have failed after the screen closed
+            error.printStackTrace();
+        }
+        if (request.isCancelled()) {
+            return;
+        }
+
+        if (error != null) {
+            if (errorListener != null) {
+                errorListener.onError(error);
+            }
+            return;
+        }
+
+        if (callback != null) {
+            callback.onResult(result);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.coursework.repository;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.example.coursework.database.TrackPointDAO;
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.TrackSimplifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Process-wide cache of simplified versions of hike tracks
+ * Each hike gets one Douglas-Peucker level per tolerance in TRACK_LEVEL_TOLERANCES_METERS,
+ * all built from the full track in one pass. Every lookup compares the cached track
+ * revision with the stored one, so levels are rebuilt as soon as the track changes.
+ * Least recently used hikes are evicted once the cached levels exceed
+ * TRACK_LEVEL_CACHE_POINTS points.
+ *
+ * Lookups read the database and must run on a background thread.
+ */
+public class SimplifiedTrackCache {
+
+    private static final String TAG = "SimplifiedTrackCache";
+
+    private static volatile SimplifiedTrackCache instance;
+
+    /**
+     * Simplified levels of one revision of a track, finest first
+     */
+    private static class Entry {
+        final long revision;
+        final List<List<TrackPoint>> levels;
+        final int pointCount;
+
+        Entry(long revision, List<List<TrackPoint>> levels) {
+            this.revision = revision;
+            this.levels = levels;
+            int count = 0;
+            for (List<TrackPoint> level : levels) {
+                count += level.size();
+            }
+            this.pointCount = count;
+        }
+    }
+
+    private final TrackPointDAO trackPointDAO;
+    private final LruCache<Long, Entry> entries = new LruCache<Long, Entry>(Constants.TRACK_LEVEL_CACHE_POINTS) {
+        @Override
+        protected int sizeOf(Long hikeId, Entry entry) {
+            return Math.max(1, entry.pointCount);
+        }
+    };
+
+    /**
+     * Get the shared cache, creating it on first use
+     *
+     * @param context Any context
+     */
+    public static SimplifiedTrackCache getInstance(Context context) {
+        SimplifiedTrackCache cache = instance;
+        if (cache == null) {
+            synchronized (SimplifiedTrackCache.class) {
+                cache = instance;
+                if (cache == null) {
+                    cache = new SimplifiedTrackCache(context.getApplicationContext());
+                    instance = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Tests create their own cache after switching the shared database helper
+     */
+    @VisibleForTesting
+    SimplifiedTrackCache(Context context) {
+        trackPointDAO = new TrackPointDAO(context);
+    }
+
+    /**
+     * Get one simplification level of a hike's track
+     *
+     * @param hikeId The hike ID
+     * @param level  Index into TRACK_LEVEL_TOLERANCES_METERS, 0 being the most detailed
+     * @return Simplified track, empty if the hike has no track; must not be modified
+     */
+    public List<TrackPoint> getLevel(long hikeId, int level) {
+        return getEntry(hikeId).levels.get(level);
+    }
+
+    /**
+     * Get the coarsest cached level that is still accurate to the given tolerance
+     * Suits drawing, where the tolerance is the ground distance covered by one pixel.
+     * Tolerances finer than the most detailed level are simplified from the full track
+     * without being cached.
+     *
+     * @param hikeId          The hike ID
+     * @param toleranceMeters Largest acceptable deviation from the full track
+     * @return Simplified track; must not be modified
+     */
+    public List<TrackPoint> getSimplified(long hikeId, double toleranceMeters) {
+        double[] tolerances = Constants.TRACK_LEVEL_TOLERANCES_METERS;
+        if (toleranceMeters < tolerances[0]) {
+            return TrackSimplifier.douglasPeucker(trackPointDAO.getTrackPoints(hikeId), toleranceMeters);
+        }
+
+        int level = 0;
+        while (level + 1 < tolerances.length && tolerances[level + 1] <= toleranceMeters) {
+            level++;
+        }
+        return getLevel(hikeId, level);
+    }
+
+    /**
+     * Drop a hike's cached levels, e.g. when the hike is deleted
+     */
+    public void invalidate(long hikeId) {
+        entries.remove(hikeId);
+    }
+
+    /**
+     * Get the cached levels, rebuilding them if the track changed since they were built
+     */
+    private Entry getEntry(long hikeId) {
+        long revision = trackPointDAO.getTrackRevision(hikeId);
+        Entry entry = entries.get(hikeId);
+        if (entry != null && entry.revision == revision) {
+            return entry;
+        }
+
+        long start = System.nanoTime();
+        List<TrackPoint> track = trackPointDAO.getTrackPoints(hikeId);
+        List<List<TrackPoint>> levels = new ArrayList<>();
+        for (double tolerance : Constants.TRACK_LEVEL_TOLERANCES_METERS) {
+            levels.add(Collections.unmodifiableList(TrackSimplifier.douglasPeucker(track, tolerance)));
+        }
+
+        entry = new Entry(revision, levels);
+        entries.put(hikeId, entry);
+        Log.d(TAG, "Hike " + hikeId + ": simplified " + track.size() + " points to " + entry.pointCount
+                + " across " + levels.size() + " levels in " + (System.nanoTime() - start) / 1000000 + " ms");
+        return entry;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.coursework.repository;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.location.Location;
+import android.util.Log;
+
+import com.example.coursework.database.BatchResult;
+import com.example.coursework.database.DatabaseHelper;
+import com.example.coursework.database.DatabaseProvider;
+import com.example.coursework.database.HikeDAO;
+import com.example.coursework.database.HikeStatsDAO;
+import com.example.coursework.database.TrackPointDAO;
+import com.example.coursework.models.HikeStats;
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.utils.AppExecutors;
+import com.example.coursework.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Records the GPS track of a hike
+ * Fixes are buffered in memory and appended to the track TRACK_RECORDER_FLUSH_SIZE at a
+ * time, one transaction per batch instead of one insert per fix. Batches are written in
+ * order on a serial database executor, and the hike's statistics are updated from each
+ * batch in the same transaction, so the stored statistics never fall behind the stored
+ * track. When recording finishes the track is compacted and the hike's length is taken
+ * from the statistics.
+ *
+ * Recording into a hike that already has a track continues it in a new segment.
+ * A recorder must only be used from the main thread.
+ */
+public class TrackRecorder {
+
+    private static final String TAG = "TrackRecorder";
+
+    private final long hikeId;
+    private final DatabaseHelper dbHelper;
+    private final HikeDAO hikeDAO;
+    private final TrackPointDAO trackPointDAO;
+    private final HikeStatsDAO hikeStatsDAO;
+    private final Executor writer = AppExecutors.newSerialDatabaseExecutor();
+
+    private List<TrackPoint> buffer = new ArrayList<>(Constants.TRACK_RECORDER_FLUSH_SIZE);
+    private int segment;
+    private int pointsInSegment;
+    private int pointCount;
+    private boolean finished;
+
+    // First segment number of this recording; resolved by the first write
+    private int segmentOffset = -1;
+
+    public TrackRecorder(Context context, long hikeId) {
+        this.hikeId = hikeId;
+        dbHelper = DatabaseProvider.getHelper(context);
+        hikeDAO = new HikeDAO(context);
+        trackPointDAO = new TrackPointDAO(context);
+        hikeStatsDAO = new HikeStatsDAO(context);
+    }
+
+    /**
+     * Add a fix from the platform location services
+     */
+    public void addLocation(Location location) {
+        addPoint(location.getLatitude(), location.getLongitude(),
+                location.hasAltitude() ? location.getAltitude() : null,
+                location.getTime());
+    }
+
+    /**
+     * Add a fix to the current segment
+     *
+     * @param latitude  Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @param elevation Elevation in metres, or null if unknown
+     * @param time      Time of the fix in milliseconds since the epoch, or null if unknown
+     */
+    public void addPoint(double latitude, double longitude, Double elevation, Long time) {
+        if (finished) {
+            throw new IllegalStateException("Recording has finished");
+        }
+
+        buffer.add(new TrackPoint(segment, latitude, longitude, elevation, time));
+        pointsInSegment++;
+        pointCount++;
+        if (buffer.size() >= Constants.TRACK_RECORDER_FLUSH_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * Start a new segment, e.g. after recording was paused or the GPS signal was lost
+     * The distance across the gap is not counted in the hike's length.
+     */
+    public void startNewSegment() {
+        if (pointsInSegment > 0) {
+            segment++;
+            pointsInSegment = 0;
+        }
+    }
+
+    /**
+     * Write the buffered fixes now, e.g. when the app goes to the background
+     */
+    public void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+
+        List<TrackPoint> batch = buffer;
+        buffer = new ArrayList<>(Constants.TRACK_RECORDER_FLUSH_SIZE);
+        writer.execute(() -> write(batch));
+    }
+
+    /**
+     * Stop recording: write the remaining fixes, compact the track and update the hike's length
+     *
+     * @param callback Receives the new length in kilometres on the main thread, or null
+     */
+    public void finish(HikeRepository.Callback<Double> callback) {
+        flush();
+        finished = true;
+
+        writer.execute(() -> {
+            trackPointDAO.compactTrack(hikeId);
+            HikeStats stats = hikeStatsDAO.getHikeStats(hikeId);
+            double meters = stats != null ? stats.getDistanceMeters() : trackPointDAO.getTrackLengthMeters(hikeId);
+            double length = Math.round(meters) / 1000.0;
+            hikeDAO.updateHikeLength(hikeId, length);
+            Log.i(TAG, "Hike " + hikeId + ": " + trackPointDAO.getTrackPointCount(hikeId) + " points in "
+                    + trackPointDAO.getTrackSizeBytes(hikeId) + " bytes, " + length + " km");
+
+            if (callback != null) {
+                AppExecutors.runOnMain(() -> callback.onResult(length));
+            }
+        });
+    }
+
+    /**
+     * Number of fixes added to this recorder
+     */
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Append one batch with its statistics in one transaction; runs on the serial writer
+     */
+    private void write(List<TrackPoint> batch) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        // The DAO batches join this transaction
+        db.beginTransaction();
+        try {
+            if (segmentOffset < 0) {
+                TrackPoint last = trackPointDAO.getLastTrackPoint(hikeId);
+                segmentOffset = last != null ? last.getSegment() + 1 : 0;
+            }
+            for (TrackPoint point : batch) {
+                point.setSegment(point.getSegment() + segmentOffset);
+            }
+
+            BatchResult result = trackPointDAO.insertTrackPoints(hikeId, batch);
+            if (!result.isSuccessful()) {
+                Log.w(TAG, "Could not save " + batch.size() + " track points for hike " + hikeId);
+                return;
+            }
+            // Statistics that could not be saved are rebuilt when next read, so the points are kept
+            if (hikeStatsDAO.appendTrackPoints(hikeId, batch) == null) {
+                Log.w(TAG, "Could not update statistics for hike " + hikeId);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.coursework.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal RFC 4180 CSV encoding
+ */
+public class CsvCodec {
+
+    private CsvCodec() {
+    }
+
+    /**
+     * Write one row terminated by CRLF
+     *
+     * @param writer Destination
+     * @param values Field values; null is written as an empty field
+     */
+    public static void writeRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Write one field, quoting it only if it contains a delimiter, quote or line break
+     */
+    private static void writeField(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
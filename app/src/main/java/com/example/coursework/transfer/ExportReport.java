@@ -0,0 +1,37 @@
+package com.example.coursework.transfer;
+
+/**
+ * Outcome of an export
+ */
+public class ExportReport {
+    private final int hikeCount;
+    private final int observationCount;
+    private final long elapsedMillis;
+
+    public ExportReport(int hikeCount, int observationCount, long elapsedMillis) {
+        this.hikeCount = hikeCount;
+        this.observationCount = observationCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getHikeCount() {
+        return hikeCount;
+    }
+
+    public int getObservationCount() {
+        return observationCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportReport{" +
+                "hikeCount=" + hikeCount +
+                ", observationCount=" + observationCount +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.coursework.transfer;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.Xml;
+
+import com.example.coursework.database.HikeDAO;
+import com.example.coursework.database.ObservationDAO;
+import com.example.coursework.database.TrackPointDAO;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.Observation;
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.repository.SimplifiedTrackCache;
+import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.DateUtils;
+
+import org.xmlpull.v1.XmlSerializer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes a hike as a GPX 1.1 document
+ * Observations with coordinates become waypoints and the recorded track becomes one
+ * track with a segment per recorded segment. The full track is streamed from the database
+ * straight into the serializer; a simplified track comes from the SimplifiedTrackCache.
+ */
+public class GpxExporter {
+
+    private static final String TAG = "GpxExporter";
+
+    private final HikeDAO hikeDAO;
+    private final ObservationDAO observationDAO;
+    private final TrackPointDAO trackPointDAO;
+    private final SimplifiedTrackCache simplifiedTracks;
+
+    public GpxExporter(Context context) {
+        hikeDAO = new HikeDAO(context);
+        observationDAO = new ObservationDAO(context);
+        trackPointDAO = new TrackPointDAO(context);
+        simplifiedTracks = SimplifiedTrackCache.getInstance(context);
+    }
+
+    /**
+     * Write one hike with its full track to a GPX document
+     *
+     * @param hikeId The hike ID
+     * @param writer Destination, ideally buffered; flushed but not closed
+     * @return One hike and the number of waypoints written
+     * @throws IOException if the hike does not exist or writing fails
+     */
+    public ExportReport export(long hikeId, Writer writer) throws IOException {
+        return export(hikeId, writer, 0);
+    }
+
+    /**
+     * Write one hike to a GPX document
+     *
+     * @param hikeId          The hike ID
+     * @param writer          Destination, ideally buffered; flushed but not closed
+     * @param toleranceMeters Simplify the track to this accuracy, or 0 for the full track
+     * @return One hike and the number of waypoints written
+     * @throws IOException if the hike does not exist or writing fails
+     */
+    public ExportReport export(long hikeId, Writer writer, double toleranceMeters) throws IOException {
+        long start = SystemClock.elapsedRealtime();
+
+        Hike hike = hikeDAO.getHikeById(hikeId);
+        if (hike == null) {
+            throw new IOException("Hike " + hikeId + " not found");
+        }
+
+        XmlSerializer xml = Xml.newSerializer();
+        xml.setOutput(writer);
+        xml.startDocument("UTF-8", null);
+        xml.setPrefix("", GpxFields.NAMESPACE);
+        xml.startTag(GpxFields.NAMESPACE, GpxFields.GPX);
+        xml.attribute(null, GpxFields.ATTR_VERSION, GpxFields.VERSION);
+        xml.attribute(null, GpxFields.ATTR_CREATOR, GpxFields.CREATOR);
+
+        xml.startTag(GpxFields.NAMESPACE, GpxFields.METADATA);
+        writeText(xml, GpxFields.NAME, hike.getName());
+        writeText(xml, GpxFields.DESCRIPTION, hike.getDescription());
+        writeText(xml, GpxFields.TIME, DateUtils.formatIsoTimestamp(System.currentTimeMillis()));
+        xml.endTag(GpxFields.NAMESPACE, GpxFields.METADATA);
+
+        int waypointCount = writeWaypoints(xml, hikeId);
+        writeTrack(xml, hike, toleranceMeters);
+
+        xml.endTag(GpxFields.NAMESPACE, GpxFields.GPX);
+        xml.endDocument();
+        writer.flush();
+
+        ExportReport report = new ExportReport(1, waypointCount, SystemClock.elapsedRealtime() - start);
+        Log.i(TAG, "Exported hike " + hikeId + ": " + report);
+        return report;
+    }
+
+    /**
+     * Write the hike's located observations as waypoints, oldest first
+     */
+    private int writeWaypoints(XmlSerializer xml, long hikeId) throws IOException {
+        List<Observation> observations = observationDAO.getObservationsForHike(hikeId);
+        Collections.reverse(observations);
+
+        int count = 0;
+        for (Observation observation : observations) {
+            if (!observation.hasLocation()) {
+                continue;
+            }
+
+            xml.startTag(GpxFields.NAMESPACE, GpxFields.WAYPOINT);
+            writeCoordinates(xml, observation.getLatitude(), observation.getLongitude());
+            Date time = DateUtils.parseDate(observation.getTime(), Constants.DATETIME_FORMAT_DATABASE);
+            if (time != null) {
+                writeText(xml, GpxFields.TIME, DateUtils.formatIsoTimestamp(time.getTime()));
+            }
+            writeText(xml, GpxFields.NAME, observation.getObservation());
+            writeText(xml, GpxFields.DESCRIPTION, observation.getComments());
+            xml.endTag(GpxFields.NAMESPACE, GpxFields.WAYPOINT);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Write the recorded track, starting a new trkseg whenever the segment changes
+     */
+    private void writeTrack(XmlSerializer xml, Hike hike, double toleranceMeters) throws IOException {
+        int[] segment = {-1};
+        TrackPointDAO.Visitor writer = point -> {
+            if (segment[0] == -1) {
+                xml.startTag(GpxFields.NAMESPACE, GpxFields.TRACK);
+                writeText(xml, GpxFields.NAME, hike.getName());
+                xml.startTag(GpxFields.NAMESPACE, GpxFields.TRACK_SEGMENT);
+            } else if (point.getSegment() != segment[0]) {
+                xml.endTag(GpxFields.NAMESPACE, GpxFields.TRACK_SEGMENT);
+                xml.startTag(GpxFields.NAMESPACE, GpxFields.TRACK_SEGMENT);
+            }
+            segment[0] = point.getSegment();
+            writeTrackPoint(xml, point);
+        };
+
+        if (toleranceMeters > 0) {
+            for (TrackPoint point : simplifiedTracks.getSimplified(hike.getId(), toleranceMeters)) {
+                writer.visit(point);
+            }
+        } else {
+            trackPointDAO.forEachTrackPoint(hike.getId(), writer);
+        }
+
+        if (segment[0] != -1) {
+            xml.endTag(GpxFields.NAMESPACE, GpxFields.TRACK_SEGMENT);
+            xml.endTag(GpxFields.NAMESPACE, GpxFields.TRACK);
+        }
+    }
+
+    private static void writeTrackPoint(XmlSerializer xml, TrackPoint point) throws IOException {
+        xml.startTag(GpxFields.NAMESPACE, GpxFields.TRACK_POINT);
+        writeCoordinates(xml, point.getLatitude(), point.getLongitude());
+        if (point.getElevation() != null) {
+            writeText(xml, GpxFields.ELEVATION, String.format(Locale.ROOT, "%.2f", point.getElevation()));
+        }
+        if (point.getTime() != null) {
+            writeText(xml, GpxFields.TIME, DateUtils.formatIsoTimestamp(point.getTime()));
+        }
+        xml.endTag(GpxFields.NAMESPACE, GpxFields.TRACK_POINT);
+    }
+
+    /**
+     * Write lat and lon attributes; fixed-point, since GPX does not allow exponents
+     */
+    private static void writeCoordinates(XmlSerializer xml, double latitude, double longitude) throws IOException {
+        xml.attribute(null, GpxFields.LATITUDE, String.format(Locale.ROOT, "%.7f", latitude));
+        xml.attribute(null, GpxFields.LONGITUDE, String.format(Locale.ROOT, "%.7f", longitude));
+    }
+
+    /**
+     * Write a simple text element, skipping empty values
+     */
+    private static void writeText(XmlSerializer xml, String tag, String text) throws IOException {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        xml.startTag(GpxFields.NAMESPACE, tag);
+        xml.text(text);
+        xml.endTag(GpxFields.NAMESPACE, tag);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.coursework.transfer;
+
+/**
+ * Element and attribute names of the GPX 1.1 format
+ */
+public class GpxFields {
+
+    public static final String NAMESPACE = "http://www.topografix.com/GPX/1/1";
+    public static final String VERSION = "1.1";
+    public static final String CREATOR = "M-Hike";
+
+    // Elements
+    public static final String GPX = "gpx";
+    public static final String METADATA = "metadata";
+    public static final String WAYPOINT = "wpt";
+    public static final String ROUTE = "rte";
+    public static final String ROUTE_POINT = "rtept";
+    public static final String TRACK = "trk";
+    public static final String TRACK_SEGMENT = "trkseg";
+    public static final String TRACK_POINT = "trkpt";
+    public static final String NAME = "name";
+    public static final String DESCRIPTION = "desc";
+    public static final String COMMENT = "cmt";
+    public static final String ELEVATION = "ele";
+    public static final String TIME = "time";
+
+    // Attributes
+    public static final String ATTR_VERSION = "version";
+    public static final String ATTR_CREATOR = "creator";
+    public static final String LATITUDE = "lat";
+    public static final String LONGITUDE = "lon";
+
+    private GpxFields() {
+    }
+}
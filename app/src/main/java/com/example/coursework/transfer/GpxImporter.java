@@ -0,0 +1,240 @@
+package com.example.coursework.transfer;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import com.example.coursework.R;
+import com.example.coursework.database.DatabaseHelper;
+import com.example.coursework.database.DatabaseProvider;
+import com.example.coursework.database.HikeDAO;
+import com.example.coursework.database.HikeStatsDAO;
+import com.example.coursework.database.ObservationDAO;
+import com.example.coursework.database.TrackPointDAO;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.Observation;
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.DateUtils;
+import com.example.coursework.utils.GeoUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Imports a GPX file as a new hike
+ * Tracks and routes become the hike's track points, written in batches while the file is
+ * parsed; waypoints become observations at their coordinates. The hike's length, date,
+ * start location and duration are taken from the track. Everything is written in one
+ * transaction, so a file that fails to parse leaves no partial hike behind.
+ */
+public class GpxImporter implements GpxReader.Listener {
+
+    private static final String TAG = "GpxImporter";
+
+    private final DatabaseHelper dbHelper;
+    private final HikeDAO hikeDAO;
+    private final ObservationDAO observationDAO;
+    private final TrackPointDAO trackPointDAO;
+    private final HikeStatsDAO hikeStatsDAO;
+    private final Resources resources;
+
+    private Hike hike;
+    private final List<TrackPoint> pendingPoints = new ArrayList<>();
+    private final List<Observation> waypoints = new ArrayList<>();
+
+    // Track statistics, accumulated as points arrive
+    private TrackPoint firstPoint;
+    private TrackPoint previousPoint;
+    private int pointCount;
+    private double lengthMeters;
+    private Long startTime;
+    private Long endTime;
+
+    public GpxImporter(Context context) {
+        dbHelper = DatabaseProvider.getHelper(context);
+        hikeDAO = new HikeDAO(context);
+        observationDAO = new ObservationDAO(context);
+        trackPointDAO = new TrackPointDAO(context);
+        hikeStatsDAO = new HikeStatsDAO(context);
+        resources = context.getResources();
+    }
+
+    /**
+     * Import a GPX document
+     *
+     * @param input GPX source
+     * @return The new hike with its ID set
+     * @throws IOException if reading fails, the file is not valid GPX or it has no points
+     */
+    public Hike importFrom(InputStream input) throws IOException {
+        hike = new Hike();
+        // Placeholders until the whole file has been read; the hike is inserted on the first flush
+        hike.setName(resources.getString(R.string.gpx_default_hike_name));
+        hike.setLocation("");
+        hike.setDate(DateUtils.getCurrentDate());
+
+        GpxReader gpx = new GpxReader(this);
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            gpx.read(input);
+            if (pointCount == 0 && waypoints.isEmpty()) {
+                throw new IOException("The GPX file has no track or waypoints");
+            }
+
+            flushPoints();
+            completeHike(gpx);
+            if (hike.getId() == 0) {
+                insertHike();
+            } else if (hikeDAO.updateHike(hike) != 1) {
+                throw new IOException("Could not save hike");
+            }
+
+            for (Observation observation : waypoints) {
+                observation.setHikeId(hike.getId());
+                if (observation.getTime() == null) {
+                    observation.setTime(formatTime(startTime != null ? startTime : gpx.getTime()));
+                }
+            }
+            if (!observationDAO.insertObservations(waypoints).isSuccessful()) {
+                throw new IOException("Could not save waypoints");
+            }
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        Log.i(TAG, "Imported hike " + hike.getId() + " with " + pointCount + " track points and "
+                + waypoints.size() + " waypoints; skipped " + gpx.getSkippedPoints() + " invalid points");
+        return hike;
+    }
+
+    @Override
+    public void onWaypoint(GpxReader.Waypoint waypoint) {
+        Observation observation = new Observation();
+        observation.setObservation(firstNonEmpty(waypoint.getName(), waypoint.getDescription(),
+                resources.getString(R.string.gpx_default_waypoint_name)));
+        observation.setComments(waypoint.getName() != null
+                ? firstNonEmpty(waypoint.getDescription(), waypoint.getComment(), null)
+                : waypoint.getComment());
+        observation.setLatitude(waypoint.getLatitude());
+        observation.setLongitude(waypoint.getLongitude());
+        if (waypoint.getTime() != null) {
+            observation.setTime(formatTime(waypoint.getTime()));
+        }
+        waypoints.add(observation);
+    }
+
+    @Override
+    public void onTrackPoint(TrackPoint point) throws IOException {
+        if (firstPoint == null) {
+            firstPoint = point;
+        }
+        if (previousPoint != null && previousPoint.getSegment() == point.getSegment()) {
+            lengthMeters += GeoUtils.distanceMeters(previousPoint.getLatitude(), previousPoint.getLongitude(),
+                    point.getLatitude(), point.getLongitude());
+        }
+        if (point.getTime() != null) {
+            if (startTime == null || point.getTime() < startTime) {
+                startTime = point.getTime();
+            }
+            if (endTime == null || point.getTime() > endTime) {
+                endTime = point.getTime();
+            }
+        }
+        previousPoint = point;
+        pointCount++;
+
+        pendingPoints.add(point);
+        if (pendingPoints.size() >= Constants.TRACK_CHUNK_SIZE) {
+            flushPoints();
+        }
+    }
+
+    /**
+     * Write the buffered track points, inserting the hike first if needed
+     */
+    private void flushPoints() throws IOException {
+        if (pendingPoints.isEmpty()) {
+            return;
+        }
+        if (hike.getId() == 0) {
+            insertHike();
+        }
+        if (!trackPointDAO.insertTrackPoints(hike.getId(), pendingPoints).isSuccessful()) {
+            throw new IOException("Could not save track points");
+        }
+        hikeStatsDAO.appendTrackPoints(hike.getId(), pendingPoints);
+        pendingPoints.clear();
+    }
+
+    private void insertHike() throws IOException {
+        long id = hikeDAO.insertHike(hike);
+        if (id == -1) {
+            throw new IOException("Could not save hike");
+        }
+        hike.setId(id);
+    }
+
+    /**
+     * Fill in the hike from the file metadata and the track statistics
+     */
+    private void completeHike(GpxReader gpx) {
+        String name = firstNonEmpty(gpx.getName(), gpx.getTrackName(), null);
+        if (name != null) {
+            hike.setName(name);
+        }
+        hike.setDescription(firstNonEmpty(gpx.getDescription(), gpx.getTrackDescription(), null));
+
+        double startLatitude;
+        double startLongitude;
+        if (firstPoint != null) {
+            startLatitude = firstPoint.getLatitude();
+            startLongitude = firstPoint.getLongitude();
+        } else {
+            startLatitude = waypoints.get(0).getLatitude();
+            startLongitude = waypoints.get(0).getLongitude();
+        }
+        hike.setLocation(String.format(Locale.ROOT, "%.5f, %.5f", startLatitude, startLongitude));
+        hike.setLatitude(startLatitude);
+        hike.setLongitude(startLongitude);
+
+        Long date = startTime != null ? startTime : gpx.getTime();
+        if (date != null) {
+            hike.setDate(DateUtils.formatDate(new Date(date), Constants.DATE_FORMAT_DATABASE));
+        }
+
+        // Kilometres, rounded to metres
+        hike.setLength(Math.round(lengthMeters) / 1000.0);
+
+        if (startTime != null && endTime > startTime) {
+            long minutes = (endTime - startTime) / 60000;
+            hike.setEstimatedDuration(resources.getString(R.string.gpx_duration_format,
+                    minutes / 60, minutes % 60));
+        }
+    }
+
+    private static String formatTime(Long millis) {
+        return millis != null
+                ? DateUtils.formatDate(new Date(millis), Constants.DATETIME_FORMAT_DATABASE)
+                : DateUtils.getCurrentDateTime();
+    }
+
+    private static String firstNonEmpty(String first, String second, String fallback) {
+        if (first != null && !first.isEmpty()) {
+            return first;
+        }
+        if (second != null && !second.isEmpty()) {
+            return second;
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,395 @@
+package com.example.coursework.transfer;
+
+import android.util.Xml;
+
+import com.example.coursework.models.TrackPoint;
+import com.example.coursework.utils.DateUtils;
+import com.example.coursework.utils.GeoUtils;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming reader for GPX 1.0 and 1.1 files
+ * The file is read with a pull parser and every waypoint and track point is handed to the
+ * listener as soon as it is parsed, so a long track is never held in memory. Each track
+ * segment and each route becomes its own numbered segment. Points with missing or invalid
+ * coordinates are skipped; extensions and other unknown elements are ignored.
+ */
+public class GpxReader {
+
+    /**
+     * Receives the points of a GPX file in document order
+     */
+    public interface Listener {
+        void onWaypoint(Waypoint waypoint) throws IOException;
+
+        void onTrackPoint(TrackPoint point) throws IOException;
+    }
+
+    /**
+     * A named point of interest from a wpt element
+     */
+    public static class Waypoint {
+        private final double latitude;
+        private final double longitude;
+        private final Double elevation;
+        private final Long time;
+        private final String name;
+        private final String description;
+        private final String comment;
+
+        Waypoint(double latitude, double longitude, Double elevation, Long time,
+                 String name, String description, String comment) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.elevation = elevation;
+            this.time = time;
+            this.name = name;
+            this.description = description;
+            this.comment = comment;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public Double getElevation() {
+            return elevation;
+        }
+
+        public Long getTime() {
+            return time;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getComment() {
+            return comment;
+        }
+    }
+
+    private final Listener listener;
+
+    // File metadata and the first named track or route
+    private String name;
+    private String description;
+    private Long time;
+    private String trackName;
+    private String trackDescription;
+
+    private int segmentCount;
+    private int skippedPoints;
+
+    public GpxReader(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Parse a GPX document, calling the listener for every point
+     *
+     * @param input GPX source; the encoding is taken from the XML declaration, UTF-8 by default
+     * @throws IOException if reading fails or the document is not valid GPX
+     */
+    public void read(InputStream input) throws IOException {
+        try {
+            XmlPullParser parser = Xml.newPullParser();
+            parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+            parser.setInput(input, null);
+
+            parser.nextTag();
+            if (!parser.getName().equals(GpxFields.GPX)) {
+                throw new IOException("Not a GPX file: root element is <" + parser.getName() + ">");
+            }
+            readGpx(parser);
+        } catch (XmlPullParserException e) {
+            throw new IOException("Invalid GPX: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Name from the file metadata, or null
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Description from the file metadata, or null
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Creation time from the file metadata, or null
+     */
+    public Long getTime() {
+        return time;
+    }
+
+    /**
+     * Name of the first track or route that has one, or null
+     */
+    public String getTrackName() {
+        return trackName;
+    }
+
+    /**
+     * Description of the first track or route that has one, or null
+     */
+    public String getTrackDescription() {
+        return trackDescription;
+    }
+
+    /**
+     * Number of points dropped because their coordinates were missing or invalid
+     */
+    public int getSkippedPoints() {
+        return skippedPoints;
+    }
+
+    private void readGpx(XmlPullParser parser) throws IOException, XmlPullParserException {
+        while (nextChild(parser)) {
+            switch (parser.getName()) {
+                case GpxFields.METADATA:
+                    readMetadata(parser);
+                    break;
+                case GpxFields.WAYPOINT:
+                    Waypoint waypoint = readWaypoint(parser);
+                    if (waypoint != null) {
+                        listener.onWaypoint(waypoint);
+                    }
+                    break;
+                case GpxFields.TRACK:
+                    readTrack(parser);
+                    break;
+                case GpxFields.ROUTE:
+                    readRoute(parser);
+                    break;
+                // GPX 1.0 keeps the metadata directly under the root
+                case GpxFields.NAME:
+                    name = readText(parser);
+                    break;
+                case GpxFields.DESCRIPTION:
+                    description = readText(parser);
+                    break;
+                case GpxFields.TIME:
+                    time = DateUtils.parseIsoTimestamp(readText(parser));
+                    break;
+                default:
+                    skip(parser);
+                    break;
+            }
+        }
+    }
+
+    private void readMetadata(XmlPullParser parser) throws IOException, XmlPullParserException {
+        while (nextChild(parser)) {
+            switch (parser.getName()) {
+                case GpxFields.NAME:
+                    name = readText(parser);
+                    break;
+                case GpxFields.DESCRIPTION:
+                    description = readText(parser);
+                    break;
+                case GpxFields.TIME:
+                    time = DateUtils.parseIsoTimestamp(readText(parser));
+                    break;
+                default:
+                    skip(parser);
+                    break;
+            }
+        }
+    }
+
+    private void readTrack(XmlPullParser parser) throws IOException, XmlPullParserException {
+        while (nextChild(parser)) {
+            switch (parser.getName()) {
+                case GpxFields.NAME:
+                    setTrackName(readText(parser));
+                    break;
+                case GpxFields.DESCRIPTION:
+                    setTrackDescription(readText(parser));
+                    break;
+                case GpxFields.TRACK_SEGMENT:
+                    readPoints(parser, GpxFields.TRACK_POINT, segmentCount++);
+                    break;
+                default:
+                    skip(parser);
+                    break;
+            }
+        }
+    }
+
+    private void readRoute(XmlPullParser parser) throws IOException, XmlPullParserException {
+        int segment = segmentCount++;
+        while (nextChild(parser)) {
+            switch (parser.getName()) {
+                case GpxFields.NAME:
+                    setTrackName(readText(parser));
+                    break;
+                case GpxFields.DESCRIPTION:
+                    setTrackDescription(readText(parser));
+                    break;
+                case GpxFields.ROUTE_POINT:
+                    readPoint(parser, segment);
+                    break;
+                default:
+                    skip(parser);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Read the points of a track segment
+     */
+    private void readPoints(XmlPullParser parser, String pointTag, int segment)
+            throws IOException, XmlPullParserException {
+        while (nextChild(parser)) {
+            if (parser.getName().equals(pointTag)) {
+                readPoint(parser, segment);
+            } else {
+                skip(parser);
+            }
+        }
+    }
+
+    private void readPoint(XmlPullParser parser, int segment) throws IOException, XmlPullParserException {
+        Waypoint point = readWaypoint(parser);
+        if (point != null) {
+            listener.onTrackPoint(new TrackPoint(segment, point.getLatitude(), point.getLongitude(),
+                    point.getElevation(), point.getTime()));
+        }
+    }
+
+    /**
+     * Read a wpt, trkpt or rtept element
+     *
+     * @return The point, or null if its coordinates are missing or invalid
+     */
+    private Waypoint readWaypoint(XmlPullParser parser) throws IOException, XmlPullParserException {
+        Double latitude = parseDouble(parser.getAttributeValue(null, GpxFields.LATITUDE));
+        Double longitude = parseDouble(parser.getAttributeValue(null, GpxFields.LONGITUDE));
+
+        Double elevation = null;
+        Long pointTime = null;
+        String pointName = null;
+        String pointDescription = null;
+        String comment = null;
+
+        while (nextChild(parser)) {
+            switch (parser.getName()) {
+                case GpxFields.ELEVATION:
+                    elevation = parseDouble(readText(parser));
+                    break;
+                case GpxFields.TIME:
+                    pointTime = DateUtils.parseIsoTimestamp(readText(parser));
+                    break;
+                case GpxFields.NAME:
+                    pointName = readText(parser);
+                    break;
+                case GpxFields.DESCRIPTION:
+                    pointDescription = readText(parser);
+                    break;
+                case GpxFields.COMMENT:
+                    comment = readText(parser);
+                    break;
+                default:
+                    skip(parser);
+                    break;
+            }
+        }
+
+        if (latitude == null || longitude == null || !GeoUtils.isValidCoordinate(latitude, longitude)) {
+            skippedPoints++;
+            return null;
+        }
+        return new Waypoint(latitude, longitude, elevation, pointTime, pointName, pointDescription, comment);
+    }
+
+    private void setTrackName(String value) {
+        if (trackName == null) {
+            trackName = value;
+        }
+    }
+
+    private void setTrackDescription(String value) {
+        if (trackDescription == null) {
+            trackDescription = value;
+        }
+    }
+
+    /**
+     * Move to the next child element of the current element
+     *
+     * @return false once the current element's end tag is reached
+     */
+    private static boolean nextChild(XmlPullParser parser) throws IOException, XmlPullParserException {
+        int event;
+        while ((event = parser.next()) != XmlPullParser.END_DOCUMENT) {
+            if (event == XmlPullParser.START_TAG) {
+                return true;
+            }
+            if (event == XmlPullParser.END_TAG) {
+                return false;
+            }
+        }
+        throw new IOException("Unexpected end of GPX file");
+    }
+
+    /**
+     * Read the text of a simple element, leaving the parser on its end tag
+     *
+     * @return Trimmed text, or null if it is empty
+     */
+    private static String readText(XmlPullParser parser) throws IOException, XmlPullParserException {
+        String text = parser.nextText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    /**
+     * Skip the current element and everything inside it
+     */
+    private static void skip(XmlPullParser parser) throws IOException, XmlPullParserException {
+        int depth = 1;
+        while (depth > 0) {
+            switch (parser.next()) {
+                case XmlPullParser.START_TAG:
+                    depth++;
+                    break;
+                case XmlPullParser.END_TAG:
+                    depth--;
+                    break;
+                case XmlPullParser.END_DOCUMENT:
+                    throw new IOException("Unexpected end of GPX file");
+            }
+        }
+    }
+
+    private static Double parseDouble(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            double number = Double.parseDouble(value.trim());
+            return Double.isNaN(number) || Double.isInfinite(number) ? null : number;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.example.coursework.transfer;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.JsonWriter;
+import android.util.Log;
+
+import com.example.coursework.R;
+import com.example.coursework.database.DatabaseHelper;
+import com.example.coursework.database.DatabaseProvider;
+import com.example.coursework.database.HikeRowMapper;
+import com.example.coursework.database.ObservationRowMapper;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.Observation;
+import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.OptionLabels;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Streams every hike with its observations from the database to a file
+ * Hikes are read in pages of EXPORT_PAGE_SIZE by ID, and each page's observations are
+ * read by the same ID range in chunks of EXPORT_PAGE_SIZE and merged row by row, so
+ * memory use does not grow with the number of rows, even for a hike with thousands of
+ * observations. Every query continues after the last row of the one before instead of
+ * using an offset, so edits made during a long export cannot make a cursor skip or
+ * repeat rows: hikes added meanwhile appear at the end or not at all, and observations
+ * always belong to a hike in the same page.
+ */
+public class HikeExporter {
+
+    private static final String TAG = "HikeExporter";
+
+    private final DatabaseHelper dbHelper;
+    private final String[] parkingLabels;
+    private final String[] difficultyLabels;
+    private final String[] weatherLabels;
+
+    public HikeExporter(Context context) {
+        dbHelper = DatabaseProvider.getHelper(context);
+        Resources resources = context.getResources();
+        parkingLabels = resources.getStringArray(R.array.parking_options);
+        difficultyLabels = resources.getStringArray(R.array.difficulty_levels);
+        weatherLabels = resources.getStringArray(R.array.weather_conditions);
+    }
+
+    /**
+     * Write all hikes and their observations
+     * The writer is flushed but not closed.
+     *
+     * @param writer Destination, ideally buffered
+     * @param format File format to write
+     * @return Number of hikes and observations written
+     * @throws IOException if writing fails
+     */
+    public ExportReport export(Writer writer, TransferFormat format) throws IOException {
+        long start = SystemClock.elapsedRealtime();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        RecordWriter records = format == TransferFormat.CSV
+                ? new CsvRecordWriter(writer) : new JsonLinesRecordWriter(writer);
+
+        int hikeCount = 0;
+        int observationCount = 0;
+        records.begin();
+        Page page;
+        long afterId = Long.MIN_VALUE;
+        do {
+            page = exportPage(db, records, afterId);
+            hikeCount += page.hikeCount;
+            observationCount += page.observationCount;
+            afterId = page.lastHikeId;
+        } while (page.hikeCount == Constants.EXPORT_PAGE_SIZE);
+        writer.flush();
+
+        ExportReport report = new ExportReport(hikeCount, observationCount,
+                SystemClock.elapsedRealtime() - start);
+        Log.i(TAG, "Exported " + format + ": " + report);
+        return report;
+    }
+
+    /**
+     * Write the next page of hikes with their observations
+     * A page has at most EXPORT_PAGE_SIZE hikes and each observation query at most
+     * EXPORT_PAGE_SIZE rows, so every cursor fits one window and no query is re-run
+     * while it is read.
+     *
+     * @param afterId Write hikes with a greater ID
+     * @return What the page contained
+     */
+    private Page exportPage(SQLiteDatabase db, RecordWriter records, long afterId) throws IOException {
+        Cursor hikes = null;
+        ObservationChunks observations = null;
+        int observationCount = 0;
+
+        try {
+            hikes = db.query(Constants.TABLE_HIKES, null, Constants.COLUMN_ID + " > ?",
+                    new String[]{String.valueOf(afterId)}, null, null,
+                    Constants.COLUMN_ID + " ASC", String.valueOf(Constants.EXPORT_PAGE_SIZE));
+            if (!hikes.moveToLast()) {
+                return new Page(0, 0, afterId);
+            }
+            int idIndex = hikes.getColumnIndexOrThrow(Constants.COLUMN_ID);
+            long lastId = hikes.getLong(idIndex);
+            hikes.moveToFirst();
+            long firstId = hikes.getLong(idIndex);
+
+            HikeRowMapper hikeMapper = new HikeRowMapper(hikes);
+            observations = new ObservationChunks(db, firstId, lastId);
+            boolean hasObservation = observations.moveToNext();
+
+            do {
+                Hike hike = hikeMapper.mapRow(hikes);
+                records.beginHike(hike);
+
+                // Skip observations whose hike no longer exists
+                while (hasObservation && observations.hikeId() < hike.getId()) {
+                    hasObservation = observations.moveToNext();
+                }
+                while (hasObservation && observations.hikeId() == hike.getId()) {
+                    records.writeObservation(observations.map());
+                    observationCount++;
+                    hasObservation = observations.moveToNext();
+                }
+
+                records.endHike();
+            } while (hikes.moveToNext());
+
+            return new Page(hikes.getCount(), observationCount, lastId);
+        } finally {
+            if (hikes != null) {
+                hikes.close();
+            }
+            if (observations != null) {
+                observations.close();
+            }
+        }
+    }
+
+    /**
+     * Observations of a hike ID range in (hike_id, time, id) order, read EXPORT_PAGE_SIZE
+     * rows at a time
+     * Each chunk continues after the last row of the previous one. The range bounds keep
+     * every query on the (hike_id, time) index; the keyset is spelled out because row
+     * value comparisons need SQLite 3.15, newer than API 24 ships.
+     */
+    private static class ObservationChunks {
+        private static final String ORDER_BY = Constants.COLUMN_HIKE_ID + " ASC, "
+                + Constants.COLUMN_TIME + " ASC, " + Constants.COLUMN_ID + " ASC";
+        private static final String IN_RANGE = Constants.COLUMN_HIKE_ID + " BETWEEN ? AND ?";
+        private static final String AFTER_ROW = IN_RANGE + " AND (" + Constants.COLUMN_HIKE_ID + " > ? OR ("
+                + Constants.COLUMN_HIKE_ID + " = ? AND (" + Constants.COLUMN_TIME + " > ? OR ("
+                + Constants.COLUMN_TIME + " = ? AND " + Constants.COLUMN_ID + " > ?))))";
+
+        private final SQLiteDatabase db;
+        private final String firstHikeId;
+        private final String lastHikeId;
+        private Cursor cursor;
+        private ObservationRowMapper mapper;
+        private int hikeIdIndex;
+        private int timeIndex;
+        private int idIndex;
+
+        ObservationChunks(SQLiteDatabase db, long firstHikeId, long lastHikeId) {
+            this.db = db;
+            this.firstHikeId = String.valueOf(firstHikeId);
+            this.lastHikeId = String.valueOf(lastHikeId);
+        }
+
+        /**
+         * Move to the next observation, reading the next chunk when this one is used up
+         *
+         * @return False when there are no more observations in the range
+         */
+        boolean moveToNext() {
+            if (cursor == null) {
+                cursor = query(IN_RANGE, new String[]{firstHikeId, lastHikeId});
+                mapper = new ObservationRowMapper(cursor);
+                hikeIdIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_HIKE_ID);
+                timeIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_TIME);
+                idIndex = cursor.getColumnIndexOrThrow(Constants.COLUMN_ID);
+                return cursor.moveToFirst();
+            }
+            if (cursor.moveToNext()) {
+                return true;
+            }
+            if (cursor.getCount() < Constants.EXPORT_PAGE_SIZE) {
+                return false;
+            }
+
+            cursor.moveToLast();
+            String hikeId = cursor.getString(hikeIdIndex);
+            String time = cursor.getString(timeIndex);
+            String[] args = {firstHikeId, lastHikeId, hikeId, hikeId, time, time, cursor.getString(idIndex)};
+            cursor.close();
+            cursor = query(AFTER_ROW, args);
+            return cursor.moveToFirst();
+        }
+
+        long hikeId() {
+            return cursor.getLong(hikeIdIndex);
+        }
+
+        Observation map() {
+            return mapper.mapRow(cursor);
+        }
+
+        void close() {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+
+        private Cursor query(String selection, String[] args) {
+            return db.query(Constants.TABLE_OBSERVATIONS, null, selection, args, null, null, ORDER_BY,
+                    String.valueOf(Constants.EXPORT_PAGE_SIZE));
+        }
+    }
+
+    /**
+     * Counts and last hike ID of one exported page
+     */
+    private static class Page {
+        final int hikeCount;
+        final int observationCount;
+        final long lastHikeId;
+
+        Page(int hikeCount, int observationCount, long lastHikeId) {
+            this.hikeCount = hikeCount;
+            this.observationCount = observationCount;
+            this.lastHikeId = lastHikeId;
+        }
+    }
+
+    /**
+     * Writes hikes and their observations in one file format
+     */
+    private interface RecordWriter {
+        void begin() throws IOException;
+
+        void beginHike(Hike hike) throws IOException;
+
+        void writeObservation(Observation observation) throws IOException;
+
+        void endHike() throws IOException;
+    }
+
+    /**
+     * One CSV row per hike, followed by one row per observation
+     */
+    private class CsvRecordWriter implements RecordWriter {
+        private final Writer writer;
+        private final String[] row = new String[TransferFields.CSV_HEADER.length];
+
+        CsvRecordWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            CsvCodec.writeRow(writer, TransferFields.CSV_HEADER);
+        }
+
+        @Override
+        public void beginHike(Hike hike) throws IOException {
+            Arrays.fill(row, null);
+            row[0] = TransferFields.RECORD_HIKE;
+            row[1] = String.valueOf(hike.getId());
+            row[2] = hike.getName();
+            row[3] = hike.getLocation();
+            row[4] = hike.getDate();
+            row[5] = OptionLabels.getLabel(parkingLabels, hike.getParkingAvailable());
+            row[6] = String.valueOf(hike.getLength());
+            row[7] = OptionLabels.getLabel(difficultyLabels, hike.getDifficulty());
+            row[8] = hike.getDescription();
+            row[9] = OptionLabels.getLabel(weatherLabels, hike.getWeatherCondition());
+            row[10] = hike.getEstimatedDuration();
+            row[11] = hike.getCreatedAt();
+            row[16] = coordinate(hike.getLatitude());
+            row[17] = coordinate(hike.getLongitude());
+            CsvCodec.writeRow(writer, row);
+        }
+
+        @Override
+        public void writeObservation(Observation observation) throws IOException {
+            Arrays.fill(row, null);
+            row[0] = TransferFields.RECORD_OBSERVATION;
+            row[1] = String.valueOf(observation.getId());
+            row[12] = String.valueOf(observation.getHikeId());
+            row[13] = observation.getObservation();
+            row[14] = observation.getTime();
+            row[15] = observation.getComments();
+            row[16] = coordinate(observation.getLatitude());
+            row[17] = coordinate(observation.getLongitude());
+            CsvCodec.writeRow(writer, row);
+        }
+
+        @Override
+        public void endHike() {
+        }
+
+        private String coordinate(Double degrees) {
+            return degrees != null ? String.valueOf(degrees) : null;
+        }
+    }
+
+    /**
+     * One JSON object per line, observations nested in an array
+     */
+    private class JsonLinesRecordWriter implements RecordWriter {
+        private final Writer writer;
+        private JsonWriter json;
+
+        JsonLinesRecordWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void beginHike(Hike hike) throws IOException {
+            // A fresh JsonWriter per line; it is flushed, never closed, so the file stays open
+            json = new JsonWriter(writer);
+            json.beginObject();
+            json.name(Constants.COLUMN_ID).value(hike.getId());
+            json.name(Constants.COLUMN_NAME).value(hike.getName());
+            json.name(Constants.COLUMN_LOCATION).value(hike.getLocation());
+            json.name(Constants.COLUMN_DATE).value(hike.getDate());
+            json.name(Constants.COLUMN_PARKING_AVAILABLE)
+                    .value(OptionLabels.getLabel(parkingLabels, hike.getParkingAvailable()));
+            json.name(Constants.COLUMN_LENGTH).value(hike.getLength());
+            json.name(Constants.COLUMN_DIFFICULTY)
+                    .value(OptionLabels.getLabel(difficultyLabels, hike.getDifficulty()));
+            json.name(Constants.COLUMN_DESCRIPTION).value(hike.getDescription());
+            json.name(Constants.COLUMN_WEATHER_CONDITION)
+                    .value(OptionLabels.getLabel(weatherLabels, hike.getWeatherCondition()));
+            json.name(Constants.COLUMN_ESTIMATED_DURATION).value(hike.getEstimatedDuration());
+            json.name(Constants.COLUMN_CREATED_AT).value(hike.getCreatedAt());
+            json.name(Constants.COLUMN_LATITUDE).value(hike.getLatitude());
+            json.name(Constants.COLUMN_LONGITUDE).value(hike.getLongitude());
+            json.name(TransferFields.OBSERVATIONS).beginArray();
+        }
+
+        @Override
+        public void writeObservation(Observation observation) throws IOException {
+            json.beginObject();
+            json.name(Constants.COLUMN_ID).value(observation.getId());
+            json.name(Constants.COLUMN_OBSERVATION).value(observation.getObservation());
+            json.name(Constants.COLUMN_TIME).value(observation.getTime());
+            json.name(Constants.COLUMN_COMMENTS).value(observation.getComments());
+            json.name(Constants.COLUMN_LATITUDE).value(observation.getLatitude());
+            json.name(Constants.COLUMN_LONGITUDE).value(observation.getLongitude());
+            json.endObject();
+        }
+
+        @Override
+        public void endHike() throws IOException {
+            json.endArray();
+            json.endObject();
+            json.flush();
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,514 @@
+package com.example.coursework.transfer;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.Log;
+
+import com.example.coursework.database.BatchResult;
+import com.example.coursework.database.DatabaseHelper;
+import com.example.coursework.database.DatabaseProvider;
+import com.example.coursework.database.HikeDAO;
+import com.example.coursework.database.ObservationDAO;
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Hike;
+import com.example.coursework.models.Observation;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.WeatherCondition;
+import com.example.coursework.utils.Constants;
+import com.example.coursework.utils.DateUtils;
+import com.example.coursework.utils.GeoUtils;
+import com.example.coursework.utils.ValidationUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams hikes and observations from a CSV or JSON Lines file into the database
+ * Records are parsed one at a time and validated with the same rules as the entry forms.
+ * Valid hikes are committed in batches, each batch in one transaction, so memory use
+ * depends on the batch size rather than the file size. Rejected records are listed in
+ * the returned report.
+ *
+ * Accepts the files written by HikeExporter. CSV files may also be plain spreadsheets:
+ * columns are matched by header name in any order, and without a record_type column
+ * every row is a hike.
+ */
+public class HikeImporter {
+
+    private static final String TAG = "HikeImporter";
+    private static final double[] NO_POSITION = new double[0];
+
+    private final DatabaseHelper dbHelper;
+    private final HikeDAO hikeDAO;
+    private final ObservationDAO observationDAO;
+    private final Resources resources;
+    private final int batchSize;
+
+    private final List<PendingHike> batch = new ArrayList<>();
+    private ImportReport report;
+
+    public HikeImporter(Context context) {
+        this(context, Constants.IMPORT_BATCH_SIZE);
+    }
+
+    /**
+     * @param batchSize Number of hikes committed per transaction
+     */
+    public HikeImporter(Context context, int batchSize) {
+        dbHelper = DatabaseProvider.getHelper(context);
+        hikeDAO = new HikeDAO(context);
+        observationDAO = new ObservationDAO(context);
+        resources = context.getResources();
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Import every valid record from a file
+     * Batches committed before an I/O error are kept.
+     *
+     * @param reader Source, ideally buffered
+     * @param format File format to read
+     * @return Counts of imported and rejected records with rejection reasons
+     * @throws IOException if reading fails
+     */
+    public ImportReport importFrom(Reader reader, TransferFormat format) throws IOException {
+        long start = SystemClock.elapsedRealtime();
+        report = new ImportReport();
+        batch.clear();
+
+        if (format == TransferFormat.CSV) {
+            importCsv(new CsvReader(reader));
+        } else {
+            importJsonLines(reader instanceof BufferedReader
+                    ? (BufferedReader) reader : new BufferedReader(reader));
+        }
+        flushBatch();
+
+        report.setElapsedMillis(SystemClock.elapsedRealtime() - start);
+        Log.i(TAG, "Imported " + format + ": " + report);
+        return report;
+    }
+
+    // CSV
+
+    private void importCsv(CsvReader csv) throws IOException {
+        String[] header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        Integer recordTypeColumn = columns.get(TransferFields.RECORD_TYPE);
+
+        // Hike the following observation rows belong to; null if it was rejected
+        PendingHike currentHike = null;
+        int currentHikeLine = 0;
+        String currentSourceId = null;
+
+        String[] row;
+        while ((row = csv.readRecord()) != null) {
+            int line = csv.getRecordLineNumber();
+            if (row.length == 1 && row[0].trim().isEmpty()) {
+                continue;
+            }
+
+            String recordType = recordTypeColumn != null
+                    ? value(row, recordTypeColumn).toLowerCase(Locale.ROOT) : TransferFields.RECORD_HIKE;
+
+            if (recordType.isEmpty() || recordType.equals(TransferFields.RECORD_HIKE)) {
+                currentHikeLine = line;
+                currentSourceId = value(row, columns.get(Constants.COLUMN_ID));
+                currentHike = parseHike(line,
+                        value(row, columns.get(Constants.COLUMN_NAME)),
+                        value(row, columns.get(Constants.COLUMN_LOCATION)),
+                        value(row, columns.get(Constants.COLUMN_DATE)),
+                        value(row, columns.get(Constants.COLUMN_PARKING_AVAILABLE)),
+                        value(row, columns.get(Constants.COLUMN_LENGTH)),
+                        value(row, columns.get(Constants.COLUMN_DIFFICULTY)),
+                        value(row, columns.get(Constants.COLUMN_DESCRIPTION)),
+                        value(row, columns.get(Constants.COLUMN_WEATHER_CONDITION)),
+                        value(row, columns.get(Constants.COLUMN_ESTIMATED_DURATION)),
+                        value(row, columns.get(Constants.COLUMN_LATITUDE)),
+                        value(row, columns.get(Constants.COLUMN_LONGITUDE)), 0);
+                if (currentHike != null) {
+                    addToBatch(currentHike);
+                }
+            } else if (recordType.equals(TransferFields.RECORD_OBSERVATION)) {
+                String hikeId = value(row, columns.get(Constants.COLUMN_HIKE_ID));
+                if (currentHikeLine == 0 || (!hikeId.isEmpty() && !hikeId.equals(currentSourceId))) {
+                    report.reject(line, "Observation does not follow its hike");
+                } else if (currentHike == null) {
+                    report.reject(line, "Hike on line " + currentHikeLine + " was rejected");
+                } else {
+                    Observation observation = parseObservation(line, "",
+                            value(row, columns.get(Constants.COLUMN_OBSERVATION)),
+                            value(row, columns.get(Constants.COLUMN_TIME)),
+                            value(row, columns.get(Constants.COLUMN_COMMENTS)),
+                            value(row, columns.get(Constants.COLUMN_LATITUDE)),
+                            value(row, columns.get(Constants.COLUMN_LONGITUDE)));
+                    if (observation != null) {
+                        currentHike.observations.add(observation);
+                    }
+                }
+            } else {
+                report.reject(line, "Unknown record type '" + recordType + "'");
+            }
+        }
+    }
+
+    private static String value(String[] row, Integer column) {
+        if (column == null || column >= row.length) {
+            return "";
+        }
+        return row[column].trim();
+    }
+
+    // JSON Lines
+
+    private void importJsonLines(BufferedReader reader) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+
+            try {
+                PendingHike hike = parseJsonHike(lineNumber, new JsonReader(new StringReader(line)));
+                if (hike != null) {
+                    addToBatch(hike);
+                }
+            } catch (IOException | IllegalStateException | NumberFormatException e) {
+                report.reject(lineNumber, "Malformed JSON: " + e.getMessage());
+            }
+        }
+    }
+
+    private PendingHike parseJsonHike(int line, JsonReader json) throws IOException {
+        Map<String, String> fields = new HashMap<>();
+        List<String[]> observations = new ArrayList<>();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (name.equals(TransferFields.OBSERVATIONS) && json.peek() == JsonToken.BEGIN_ARRAY) {
+                json.beginArray();
+                while (json.hasNext()) {
+                    Map<String, String> observation = readFlatObject(json);
+                    observations.add(new String[]{
+                            observation.get(Constants.COLUMN_OBSERVATION),
+                            observation.get(Constants.COLUMN_TIME),
+                            observation.get(Constants.COLUMN_COMMENTS),
+                            observation.get(Constants.COLUMN_LATITUDE),
+                            observation.get(Constants.COLUMN_LONGITUDE)
+                    });
+                }
+                json.endArray();
+            } else {
+                fields.put(name, readScalar(json));
+            }
+        }
+        json.endObject();
+
+        PendingHike hike = parseHike(line,
+                fields.get(Constants.COLUMN_NAME),
+                fields.get(Constants.COLUMN_LOCATION),
+                fields.get(Constants.COLUMN_DATE),
+                fields.get(Constants.COLUMN_PARKING_AVAILABLE),
+                fields.get(Constants.COLUMN_LENGTH),
+                fields.get(Constants.COLUMN_DIFFICULTY),
+                fields.get(Constants.COLUMN_DESCRIPTION),
+                fields.get(Constants.COLUMN_WEATHER_CONDITION),
+                fields.get(Constants.COLUMN_ESTIMATED_DURATION),
+                fields.get(Constants.COLUMN_LATITUDE),
+                fields.get(Constants.COLUMN_LONGITUDE), observations.size());
+        if (hike == null) {
+            return null;
+        }
+
+        for (int i = 0; i < observations.size(); i++) {
+            String[] values = observations.get(i);
+            Observation observation = parseObservation(line, "Observation " + (i + 1) + ": ",
+                    values[0], values[1], values[2], values[3], values[4]);
+            if (observation != null) {
+                hike.observations.add(observation);
+            }
+        }
+        return hike;
+    }
+
+    /**
+     * Read an object of scalar values; nested values are skipped
+     */
+    private static Map<String, String> readFlatObject(JsonReader json) throws IOException {
+        Map<String, String> fields = new HashMap<>();
+        json.beginObject();
+        while (json.hasNext()) {
+            fields.put(json.nextName(), readScalar(json));
+        }
+        json.endObject();
+        return fields;
+    }
+
+    /**
+     * Read a scalar as a string; null, objects and arrays read as null
+     */
+    private static String readScalar(JsonReader json) throws IOException {
+        switch (json.peek()) {
+            case STRING:
+            case NUMBER:
+                return json.nextString();
+            case BOOLEAN:
+                return String.valueOf(json.nextBoolean());
+            case NULL:
+                json.nextNull();
+                return null;
+            default:
+                json.skipValue();
+                return null;
+        }
+    }
+
+    // Validation
+
+    /**
+     * Validate and convert a hike record
+     *
+     * @param nestedObservations Observations in the same record, rejected with the hike
+     * @return The hike, or null if it was rejected
+     */
+    private PendingHike parseHike(int line, String name, String location, String date, String parking,
+                                  String length, String difficulty, String description, String weather,
+                                  String duration, String latitude, String longitude,
+                                  int nestedObservations) {
+        List<String> problems = new ArrayList<>();
+
+        if (!ValidationUtils.isValidName(name)) {
+            problems.add("name is required");
+        }
+        if (!ValidationUtils.isValidLocation(location)) {
+            problems.add("location is required");
+        }
+        if (!ValidationUtils.isValidDate(date)) {
+            problems.add("date is required");
+        } else if (DateUtils.toEpochDay(date) == null) {
+            problems.add("date '" + date + "' is not yyyy-MM-dd");
+        }
+        if (!ValidationUtils.isValidLength(length)) {
+            problems.add("length must be a number greater than 0");
+        }
+
+        Parking parkingOption = Parking.fromLabel(resources, parking);
+        if (parkingOption == null) {
+            problems.add(isBlank(parking) ? "parking is required" : "unknown parking '" + parking + "'");
+        }
+        Difficulty difficultyOption = Difficulty.fromLabel(resources, difficulty);
+        if (difficultyOption == null) {
+            problems.add(isBlank(difficulty) ? "difficulty is required" : "unknown difficulty '" + difficulty + "'");
+        }
+        WeatherCondition weatherOption = WeatherCondition.fromLabel(resources, weather);
+        if (weatherOption == null && !isBlank(weather)) {
+            problems.add("unknown weather '" + weather + "'");
+        }
+        double[] position = parsePosition(latitude, longitude);
+        if (position == null) {
+            problems.add("latitude and longitude must both be valid coordinates");
+        }
+
+        if (!problems.isEmpty()) {
+            // One record, so one rejection, even when it carries observations
+            if (nestedObservations > 0) {
+                problems.add(nestedObservations + " observation(s) skipped with it");
+            }
+            report.reject(line, capitalize(joinProblems(problems)));
+            return null;
+        }
+
+        Hike hike = new Hike();
+        hike.setName(name.trim());
+        hike.setLocation(location.trim());
+        hike.setDate(date.trim());
+        hike.setParkingAvailable(parkingOption);
+        hike.setLength(Double.parseDouble(length.trim()));
+        hike.setDifficulty(difficultyOption);
+        hike.setDescription(emptyToNull(description));
+        hike.setWeatherCondition(weatherOption);
+        hike.setEstimatedDuration(emptyToNull(duration));
+        // HikeDAO stores the geohash from these
+        if (position != NO_POSITION) {
+            hike.setLatitude(position[0]);
+            hike.setLongitude(position[1]);
+        }
+        return new PendingHike(hike, line);
+    }
+
+    /**
+     * Validate and convert an observation record
+     *
+     * @return The observation, or null if it was rejected
+     */
+    private Observation parseObservation(int line, String prefix, String text, String time, String comments,
+                                         String latitude, String longitude) {
+        if (!ValidationUtils.isValidObservation(text)) {
+            report.reject(line, prefix + "Observation is required");
+            return null;
+        }
+        if (isBlank(time)) {
+            report.reject(line, prefix + "Time is required");
+            return null;
+        }
+        double[] position = parsePosition(latitude, longitude);
+        if (position == null) {
+            report.reject(line, prefix + "Latitude and longitude must both be valid coordinates");
+            return null;
+        }
+
+        Observation observation = new Observation();
+        observation.setObservation(text.trim());
+        observation.setTime(time.trim());
+        observation.setComments(emptyToNull(comments));
+        if (position != NO_POSITION) {
+            observation.setLatitude(position[0]);
+            observation.setLongitude(position[1]);
+        }
+        return observation;
+    }
+
+    /**
+     * Parse an optional latitude and longitude pair
+     *
+     * @return {latitude, longitude}, NO_POSITION if both are blank, or null if they are
+     * not a valid position
+     */
+    private static double[] parsePosition(String latitude, String longitude) {
+        if (isBlank(latitude) && isBlank(longitude)) {
+            return NO_POSITION;
+        }
+        if (isBlank(latitude) || isBlank(longitude)) {
+            return null;
+        }
+        try {
+            double lat = Double.parseDouble(latitude.trim());
+            double lon = Double.parseDouble(longitude.trim());
+            return GeoUtils.isValidCoordinate(lat, lon) ? new double[]{lat, lon} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static String emptyToNull(String value) {
+        return isBlank(value) ? null : value.trim();
+    }
+
+    private static String joinProblems(List<String> problems) {
+        StringBuilder message = new StringBuilder();
+        for (String problem : problems) {
+            if (message.length() > 0) {
+                message.append("; ");
+            }
+            message.append(problem);
+        }
+        return message.toString();
+    }
+
+    private static String capitalize(String message) {
+        return Character.toUpperCase(message.charAt(0)) + message.substring(1);
+    }
+
+    // Batching
+
+    /**
+     * Queue a hike, committing the batch first if it is full
+     * A hike is only committed once the next one starts, since CSV observation rows
+     * follow their hike.
+     */
+    private void addToBatch(PendingHike hike) {
+        if (batch.size() >= batchSize) {
+            flushBatch();
+        }
+        batch.add(hike);
+    }
+
+    /**
+     * Insert the queued hikes and their observations in one transaction
+     */
+    private void flushBatch() {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Hike> hikes = new ArrayList<>(batch.size());
+        for (PendingHike pending : batch) {
+            hikes.add(pending.hike);
+        }
+
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        int observationCount = 0;
+        boolean committed = false;
+
+        // The DAO batches join this transaction, so hikes and observations commit together
+        db.beginTransaction();
+        try {
+            BatchResult hikeResult = hikeDAO.insertHikes(hikes);
+            if (hikeResult.isSuccessful()) {
+                List<Observation> observations = new ArrayList<>();
+                for (PendingHike pending : batch) {
+                    for (Observation observation : pending.observations) {
+                        observation.setHikeId(pending.hike.getId());
+                        observations.add(observation);
+                    }
+                }
+                BatchResult observationResult = observationDAO.insertObservations(observations);
+                if (observationResult.isSuccessful()) {
+                    observationCount = observations.size();
+                    db.setTransactionSuccessful();
+                    committed = true;
+                }
+            }
+        } finally {
+            db.endTransaction();
+        }
+
+        if (committed) {
+            report.addImported(hikes.size(), observationCount);
+        } else {
+            for (PendingHike pending : batch) {
+                report.reject(pending.line, "Could not be saved");
+            }
+        }
+        batch.clear();
+    }
+
+    /**
+     * A validated hike waiting to be committed with its observations
+     */
+    private static class PendingHike {
+        final Hike hike;
+        final int line;
+        final List<Observation> observations = new ArrayList<>();
+
+        PendingHike(Hike hike, int line) {
+            this.hike = hike;
+            this.line = line;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.coursework.transfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of an import, including why records were rejected
+ * Only the first MAX_REPORTED_ERRORS rejections keep their message, so a file full of
+ * bad records cannot exhaust memory; all of them are counted.
+ */
+public class ImportReport {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    /**
+     * A rejected record
+     */
+    public static class ImportError {
+        private final int lineNumber;
+        private final String message;
+
+        public ImportError(int lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + message;
+        }
+    }
+
+    private int importedHikes;
+    private int importedObservations;
+    private int rejectedRecords;
+    private long elapsedMillis;
+    private final List<ImportError> errors = new ArrayList<>();
+
+    void addImported(int hikes, int observations) {
+        importedHikes += hikes;
+        importedObservations += observations;
+    }
+
+    void reject(int lineNumber, String message) {
+        rejectedRecords++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ImportError(lineNumber, message));
+        }
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getImportedHikes() {
+        return importedHikes;
+    }
+
+    public int getImportedObservations() {
+        return importedObservations;
+    }
+
+    /**
+     * Number of rejected hike and observation records
+     */
+    public int getRejectedRecords() {
+        return rejectedRecords;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * The first MAX_REPORTED_ERRORS rejections, in file order
+     */
+    public List<ImportError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "importedHikes=" + importedHikes +
+                ", importedObservations=" + importedObservations +
+                ", rejectedRecords=" + rejectedRecords +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
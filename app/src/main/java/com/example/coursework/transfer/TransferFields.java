@@ -0,0 +1,46 @@
+package com.example.coursework.transfer;
+
+import com.example.coursework.utils.Constants;
+
+/**
+ * Field names shared by the export and import formats
+ * Hike and observation fields use the database column names.
+ */
+public class TransferFields {
+
+    // CSV record types
+    public static final String RECORD_TYPE = "record_type";
+    public static final String RECORD_HIKE = "hike";
+    public static final String RECORD_OBSERVATION = "observation";
+
+    // JSON array of a hike's observations
+    public static final String OBSERVATIONS = "observations";
+
+    /**
+     * CSV header; hike rows fill the hike columns, observation rows the observation columns
+     * The latitude and longitude columns at the end are shared by both record types.
+     */
+    public static final String[] CSV_HEADER = {
+            RECORD_TYPE,
+            Constants.COLUMN_ID,
+            Constants.COLUMN_NAME,
+            Constants.COLUMN_LOCATION,
+            Constants.COLUMN_DATE,
+            Constants.COLUMN_PARKING_AVAILABLE,
+            Constants.COLUMN_LENGTH,
+            Constants.COLUMN_DIFFICULTY,
+            Constants.COLUMN_DESCRIPTION,
+            Constants.COLUMN_WEATHER_CONDITION,
+            Constants.COLUMN_ESTIMATED_DURATION,
+            Constants.COLUMN_CREATED_AT,
+            Constants.COLUMN_HIKE_ID,
+            Constants.COLUMN_OBSERVATION,
+            Constants.COLUMN_TIME,
+            Constants.COLUMN_COMMENTS,
+            Constants.COLUMN_LATITUDE,
+            Constants.COLUMN_LONGITUDE
+    };
+
+    private TransferFields() {
+    }
+}
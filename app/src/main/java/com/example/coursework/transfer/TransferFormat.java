@@ -0,0 +1,32 @@
+package com.example.coursework.transfer;
+
+/**
+ * File formats supported for exporting and importing hikes
+ */
+public enum TransferFormat {
+    /**
+     * One row per hike followed by one row per observation, told apart by record_type
+     */
+    CSV("text/csv", "csv"),
+
+    /**
+     * One JSON object per line, each hike holding its observations in an array
+     */
+    JSON_LINES("application/x-ndjson", "jsonl");
+
+    private final String mimeType;
+    private final String extension;
+
+    TransferFormat(String mimeType, String extension) {
+        this.mimeType = mimeType;
+        this.extension = extension;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
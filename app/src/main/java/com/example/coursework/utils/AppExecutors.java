@@ -0,0 +1,126 @@
+package com.example.coursework.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared executors for background database work, file transfers and main thread delivery
+ */
+public class AppExecutors {
+
+    // SQLite allows a single writer, so a small pool is enough to overlap reads with one write
+    private static final int DATABASE_THREAD_COUNT = 2;
+
+    private static final ExecutorService DATABASE_EXECUTOR =
+            Executors.newFixedThreadPool(DATABASE_THREAD_COUNT, new DatabaseThreadFactory("mhike-db-"));
+
+    // Imports and exports can run for minutes, so they queue on their own thread rather
+    // than holding a database thread the screens need for reads
+    private static final ExecutorService TRANSFER_EXECUTOR =
+            Executors.newSingleThreadExecutor(new DatabaseThreadFactory("mhike-transfer-"));
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * Get the bounded executor used for all database access
+     *
+     * @return Database executor
+     */
+    public static ExecutorService database() {
+        return DATABASE_EXECUTOR;
+    }
+
+    /**
+     * Get the serial executor used for importing and exporting files
+     * Transfers run one at a time, in submission order.
+     *
+     * @return Transfer executor
+     */
+    public static ExecutorService transfer() {
+        return TRANSFER_EXECUTOR;
+    }
+
+    /**
+     * Create an executor that runs tasks one at a time, in submission order, on the database
+     * executor
+     * Used where writes must not overtake each other, such as appending to a track.
+     *
+     * @return New serial executor
+     */
+    public static Executor newSerialDatabaseExecutor() {
+        return new SerialExecutor(DATABASE_EXECUTOR);
+    }
+
+    /**
+     * Post a task to the main (UI) thread
+     *
+     * @param runnable Task to run on the main thread
+     */
+    public static void runOnMain(Runnable runnable) {
+        MAIN_HANDLER.post(runnable);
+    }
+
+    /**
+     * Queues tasks and hands them to a backing executor one at a time
+     */
+    private static class SerialExecutor implements Executor {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private final Executor executor;
+        private Runnable active;
+
+        SerialExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public synchronized void execute(Runnable runnable) {
+            tasks.add(() -> {
+                try {
+                    runnable.run();
+                } finally {
+                    scheduleNext();
+                }
+            });
+            if (active == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            active = tasks.poll();
+            if (active != null) {
+                executor.execute(active);
+            }
+        }
+    }
+
+    /**
+     * Thread factory creating named, background-priority database threads
+     */
+    private static class DatabaseThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger(1);
+        private final String namePrefix;
+
+        DatabaseThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, namePrefix + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
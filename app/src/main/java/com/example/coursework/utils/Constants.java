@@ -6,17 +6,35 @@ package com.example.coursework.utils;
 public class Constants {
     // Database constants
     public static final String DATABASE_NAME = "mhike.db";
-    public static final int DATABASE_VERSION = 3; // Incremented for removing photo_path column
+    public static final int DATABASE_VERSION = 12; // Incremented for monthly summary statistics
 
     // Table names
     public static final String TABLE_HIKES = "hikes";
     public static final String TABLE_OBSERVATIONS = "observations";
+    public static final String TABLE_HIKES_FTS = "hikes_fts";
+    public static final String TABLE_TRACK_POINTS = "track_points";
+    public static final String TABLE_TRACK_CHUNKS = "track_chunks";
+    public static final String TABLE_HIKE_STATS = "hike_stats";
+    public static final String TABLE_MONTHLY_STATS = "monthly_stats";
+
+    // Index names
+    public static final String INDEX_HIKES_DATE = "idx_hikes_date";
+    public static final String INDEX_HIKES_DATE_EPOCH_DAY = "idx_hikes_date_epoch_day";
+    public static final String INDEX_HIKES_NAME = "idx_hikes_name";
+    public static final String INDEX_HIKES_LOCATION = "idx_hikes_location";
+    public static final String INDEX_HIKES_LENGTH = "idx_hikes_length";
+    public static final String INDEX_HIKES_DIFFICULTY_DATE = "idx_hikes_difficulty_date";
+    public static final String INDEX_HIKES_GEOHASH = "idx_hikes_geohash";
+    public static final String INDEX_OBSERVATIONS_HIKE_TIME = "idx_observations_hike_time";
+    public static final String INDEX_TRACK_POINTS_HIKE = "idx_track_points_hike";
+    public static final String INDEX_TRACK_CHUNKS_HIKE = "idx_track_chunks_hike";
 
     // Hikes table columns
     public static final String COLUMN_ID = "id";
     public static final String COLUMN_NAME = "name";
     public static final String COLUMN_LOCATION = "location";
     public static final String COLUMN_DATE = "date";
+    public static final String COLUMN_DATE_EPOCH_DAY = "date_epoch_day";
     public static final String COLUMN_PARKING_AVAILABLE = "parking_available";
     public static final String COLUMN_LENGTH = "length";
     public static final String COLUMN_DIFFICULTY = "difficulty";
@@ -24,6 +42,11 @@ public class Constants {
     public static final String COLUMN_WEATHER_CONDITION = "weather_condition";
     public static final String COLUMN_ESTIMATED_DURATION = "estimated_duration";
     public static final String COLUMN_CREATED_AT = "created_at";
+    public static final String COLUMN_GEOHASH = "geohash";
+
+    // Hikes and observations table columns
+    public static final String COLUMN_LATITUDE = "latitude";
+    public static final String COLUMN_LONGITUDE = "longitude";
 
     // Observations table columns
     public static final String COLUMN_HIKE_ID = "hike_id";
@@ -31,6 +54,39 @@ public class Constants {
     public static final String COLUMN_TIME = "time";
     public static final String COLUMN_COMMENTS = "comments";
 
+    // Track points table columns (also hike_id, latitude, longitude)
+    public static final String COLUMN_SEGMENT = "segment";
+    public static final String COLUMN_ELEVATION = "elevation";
+    public static final String COLUMN_RECORDED_AT = "recorded_at";
+
+    // Track chunks table columns (also hike_id)
+    public static final String COLUMN_POINT_COUNT = "point_count";
+    public static final String COLUMN_DATA = "data";
+
+    // Hike statistics table columns (also hike_id, point_count)
+    public static final String COLUMN_DISTANCE = "distance";
+    public static final String COLUMN_ASCENT = "ascent";
+    public static final String COLUMN_DESCENT = "descent";
+    public static final String COLUMN_MOVING_TIME = "moving_time";
+    public static final String COLUMN_START_TIME = "start_time";
+    public static final String COLUMN_END_TIME = "end_time";
+    public static final String COLUMN_MIN_ELEVATION = "min_elevation";
+    public static final String COLUMN_MAX_ELEVATION = "max_elevation";
+    public static final String COLUMN_SPLITS = "splits";
+    public static final String COLUMN_PROFILE = "profile";
+    public static final String COLUMN_REFERENCE_ELEVATION = "reference_elevation";
+    public static final String COLUMN_LAST_POINT = "last_point";
+
+    // Monthly statistics table columns (also difficulty)
+    public static final String COLUMN_MONTH = "month";
+    public static final String COLUMN_HIKE_COUNT = "hike_count";
+    public static final String COLUMN_TOTAL_LENGTH = "total_length";
+    public static final String COLUMN_OBSERVATION_COUNT = "observation_count";
+
+    // Full-text search table columns (docid is the hike ID)
+    public static final String COLUMN_FTS_DOCID = "docid";
+    public static final String COLUMN_OBSERVATION_TEXT = "observation_text";
+
     // Intent extras
     public static final String EXTRA_HIKE_ID = "hike_id";
     public static final String EXTRA_HIKE = "hike";
@@ -43,8 +99,50 @@ public class Constants {
     public static final String DATETIME_FORMAT_DATABASE = "yyyy-MM-dd HH:mm:ss";
     public static final String DATETIME_FORMAT_DISPLAY = "MMM dd, yyyy hh:mm a";
 
+    // Search
+    public static final int SEARCH_RESULT_LIMIT = 200;
+    public static final long SEARCH_DEBOUNCE_MS = 300;
+
+    // Paging
+    public static final int HIKES_PAGE_SIZE = 50;
+    public static final int HIKES_PREFETCH_DISTANCE = 10;
+
+    // Location queries
+    public static final int GEOHASH_PRECISION = 9;
+    public static final int GEOHASH_MAX_CELLS = 32;
+
+    // Import and export
+    public static final int IMPORT_BATCH_SIZE = 500;
+    public static final int EXPORT_PAGE_SIZE = 500;
+
+    // Track recording
+    public static final int TRACK_CHUNK_SIZE = 1024;
+    public static final int TRACK_RECORDER_FLUSH_SIZE = 60;
+
+    // Track simplification levels, finest first, and the cache budget in points
+    public static final double[] TRACK_LEVEL_TOLERANCES_METERS = {2, 10, 50};
+    public static final int TRACK_LEVEL_CACHE_POINTS = 100000;
+    public static final double GPX_SIMPLIFIED_TOLERANCE_METERS = 10;
+
+    // Track statistics
+    public static final double STATS_SPLIT_METERS = 1000;
+    public static final double STATS_PROFILE_INTERVAL_METERS = 50;
+    public static final double STATS_ELEVATION_THRESHOLD_METERS = 5;
+    public static final double STATS_MOVING_SPEED_MPS = 0.5;
+
+    // GPX
+    public static final String GPX_MIME_TYPE = "application/gpx+xml";
+    public static final String GPX_EXTENSION = "gpx";
+
     // Request codes
     public static final int REQUEST_ADD_HIKE = 100;
     public static final int REQUEST_EDIT_HIKE = 101;
     public static final int REQUEST_CONFIRM_HIKE = 102;
+    public static final int REQUEST_EXPORT_CSV = 103;
+    public static final int REQUEST_EXPORT_JSONL = 104;
+    public static final int REQUEST_IMPORT_CSV = 105;
+    public static final int REQUEST_IMPORT_JSONL = 106;
+    public static final int REQUEST_IMPORT_GPX = 107;
+    public static final int REQUEST_EXPORT_GPX = 108;
+    public static final int REQUEST_EXPORT_GPX_SIMPLIFIED = 109;
 }
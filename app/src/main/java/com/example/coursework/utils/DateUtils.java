@@ -3,13 +3,65 @@ package com.example.coursework.utils;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
 
 /**
  * Utility class for date formatting and parsing operations
+ * SimpleDateFormat is not thread-safe and expensive to create, so each thread keeps
+ * its own formatters, keyed by pattern, for the current default locale and time zone.
  */
 public class DateUtils {
 
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    private static final ThreadLocal<FormatterCache> FORMATTERS = new ThreadLocal<FormatterCache>() {
+        @Override
+        protected FormatterCache initialValue() {
+            return new FormatterCache();
+        }
+    };
+
+    /**
+     * Per-thread formatters for one locale and time zone; cleared when either default changes
+     * A formatter takes the default time zone when it is created, so one kept across a
+     * time zone change would go on formatting in the old zone.
+     */
+    private static class FormatterCache {
+        private final Map<String, SimpleDateFormat> formatters = new HashMap<>();
+        private Locale locale;
+        private String timeZoneId;
+
+        SimpleDateFormat get(String pattern) {
+            Locale current = Locale.getDefault();
+            String currentTimeZoneId = TimeZone.getDefault().getID();
+            if (!current.equals(locale) || !currentTimeZoneId.equals(timeZoneId)) {
+                formatters.clear();
+                locale = current;
+                timeZoneId = currentTimeZoneId;
+            }
+
+            SimpleDateFormat formatter = formatters.get(pattern);
+            if (formatter == null) {
+                formatter = new SimpleDateFormat(pattern, current);
+                formatters.put(pattern, formatter);
+            }
+            return formatter;
+        }
+    }
+
+    /**
+     * Get this thread's formatter for a pattern in the default locale
+     *
+     * @param pattern Date format pattern
+     * @return Cached formatter; must not be shared with other threads
+     */
+    private static SimpleDateFormat formatter(String pattern) {
+        return FORMATTERS.get().get(pattern);
+    }
+
     /**
      * Format a date string from database format to display format
      *
@@ -22,10 +74,8 @@ public class DateUtils {
         }
 
         try {
-            SimpleDateFormat inputFormat = new SimpleDateFormat(Constants.DATE_FORMAT_DATABASE, Locale.getDefault());
-            SimpleDateFormat outputFormat = new SimpleDateFormat(Constants.DATE_FORMAT_DISPLAY, Locale.getDefault());
-            Date date = inputFormat.parse(dateString);
-            return date != null ? outputFormat.format(date) : dateString;
+            Date date = formatter(Constants.DATE_FORMAT_DATABASE).parse(dateString);
+            return date != null ? formatter(Constants.DATE_FORMAT_DISPLAY).format(date) : dateString;
         } catch (ParseException e) {
             e.printStackTrace();
             return dateString;
@@ -44,10 +94,8 @@ public class DateUtils {
         }
 
         try {
-            SimpleDateFormat inputFormat = new SimpleDateFormat(Constants.DATETIME_FORMAT_DATABASE, Locale.getDefault());
-            SimpleDateFormat outputFormat = new SimpleDateFormat(Constants.DATETIME_FORMAT_DISPLAY, Locale.getDefault());
-            Date date = inputFormat.parse(dateTimeString);
-            return date != null ? outputFormat.format(date) : dateTimeString;
+            Date date = formatter(Constants.DATETIME_FORMAT_DATABASE).parse(dateTimeString);
+            return date != null ? formatter(Constants.DATETIME_FORMAT_DISPLAY).format(date) : dateTimeString;
         } catch (ParseException e) {
             e.printStackTrace();
             return dateTimeString;
@@ -60,8 +108,7 @@ public class DateUtils {
      * @return Current date as yyyy-MM-dd
      */
     public static String getCurrentDate() {
-        SimpleDateFormat sdf = new SimpleDateFormat(Constants.DATE_FORMAT_DATABASE, Locale.getDefault());
-        return sdf.format(new Date());
+        return formatter(Constants.DATE_FORMAT_DATABASE).format(new Date());
     }
 
     /**
@@ -70,8 +117,7 @@ public class DateUtils {
      * @return Current datetime as yyyy-MM-dd HH:mm:ss
      */
     public static String getCurrentDateTime() {
-        SimpleDateFormat sdf = new SimpleDateFormat(Constants.DATETIME_FORMAT_DATABASE, Locale.getDefault());
-        return sdf.format(new Date());
+        return formatter(Constants.DATETIME_FORMAT_DATABASE).format(new Date());
     }
 
     /**
@@ -84,8 +130,7 @@ public class DateUtils {
         if (date == null) {
             return "";
         }
-        SimpleDateFormat sdf = new SimpleDateFormat(Constants.DATE_FORMAT_DATABASE, Locale.getDefault());
-        return sdf.format(date);
+        return formatter(Constants.DATE_FORMAT_DATABASE).format(date);
     }
 
     /**
@@ -99,8 +144,7 @@ public class DateUtils {
             return null;
         }
         try {
-            SimpleDateFormat sdf = new SimpleDateFormat(Constants.DATE_FORMAT_DATABASE, Locale.getDefault());
-            return sdf.parse(dateString);
+            return formatter(Constants.DATE_FORMAT_DATABASE).parse(dateString);
         } catch (ParseException e) {
             e.printStackTrace();
             return null;
@@ -119,8 +163,7 @@ public class DateUtils {
             return null;
         }
         try {
-            SimpleDateFormat sdf = new SimpleDateFormat(format, Locale.getDefault());
-            return sdf.parse(dateString);
+            return formatter(format).parse(dateString);
         } catch (ParseException e) {
             e.printStackTrace();
             return null;
@@ -138,7 +181,188 @@ public class DateUtils {
         if (date == null) {
             return "";
         }
-        SimpleDateFormat sdf = new SimpleDateFormat(format, Locale.getDefault());
-        return sdf.format(date);
+        return formatter(format).format(date);
+    }
+
+    /**
+     * Convert a database format date to days since 1970-01-01
+     * Parsed arithmetically, so the result does not depend on the time zone.
+     * Month and day may be written without zero padding.
+     *
+     * @param dateString Date as yyyy-MM-dd
+     * @return Epoch day or null if parsing fails or the date does not exist
+     */
+    public static Long toEpochDay(String dateString) {
+        if (dateString == null) {
+            return null;
+        }
+
+        String[] parts = dateString.trim().split("-");
+        if (parts.length != 3) {
+            return null;
+        }
+
+        int year;
+        int month;
+        int day;
+        try {
+            year = Integer.parseInt(parts[0]);
+            month = Integer.parseInt(parts[1]);
+            day = Integer.parseInt(parts[2]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return null;
+        }
+
+        return daysFromCivil(year, month, day);
+    }
+
+    /**
+     * Parse an ISO 8601 timestamp such as 2024-05-01T09:30:00Z, as used by GPX files
+     * Fractional seconds and numeric offsets are accepted; a timestamp without a zone is
+     * read as UTC.
+     *
+     * @param timestamp Timestamp as yyyy-MM-ddTHH:mm:ss[.SSS][Z|+hh:mm]
+     * @return Milliseconds since the epoch or null if parsing fails
+     */
+    public static Long parseIsoTimestamp(String timestamp) {
+        if (timestamp == null) {
+            return null;
+        }
+
+        String value = timestamp.trim();
+        int separator = value.indexOf('T');
+        if (separator < 0) {
+            return null;
+        }
+        Long epochDay = toEpochDay(value.substring(0, separator));
+        if (epochDay == null) {
+            return null;
+        }
+
+        String time = value.substring(separator + 1);
+        long offsetMillis = 0;
+        int zone = indexOfZone(time);
+        if (zone >= 0) {
+            String offset = time.substring(zone);
+            time = time.substring(0, zone);
+            if (!offset.equals("Z")) {
+                String digits = offset.substring(1).replace(":", "");
+                if (digits.length() != 2 && digits.length() != 4) {
+                    return null;
+                }
+                try {
+                    int hours = Integer.parseInt(digits.substring(0, 2));
+                    int minutes = digits.length() == 4 ? Integer.parseInt(digits.substring(2)) : 0;
+                    offsetMillis = (hours * 60L + minutes) * 60000L * (offset.charAt(0) == '-' ? -1 : 1);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+
+        String[] parts = time.split(":");
+        if (parts.length != 3) {
+            return null;
+        }
+
+        int hour;
+        int minute;
+        double seconds;
+        try {
+            hour = Integer.parseInt(parts[0]);
+            minute = Integer.parseInt(parts[1]);
+            seconds = Double.parseDouble(parts[2]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || seconds < 0 || seconds >= 61) {
+            return null;
+        }
+
+        return epochDay * MILLIS_PER_DAY + hour * 3600000L + minute * 60000L
+                + Math.round(seconds * 1000) - offsetMillis;
+    }
+
+    /**
+     * Format a time as a UTC ISO 8601 timestamp, as used by GPX files
+     *
+     * @param millis Milliseconds since the epoch
+     * @return Timestamp as yyyy-MM-ddTHH:mm:ssZ, with milliseconds only when non-zero
+     */
+    public static String formatIsoTimestamp(long millis) {
+        long epochDay = Math.floorDiv(millis, MILLIS_PER_DAY);
+        long millisOfDay = Math.floorMod(millis, MILLIS_PER_DAY);
+
+        // Civil date from days, the inverse of daysFromCivil
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        long month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        long hour = millisOfDay / 3600000L;
+        long minute = millisOfDay / 60000L % 60;
+        long second = millisOfDay / 1000L % 60;
+        long milli = millisOfDay % 1000;
+
+        String timestamp = String.format(Locale.ROOT, "%04d-%02d-%02dT%02d:%02d:%02d",
+                year, month, day, hour, minute, second);
+        if (milli != 0) {
+            timestamp += String.format(Locale.ROOT, ".%03d", milli);
+        }
+        return timestamp + "Z";
+    }
+
+    /**
+     * Days since 1970-01-01 of a civil date
+     * Years are counted from March so leap days fall at the end.
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Number of days in a month of the proleptic Gregorian calendar
+     */
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Position of the zone designator in the time part of a timestamp, or -1 if there is none
+     */
+    private static int indexOfZone(String time) {
+        for (int i = 0; i < time.length(); i++) {
+            char c = time.charAt(i);
+            if (c == 'Z' || c == '+' || c == '-') {
+                return i;
+            }
+        }
+        return -1;
     }
 }
@@ -0,0 +1,176 @@
+package com.example.coursework.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Geohash encoding and bounding-box coverage for the hike location index
+ * A geohash interleaves longitude and latitude bits into base32 text, so nearby points
+ * share a prefix and every geohash cell is one contiguous range of the sorted index.
+ * A bounding box is covered by a few cells, merged into as few key ranges as possible.
+ */
+public class GeoHash {
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    // Sorts after every base32 character, so prefix + RANGE_END bounds all hashes with the prefix
+    private static final String RANGE_END = "{";
+
+    private GeoHash() {
+    }
+
+    /**
+     * Encode a position
+     *
+     * @param latitude  Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @param precision Number of characters; 9 is about 5 metres
+     * @return Geohash
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLatitude = -90;
+        double maxLatitude = 90;
+        double minLongitude = -180;
+        double maxLongitude = 180;
+
+        StringBuilder hash = new StringBuilder(precision);
+        boolean longitudeBit = true;
+        int bits = 0;
+        int value = 0;
+        while (hash.length() < precision) {
+            if (longitudeBit) {
+                double mid = (minLongitude + maxLongitude) / 2;
+                if (longitude >= mid) {
+                    value = value * 2 + 1;
+                    minLongitude = mid;
+                } else {
+                    value *= 2;
+                    maxLongitude = mid;
+                }
+            } else {
+                double mid = (minLatitude + maxLatitude) / 2;
+                if (latitude >= mid) {
+                    value = value * 2 + 1;
+                    minLatitude = mid;
+                } else {
+                    value *= 2;
+                    maxLatitude = mid;
+                }
+            }
+            longitudeBit = !longitudeBit;
+
+            if (++bits == 5) {
+                hash.append(BASE32.charAt(value));
+                bits = 0;
+                value = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Index key ranges covering a bounding box
+     * Uses the finest precision, up to maxPrecision, at which the box is covered by at
+     * most maxCells cells. The ranges may include points outside the box.
+     *
+     * @param box          {minLatitude, minLongitude, maxLatitude, maxLongitude}; a western
+     *                     edge greater than the eastern edge crosses the antimeridian
+     * @param maxPrecision Precision of the stored geohashes
+     * @param maxCells     Largest number of cells to cover the box with
+     * @return {start, end} pairs in key order; a geohash h is covered if start <= h < end
+     */
+    public static List<String[]> coverRanges(double[] box, int maxPrecision, int maxCells) {
+        double minLatitude = box[0];
+        double maxLatitude = box[2];
+        List<double[]> longitudes = new ArrayList<>();
+        if (box[1] <= box[3]) {
+            longitudes.add(new double[]{box[1], box[3]});
+        } else {
+            longitudes.add(new double[]{box[1], 180});
+            longitudes.add(new double[]{-180, box[3]});
+        }
+
+        TreeSet<String> cells = new TreeSet<>();
+        for (int precision = maxPrecision; precision >= 1; precision--) {
+            int latitudeBits = precision * 5 / 2;
+            int longitudeBits = precision * 5 - latitudeBits;
+            double cellHeight = 180 / Math.pow(2, latitudeBits);
+            double cellWidth = 360 / Math.pow(2, longitudeBits);
+
+            long firstRow = cellIndex(minLatitude + 90, cellHeight, latitudeBits);
+            long lastRow = cellIndex(maxLatitude + 90, cellHeight, latitudeBits);
+            long count = 0;
+            for (double[] range : longitudes) {
+                count += (cellIndex(range[1] + 180, cellWidth, longitudeBits)
+                        - cellIndex(range[0] + 180, cellWidth, longitudeBits) + 1) * (lastRow - firstRow + 1);
+            }
+            if (count > maxCells && precision > 1) {
+                continue;
+            }
+
+            for (double[] range : longitudes) {
+                long firstColumn = cellIndex(range[0] + 180, cellWidth, longitudeBits);
+                long lastColumn = cellIndex(range[1] + 180, cellWidth, longitudeBits);
+                for (long row = firstRow; row <= lastRow; row++) {
+                    for (long column = firstColumn; column <= lastColumn; column++) {
+                        // The centre of a cell encodes to that cell's hash
+                        cells.add(encode(-90 + (row + 0.5) * cellHeight, -180 + (column + 0.5) * cellWidth,
+                                precision));
+                    }
+                }
+            }
+            break;
+        }
+
+        return mergeRanges(cells);
+    }
+
+    /**
+     * Index of the cell containing an offset along one axis, clamped to the grid
+     */
+    private static long cellIndex(double offset, double cellSize, int bits) {
+        long index = (long) Math.floor(offset / cellSize);
+        return Math.max(0, Math.min((1L << bits) - 1, index));
+    }
+
+    /**
+     * Join cells that are next to each other in key order into single ranges
+     */
+    private static List<String[]> mergeRanges(TreeSet<String> cells) {
+        List<String[]> ranges = new ArrayList<>();
+        String start = null;
+        String last = null;
+        for (String cell : cells) {
+            if (start != null && cell.equals(successor(last))) {
+                last = cell;
+                continue;
+            }
+            if (start != null) {
+                ranges.add(new String[]{start, last + RANGE_END});
+            }
+            start = cell;
+            last = cell;
+        }
+        if (start != null) {
+            ranges.add(new String[]{start, last + RANGE_END});
+        }
+        return ranges;
+    }
+
+    /**
+     * Next geohash of the same length in key order, or null after the last one
+     */
+    private static String successor(String hash) {
+        char[] chars = hash.toCharArray();
+        for (int i = chars.length - 1; i >= 0; i--) {
+            int value = BASE32.indexOf(chars[i]);
+            if (value < BASE32.length() - 1) {
+                chars[i] = BASE32.charAt(value + 1);
+                return new String(chars);
+            }
+            chars[i] = BASE32.charAt(0);
+        }
+        return null;
+    }
+}
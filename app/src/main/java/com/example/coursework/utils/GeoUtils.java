@@ -0,0 +1,68 @@
+package com.example.coursework.utils;
+
+/**
+ * Utility class for distances between geographic coordinates
+ */
+public class GeoUtils {
+
+    // Mean Earth radius used by the haversine formula
+    public static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    /**
+     * Great-circle distance between two points using the haversine formula
+     *
+     * @return Distance in metres
+     */
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double sinHalfDeltaPhi = Math.sin((phi2 - phi1) / 2);
+        double sinHalfDeltaLambda = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+
+        double a = sinHalfDeltaPhi * sinHalfDeltaPhi
+                + Math.cos(phi1) * Math.cos(phi2) * sinHalfDeltaLambda * sinHalfDeltaLambda;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Smallest latitude/longitude box containing every point within a distance of a centre
+     * Near the poles the box spans all longitudes. A box crossing the antimeridian has
+     * its western edge greater than its eastern edge.
+     *
+     * @return {minLatitude, minLongitude, maxLatitude, maxLongitude} in degrees
+     */
+    public static double[] boundingBox(double latitude, double longitude, double radiusMeters) {
+        double deltaLatitude = Math.toDegrees(radiusMeters / EARTH_RADIUS_METERS);
+        double minLatitude = latitude - deltaLatitude;
+        double maxLatitude = latitude + deltaLatitude;
+        if (minLatitude <= -90 || maxLatitude >= 90) {
+            return new double[]{Math.max(minLatitude, -90), -180, Math.min(maxLatitude, 90), 180};
+        }
+
+        // Longitude extent of the circle, which is widest slightly poleward of its centre
+        double deltaLongitude = Math.toDegrees(Math.asin(Math.min(1,
+                Math.sin(radiusMeters / EARTH_RADIUS_METERS) / Math.cos(Math.toRadians(latitude)))));
+        if (deltaLongitude >= 180) {
+            return new double[]{minLatitude, -180, maxLatitude, 180};
+        }
+        return new double[]{minLatitude, wrapLongitude(longitude - deltaLongitude),
+                maxLatitude, wrapLongitude(longitude + deltaLongitude)};
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        if (longitude > 180) {
+            return longitude - 360;
+        }
+        return longitude;
+    }
+
+    /**
+     * Check if a latitude and longitude pair is a valid position
+     */
+    public static boolean isValidCoordinate(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+}
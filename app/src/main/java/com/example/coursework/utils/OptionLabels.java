@@ -0,0 +1,61 @@
+package com.example.coursework.utils;
+
+import android.content.res.Resources;
+
+import com.example.coursework.models.CodedOption;
+
+/**
+ * Converts coded hike options to and from the labels in their string-array resource
+ */
+public class OptionLabels {
+
+    /**
+     * Get the display label of an option
+     *
+     * @param resources Resources holding the labels
+     * @param arrayRes  String-array resource of the option type
+     * @param option    Option, or null if not set
+     * @return Label, or an empty string if the option is not set
+     */
+    public static String getLabel(Resources resources, int arrayRes, CodedOption option) {
+        return getLabel(resources.getStringArray(arrayRes), option);
+    }
+
+    /**
+     * Get the display label of an option from an already loaded label array
+     *
+     * @param labels Labels of the option type
+     * @param option Option, or null if not set
+     * @return Label, or an empty string if the option is not set
+     */
+    public static String getLabel(String[] labels, CodedOption option) {
+        if (option == null || option.getCode() <= CodedOption.NOT_SET || option.getCode() >= labels.length) {
+            return "";
+        }
+        return labels[option.getCode()];
+    }
+
+    /**
+     * Find the code of the option with a given label, ignoring case
+     *
+     * @param resources Resources holding the labels
+     * @param arrayRes  String-array resource of the option type
+     * @param label     Label shown to the user
+     * @return Option code, or CodedOption.NOT_SET if no option has the label
+     */
+    public static int findCode(Resources resources, int arrayRes, String label) {
+        if (label == null) {
+            return CodedOption.NOT_SET;
+        }
+
+        String[] labels = resources.getStringArray(arrayRes);
+        String trimmed = label.trim();
+        // Position 0 is the "Select ..." prompt, not an option
+        for (int code = 1; code < labels.length; code++) {
+            if (labels[code].equalsIgnoreCase(trimmed)) {
+                return code;
+            }
+        }
+        return CodedOption.NOT_SET;
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.coursework.utils;
+
+import com.example.coursework.models.TrackPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Line simplification for recorded tracks
+ * Both algorithms work on a local flat projection in metres, keep the first and last point
+ * of every segment and never join points across segments. Neither recurses, so tracks of
+ * any length are safe to simplify on a background thread.
+ */
+public class TrackSimplifier {
+
+    /**
+     * Douglas-Peucker simplification
+     * Keeps every point needed so that no dropped point lies further than the tolerance
+     * from the simplified line. Best for preserving the shape at a known accuracy.
+     *
+     * @param points          Track in recording order
+     * @param toleranceMeters Largest allowed distance from the simplified line
+     * @return Simplified track; the input list if the tolerance is not positive
+     */
+    public static List<TrackPoint> douglasPeucker(List<TrackPoint> points, double toleranceMeters) {
+        if (toleranceMeters <= 0 || points.size() < 3) {
+            return points;
+        }
+
+        Projection projection = new Projection(points);
+        boolean[] keep = new boolean[points.size()];
+        double toleranceSquared = toleranceMeters * toleranceMeters;
+
+        // Pending (first, last) index pairs still to be examined
+        int[] stack = new int[64];
+        for (int[] segment : segments(points)) {
+            keep[segment[0]] = true;
+            keep[segment[1]] = true;
+
+            int size = 0;
+            stack[size++] = segment[0];
+            stack[size++] = segment[1];
+            while (size > 0) {
+                int last = stack[--size];
+                int first = stack[--size];
+
+                int farthest = -1;
+                double farthestDistance = toleranceSquared;
+                for (int i = first + 1; i < last; i++) {
+                    double distance = projection.segmentDistanceSquared(i, first, last);
+                    if (distance > farthestDistance) {
+                        farthest = i;
+                        farthestDistance = distance;
+                    }
+                }
+
+                if (farthest != -1) {
+                    keep[farthest] = true;
+                    if (size + 4 > stack.length) {
+                        int[] grown = new int[stack.length * 2];
+                        System.arraycopy(stack, 0, grown, 0, size);
+                        stack = grown;
+                    }
+                    stack[size++] = first;
+                    stack[size++] = farthest;
+                    stack[size++] = farthest;
+                    stack[size++] = last;
+                }
+            }
+        }
+
+        return select(points, keep);
+    }
+
+    /**
+     * Visvalingam-Whyatt simplification
+     * Repeatedly drops the point forming the smallest triangle with its neighbours until
+     * every remaining triangle is at least tolerance squared in area. Removes small
+     * zig-zags first and keeps a natural look at coarse levels.
+     *
+     * @param points          Track in recording order
+     * @param toleranceMeters Square root of the smallest triangle area kept, in metres
+     * @return Simplified track; the input list if the tolerance is not positive
+     */
+    public static List<TrackPoint> visvalingam(List<TrackPoint> points, double toleranceMeters) {
+        if (toleranceMeters <= 0 || points.size() < 3) {
+            return points;
+        }
+
+        int count = points.size();
+        Projection projection = new Projection(points);
+        double minArea = toleranceMeters * toleranceMeters;
+
+        boolean[] keep = new boolean[count];
+        int[] previous = new int[count];
+        int[] next = new int[count];
+        double[] area = new double[count];
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+
+        for (int[] segment : segments(points)) {
+            for (int i = segment[0]; i <= segment[1]; i++) {
+                keep[i] = true;
+                previous[i] = i - 1;
+                next[i] = i + 1;
+            }
+            // Segment endpoints have no triangle and are never dropped
+            area[segment[0]] = Double.NaN;
+            area[segment[1]] = Double.NaN;
+            for (int i = segment[0] + 1; i < segment[1]; i++) {
+                area[i] = projection.triangleArea(previous[i], i, next[i]);
+                queue.add(new Candidate(i, area[i]));
+            }
+        }
+
+        Candidate candidate;
+        while ((candidate = queue.poll()) != null && candidate.area < minArea) {
+            int i = candidate.index;
+            // Skip entries made stale by an earlier removal
+            if (!keep[i] || candidate.area != area[i]) {
+                continue;
+            }
+
+            keep[i] = false;
+            int before = previous[i];
+            int after = next[i];
+            next[before] = after;
+            previous[after] = before;
+
+            // A neighbour never becomes cheaper to drop than the point just dropped,
+            // so the order of removal stays consistent with the area threshold
+            updateArea(projection, queue, previous, next, area, before, candidate.area);
+            updateArea(projection, queue, previous, next, area, after, candidate.area);
+        }
+
+        return select(points, keep);
+    }
+
+    /**
+     * Recompute the triangle of a neighbour of a dropped point
+     * Neighbours always lie in the same segment as the dropped point.
+     */
+    private static void updateArea(Projection projection, PriorityQueue<Candidate> queue,
+                                   int[] previous, int[] next, double[] area, int index, double removedArea) {
+        if (Double.isNaN(area[index])) {
+            return;
+        }
+        area[index] = Math.max(removedArea, projection.triangleArea(previous[index], index, next[index]));
+        queue.add(new Candidate(index, area[index]));
+    }
+
+    /**
+     * First and last index of each segment in the track
+     */
+    private static List<int[]> segments(List<TrackPoint> points) {
+        List<int[]> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= points.size(); i++) {
+            if (i == points.size() || points.get(i).getSegment() != points.get(start).getSegment()) {
+                segments.add(new int[]{start, i - 1});
+                start = i;
+            }
+        }
+        return segments;
+    }
+
+    private static List<TrackPoint> select(List<TrackPoint> points, boolean[] keep) {
+        List<TrackPoint> result = new ArrayList<>();
+        for (int i = 0; i < keep.length; i++) {
+            if (keep[i]) {
+                result.add(points.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Equirectangular projection around the track's mean latitude
+     * Accurate to well under a percent over the extent of a hike.
+     */
+    private static class Projection {
+        private final double[] x;
+        private final double[] y;
+
+        Projection(List<TrackPoint> points) {
+            double latitudeSum = 0;
+            for (TrackPoint point : points) {
+                latitudeSum += point.getLatitude();
+            }
+            double metersPerDegree = Math.toRadians(GeoUtils.EARTH_RADIUS_METERS);
+            double metersPerLongitudeDegree = metersPerDegree * Math.cos(Math.toRadians(latitudeSum / points.size()));
+
+            x = new double[points.size()];
+            y = new double[points.size()];
+            for (int i = 0; i < points.size(); i++) {
+                x[i] = points.get(i).getLongitude() * metersPerLongitudeDegree;
+                y[i] = points.get(i).getLatitude() * metersPerDegree;
+            }
+        }
+
+        /**
+         * Squared distance from point i to the line segment from a to b
+         */
+        double segmentDistanceSquared(int i, int a, int b) {
+            double dx = x[b] - x[a];
+            double dy = y[b] - y[a];
+            double lengthSquared = dx * dx + dy * dy;
+
+            double px = x[i] - x[a];
+            double py = y[i] - y[a];
+            if (lengthSquared > 0) {
+                double t = Math.max(0, Math.min(1, (px * dx + py * dy) / lengthSquared));
+                px -= t * dx;
+                py -= t * dy;
+            }
+            return px * px + py * py;
+        }
+
+        /**
+         * Area of the triangle formed by points a, b and c
+         */
+        double triangleArea(int a, int b, int c) {
+            return Math.abs((x[b] - x[a]) * (y[c] - y[a]) - (x[c] - x[a]) * (y[b] - y[a])) / 2;
+        }
+    }
+
+    /**
+     * Queue entry; stale entries are recognised by comparing the area with the current one
+     */
+    private static class Candidate implements Comparable<Candidate> {
+        final int index;
+        final double area;
+
+        Candidate(int index, double area) {
+            this.index = index;
+            this.area = area;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Double.compare(area, other.area);
+        }
+    }
+}
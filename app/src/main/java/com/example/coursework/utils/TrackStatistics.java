@@ -0,0 +1,176 @@
+package com.example.coursework.utils;
+
+import com.example.coursework.models.HikeStats;
+import com.example.coursework.models.TrackPoint;
+
+import java.util.List;
+
+/**
+ * Computes hike statistics from track points in a single pass
+ * Points are added one at a time in recording order, and only the state kept in the
+ * HikeStats is needed to continue, so appending points to a track only costs the new
+ * points. Distance and moving time are not counted across the gap between segments.
+ *
+ * Ascent and descent use a hysteresis of STATS_ELEVATION_THRESHOLD_METERS so GPS
+ * elevation noise is not summed up as climbing. An interval counts as moving when the
+ * speed over it is at least STATS_MOVING_SPEED_MPS. Splits are the moving time of each
+ * STATS_SPLIT_METERS of distance, interpolated within the interval that crosses a boundary.
+ */
+public class TrackStatistics {
+
+    private final HikeStats stats;
+    private long splitTimesTotal;
+
+    /**
+     * Start new statistics for an empty track
+     *
+     * @param hikeId The hike ID
+     */
+    public TrackStatistics(long hikeId) {
+        this(new HikeStats(hikeId));
+    }
+
+    /**
+     * Continue statistics computed earlier
+     *
+     * @param stats Statistics of the points so far; updated in place
+     */
+    public TrackStatistics(HikeStats stats) {
+        this.stats = stats;
+        for (long split : stats.getSplitTimesMillis()) {
+            splitTimesTotal += split;
+        }
+    }
+
+    /**
+     * Add the next point of the track
+     */
+    public void add(TrackPoint point) {
+        TrackPoint last = stats.getLastPoint();
+        if (last == null) {
+            stats.getElevationProfile().add(point.getElevation());
+        } else if (last.getSegment() == point.getSegment()) {
+            double meters = GeoUtils.distanceMeters(last.getLatitude(), last.getLongitude(),
+                    point.getLatitude(), point.getLongitude());
+            long moving = movingMillis(last, point, meters);
+
+            double distanceBefore = stats.getDistanceMeters();
+            long movingBefore = stats.getMovingTimeMillis();
+            stats.setDistanceMeters(distanceBefore + meters);
+            stats.setMovingTimeMillis(movingBefore + moving);
+
+            if (meters > 0) {
+                addSplits(distanceBefore, meters, movingBefore, moving);
+                addProfileSamples(last, point, distanceBefore, meters);
+            }
+        }
+
+        updateTimes(point.getTime());
+        updateElevation(point.getElevation());
+        stats.setPointCount(stats.getPointCount() + 1);
+        stats.setLastPoint(point);
+    }
+
+    /**
+     * Add points in recording order
+     */
+    public void addAll(List<TrackPoint> points) {
+        for (TrackPoint point : points) {
+            add(point);
+        }
+    }
+
+    public HikeStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Time spent moving between two points of the same segment
+     */
+    private static long movingMillis(TrackPoint from, TrackPoint to, double meters) {
+        if (from.getTime() == null || to.getTime() == null) {
+            return 0;
+        }
+        long millis = to.getTime() - from.getTime();
+        if (millis <= 0 || meters * 1000 / millis < Constants.STATS_MOVING_SPEED_MPS) {
+            return 0;
+        }
+        return millis;
+    }
+
+    /**
+     * Close every split whose boundary falls within the interval just added
+     */
+    private void addSplits(double distanceBefore, double meters, long movingBefore, long moving) {
+        List<Long> splits = stats.getSplitTimesMillis();
+        double boundary = (splits.size() + 1) * Constants.STATS_SPLIT_METERS;
+        while (boundary <= distanceBefore + meters) {
+            double fraction = (boundary - distanceBefore) / meters;
+            long split = Math.round(movingBefore + moving * fraction) - splitTimesTotal;
+            splits.add(split);
+            splitTimesTotal += split;
+            boundary += Constants.STATS_SPLIT_METERS;
+        }
+    }
+
+    /**
+     * Sample the elevation at every profile distance within the interval just added
+     */
+    private void addProfileSamples(TrackPoint from, TrackPoint to, double distanceBefore, double meters) {
+        List<Double> profile = stats.getElevationProfile();
+        double sampleDistance = profile.size() * Constants.STATS_PROFILE_INTERVAL_METERS;
+        while (sampleDistance <= distanceBefore + meters) {
+            double fraction = (sampleDistance - distanceBefore) / meters;
+            profile.add(interpolate(from.getElevation(), to.getElevation(), fraction));
+            sampleDistance += Constants.STATS_PROFILE_INTERVAL_METERS;
+        }
+    }
+
+    private static Double interpolate(Double from, Double to, double fraction) {
+        if (from == null) {
+            return to;
+        }
+        if (to == null) {
+            return from;
+        }
+        return from + (to - from) * fraction;
+    }
+
+    private void updateTimes(Long time) {
+        if (time == null) {
+            return;
+        }
+        if (stats.getStartTime() == null) {
+            stats.setStartTime(time);
+        }
+        if (stats.getEndTime() == null || time > stats.getEndTime()) {
+            stats.setEndTime(time);
+        }
+    }
+
+    /**
+     * Update the elevation range and count climbs and descents beyond the threshold
+     */
+    private void updateElevation(Double elevation) {
+        if (elevation == null) {
+            return;
+        }
+        if (stats.getMinElevation() == null || elevation < stats.getMinElevation()) {
+            stats.setMinElevation(elevation);
+        }
+        if (stats.getMaxElevation() == null || elevation > stats.getMaxElevation()) {
+            stats.setMaxElevation(elevation);
+        }
+
+        Double reference = stats.getReferenceElevation();
+        if (reference == null) {
+            stats.setReferenceElevation(elevation);
+        } else if (elevation - reference >= Constants.STATS_ELEVATION_THRESHOLD_METERS) {
+            stats.setAscentMeters(stats.getAscentMeters() + elevation - reference);
+            stats.setReferenceElevation(elevation);
+        } else if (reference - elevation >= Constants.STATS_ELEVATION_THRESHOLD_METERS) {
+            stats.setDescentMeters(stats.getDescentMeters() + reference - elevation);
+            stats.setReferenceElevation(elevation);
+        }
+    }
+}
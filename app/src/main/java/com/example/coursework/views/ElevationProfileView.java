@@ -0,0 +1,114 @@
+package com.example.coursework.views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.core.content.ContextCompat;
+
+import com.example.coursework.R;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Draws a hike's elevation profile as a filled line over the view's width
+ * Samples are evenly spaced along the track; unknown elevations leave a gap.
+ */
+public class ElevationProfileView extends View {
+
+    private final Paint linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path linePath = new Path();
+    private final Path fillPath = new Path();
+
+    private List<Double> profile = new ArrayList<>();
+
+    public ElevationProfileView(Context context) {
+        this(context, null);
+    }
+
+    public ElevationProfileView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+
+        linePaint.setStyle(Paint.Style.STROKE);
+        linePaint.setStrokeWidth(2 * getResources().getDisplayMetrics().density);
+        linePaint.setColor(ContextCompat.getColor(context, R.color.primary_dark));
+        fillPaint.setStyle(Paint.Style.FILL);
+        fillPaint.setColor(ContextCompat.getColor(context, R.color.primary_light));
+    }
+
+    /**
+     * Set the elevations to draw
+     *
+     * @param profile Evenly spaced elevations in metres, null where unknown
+     */
+    public void setProfile(List<Double> profile) {
+        this.profile = profile;
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (Double elevation : profile) {
+            if (elevation != null) {
+                min = Math.min(min, elevation);
+                max = Math.max(max, elevation);
+            }
+        }
+        if (profile.size() < 2 || min > max) {
+            return;
+        }
+
+        float left = getPaddingLeft();
+        float top = getPaddingTop();
+        float bottom = getHeight() - getPaddingBottom();
+        float width = getWidth() - getPaddingLeft() - getPaddingRight();
+        float height = bottom - top;
+        // Keep flat tracks off the bottom edge
+        double range = Math.max(max - min, 10);
+
+        linePath.reset();
+        fillPath.reset();
+        boolean drawing = false;
+        float lastX = left;
+        for (int i = 0; i < profile.size(); i++) {
+            Double elevation = profile.get(i);
+            float x = left + width * i / (profile.size() - 1);
+            if (elevation == null) {
+                if (drawing) {
+                    fillPath.lineTo(lastX, bottom);
+                    fillPath.close();
+                    drawing = false;
+                }
+                continue;
+            }
+
+            float y = (float) (bottom - height * (elevation - min) / range);
+            if (drawing) {
+                linePath.lineTo(x, y);
+                fillPath.lineTo(x, y);
+            } else {
+                linePath.moveTo(x, y);
+                fillPath.moveTo(x, bottom);
+                fillPath.lineTo(x, y);
+                drawing = true;
+            }
+            lastX = x;
+        }
+        if (drawing) {
+            fillPath.lineTo(lastX, bottom);
+            fillPath.close();
+        }
+
+        canvas.drawPath(fillPath, fillPaint);
+        canvas.drawPath(linePath, linePaint);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.coursework.database;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for FullTextSearch.buildMatchQuery
+ */
+public class FullTextSearchTest {
+
+    @Test
+    public void eachField_isScopedToItsColumn() {
+        assertEquals("name:snow* location:llan*", FullTextSearch.buildMatchQuery("Snow", "Llan", null));
+        assertEquals("name:snow*", FullTextSearch.buildMatchQuery("snow", "", null));
+        assertEquals("location:llan*", FullTextSearch.buildMatchQuery(null, "llan", null));
+    }
+
+    @Test
+    public void everyWord_becomesATerm() {
+        assertEquals("name:mount* name:snowdon* location:north* location:wales*",
+                FullTextSearch.buildMatchQuery("Mount  Snowdon", "north wales", null));
+    }
+
+    @Test
+    public void operatorsAndPunctuation_areStripped() {
+        assertEquals("name:a* name:or* name:b* location:near* location:x*",
+                FullTextSearch.buildMatchQuery("a OR \"b\"*", "NEAR(x)", null));
+        assertEquals("name:ben* name:nevis*", FullTextSearch.buildMatchQuery("ben-nevis:", "-", null));
+    }
+
+    @Test
+    public void keywords_matchEveryColumn() {
+        assertEquals("ptarmigan* snow*", FullTextSearch.buildMatchQuery(null, null, "Ptarmigan, snow!"));
+        assertEquals("name:snowdon* location:llan* ravens*",
+                FullTextSearch.buildMatchQuery("Snowdon", "Llan", "ravens"));
+    }
+
+    @Test
+    public void noWords_isNull() {
+        assertNull(FullTextSearch.buildMatchQuery(null, null, null));
+        assertNull(FullTextSearch.buildMatchQuery("", "", "-"));
+        assertNull(FullTextSearch.buildMatchQuery("", "  ", null));
+        assertNull(FullTextSearch.buildMatchQuery("*", "\"-:", null));
+    }
+}
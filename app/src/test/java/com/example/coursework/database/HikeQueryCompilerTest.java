@@ -0,0 +1,253 @@
+package com.example.coursework.database;
+
+import com.example.coursework.models.Difficulty;
+import com.example.coursework.models.Parking;
+import com.example.coursework.models.WeatherCondition;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for HikeQueryCompiler
+ */
+public class HikeQueryCompilerTest {
+
+    // Optional criteria, one bit each in a combination
+    private static final int NAME = 1;
+    private static final int LOCATION = 1 << 1;
+    private static final int MIN_LENGTH = 1 << 2;
+    private static final int MAX_LENGTH = 1 << 3;
+    private static final int START_DATE = 1 << 4;
+    private static final int END_DATE = 1 << 5;
+    private static final int PARKING = 1 << 6;
+    private static final int WEATHER = 1 << 7;
+    private static final int LIMIT = 1 << 8;
+    private static final int MATCH = 1 << 9;
+    private static final int CRITERIA_COMBINATIONS = 1 << 10;
+
+    private static final Boolean[] OBSERVATION_FILTERS = {null, true, false};
+
+    @Test
+    public void everyCombination_bindsOneArgumentPerPlaceholderInOrder() {
+        Set<String> statements = new HashSet<>();
+        int combinations = 0;
+
+        for (int criteria = 0; criteria < CRITERIA_COMBINATIONS; criteria++) {
+            for (int difficulties = 0; difficulties <= Difficulty.values().length; difficulties++) {
+                for (Boolean hasObservations : OBSERVATION_FILTERS) {
+                    for (HikeQuery.SortOrder sortOrder : HikeQuery.SortOrder.values()) {
+                        for (boolean summaryOnly : new boolean[]{false, true}) {
+                            HikeQuery query = buildQuery(criteria, difficulties, hasObservations, sortOrder);
+                            HikeQueryCompiler.CompiledQuery compiled = HikeQueryCompiler.compile(query, summaryOnly);
+
+                            String context = query + " summaryOnly=" + summaryOnly + "\n" + compiled.sql;
+                            assertEquals(context, placeholders(compiled.sql), compiled.args.length);
+                            String bound = bind(compiled.sql, compiled.args);
+                            for (String fragment : expectedFragments(criteria, difficulties)) {
+                                assertTrue(context + "\nmissing " + fragment, bound.contains(fragment));
+                            }
+
+                            statements.add(compiled.sql);
+                            combinations++;
+                        }
+                    }
+                }
+            }
+        }
+
+        // Each shape has its own statement, so no two shapes share a cache key
+        assertEquals(combinations, statements.size());
+    }
+
+    @Test
+    public void sameShape_reusesCachedStatement() {
+        HikeQuery first = new HikeQuery();
+        first.setName("Snow");
+        first.setMinLength(5.0);
+        first.addDifficulty(Difficulty.HARD);
+
+        HikeQuery second = new HikeQuery();
+        second.setName("Helv");
+        second.setMinLength(12.0);
+        second.addDifficulty(Difficulty.EASY);
+
+        HikeQueryCompiler.CompiledQuery a = HikeQueryCompiler.compile(first, true);
+        HikeQueryCompiler.CompiledQuery b = HikeQueryCompiler.compile(second, true);
+        assertSame(a.sql, b.sql);
+        assertArrayEquals(new String[]{"%Snow%", "5.0", "3"}, a.args);
+        assertArrayEquals(new String[]{"%Helv%", "12.0", "1"}, b.args);
+    }
+
+    @Test
+    public void differentShape_getsDifferentStatement() {
+        HikeQuery query = new HikeQuery();
+        query.setName("Snow");
+        String byName = HikeQueryCompiler.compile(query, true).sql;
+
+        query.setSortOrder(HikeQuery.SortOrder.NAME);
+        assertNotEquals(byName, HikeQueryCompiler.compile(query, true).sql);
+        assertNotEquals(byName, HikeQueryCompiler.compile(new HikeQuery(), true).sql);
+        assertNotEquals(byName, HikeQueryCompiler.compile(query, false).sql);
+    }
+
+    @Test
+    public void emptyName_doesNotFilter() {
+        HikeQuery query = new HikeQuery();
+        query.setName("");
+        HikeQueryCompiler.CompiledQuery compiled = HikeQueryCompiler.compile(query, false);
+        assertFalse(compiled.sql.contains("WHERE"));
+        assertEquals(0, compiled.args.length);
+    }
+
+    @Test
+    public void matchQuery_filtersFullTextCandidates() {
+        HikeQuery query = new HikeQuery();
+        query.setMatchQuery("name:snow* location:llan*");
+        query.setMinLength(5.0);
+        query.addDifficulty(Difficulty.HARD);
+        HikeQueryCompiler.CompiledQuery compiled = HikeQueryCompiler.compile(query, true);
+        assertTrue(compiled.sql, compiled.sql.contains(
+                "WHERE id IN (SELECT docid FROM hikes_fts WHERE hikes_fts MATCH ?) AND length >= ?"));
+        assertArrayEquals(new String[]{"name:snow* location:llan*", "5.0", "3"}, compiled.args);
+    }
+
+    @Test
+    public void containsPattern_escapesWildcards() {
+        assertEquals("%Snow%", HikeQueryCompiler.containsPattern("Snow"));
+        assertEquals("%100\\%%", HikeQueryCompiler.containsPattern("100%"));
+        assertEquals("%a\\_b%", HikeQueryCompiler.containsPattern("a_b"));
+        assertEquals("%c:\\\\d%", HikeQueryCompiler.containsPattern("c:\\d"));
+    }
+
+    @Test
+    public void likeConditions_declareEscapeCharacter() {
+        HikeQuery query = new HikeQuery();
+        query.setName("50%");
+        query.setLocation("St_Ives");
+        HikeQueryCompiler.CompiledQuery compiled = HikeQueryCompiler.compile(query, true);
+        assertTrue(compiled.sql, compiled.sql.contains("name LIKE ? ESCAPE '\\'"));
+        assertTrue(compiled.sql, compiled.sql.contains("location LIKE ? ESCAPE '\\'"));
+        assertArrayEquals(new String[]{"%50\\%%", "%St\\_Ives%"}, compiled.args);
+    }
+
+    private static HikeQuery buildQuery(int criteria, int difficulties, Boolean hasObservations,
+                                        HikeQuery.SortOrder sortOrder) {
+        HikeQuery query = new HikeQuery();
+        if ((criteria & NAME) != 0) {
+            query.setName("Snow");
+        }
+        if ((criteria & LOCATION) != 0) {
+            query.setLocation("Pass");
+        }
+        if ((criteria & MIN_LENGTH) != 0) {
+            query.setMinLength(5.0);
+        }
+        if ((criteria & MAX_LENGTH) != 0) {
+            query.setMaxLength(20.0);
+        }
+        if ((criteria & START_DATE) != 0) {
+            query.setStartEpochDay(19800L);
+        }
+        if ((criteria & END_DATE) != 0) {
+            query.setEndEpochDay(19900L);
+        }
+        if ((criteria & PARKING) != 0) {
+            query.setParking(Parking.YES);
+        }
+        if ((criteria & WEATHER) != 0) {
+            query.setWeatherCondition(WeatherCondition.RAINY);
+        }
+        if ((criteria & LIMIT) != 0) {
+            query.setLimit(50);
+        }
+        if ((criteria & MATCH) != 0) {
+            query.setMatchQuery("name:snow*");
+        }
+        for (int i = 0; i < difficulties; i++) {
+            query.addDifficulty(Difficulty.values()[i]);
+        }
+        query.setHasObservations(hasObservations);
+        query.setSortOrder(sortOrder);
+        return query;
+    }
+
+    /**
+     * Conditions the bound statement must contain, each with its own value
+     */
+    private static List<String> expectedFragments(int criteria, int difficulties) {
+        List<String> fragments = new ArrayList<>();
+        if ((criteria & NAME) != 0) {
+            fragments.add("name LIKE '%Snow%'");
+        }
+        if ((criteria & LOCATION) != 0) {
+            fragments.add("location LIKE '%Pass%'");
+        }
+        if ((criteria & MIN_LENGTH) != 0) {
+            fragments.add("length >= '5.0'");
+        }
+        if ((criteria & MAX_LENGTH) != 0) {
+            fragments.add("length <= '20.0'");
+        }
+        if ((criteria & START_DATE) != 0) {
+            fragments.add("date_epoch_day >= '19800'");
+        }
+        if ((criteria & END_DATE) != 0) {
+            fragments.add("date_epoch_day <= '19900'");
+        }
+        if ((criteria & PARKING) != 0) {
+            fragments.add("parking_available = '" + Parking.YES.getCode() + "'");
+        }
+        if ((criteria & WEATHER) != 0) {
+            fragments.add("weather_condition = '" + WeatherCondition.RAINY.getCode() + "'");
+        }
+        if ((criteria & LIMIT) != 0) {
+            fragments.add("LIMIT '50'");
+        }
+        if ((criteria & MATCH) != 0) {
+            fragments.add("id IN (SELECT docid FROM hikes_fts WHERE hikes_fts MATCH 'name:snow*')");
+        }
+        if (difficulties == 1) {
+            fragments.add("difficulty = '1'");
+        } else if (difficulties > 1) {
+            StringBuilder in = new StringBuilder("difficulty IN ('1'");
+            for (int i = 2; i <= difficulties; i++) {
+                in.append(", '").append(i).append("'");
+            }
+            fragments.add(in.append(")").toString());
+        }
+        return fragments;
+    }
+
+    private static int placeholders(String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Substitute quoted arguments for placeholders, in order
+     */
+    private static String bind(String sql, String[] args) {
+        StringBuilder bound = new StringBuilder();
+        int arg = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                bound.append('\'').append(args[arg++]).append('\'');
+            } else {
+                bound.append(c);
+            }
+        }
+        return bound.toString();
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.coursework.database;
+
+import com.example.coursework.models.TrackPoint;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for TrackPointCodec
+ */
+public class TrackPointCodecTest {
+
+    // Half of the quantisation steps
+    private static final double COORDINATE_TOLERANCE = 0.5e-7;
+    private static final double ELEVATION_TOLERANCE = 0.05;
+
+    @Test
+    public void roundTrip_randomWalkAcrossHemispheres() throws IOException {
+        Random random = new Random(42);
+        List<TrackPoint> points = new ArrayList<>();
+        double latitude = 0.01;
+        double longitude = -0.01;
+        double elevation = 5;
+        long time = 1_715_500_000_000L;
+        int segment = 0;
+        for (int i = 0; i < 10_000; i++) {
+            latitude += (random.nextDouble() - 0.5) * 1e-3;
+            longitude += (random.nextDouble() - 0.5) * 1e-3;
+            elevation += (random.nextDouble() - 0.5) * 20;
+            time += 500 + random.nextInt(2000);
+            if (random.nextInt(500) == 0) {
+                segment++;
+            }
+            points.add(new TrackPoint(segment, latitude, longitude, elevation, time));
+        }
+
+        assertRoundTrip(points);
+    }
+
+    @Test
+    public void roundTrip_negativeDeltas() throws IOException {
+        assertRoundTrip(Arrays.asList(
+                new TrackPoint(0, 53.0700000, -4.0700000, 900.0, 1_715_500_060_000L),
+                new TrackPoint(0, 53.0600000, -4.0800000, 850.5, 1_715_500_030_000L),
+                new TrackPoint(0, -33.8688000, -151.2093000, -12.3, 1_715_500_000_000L),
+                new TrackPoint(0, -89.9999999, -179.9999999, -430.0, 0L)));
+    }
+
+    @Test
+    public void roundTrip_extremeCoordinatesAndTimes() throws IOException {
+        assertRoundTrip(Arrays.asList(
+                new TrackPoint(0, 90, 180, 8848.9, Long.MAX_VALUE / 4),
+                new TrackPoint(0, -90, -180, -10994.0, 0L),
+                new TrackPoint(0, 0, 0, 0.0, Long.MAX_VALUE / 4)));
+    }
+
+    @Test
+    public void roundTrip_nullElevationAndTime() throws IOException {
+        assertRoundTrip(Arrays.asList(
+                new TrackPoint(0, 53.068, -4.076, null, null),
+                new TrackPoint(0, 53.069, -4.075, 360.0, null),
+                new TrackPoint(0, 53.070, -4.074, null, 1_715_500_000_000L),
+                new TrackPoint(0, 53.071, -4.073, 380.0, 1_715_500_001_000L),
+                new TrackPoint(0, 53.072, -4.072, null, null),
+                new TrackPoint(0, 53.073, -4.071, 375.0, 1_715_500_003_000L)));
+    }
+
+    @Test
+    public void roundTrip_segmentChanges() throws IOException {
+        List<TrackPoint> points = Arrays.asList(
+                new TrackPoint(0, 53.068, -4.076, 359.0, 1_715_500_000_000L),
+                new TrackPoint(1, 53.069, -4.075, 360.0, 1_715_500_600_000L),
+                new TrackPoint(1, 53.070, -4.074, 361.0, 1_715_500_601_000L),
+                new TrackPoint(4, 53.071, -4.073, 362.0, 1_715_503_000_000L),
+                new TrackPoint(2, 53.072, -4.072, 363.0, 1_715_503_001_000L));
+        List<TrackPoint> decoded = assertRoundTrip(points);
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals(points.get(i).getSegment(), decoded.get(i).getSegment());
+        }
+    }
+
+    @Test
+    public void roundTrip_empty() throws IOException {
+        assertTrue(decode(TrackPointCodec.encode(Collections.emptyList())).isEmpty());
+    }
+
+    @Test
+    public void steadyRecording_isCompact() {
+        List<TrackPoint> points = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            points.add(new TrackPoint(0, 53.068 + i * 1e-5, -4.076 + i * 1e-5, 359.0 + i * 0.1,
+                    1_715_500_000_000L + i * 1000L));
+        }
+        // Flags, two coordinate deltas, elevation and time change: about 7 bytes per point
+        assertTrue(TrackPointCodec.encode(points).length < 8 * points.size());
+    }
+
+    @Test
+    public void decodeLast_returnsLastPoint() throws IOException {
+        List<TrackPoint> points = Arrays.asList(
+                new TrackPoint(0, 53.068, -4.076, 359.0, 1_715_500_000_000L),
+                new TrackPoint(2, 53.069, -4.075, null, 1_715_500_001_000L));
+        TrackPoint last = TrackPointCodec.decodeLast(TrackPointCodec.encode(points));
+        assertPointEquals(points.get(1), last);
+    }
+
+    @Test
+    public void decodeLast_emptyChunk_returnsNull() throws IOException {
+        assertNull(TrackPointCodec.decodeLast(TrackPointCodec.encode(Collections.emptyList())));
+    }
+
+    @Test
+    public void truncatedChunk_throws() {
+        List<TrackPoint> points = Arrays.asList(
+                new TrackPoint(0, 53.068, -4.076, 359.0, 1_715_500_000_000L),
+                new TrackPoint(1, 53.069, -4.075, null, null),
+                new TrackPoint(1, 53.070, -4.074, 361.0, 1_715_500_002_000L));
+        byte[] data = TrackPointCodec.encode(points);
+        for (int length = 0; length < data.length; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThrows("length " + length, IOException.class, () -> decode(truncated));
+        }
+    }
+
+    @Test
+    public void trailingBytes_throw() {
+        byte[] data = TrackPointCodec.encode(Collections.singletonList(
+                new TrackPoint(0, 53.068, -4.076, 359.0, 1_715_500_000_000L)));
+        byte[] padded = Arrays.copyOf(data, data.length + 1);
+        assertThrows(IOException.class, () -> decode(padded));
+    }
+
+    @Test
+    public void unknownFormatVersion_throws() {
+        byte[] data = TrackPointCodec.encode(Collections.emptyList());
+        data[0] = 99;
+        assertThrows(IOException.class, () -> decode(data));
+    }
+
+    @Test
+    public void overlongVarint_throws() {
+        byte[] data = new byte[12];
+        data[0] = 1;
+        Arrays.fill(data, 1, data.length, (byte) 0xFF);
+        assertThrows(IOException.class, () -> decode(data));
+    }
+
+    @Test
+    public void visitorFailure_propagates() {
+        byte[] data = TrackPointCodec.encode(Collections.singletonList(
+                new TrackPoint(0, 53.068, -4.076, null, null)));
+        IOException failure = new IOException("disk full");
+        IOException thrown = assertThrows(IOException.class, () -> TrackPointCodec.decode(data, point -> {
+            throw failure;
+        }));
+        assertSame(failure, thrown);
+    }
+
+    private static List<TrackPoint> assertRoundTrip(List<TrackPoint> points) throws IOException {
+        List<TrackPoint> decoded = decode(TrackPointCodec.encode(points));
+        assertEquals(points.size(), decoded.size());
+        for (int i = 0; i < points.size(); i++) {
+            assertPointEquals(points.get(i), decoded.get(i));
+        }
+        return decoded;
+    }
+
+    private static void assertPointEquals(TrackPoint expected, TrackPoint actual) {
+        String message = expected + " decoded as " + actual;
+        assertEquals(message, expected.getSegment(), actual.getSegment());
+        assertEquals(message, expected.getLatitude(), actual.getLatitude(), COORDINATE_TOLERANCE);
+        assertEquals(message, expected.getLongitude(), actual.getLongitude(), COORDINATE_TOLERANCE);
+        if (expected.getElevation() == null) {
+            assertNull(message, actual.getElevation());
+        } else {
+            assertNotNull(message, actual.getElevation());
+            assertEquals(message, expected.getElevation(), actual.getElevation(), ELEVATION_TOLERANCE);
+        }
+        assertEquals(message, expected.getTime(), actual.getTime());
+    }
+
+    private static List<TrackPoint> decode(byte[] data) throws IOException {
+        List<TrackPoint> points = new ArrayList<>();
+        TrackPointCodec.decode(data, points::add);
+        return points;
+    }
+}
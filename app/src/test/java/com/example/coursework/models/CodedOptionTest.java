@@ -0,0 +1,67 @@
+package com.example.coursework.models;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the CodedOption lookups
+ */
+public class CodedOptionTest {
+
+    // Codes out of declaration order, with a gap
+    private enum Trail implements CodedOption {
+        RIDGE(3),
+        VALLEY(1),
+        COAST(5);
+
+        private final int code;
+
+        Trail(int code) {
+            this.code = code;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+    }
+
+    private enum Surface implements CodedOption {
+        ROCK;
+
+        @Override
+        public int getCode() {
+            return 1;
+        }
+    }
+
+    @Test
+    public void byCode_findsEachOption() {
+        for (Trail trail : Trail.values()) {
+            assertSame(trail, CodedOption.byCode(Trail.class, trail.getCode()));
+        }
+    }
+
+    @Test
+    public void byCode_unsetOrUnknownCode_isNull() {
+        assertNull(CodedOption.byCode(Trail.class, CodedOption.NOT_SET));
+        assertNull(CodedOption.byCode(Trail.class, 2));
+        assertNull(CodedOption.byCode(Trail.class, 6));
+        assertNull(CodedOption.byCode(Trail.class, -1));
+        assertNull(CodedOption.byCode(Trail.class, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void byCode_keepsTypesApart() {
+        assertSame(Trail.VALLEY, CodedOption.byCode(Trail.class, 1));
+        assertSame(Surface.ROCK, CodedOption.byCode(Surface.class, 1));
+        assertNull(CodedOption.byCode(Surface.class, 3));
+    }
+
+    @Test
+    public void codeOf_unsetOption_isNotSet() {
+        assertEquals(CodedOption.NOT_SET, CodedOption.codeOf(null));
+        assertEquals(5, CodedOption.codeOf(Trail.COAST));
+    }
+}
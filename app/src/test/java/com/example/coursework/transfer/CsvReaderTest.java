@@ -0,0 +1,128 @@
+package com.example.coursework.transfer;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for CsvReader
+ */
+public class CsvReaderTest {
+
+    @Test
+    public void plainFields_splitOnCommas() throws IOException {
+        List<String[]> records = readAll("a,b,c\n1,2,3\n");
+        assertEquals(2, records.size());
+        assertArrayEquals(new String[]{"a", "b", "c"}, records.get(0));
+        assertArrayEquals(new String[]{"1", "2", "3"}, records.get(1));
+    }
+
+    @Test
+    public void emptyFields_arePreserved() throws IOException {
+        List<String[]> records = readAll(",a,,\n\n");
+        assertArrayEquals(new String[]{"", "a", "", ""}, records.get(0));
+        assertArrayEquals(new String[]{""}, records.get(1));
+        assertEquals(2, records.size());
+    }
+
+    @Test
+    public void quotedFields_keepDelimiters() throws IOException {
+        List<String[]> records = readAll("\"Snowdon, Wales\",\"\",x\n");
+        assertArrayEquals(new String[]{"Snowdon, Wales", "", "x"}, records.get(0));
+    }
+
+    @Test
+    public void doubledQuotes_areUnescaped() throws IOException {
+        List<String[]> records = readAll("\"He said \"\"wow\"\"\",\"\"\"\"\n");
+        assertArrayEquals(new String[]{"He said \"wow\"", "\""}, records.get(0));
+    }
+
+    @Test
+    public void quotedLineBreaks_stayInTheField() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "name,description\nSnowdon,\"Line one\nLine two\r\nLine three\"\nNext,x\n"));
+        assertArrayEquals(new String[]{"name", "description"}, reader.readRecord());
+        assertEquals(1, reader.getRecordLineNumber());
+
+        assertArrayEquals(new String[]{"Snowdon", "Line one\nLine two\r\nLine three"}, reader.readRecord());
+        assertEquals(2, reader.getRecordLineNumber());
+
+        // Line numbers count the breaks inside the quoted field
+        assertArrayEquals(new String[]{"Next", "x"}, reader.readRecord());
+        assertEquals(5, reader.getRecordLineNumber());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    public void lineEndings_crLfAndCrAndLf() throws IOException {
+        List<String[]> records = readAll("a,b\r\nc,d\re,f\ng,h");
+        assertEquals(4, records.size());
+        assertArrayEquals(new String[]{"a", "b"}, records.get(0));
+        assertArrayEquals(new String[]{"c", "d"}, records.get(1));
+        assertArrayEquals(new String[]{"e", "f"}, records.get(2));
+        assertArrayEquals(new String[]{"g", "h"}, records.get(3));
+    }
+
+    @Test
+    public void lastRecord_withoutLineBreak_isRead() throws IOException {
+        List<String[]> records = readAll("a,\"b\"");
+        assertEquals(1, records.size());
+        assertArrayEquals(new String[]{"a", "b"}, records.get(0));
+    }
+
+    @Test
+    public void quoteInsideUnquotedField_isLiteral() throws IOException {
+        List<String[]> records = readAll("5\" tall,x\"y\n");
+        assertArrayEquals(new String[]{"5\" tall", "x\"y"}, records.get(0));
+    }
+
+    @Test
+    public void textAfterClosingQuote_isAppended() throws IOException {
+        List<String[]> records = readAll("\"ab\"cd,e\n");
+        assertArrayEquals(new String[]{"abcd", "e"}, records.get(0));
+    }
+
+    @Test
+    public void unterminatedQuote_throwsWithStartLine() {
+        CsvReader reader = new CsvReader(new StringReader("a\nb,\"open\nstill open"));
+        IOException error = assertThrows(IOException.class, () -> {
+            while (reader.readRecord() != null) {
+                // Read until the error
+            }
+        });
+        assertTrue(error.getMessage(), error.getMessage().contains("line 2"));
+    }
+
+    @Test
+    public void emptyInput_hasNoRecords() throws IOException {
+        assertNull(new CsvReader(new StringReader("")).readRecord());
+    }
+
+    @Test
+    public void writtenByCsvCodec_readsBack() throws IOException {
+        String[] values = {"plain", "comma, inside", "quote \" inside", "line\r\nbreak", "", " padded "};
+        StringWriter writer = new StringWriter();
+        CsvCodec.writeRow(writer, values);
+        CsvCodec.writeRow(writer, values);
+        List<String[]> records = readAll(writer.toString());
+        assertEquals(2, records.size());
+        assertArrayEquals(values, records.get(0));
+        assertArrayEquals(values, records.get(1));
+    }
+
+    private static List<String[]> readAll(String csv) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(csv));
+        List<String[]> records = new ArrayList<>();
+        String[] record;
+        while ((record = reader.readRecord()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.coursework.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for DateUtils
+ */
+public class DateUtilsTest {
+
+    private static final String THROUGHPUT_PATTERN = "MMMM dd, yyyy HH:mm";
+    private static final int THROUGHPUT_CALLS = 100_000;
+
+    private Locale previousLocale;
+    private TimeZone previousTimeZone;
+
+    @Before
+    public void setUp() {
+        previousLocale = Locale.getDefault();
+        previousTimeZone = TimeZone.getDefault();
+        Locale.setDefault(Locale.US);
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(previousLocale);
+        TimeZone.setDefault(previousTimeZone);
+    }
+
+    @Test
+    public void toEpochDay_matchesCalendar() {
+        LocalDate end = LocalDate.of(2100, 12, 31);
+        for (LocalDate date = LocalDate.of(1900, 1, 1); !date.isAfter(end); date = date.plusDays(1)) {
+            assertEquals(date.toString(), Long.valueOf(date.toEpochDay()), DateUtils.toEpochDay(date.toString()));
+        }
+    }
+
+    @Test
+    public void toEpochDay_acceptsUnpaddedMonthAndDay() {
+        assertEquals(Long.valueOf(0), DateUtils.toEpochDay("1970-1-1"));
+        assertEquals(Long.valueOf(19855), DateUtils.toEpochDay(" 2024-5-12 "));
+    }
+
+    @Test
+    public void toEpochDay_rejectsImpossibleDates() {
+        assertNull(DateUtils.toEpochDay("2024-02-30"));
+        assertNull(DateUtils.toEpochDay("2024-02-31"));
+        assertNull(DateUtils.toEpochDay("2023-02-29"));
+        assertNull(DateUtils.toEpochDay("1900-02-29"));
+        assertNull(DateUtils.toEpochDay("2024-04-31"));
+        assertNull(DateUtils.toEpochDay("2024-06-31"));
+        assertNull(DateUtils.toEpochDay("2024-09-31"));
+        assertNull(DateUtils.toEpochDay("2024-11-31"));
+        assertNull(DateUtils.toEpochDay("2024-13-01"));
+        assertNull(DateUtils.toEpochDay("2024-00-10"));
+        assertNull(DateUtils.toEpochDay("2024-01-00"));
+
+        assertNotNull(DateUtils.toEpochDay("2024-02-29"));
+        assertNotNull(DateUtils.toEpochDay("2000-02-29"));
+        assertNotNull(DateUtils.toEpochDay("2024-12-31"));
+    }
+
+    @Test
+    public void toEpochDay_rejectsMalformedText() {
+        assertNull(DateUtils.toEpochDay(null));
+        assertNull(DateUtils.toEpochDay(""));
+        assertNull(DateUtils.toEpochDay("12/05/2024"));
+        assertNull(DateUtils.toEpochDay("2024-05"));
+        assertNull(DateUtils.toEpochDay("2024-05-12-01"));
+        assertNull(DateUtils.toEpochDay("2024-May-12"));
+    }
+
+    @Test
+    public void parseIsoTimestamp_readsZonesAndFractions() {
+        assertEquals(Long.valueOf(1_714_555_800_000L), DateUtils.parseIsoTimestamp("2024-05-01T09:30:00Z"));
+        assertEquals(Long.valueOf(1_714_555_800_250L), DateUtils.parseIsoTimestamp("2024-05-01T09:30:00.25Z"));
+        assertEquals(Long.valueOf(1_714_555_800_000L), DateUtils.parseIsoTimestamp("2024-05-01T10:30:00+01:00"));
+        assertEquals(Long.valueOf(1_714_555_800_000L), DateUtils.parseIsoTimestamp("2024-05-01T04:30:00-0500"));
+        assertEquals(Long.valueOf(1_714_555_800_000L), DateUtils.parseIsoTimestamp("2024-05-01T09:30:00"));
+        assertNull(DateUtils.parseIsoTimestamp("2024-02-30T09:30:00Z"));
+        assertNull(DateUtils.parseIsoTimestamp("2024-05-01T24:00:00Z"));
+        assertNull(DateUtils.parseIsoTimestamp("2024-05-01 09:30:00"));
+    }
+
+    @Test
+    public void formatIsoTimestamp_roundTrips() {
+        long[] times = {0, 1_714_555_800_000L, 1_714_555_800_250L, -86_400_001L, 4_102_444_799_999L};
+        for (long time : times) {
+            assertEquals(Long.valueOf(time), DateUtils.parseIsoTimestamp(DateUtils.formatIsoTimestamp(time)));
+        }
+        assertEquals("2024-05-01T09:30:00Z", DateUtils.formatIsoTimestamp(1_714_555_800_000L));
+        assertEquals("1969-12-31T23:59:59.999Z", DateUtils.formatIsoTimestamp(-1));
+    }
+
+    @Test
+    public void formatter_followsDefaultTimeZoneChanges() {
+        Date epoch = new Date(0);
+        assertEquals("1970-01-01 00:00", DateUtils.formatDate(epoch, "yyyy-MM-dd HH:mm"));
+
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+        assertEquals("1970-01-01 09:00", DateUtils.formatDate(epoch, "yyyy-MM-dd HH:mm"));
+        assertEquals(new Date(-9 * 3_600_000L), DateUtils.parseDate("1970-01-01 00:00", "yyyy-MM-dd HH:mm"));
+
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        assertEquals("1969-12-31 19:00", DateUtils.formatDate(epoch, "yyyy-MM-dd HH:mm"));
+    }
+
+    @Test
+    public void formatter_followsDefaultLocaleChanges() {
+        Date date = DateUtils.stringToDate("2024-05-12");
+        assertEquals("May 12, 2024", DateUtils.formatDate(date, "MMMM dd, yyyy"));
+
+        Locale.setDefault(Locale.FRANCE);
+        assertEquals("mai 12, 2024", DateUtils.formatDate(date, "MMMM dd, yyyy"));
+    }
+
+    @Test
+    public void formatter_isSafeAcrossThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int offset = thread;
+                Callable<Boolean> task = () -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        LocalDate expected = LocalDate.ofEpochDay(offset * 3000L + i % 3000);
+                        Date parsed = DateUtils.stringToDate(expected.toString());
+                        if (parsed == null || !expected.toString().equals(DateUtils.dateToString(parsed))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                };
+                results.add(executor.submit(task));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void cachedFormatter_beatsNewFormatterPerCall() throws ParseException {
+        Date[] dates = new Date[1000];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = new Date(1_699_999_980_000L + i * 3_600_000L);
+        }
+
+        // Best of three runs each, after the first has warmed both paths up
+        long cachedNanos = Long.MAX_VALUE;
+        long freshNanos = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < THROUGHPUT_CALLS; i++) {
+                Date date = dates[i % dates.length];
+                assertEquals(date, DateUtils.parseDate(DateUtils.formatDate(date, THROUGHPUT_PATTERN),
+                        THROUGHPUT_PATTERN));
+            }
+            cachedNanos = Math.min(cachedNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < THROUGHPUT_CALLS; i++) {
+                Date date = dates[i % dates.length];
+                String text = new SimpleDateFormat(THROUGHPUT_PATTERN, Locale.getDefault()).format(date);
+                assertEquals(date, new SimpleDateFormat(THROUGHPUT_PATTERN, Locale.getDefault()).parse(text));
+            }
+            freshNanos = Math.min(freshNanos, System.nanoTime() - start);
+        }
+
+        assertTrue("Cached formatter took " + cachedNanos / 1_000_000 + " ms for " + THROUGHPUT_CALLS
+                        + " round trips, a new formatter per call " + freshNanos / 1_000_000 + " ms",
+                cachedNanos < freshNanos);
+    }
+}
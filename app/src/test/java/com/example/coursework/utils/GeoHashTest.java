@@ -0,0 +1,190 @@
+package com.example.coursework.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for GeoHash
+ */
+public class GeoHashTest {
+
+    private static final int PRECISION = Constants.GEOHASH_PRECISION;
+    private static final int MAX_CELLS = Constants.GEOHASH_MAX_CELLS;
+    // Sample points per box edge when checking coverage
+    private static final int SAMPLES = 60;
+    private static final int BENCHMARK_BOXES = 100_000;
+    // Generous bound for covering the benchmark boxes on a slow CI machine
+    private static final long BENCHMARK_LIMIT_MS = 5000;
+
+    @Test
+    public void encode_matchesKnownVectors() {
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+        assertEquals("ezs42", GeoHash.encode(42.605, -5.603, 5));
+        assertEquals("u4pruy", GeoHash.encode(57.64911, 10.40744, 6));
+        assertEquals("s00000000", GeoHash.encode(0, 0, 9));
+        assertEquals("000000000", GeoHash.encode(-90, -180, 9));
+        assertEquals("zzzzzzzzz", GeoHash.encode(90, 180, 9));
+        assertEquals("7zzzzzzzz", GeoHash.encode(-1e-9, -1e-9, 9));
+        assertEquals("bpbpbpbpb", GeoHash.encode(90, -180, 9));
+        assertEquals("pbpbpbpbp", GeoHash.encode(-90, 180, 9));
+    }
+
+    @Test
+    public void encode_isPrefixOfFinerPrecision() {
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            String hash = GeoHash.encode(latitude, longitude, 12);
+            for (int precision = 1; precision < 12; precision++) {
+                assertEquals(hash.substring(0, precision), GeoHash.encode(latitude, longitude, precision));
+            }
+        }
+    }
+
+    @Test
+    public void coverRanges_smallBox_coversEveryPoint() {
+        assertCovers(new double[]{53.06, -4.09, 53.08, -4.06});
+        assertCovers(new double[]{-33.9, 151.2, -33.8, 151.3});
+        // Edges on cell boundaries at several precisions
+        assertCovers(new double[]{0, 0, 45, 45});
+        assertCovers(new double[]{-45, -90, 0, 0});
+    }
+
+    @Test
+    public void coverRanges_crossingAntimeridian_coversBothSides() {
+        double[] box = {-17.0, 179.5, -16.5, -179.5};
+        assertCovers(box);
+        assertCovered(box, -16.75, 180);
+        assertCovered(box, -16.75, -180);
+        assertNotCovered(box, -16.75, 0);
+
+        assertCovers(new double[]{64.0, 170.0, 67.0, -168.0});
+        assertCovers(new double[]{-10, 179.999, 10, -179.999});
+    }
+
+    @Test
+    public void coverRanges_polarBox_coversEveryLongitude() {
+        double[] north = GeoUtils.boundingBox(89.9, 0, 50_000);
+        assertArrayEquals(new double[]{north[0], -180, 90, 180}, north, 0);
+        assertCovers(north);
+        assertCovered(north, 90, 180);
+        assertCovered(north, 90, -180);
+
+        double[] south = GeoUtils.boundingBox(-89.95, 123, 10_000);
+        assertCovers(south);
+        assertCovered(south, -90, 0);
+
+        assertCovers(new double[]{-90, -180, 90, 180});
+    }
+
+    @Test
+    public void coverRanges_randomBoxes_coverEveryPoint() {
+        Random random = new Random(2);
+        for (int i = 0; i < 2000; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            double radius = Math.pow(10, 1 + random.nextDouble() * 5);
+            assertCovers(GeoUtils.boundingBox(latitude, longitude, radius));
+        }
+    }
+
+    @Test
+    public void coverRanges_areSortedDisjointAndWithinCellLimit() {
+        Random random = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            double[] box = GeoUtils.boundingBox(random.nextDouble() * 180 - 90,
+                    random.nextDouble() * 360 - 180, Math.pow(10, 1 + random.nextDouble() * 5));
+            List<String[]> ranges = GeoHash.coverRanges(box, PRECISION, MAX_CELLS);
+            assertFalse(ranges.isEmpty());
+            assertTrue(ranges.size() <= MAX_CELLS);
+            for (int r = 0; r < ranges.size(); r++) {
+                assertTrue(ranges.get(r)[0].compareTo(ranges.get(r)[1]) < 0);
+                if (r > 0) {
+                    // Adjacent cells would have been merged into one range
+                    assertTrue(ranges.get(r - 1)[1].compareTo(ranges.get(r)[0]) < 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void coverRanges_adjacentCells_mergeIntoOneRange() {
+        // Cells "u4prs" and "u4prt" are side by side and next to each other in key order
+        double[] box = {57.58, 10.40, 57.60, 10.43};
+        List<String[]> ranges = GeoHash.coverRanges(box, 5, 2);
+        assertEquals(1, ranges.size());
+        assertEquals("u4prs", ranges.get(0)[0]);
+        assertEquals("u4prt{", ranges.get(0)[1]);
+    }
+
+    @Test
+    public void benchmark_coverRanges() {
+        Random random = new Random(4);
+        double[][] boxes = new double[BENCHMARK_BOXES][];
+        for (int i = 0; i < BENCHMARK_BOXES; i++) {
+            boxes[i] = GeoUtils.boundingBox(random.nextDouble() * 180 - 90,
+                    random.nextDouble() * 360 - 180, Math.pow(10, 2 + random.nextDouble() * 3));
+        }
+        // Warm up
+        for (int i = 0; i < 10_000; i++) {
+            GeoHash.coverRanges(boxes[i], PRECISION, MAX_CELLS);
+        }
+
+        long ranges = 0;
+        long start = System.nanoTime();
+        for (double[] box : boxes) {
+            ranges += GeoHash.coverRanges(box, PRECISION, MAX_CELLS).size();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(BENCHMARK_BOXES + " boxes covered by " + ranges + " ranges in " + elapsedMs + " ms",
+                elapsedMs < BENCHMARK_LIMIT_MS);
+    }
+
+    /**
+     * Every point of the box, sampled on a grid that includes its edges and corners,
+     * encodes to a hash inside one of the ranges
+     */
+    private static void assertCovers(double[] box) {
+        List<String[]> ranges = GeoHash.coverRanges(box, PRECISION, MAX_CELLS);
+        double width = box[1] <= box[3] ? box[3] - box[1] : box[3] - box[1] + 360;
+        for (int i = 0; i <= SAMPLES; i++) {
+            double latitude = i == SAMPLES ? box[2] : box[0] + (box[2] - box[0]) * i / SAMPLES;
+            for (int j = 0; j <= SAMPLES; j++) {
+                double longitude = j == SAMPLES ? box[3] : box[1] + width * j / SAMPLES;
+                if (longitude > 180) {
+                    longitude -= 360;
+                }
+                String hash = GeoHash.encode(latitude, longitude, PRECISION);
+                if (!covered(ranges, hash)) {
+                    fail(hash + " at " + latitude + ", " + longitude + " outside ranges for box "
+                            + Arrays.toString(box));
+                }
+            }
+        }
+    }
+
+    private static void assertCovered(double[] box, double latitude, double longitude) {
+        assertTrue(covered(GeoHash.coverRanges(box, PRECISION, MAX_CELLS),
+                GeoHash.encode(latitude, longitude, PRECISION)));
+    }
+
+    private static void assertNotCovered(double[] box, double latitude, double longitude) {
+        assertFalse(covered(GeoHash.coverRanges(box, PRECISION, MAX_CELLS),
+                GeoHash.encode(latitude, longitude, PRECISION)));
+    }
+
+    private static boolean covered(List<String[]> ranges, String hash) {
+        for (String[] range : ranges) {
+            if (range[0].compareTo(hash) <= 0 && hash.compareTo(range[1]) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
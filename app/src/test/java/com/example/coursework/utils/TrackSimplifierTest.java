@@ -0,0 +1,248 @@
+package com.example.coursework.utils;
+
+import com.example.coursework.models.TrackPoint;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for TrackSimplifier
+ */
+public class TrackSimplifierTest {
+
+    private static final double[] TOLERANCES = Constants.TRACK_LEVEL_TOLERANCES_METERS;
+    private static final int BENCHMARK_POINTS = 100_000;
+    // Generous bound for one simplification of the benchmark track on a slow CI machine
+    private static final long BENCHMARK_LIMIT_MS = 2000;
+
+    @Test
+    public void douglasPeucker_keepsSegmentEndpointsAndNeverJoinsSegments() {
+        List<TrackPoint> track = track(20_000, 7, 1);
+        for (double tolerance : TOLERANCES) {
+            List<TrackPoint> simplified = TrackSimplifier.douglasPeucker(track, tolerance);
+            assertSegmentsPreserved(track, simplified);
+            assertTrue(simplified.size() < track.size());
+        }
+    }
+
+    @Test
+    public void visvalingam_keepsSegmentEndpointsAndNeverJoinsSegments() {
+        List<TrackPoint> track = track(20_000, 7, 2);
+        for (double tolerance : TOLERANCES) {
+            List<TrackPoint> simplified = TrackSimplifier.visvalingam(track, tolerance);
+            assertSegmentsPreserved(track, simplified);
+            assertTrue(simplified.size() < track.size());
+        }
+    }
+
+    @Test
+    public void douglasPeucker_keepsEveryDroppedPointWithinTolerance() {
+        List<TrackPoint> track = track(20_000, 5, 3);
+        double[][] xy = project(track);
+        for (double tolerance : TOLERANCES) {
+            List<TrackPoint> simplified = TrackSimplifier.douglasPeucker(track, tolerance);
+            int[] kept = indexesOf(track, simplified);
+            for (int k = 0; k + 1 < kept.length; k++) {
+                int a = kept[k];
+                int b = kept[k + 1];
+                if (track.get(a).getSegment() != track.get(b).getSegment()) {
+                    continue;
+                }
+                for (int i = a + 1; i < b; i++) {
+                    assertTrue("Point " + i + " at tolerance " + tolerance,
+                            distanceToSegment(xy, i, a, b) <= tolerance + 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void singleAndTwoPointSegments_areKept() {
+        List<TrackPoint> track = Arrays.asList(
+                new TrackPoint(0, 53.0000, -4.0000, null, null),
+                new TrackPoint(1, 53.0001, -4.0001, null, null),
+                new TrackPoint(1, 53.0002, -4.0002, null, null),
+                new TrackPoint(2, 53.0003, -4.0003, null, null),
+                new TrackPoint(2, 53.0004, -4.0004, null, null),
+                new TrackPoint(2, 53.0005, -4.0005, null, null),
+                new TrackPoint(3, 53.0006, -4.0006, null, null));
+
+        // The middle point of segment 2 is the only one on a straight line between others
+        List<TrackPoint> expected = new ArrayList<>(track);
+        expected.remove(4);
+        assertEquals(expected, TrackSimplifier.douglasPeucker(track, 50));
+        assertEquals(expected, TrackSimplifier.visvalingam(track, 50));
+    }
+
+    @Test
+    public void segmentIdRepeatedAfterAnotherSegment_isNotJoined() {
+        List<TrackPoint> track = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            track.add(new TrackPoint(i < 3 || i > 6 ? 0 : 1, 53 + i * 1e-4, -4, null, null));
+        }
+        assertSegmentsPreserved(track, TrackSimplifier.douglasPeucker(track, 50));
+        assertSegmentsPreserved(track, TrackSimplifier.visvalingam(track, 50));
+    }
+
+    @Test
+    public void straightLine_collapsesToEndpoints() {
+        List<TrackPoint> track = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            track.add(new TrackPoint(0, 53 + i * 1e-5, -4 + i * 1e-5, null, null));
+        }
+        List<TrackPoint> endpoints = Arrays.asList(track.get(0), track.get(999));
+        assertEquals(endpoints, TrackSimplifier.douglasPeucker(track, 1));
+        assertEquals(endpoints, TrackSimplifier.visvalingam(track, 1));
+    }
+
+    @Test
+    public void nonPositiveTolerance_returnsInput() {
+        List<TrackPoint> track = track(100, 1, 4);
+        assertSame(track, TrackSimplifier.douglasPeucker(track, 0));
+        assertSame(track, TrackSimplifier.visvalingam(track, -1));
+        List<TrackPoint> empty = Collections.emptyList();
+        assertSame(empty, TrackSimplifier.douglasPeucker(empty, 10));
+    }
+
+    @Test
+    public void benchmark_100kPoints() {
+        List<TrackPoint> track = track(BENCHMARK_POINTS, 10, 5);
+        // Warm up
+        TrackSimplifier.douglasPeucker(track, TOLERANCES[0]);
+        TrackSimplifier.visvalingam(track, TOLERANCES[0]);
+
+        for (double tolerance : TOLERANCES) {
+            long start = System.nanoTime();
+            List<TrackPoint> simplified = TrackSimplifier.douglasPeucker(track, tolerance);
+            long douglasPeuckerMs = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            List<TrackPoint> visvalingam = TrackSimplifier.visvalingam(track, tolerance);
+            long visvalingamMs = (System.nanoTime() - start) / 1_000_000;
+
+            String timings = BENCHMARK_POINTS + " points at " + tolerance + " m: Douglas-Peucker "
+                    + simplified.size() + " points in " + douglasPeuckerMs + " ms, Visvalingam "
+                    + visvalingam.size() + " points in " + visvalingamMs + " ms";
+            assertTrue(timings, douglasPeuckerMs < BENCHMARK_LIMIT_MS);
+            assertTrue(timings, visvalingamMs < BENCHMARK_LIMIT_MS);
+            assertSegmentsPreserved(track, simplified);
+        }
+    }
+
+    /**
+     * Noisy walk of about 3 m per point with a new segment after each gap
+     */
+    private static List<TrackPoint> track(int count, int segments, long seed) {
+        Random random = new Random(seed);
+        List<TrackPoint> points = new ArrayList<>(count);
+        double latitude = 53.068;
+        double longitude = -4.076;
+        double heading = 0;
+        int segment = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && i % (count / segments + 1) == 0) {
+                segment++;
+                // Gap: jump ahead as if recording paused
+                latitude += 0.002;
+            }
+            heading += (random.nextDouble() - 0.5) * 0.6;
+            latitude += Math.cos(heading) * 2.7e-5 + random.nextGaussian() * 5e-6;
+            longitude += Math.sin(heading) * 4.5e-5 + random.nextGaussian() * 8e-6;
+            points.add(new TrackPoint(segment, latitude, longitude, 300.0, null));
+        }
+        return points;
+    }
+
+    /**
+     * The simplified track is a subsequence of the track that keeps the first and last
+     * point of every run of one segment, and consecutive kept points of one segment
+     * have only points of that run between them
+     */
+    private static void assertSegmentsPreserved(List<TrackPoint> track, List<TrackPoint> simplified) {
+        int[] kept = indexesOf(track, simplified);
+        boolean[] isKept = new boolean[track.size()];
+        for (int index : kept) {
+            isKept[index] = true;
+        }
+
+        for (int i = 0; i < track.size(); i++) {
+            boolean runStart = i == 0 || track.get(i - 1).getSegment() != track.get(i).getSegment();
+            boolean runEnd = i == track.size() - 1 || track.get(i + 1).getSegment() != track.get(i).getSegment();
+            if (runStart || runEnd) {
+                assertTrue("Segment endpoint " + i + " dropped", isKept[i]);
+            }
+        }
+
+        for (int k = 0; k + 1 < kept.length; k++) {
+            int a = kept[k];
+            int b = kept[k + 1];
+            if (track.get(a).getSegment() == track.get(b).getSegment()) {
+                for (int i = a + 1; i < b; i++) {
+                    assertEquals("Line from " + a + " to " + b + " crosses a segment break",
+                            track.get(a).getSegment(), track.get(i).getSegment());
+                }
+            } else {
+                assertEquals("Segments joined between " + a + " and " + b, a + 1, b);
+            }
+        }
+    }
+
+    /**
+     * Positions in the track of the simplified points, which must be in track order
+     */
+    private static int[] indexesOf(List<TrackPoint> track, List<TrackPoint> simplified) {
+        Map<TrackPoint, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < track.size(); i++) {
+            positions.put(track.get(i), i);
+        }
+        int[] indexes = new int[simplified.size()];
+        for (int k = 0; k < simplified.size(); k++) {
+            Integer index = positions.get(simplified.get(k));
+            assertNotNull("Simplified point not from the track", index);
+            indexes[k] = index;
+            assertTrue("Points out of order", k == 0 || indexes[k] > indexes[k - 1]);
+        }
+        return indexes;
+    }
+
+    /**
+     * Equirectangular projection in metres around the mean latitude, as the simplifier uses
+     */
+    private static double[][] project(List<TrackPoint> track) {
+        double latitudeSum = 0;
+        for (TrackPoint point : track) {
+            latitudeSum += point.getLatitude();
+        }
+        double metersPerDegree = Math.toRadians(GeoUtils.EARTH_RADIUS_METERS);
+        double metersPerLongitudeDegree = metersPerDegree * Math.cos(Math.toRadians(latitudeSum / track.size()));
+        double[][] xy = new double[track.size()][];
+        for (int i = 0; i < track.size(); i++) {
+            xy[i] = new double[]{track.get(i).getLongitude() * metersPerLongitudeDegree,
+                    track.get(i).getLatitude() * metersPerDegree};
+        }
+        return xy;
+    }
+
+    private static double distanceToSegment(double[][] xy, int i, int a, int b) {
+        double dx = xy[b][0] - xy[a][0];
+        double dy = xy[b][1] - xy[a][1];
+        double px = xy[i][0] - xy[a][0];
+        double py = xy[i][1] - xy[a][1];
+        double lengthSquared = dx * dx + dy * dy;
+        if (lengthSquared > 0) {
+            double t = Math.max(0, Math.min(1, (px * dx + py * dy) / lengthSquared));
+            px -= t * dx;
+            py -= t * dy;
+        }
+        return Math.sqrt(px * px + py * py);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.coursework.utils;
+
+import com.example.coursework.database.TrackPointCodec;
+import com.example.coursework.models.HikeStats;
+import com.example.coursework.models.TrackPoint;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for TrackStatistics
+ * Statistics built from a track appended in random batches, saved and reloaded between
+ * batches, must match one full pass over the same track.
+ */
+public class TrackStatisticsTest {
+
+    private static final long HIKE_ID = 7;
+    private static final int POINTS = 6000;
+    // Profile samples are stored to the nearest decimetre
+    private static final double PROFILE_STORAGE_DELTA = 0.05 + 1e-9;
+
+    @Test
+    public void appendInRandomBatches_matchesFullPass() throws IOException {
+        List<TrackPoint> track = track(POINTS, 3);
+        HikeStats full = fullPass(track);
+
+        Random random = new Random(5);
+        for (int run = 0; run < 20; run++) {
+            HikeStats appended = null;
+            int next = 0;
+            while (next < track.size()) {
+                int end = Math.min(track.size(), next + 1 + random.nextInt(400));
+                TrackStatistics statistics = appended == null
+                        ? new TrackStatistics(HIKE_ID) : new TrackStatistics(reload(appended));
+                statistics.addAll(track.subList(next, end));
+                appended = statistics.getStats();
+                next = end;
+            }
+            assertSameStats(full, appended, PROFILE_STORAGE_DELTA);
+        }
+    }
+
+    @Test
+    public void appendOneAtATime_matchesFullPassExactly() throws IOException {
+        List<TrackPoint> track = track(POINTS, 11);
+        HikeStats full = fullPass(track);
+
+        TrackStatistics statistics = new TrackStatistics(HIKE_ID);
+        for (TrackPoint point : track) {
+            statistics = new TrackStatistics(statistics.getStats());
+            statistics.add(point);
+        }
+
+        assertSameStats(full, statistics.getStats(), 0);
+    }
+
+    @Test
+    public void fullPass_coversDistanceClimbSplitsAndProfile() throws IOException {
+        List<TrackPoint> track = track(POINTS, 3);
+        HikeStats stats = fullPass(track);
+
+        double meters = 0;
+        for (int i = 1; i < track.size(); i++) {
+            TrackPoint from = track.get(i - 1);
+            TrackPoint to = track.get(i);
+            if (from.getSegment() == to.getSegment()) {
+                meters += GeoUtils.distanceMeters(from.getLatitude(), from.getLongitude(),
+                        to.getLatitude(), to.getLongitude());
+            }
+        }
+        assertEquals(meters, stats.getDistanceMeters(), 1e-6);
+        assertEquals(POINTS, stats.getPointCount());
+        assertTrue(stats.getAscentMeters() > 100);
+        assertTrue(stats.getDescentMeters() > 100);
+        assertEquals((int) (meters / Constants.STATS_SPLIT_METERS), stats.getSplitTimesMillis().size());
+        assertEquals((int) (meters / Constants.STATS_PROFILE_INTERVAL_METERS) + 1, stats.getElevationProfile().size());
+
+        long splitsTotal = 0;
+        for (long split : stats.getSplitTimesMillis()) {
+            assertTrue(split > 0);
+            splitsTotal += split;
+        }
+        assertTrue(splitsTotal <= stats.getMovingTimeMillis());
+    }
+
+    private static HikeStats fullPass(List<TrackPoint> track) {
+        TrackStatistics statistics = new TrackStatistics(HIKE_ID);
+        statistics.addAll(track);
+        return statistics.getStats();
+    }
+
+    /**
+     * Copy statistics the way a hike_stats row keeps them: the profile to the nearest
+     * decimetre and the last point through the track codec
+     */
+    private static HikeStats reload(HikeStats saved) throws IOException {
+        HikeStats stats = new HikeStats(saved.getHikeId());
+        stats.setPointCount(saved.getPointCount());
+        stats.setDistanceMeters(saved.getDistanceMeters());
+        stats.setAscentMeters(saved.getAscentMeters());
+        stats.setDescentMeters(saved.getDescentMeters());
+        stats.setMovingTimeMillis(saved.getMovingTimeMillis());
+        stats.setStartTime(saved.getStartTime());
+        stats.setEndTime(saved.getEndTime());
+        stats.setMinElevation(saved.getMinElevation());
+        stats.setMaxElevation(saved.getMaxElevation());
+        stats.setReferenceElevation(saved.getReferenceElevation());
+        stats.setSplitTimesMillis(new ArrayList<>(saved.getSplitTimesMillis()));
+
+        List<Double> profile = new ArrayList<>();
+        for (Double elevation : saved.getElevationProfile()) {
+            profile.add(elevation != null ? Math.round(elevation * 10) / 10.0 : null);
+        }
+        stats.setElevationProfile(profile);
+        stats.setLastPoint(TrackPointCodec.decodeLast(
+                TrackPointCodec.encode(Collections.singletonList(saved.getLastPoint()))));
+        return stats;
+    }
+
+    private static void assertSameStats(HikeStats expected, HikeStats actual, double profileDelta) {
+        assertEquals(expected.getPointCount(), actual.getPointCount());
+        assertEquals(expected.getDistanceMeters(), actual.getDistanceMeters(), 1e-6);
+        assertEquals(expected.getAscentMeters(), actual.getAscentMeters(), 1e-9);
+        assertEquals(expected.getDescentMeters(), actual.getDescentMeters(), 1e-9);
+        assertEquals(expected.getMovingTimeMillis(), actual.getMovingTimeMillis());
+        assertEquals(expected.getStartTime(), actual.getStartTime());
+        assertEquals(expected.getEndTime(), actual.getEndTime());
+        assertEquals(expected.getMinElevation(), actual.getMinElevation());
+        assertEquals(expected.getMaxElevation(), actual.getMaxElevation());
+        assertEquals(expected.getSplitTimesMillis(), actual.getSplitTimesMillis());
+        assertEquals(expected.getLastPoint(), actual.getLastPoint());
+
+        List<Double> expectedProfile = expected.getElevationProfile();
+        List<Double> actualProfile = actual.getElevationProfile();
+        assertEquals(expectedProfile.size(), actualProfile.size());
+        for (int i = 0; i < expectedProfile.size(); i++) {
+            if (expectedProfile.get(i) == null) {
+                assertNull(actualProfile.get(i));
+            } else {
+                assertEquals("Profile sample " + i, expectedProfile.get(i), actualProfile.get(i), profileDelta);
+            }
+        }
+    }
+
+    /**
+     * A hilly track in three segments with pauses and some points missing elevation or time
+     * Points go through the track codec first, as stored tracks do.
+     */
+    private static List<TrackPoint> track(int count, long seed) throws IOException {
+        Random random = new Random(seed);
+        List<TrackPoint> points = new ArrayList<>(count);
+        double latitude = 53.0;
+        double longitude = -4.1;
+        long time = 1_715_500_000_000L;
+        for (int i = 0; i < count; i++) {
+            boolean paused = random.nextInt(20) == 0;
+            if (!paused) {
+                latitude += 0.00004 + random.nextDouble() * 0.00002;
+                longitude += (random.nextDouble() - 0.5) * 0.00006;
+            }
+            time += 2_000 + random.nextInt(4_000);
+            Double elevation = random.nextInt(50) == 0
+                    ? null : 400 + 300 * Math.sin(i / 400.0) + random.nextGaussian() * 2;
+            points.add(new TrackPoint(i * 3 / count, latitude, longitude, elevation,
+                    random.nextInt(80) == 0 ? null : time));
+        }
+
+        List<TrackPoint> stored = new ArrayList<>(count);
+        TrackPointCodec.decode(TrackPointCodec.encode(points), stored::add);
+        return stored;
+    }
+}